@@ -0,0 +1,80 @@
+package com.intel.config_io
+
+import com.intel.properties.PropertyArray
+import com.intel.properties.PropertyDocument
+import com.intel.properties.PropertyMap
+import spock.lang.Specification
+
+import java.lang.management.ManagementFactory
+
+/**
+ * Throughput and allocation micro-benchmark of the json-simple and streaming JSON providers. The document is shaped
+ * like a foreign telemetry message (config_io.benchmark.sensors sensors, default 1000). Allocation is measured per
+ * thread with com.sun.management.ThreadMXBean.
+ */
+class ConfigIOProviderBenchmarkITSpec extends Specification {
+    static final int SENSORS = Integer.getInteger("config_io.benchmark.sensors", 1000)
+    static final int ITERATIONS = Integer.getInteger("config_io.benchmark.iterations", 200)
+
+    static String makeDocument() {
+        PropertyArray sensors = new PropertyArray()
+        for(int i = 0; i < SENSORS; i++) {
+            PropertyMap sensor = new PropertyMap()
+            sensor.put("Timestamp", "2020-06-03T22:35:45.123Z")
+            sensor.put("Location", "x3000c0s" + (i % 32) + "b0n0")
+            sensor.put("PhysicalContext", "VoltageRegulator")
+            sensor.put("DeviceSpecificContext", "VDD " + i + " / \"core\"")
+            sensor.put("Index", new BigDecimal(i))
+            sensor.put("Value", new BigDecimal("12.267000198364258"))
+            sensors.add(sensor)
+        }
+        PropertyMap oem = new PropertyMap()
+        oem.put("Sensors", sensors)
+        oem.put("TelemetrySource", "River")
+        PropertyMap event = new PropertyMap()
+        event.put("MessageId", "CrayTelemetry.Voltage")
+        event.put("Oem", oem)
+        PropertyMap metrics = new PropertyMap()
+        metrics.put("messages", new PropertyArray([new PropertyMap([Events: [event]])]))
+        return new JsonCliftonLabsProvider().toString(new PropertyMap([metrics: metrics]))
+    }
+
+    def measure(String name, ConfigIO provider, String json) {
+        def threads = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+        long threadId = Thread.currentThread().getId()
+        PropertyDocument doc = null
+        for(int i = 0; i < ITERATIONS; i++) // Warm up
+            doc = provider.fromString(provider.toString(provider.fromString(json)))
+        long startBytes = threads.getThreadAllocatedBytes(threadId)
+        long start = System.nanoTime()
+        for(int i = 0; i < ITERATIONS; i++)
+            doc = provider.fromString(json)
+        long parseNs = System.nanoTime() - start
+        long parseBytes = threads.getThreadAllocatedBytes(threadId) - startBytes
+        startBytes = threads.getThreadAllocatedBytes(threadId)
+        start = System.nanoTime()
+        for(int i = 0; i < ITERATIONS; i++)
+            provider.toString(doc)
+        long writeNs = System.nanoTime() - start
+        long writeBytes = threads.getThreadAllocatedBytes(threadId) - startBytes
+        double mbPerSecondParse = json.length() * ITERATIONS * 1000.0 / parseNs
+        double mbPerSecondWrite = json.length() * ITERATIONS * 1000.0 / writeNs
+        println(String.format("%s: parse %.1f MB/s %d bytes/op, write %.1f MB/s %d bytes/op", name,
+                mbPerSecondParse, parseBytes.intdiv(ITERATIONS), mbPerSecondWrite, writeBytes.intdiv(ITERATIONS)))
+        return [doc: doc, parse: mbPerSecondParse, parseBytes: parseBytes, writeBytes: writeBytes]
+    }
+
+    def "The streaming provider parses and writes with less allocation"() {
+        given:
+        String json = makeDocument()
+
+        when:
+        def reference = measure("json-simple", new JsonCliftonLabsProvider(), json)
+        def streaming = measure("streaming", new JsonStreamingProvider(), json)
+
+        then:
+        streaming.doc == reference.doc
+        streaming.parseBytes < reference.parseBytes
+        streaming.writeBytes < reference.writeBytes
+    }
+}
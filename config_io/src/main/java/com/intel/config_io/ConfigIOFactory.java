@@ -16,7 +16,8 @@ public final class ConfigIOFactory {
     /**
      * Factory method for creating a ConfigIO parser.
      *
-     * @param implementation Usually null but a future feature may be to support multiple configuration parsers.
+     * @param implementation Usually null (or "json") for the default JSON parser, "json-streaming" for the JSON parser
+     *                       that builds and writes documents without an intermediate JSON tree.
      * @return The parser instance or null if an appropriate parser is not found.
      */
     public static ConfigIO getInstance(String implementation) {
@@ -25,9 +26,15 @@ public final class ConfigIOFactory {
                 instances_.put(JSON, new JsonCliftonLabsProvider());
             return instances_.get(JSON);
         }
+        if(implementation.equals(JSON_STREAMING)) {
+            if (!instances_.containsKey(JSON_STREAMING))
+                instances_.put(JSON_STREAMING, new JsonStreamingProvider());
+            return instances_.get(JSON_STREAMING);
+        }
         return null;
     }
 
     private static final Map<String,ConfigIO> instances_= new HashMap<>();
     private static final String JSON = "json";
+    private static final String JSON_STREAMING = "json-streaming";
 }
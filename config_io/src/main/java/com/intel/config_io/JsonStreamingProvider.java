@@ -0,0 +1,369 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.config_io;
+
+import com.intel.properties.PropertyArray;
+import com.intel.properties.PropertyDocument;
+import com.intel.properties.PropertyMap;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * JSON provider that builds the PropertyMap/PropertyArray document directly while tokenizing the input and writes a
+ * document directly to the output, without the intermediate json-simple JsonObject/JsonArray tree. Readers and
+ * streams are consumed as they are read rather than first being collected into a String.
+ *
+ * The documents are the same as the ones of JsonCliftonLabsProvider: all numbers are read as BigDecimal and a
+ * trailing comma in an object or array is accepted. The top level value must be an object or an array.
+ */
+class JsonStreamingProvider extends ConfigIOBase {
+    JsonStreamingProvider() {}
+
+    @Override
+    public PropertyDocument readConfig(Reader reader) throws IOException, ConfigIOParseException {
+        try (Reader input = reader) {
+            return new Parser(input).parseDocument();
+        }
+    }
+
+    @Override
+    public PropertyDocument fromString(String json) throws ConfigIOParseException {
+        try {
+            return new Parser(new StringReader(json)).parseDocument();
+        } catch(IOException e) {
+            throw new ConfigIOParseException(e); // Not possible with a StringReader.
+        }
+    }
+
+    @Override
+    public void writeConfig(PropertyDocument document, OutputStream stream) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+            writeConfig(document, writer);
+        }
+    }
+
+    @Override
+    public void writeConfig(PropertyDocument document, Writer writer) throws IOException {
+        new Emitter(writer, indent_).writeValue(document, 0);
+    }
+
+    @Override
+    public String toString(PropertyDocument document) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            new Emitter(builder, indent_).writeValue(document, 0);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e); // Not possible with a StringBuilder.
+        }
+        return builder.toString();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Parser, a recursive descent over a buffered Reader. position_ counts the characters consumed so far and is the
+    // position reported in parse errors.
+    //------------------------------------------------------------------------------------------------------------------
+    private static final class Parser {
+        Parser(Reader reader) {
+            reader_ = reader;
+        }
+
+        PropertyDocument parseDocument() throws IOException, ConfigIOParseException {
+            int chr = nextNonWhitespace();
+            PropertyDocument document;
+            if(chr == '{')
+                document = parseObject();
+            else if(chr == '[')
+                document = parseArray();
+            else
+                throw error();
+            if(nextNonWhitespace() != EOF)
+                throw error();
+            return document;
+        }
+
+        private PropertyMap parseObject() throws IOException, ConfigIOParseException {
+            PropertyMap map = new PropertyMap();
+            int chr = nextNonWhitespace();
+            while(chr != '}') {
+                if(chr != '"')
+                    throw error();
+                String key = parseString();
+                if(nextNonWhitespace() != ':')
+                    throw error();
+                map.put(key, parseValue(nextNonWhitespace()));
+                chr = nextNonWhitespace();
+                if(chr == ',')
+                    chr = nextNonWhitespace();
+                else if(chr != '}')
+                    throw error();
+            }
+            return map;
+        }
+
+        private PropertyArray parseArray() throws IOException, ConfigIOParseException {
+            PropertyArray array = new PropertyArray();
+            int chr = nextNonWhitespace();
+            while(chr != ']') {
+                array.add(parseValue(chr));
+                chr = nextNonWhitespace();
+                if(chr == ',')
+                    chr = nextNonWhitespace();
+                else if(chr != ']')
+                    throw error();
+            }
+            return array;
+        }
+
+        // chr is the first character of the value (already consumed).
+        private Object parseValue(int chr) throws IOException, ConfigIOParseException {
+            switch(chr) {
+                case '{': return parseObject();
+                case '[': return parseArray();
+                case '"': return parseString();
+                case 't': expectLiteral("rue"); return Boolean.TRUE;
+                case 'f': expectLiteral("alse"); return Boolean.FALSE;
+                case 'n': expectLiteral("ull"); return null;
+                default:
+                    if(chr == '-' || (chr >= '0' && chr <= '9'))
+                        return parseNumber(chr);
+                    throw error();
+            }
+        }
+
+        private BigDecimal parseNumber(int first) throws IOException, ConfigIOParseException {
+            int length = 0;
+            numberBuffer_[length++] = (char)first;
+            int chr = peek();
+            while(chr == '-' || chr == '+' || chr == '.' || chr == 'e' || chr == 'E' || (chr >= '0' && chr <= '9')) {
+                if(length == numberBuffer_.length) {
+                    char[] bigger = new char[length * 2];
+                    System.arraycopy(numberBuffer_, 0, bigger, 0, length);
+                    numberBuffer_ = bigger;
+                }
+                numberBuffer_[length++] = (char)next();
+                chr = peek();
+            }
+            try {
+                return new BigDecimal(numberBuffer_, 0, length);
+            } catch(NumberFormatException e) {
+                throw error();
+            }
+        }
+
+        // The opening quote was already consumed.
+        private String parseString() throws IOException, ConfigIOParseException {
+            // Fast path: the entire string is in the buffer and has no escape sequences.
+            for(int index = offset_; index < limit_; index++) {
+                char chr = buffer_[index];
+                if(chr == '"') {
+                    String result = new String(buffer_, offset_, index - offset_);
+                    position_ += index + 1 - offset_;
+                    offset_ = index + 1;
+                    return result;
+                }
+                if(chr == '\\')
+                    break;
+            }
+            builder_.setLength(0);
+            while(true) {
+                int chr = next();
+                if(chr == '"')
+                    return builder_.toString();
+                if(chr == EOF)
+                    throw error();
+                if(chr == '\\')
+                    chr = parseEscape();
+                builder_.append((char)chr);
+            }
+        }
+
+        private int parseEscape() throws IOException, ConfigIOParseException {
+            int chr = next();
+            switch(chr) {
+                case '"':
+                case '\\':
+                case '/': return chr;
+                case 'b': return '\b';
+                case 'f': return '\f';
+                case 'n': return '\n';
+                case 'r': return '\r';
+                case 't': return '\t';
+                case 'u':
+                    int value = 0;
+                    for(int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next(), 16);
+                        if(digit < 0)
+                            throw error();
+                        value = (value << 4) | digit;
+                    }
+                    return value;
+                default: throw error();
+            }
+        }
+
+        private void expectLiteral(String rest) throws IOException, ConfigIOParseException {
+            for(int i = 0; i < rest.length(); i++)
+                if(next() != rest.charAt(i))
+                    throw error();
+        }
+
+        private int nextNonWhitespace() throws IOException {
+            int chr = next();
+            while(chr == ' ' || chr == '\n' || chr == '\r' || chr == '\t')
+                chr = next();
+            return chr;
+        }
+
+        private int next() throws IOException {
+            if(offset_ == limit_ && !fill())
+                return EOF;
+            position_++;
+            return buffer_[offset_++];
+        }
+
+        private int peek() throws IOException {
+            if(offset_ == limit_ && !fill())
+                return EOF;
+            return buffer_[offset_];
+        }
+
+        private boolean fill() throws IOException {
+            int count = reader_.read(buffer_, 0, buffer_.length);
+            offset_ = 0;
+            limit_ = Math.max(count, 0);
+            return count > 0;
+        }
+
+        private ConfigIOParseException error() {
+            return new ConfigIOParseException(position_);
+        }
+
+        private static final int EOF = -1;
+        private final Reader reader_;
+        private final char[] buffer_ = new char[8192];
+        private final StringBuilder builder_ = new StringBuilder();
+        private char[] numberBuffer_ = new char[32];
+        private int offset_ = 0;
+        private int limit_ = 0;
+        private int position_ = 0;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Emitter, writes values the way Jsoner.serialize does (including its string escapes). With an indent each member
+    // or element goes on its own line.
+    //------------------------------------------------------------------------------------------------------------------
+    private static final class Emitter {
+        Emitter(Appendable out, int indent) {
+            out_ = out;
+            indent_ = indent;
+        }
+
+        void writeValue(Object value, int level) throws IOException {
+            if(value == null)
+                out_.append("null");
+            else if(value instanceof String)
+                writeString((String)value);
+            else if(value instanceof Map)
+                writeObject((Map<?,?>)value, level);
+            else if(value instanceof Collection)
+                writeArray((Collection<?>)value, level);
+            else if(value instanceof Boolean)
+                out_.append(value.toString());
+            else if(value instanceof Double || value instanceof Float) {
+                double number = ((Number)value).doubleValue();
+                out_.append((Double.isNaN(number) || Double.isInfinite(number)) ? "null" : value.toString());
+            } else if(value instanceof Number)
+                out_.append(value.toString());
+            else if(value instanceof Character)
+                writeString(value.toString());
+            else
+                throw new IllegalArgumentException("Cannot write a value of type " + value.getClass().getName() +
+                        " as JSON!");
+        }
+
+        private void writeObject(Map<?,?> map, int level) throws IOException {
+            out_.append('{');
+            boolean first = true;
+            for(Map.Entry<?,?> entry: map.entrySet()) {
+                if(!first)
+                    out_.append(',');
+                first = false;
+                newLine(level + 1);
+                writeString(String.valueOf(entry.getKey()));
+                out_.append(':');
+                writeValue(entry.getValue(), level + 1);
+            }
+            if(!first)
+                newLine(level);
+            out_.append('}');
+        }
+
+        private void writeArray(Collection<?> array, int level) throws IOException {
+            out_.append('[');
+            boolean first = true;
+            for(Object item: array) {
+                if(!first)
+                    out_.append(',');
+                first = false;
+                newLine(level + 1);
+                writeValue(item, level + 1);
+            }
+            if(!first)
+                newLine(level);
+            out_.append(']');
+        }
+
+        private void newLine(int level) throws IOException {
+            if(indent_ == 0)
+                return;
+            out_.append('\n');
+            for(int i = 0; i < level * indent_; i++)
+                out_.append(' ');
+        }
+
+        private void writeString(String value) throws IOException {
+            out_.append('"');
+            int start = 0;
+            for(int index = 0; index < value.length(); index++) {
+                char chr = value.charAt(index);
+                String escape = escapeFor(chr);
+                if(escape != null) {
+                    out_.append(value, start, index).append(escape);
+                    start = index + 1;
+                } else if(chr <= '\u001F' || (chr >= '\u007F' && chr <= '\u009F') ||
+                        (chr >= '\u2000' && chr <= '\u20FF')) {
+                    out_.append(value, start, index).append("\\u");
+                    String hex = Integer.toHexString(chr).toUpperCase();
+                    for(int i = hex.length(); i < 4; i++)
+                        out_.append('0');
+                    out_.append(hex);
+                    start = index + 1;
+                }
+            }
+            out_.append(value, start, value.length()).append('"');
+        }
+
+        private static String escapeFor(char chr) {
+            switch(chr) {
+                case '"': return "\\\"";
+                case '\\': return "\\\\";
+                case '/': return "\\/";
+                case '\b': return "\\b";
+                case '\f': return "\\f";
+                case '\n': return "\\n";
+                case '\r': return "\\r";
+                case '\t': return "\\t";
+                default: return null;
+            }
+        }
+
+        private final Appendable out_;
+        private final int indent_;
+    }
+}
@@ -18,5 +18,8 @@ public class ConfigIOFactoryTest {
         assertNotNull(parser);
         parser = ConfigIOFactory.getInstance("json");
         assertNotNull(parser);
+        parser = ConfigIOFactory.getInstance("json-streaming");
+        assertTrue(parser instanceof JsonStreamingProvider);
+        assertSame(parser, ConfigIOFactory.getInstance("json-streaming"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.config_io;
+
+import com.intel.properties.PropertyArray;
+import com.intel.properties.PropertyDocument;
+import com.intel.properties.PropertyMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class JsonStreamingProviderTest {
+    @Before
+    public void setUp() {
+        json_ = "{" +
+                "  \"map\":{\"a\":[9,8,7,6]}," +
+                "  \"list\":[{\"a\":true},[0, 1, 2, 3],null]," +
+                "  \"int\":42," +
+                "  \"decimal\":-42.9e-1," +
+                "  \"bigNumber\":4200000000000000000000000000000000000000000000000000000000000000000000424242.0," +
+                "  \"str\":\"string \\\"quoted\\\" \\/ \\u00e9\\u2001\\t\"," +
+                "  \"null\":null," +
+                "  \"boolean1\":true," +
+                "  \"boolean2\":false," +
+                "}";
+        parser_ = new JsonStreamingProvider();
+        reference_ = new JsonCliftonLabsProvider();
+    }
+
+    @Test
+    public void parsing() throws ConfigIOParseException {
+        PropertyDocument doc = parser_.fromString(json_);
+        assertEquals(reference_.fromString(json_), doc);
+        PropertyMap map = doc.getAsMap();
+        assertEquals(new BigDecimal("-4.29"), map.get("decimal"));
+        assertEquals("string \"quoted\" / \u00e9\u2001\t", map.get("str"));
+        assertTrue(map.containsKey("null"));
+        assertNull(map.get("null"));
+        assertTrue(map.get("list") instanceof PropertyArray);
+        assertTrue(((PropertyArray)map.get("list")).get(0) instanceof PropertyMap);
+    }
+
+    @Test
+    public void writing() throws ConfigIOParseException {
+        PropertyDocument doc = parser_.fromString(json_);
+        String result = parser_.toString(doc);
+        assertEquals(doc, parser_.fromString(result));
+        assertEquals(doc, reference_.fromString(result));
+        parser_.setIndent(2);
+        result = parser_.toString(doc);
+        assertTrue(result.contains("\n  \"int\":42"));
+        assertEquals(doc, reference_.fromString(result));
+        assertEquals("[]", parser_.toString(new PropertyArray()));
+    }
+
+    @Test
+    public void writingMatchesReference() throws ConfigIOParseException {
+        PropertyArray array = new PropertyArray();
+        array.add("a/b\u0001\u0085\u20ac");
+        array.add(1.5);
+        array.add(Double.NaN);
+        array.add(42L);
+        array.add(null);
+        array.add(new PropertyMap());
+        assertEquals(reference_.toString(array), parser_.toString(array));
+    }
+
+    @Test
+    public void streams() throws Exception {
+        PropertyDocument doc = parser_.readConfig(new ByteArrayInputStream(json_.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(parser_.fromString(json_), doc);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parser_.writeConfig(doc, out);
+        assertEquals(parser_.toString(doc), out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void largeDocument() throws Exception {
+        // Larger than the read buffer so strings and numbers cross buffer boundaries.
+        PropertyArray array = new PropertyArray();
+        for(int i = 0; i < 5000; i++)
+            array.add("value \\ " + i);
+        String json = parser_.toString(array);
+        assertEquals(array, parser_.readConfig(new StringReader(json)));
+        assertEquals(array, reference_.fromString(json));
+    }
+
+    @Test
+    public void listDocument() throws ConfigIOParseException {
+        PropertyDocument doc = parser_.fromString(" [ ] ");
+        assertTrue(doc.isArray());
+        assertEquals("[]", parser_.toString(doc));
+    }
+
+    @Test
+    public void negative() {
+        String[] documents = { "", "[", "\"str\"", "{} []", "[tru]", "[1,,2]", "{\"a\" 1}", "{1:2}", "[\"abc]",
+                "[1.2.3]", "[\"\\x\"]" };
+        for(String json: documents) {
+            try {
+                parser_.fromString(json);
+                fail(json);
+            } catch(ConfigIOParseException e) {
+                assertTrue(e.getMessage().startsWith("While parsing JSON"));
+            }
+        }
+    }
+
+    String json_;
+    JsonStreamingProvider parser_;
+    JsonCliftonLabsProvider reference_;
+}
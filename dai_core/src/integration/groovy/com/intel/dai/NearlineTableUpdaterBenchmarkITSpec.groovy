@@ -0,0 +1,111 @@
+package com.intel.dai
+
+import com.intel.logging.Logger
+import com.intel.perflogging.BenchmarkHelper
+import org.voltdb.VoltTable
+import org.voltdb.VoltType
+import org.voltdb.types.TimestampType
+import spock.lang.Specification
+
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.Proxy
+import java.sql.CallableStatement
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.LockSupport
+
+/**
+ * Rows per second micro-benchmark of NearlineTableUpdater against a Postgres stand-in. The stand-in connection
+ * charges one simulated network round trip (nearline.benchmark.roundTripUs, default 200) per execute(),
+ * executeBatch() and commit(), which is what dominates writing DataMover parts into a real Postgres server.
+ */
+class NearlineTableUpdaterBenchmarkITSpec extends Specification {
+    static final long ROUND_TRIP_NS = TimeUnit.MICROSECONDS.toNanos(Long.getLong("nearline.benchmark.roundTripUs", 200L))
+    static final int ROWS = 1000
+    static final int ITERATIONS = 5
+
+    long roundTrips
+
+    class StandInNearlineTableUpdater extends NearlineTableUpdater {
+        StandInNearlineTableUpdater(Logger log) { super(log) }
+
+        @Override
+        Connection get_connection() {
+            return standIn(Connection, { proxy, method, args ->
+                switch(method.name) {
+                    case "prepareStatement": return standIn(PreparedStatement, statementHandler())
+                    case "prepareCall": return standIn(CallableStatement, statementHandler())
+                    case "commit": roundTrip(); return null
+                    default: return null
+                }
+            })
+        }
+    }
+
+    def statementHandler() {
+        int batched = 0
+        return { proxy, method, args ->
+            switch(method.name) {
+                case "execute": roundTrip(); return false
+                case "addBatch": batched++; return null
+                case "executeBatch": roundTrip(); int[] counts = new int[batched]; batched = 0; return counts
+                default: return null
+            }
+        }
+    }
+
+    def standIn(Class type, Closure handler) {
+        return Proxy.newProxyInstance(getClass().classLoader, [type] as Class[], handler as InvocationHandler)
+    }
+
+    def roundTrip() {
+        roundTrips++
+        long end = System.nanoTime() + ROUND_TRIP_NS
+        while(System.nanoTime() < end)
+            LockSupport.parkNanos(end - System.nanoTime())
+    }
+
+    def makeTable(int rows) {
+        VoltTable table = new VoltTable(
+                new VoltTable.ColumnInfo("Id", VoltType.BIGINT),
+                new VoltTable.ColumnInfo("AdapterType", VoltType.STRING),
+                new VoltTable.ColumnInfo("SconRank", VoltType.BIGINT),
+                new VoltTable.ColumnInfo("State", VoltType.STRING),
+                new VoltTable.ColumnInfo("DbUpdatedTimestamp", VoltType.TIMESTAMP),
+                new VoltTable.ColumnInfo("LastChgAdapterType", VoltType.STRING),
+                new VoltTable.ColumnInfo("LastChgWorkItemId", VoltType.BIGINT),
+                new VoltTable.ColumnInfo("Lctn", VoltType.STRING),
+                new VoltTable.ColumnInfo("Pid", VoltType.BIGINT))
+        TimestampType ts = new TimestampType(new Date())
+        for(int i = 0; i < rows; i++)
+            table.addRow(i as long, "RAS", 0L, "A", ts, "RAS", 1L, "R0-CH0-N" + i, 1000L)
+        return table
+    }
+
+    def measure(String tableName) {
+        NearlineTableUpdater updater = new StandInNearlineTableUpdater(Mock(Logger))
+        updater.setBenchmarker(Mock(BenchmarkHelper))
+        updater.Update(tableName, makeTable(ROWS)) // Warm up
+        roundTrips = 0L
+        long start = System.nanoTime()
+        for(int i = 0; i < ITERATIONS; i++)
+            updater.Update(tableName, makeTable(ROWS))
+        double rowsPerSecond = ROWS * ITERATIONS * 1_000_000_000.0 / (System.nanoTime() - start)
+        println(String.format("%s: %d rows in %d round trips, %.0f rows/s", tableName, ROWS * ITERATIONS,
+                roundTrips, rowsPerSecond))
+        return rowsPerSecond
+    }
+
+    def "Batched history inserts take one round trip per batch and commit"() {
+        when:
+        double batchedRowsPerSecond = measure("Adapter")
+        long batchedRoundTrips = roundTrips
+        double perRowRowsPerSecond = measure("RasEvent")
+
+        then:
+        batchedRoundTrips == ITERATIONS * 2L
+        roundTrips == ITERATIONS * (ROWS + 1L)
+        batchedRowsPerSecond > perRowRowsPerSecond
+    }
+}
@@ -28,6 +28,9 @@ public abstract class AdapterNearlineTier {
     WorkQueue workQueue;
     SyncAdapterShutdownHandler shutdownHandler;
     String rabbitMQ = "localhost";
+    int dataReceiverWorkers = 1;        // more than 1 worker selects the pipelined DataReceiver.
+    int dataReceiverPrefetch = 100;     // unacknowledged DataMover messages RabbitMQ may deliver (pipelined only).
+    int dataReceiverAckBatch = 50;      // DataMover messages acknowledged at once (pipelined only).
     protected static final long MAX_SHUTDOWN_TIME_SEC = 10L;
     protected static final String CONSUMER_TAG = "DataReceiver";
     protected static final long SHUTDOWN_CHECK_INTERVAL_MS = 1000L;
@@ -104,11 +107,27 @@ public abstract class AdapterNearlineTier {
         }
     }   // End mainProcessingFlow(String[] args)
 
-    private void processClientParams(String[] clientParameters) {
+    void processClientParams(String[] clientParameters) {
         for(String nameValue: clientParameters) {
             if(nameValue.startsWith("RabbitMQHost="))
                 rabbitMQ = nameValue.substring(nameValue.indexOf("=")+1).trim();
+            else if(nameValue.startsWith("DataReceiverWorkers="))
+                dataReceiverWorkers = positiveParam(nameValue, dataReceiverWorkers);
+            else if(nameValue.startsWith("DataReceiverPrefetch="))
+                dataReceiverPrefetch = positiveParam(nameValue, dataReceiverPrefetch);
+            else if(nameValue.startsWith("DataReceiverAckBatch="))
+                dataReceiverAckBatch = positiveParam(nameValue, dataReceiverAckBatch);
         }
     }
 
+    private int positiveParam(String nameValue, int defaultValue) {
+        try {
+            int value = Integer.parseInt(nameValue.substring(nameValue.indexOf("=")+1).trim());
+            if(value > 0)
+                return value;
+        } catch(NumberFormatException e) { /* Fall through to the warning */ }
+        log_.warn("Ignoring the invalid DataReceiver parameter '%s', using %d", nameValue, defaultValue);
+        return defaultValue;
+    }
+
 }   // End class AdapterNearlineTier
\ No newline at end of file
@@ -78,6 +78,13 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
         return new NearlineTableUpdater(logger);
     }
 
+    // Each pipelined DataReceiver worker writes over its own nearline tier connection.
+    NearlineTableUpdater createWorkerTableUpdater() throws DataStoreException {
+        NearlineTableUpdater updater = createNearlineTableUpdater(log_);
+        updater.setBenchmarker(benchmarking_);
+        return updater;
+    }
+
     DataReceiverAmqp createDataReceiver(String host) throws IOException, TimeoutException {
         return new DataReceiverAmqp(host, adapter, log_, workQueue.workItemId());
     }
@@ -169,8 +176,20 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
 
         // Setup AMQP for receiving data being moved from Tier1 to Tier2.
         DataReceiverAmqp oDataReceiver = createDataReceiver(rabbitMQ);
-        mAmqpDataReceiverMsgConsumer = new AmqpDataReceiverMsgConsumer(oDataReceiver, mPrevAmqpMessageId, adapter, log_,
-                mTableUpdater, this);
+        PipelinedDataReceiverMsgConsumer oPipelinedConsumer = null;
+        if (dataReceiverWorkers > 1) {
+            // Pipelined DataReceiver, per-table workers each with their own nearline tier connection.
+            oDataReceiver.getChannel().basicQos(dataReceiverPrefetch, false);
+            oPipelinedConsumer = new PipelinedDataReceiverMsgConsumer(oDataReceiver, mPrevAmqpMessageId, adapter,
+                    log_, this::createWorkerTableUpdater, this, dataReceiverWorkers,
+                    Math.min(dataReceiverAckBatch, Math.max(1, dataReceiverPrefetch / 2)));
+            oPipelinedConsumer.start();
+            mAmqpDataReceiverMsgConsumer = oPipelinedConsumer;
+            log_.info("Using a pipelined DataReceiver with %d workers", dataReceiverWorkers);
+        } else {
+            mAmqpDataReceiverMsgConsumer = new AmqpDataReceiverMsgConsumer(oDataReceiver, mPrevAmqpMessageId,
+                    adapter, log_, mTableUpdater, this);
+        }
 
         // Start to consume messages containing data that is being moving from Tier1 to Tier2
         // (DataMover -> DataReceiver). It will push us messages asynchronously, using the
@@ -193,6 +212,8 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
         log_.info("Canceling message consumer...");
         // Stop receiving messages
         oDataReceiver.getChannel().basicCancel(CONSUMER_TAG);
+        if (oPipelinedConsumer != null)
+            oPipelinedConsumer.close();
 
         // Shutdown the DataReceiver AMQP infrastructure.
         oDataReceiver.close();
@@ -241,39 +262,36 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
 
             String sAmqpMsg="NotFilledIn"; long lIntervalId=-99999; String sTableName="NotFilledIn";
             try {
-                // Grab data out of this message we just received.
-                sAmqpMsg = new String(body, "UTF-8");
-                PropertyMap jsonMsgObject= adapter.jsonParser().fromString(sAmqpMsg).getAsMap();
-
-                // Grab header information
-                boolean eom = jsonMsgObject.getBoolean("EOM");
-                if (eom) {
+                // Grab data out of this message we just received (binary messages are decoded without json).
+                sAmqpMsg = DataMoverMessage.isBinary(properties) ? "Binary message of " + body.length + " bytes"
+                        : new String(body, "UTF-8");
+                DataMoverMessage oMsg = DataMoverMessage.parse(properties, body, adapter.jsonParser());
+                if (oMsg == null) {
                     nearlineAdapter.signalEom();
                     log_.info("Received EOM from data mover");
                     return;
-                } else {
-                    nearlineAdapter.stillProcessingMessages();
                 }
+                nearlineAdapter.stillProcessingMessages();
 
-                lAmqpMessageId = jsonMsgObject.getLong("AmqpMessageId");
-                lIntervalId = jsonMsgObject.getLong("IntervalId");
-                long lEndIntvlTimeMs = jsonMsgObject.getLong("EndIntvlTsInMsSinceEpoch");
+                lAmqpMessageId = oMsg.getAmqpMessageId();
+                lIntervalId = oMsg.getIntervalId();
+                long lEndIntvlTimeMs = oMsg.getEndIntvlTimeMs();
                 String sEndIntvlTimeMs = sdfSqlDateFormat.format(new Date(lEndIntvlTimeMs));
-                long lStartIntvlTimeMs = jsonMsgObject.getLong("StartIntvlTsInMsSinceEpoch");
+                long lStartIntvlTimeMs = oMsg.getStartIntvlTimeMs();
                 String sStartIntvlTimeMs = sdfSqlDateFormat.format(new Date(lStartIntvlTimeMs));
-                sTableName = jsonMsgObject.getString("TableName");
+                sTableName = oMsg.getTableName();
 
                 // this message is part x of the total number of parts that make up this interval's
                 // data for sTableName.
-                long lThisMsgsPartNum = jsonMsgObject.getLong("Part");
+                long lThisMsgsPartNum = oMsg.getPart();
                 // the total number of parts that make up this interval's data for sTableName.
-                long lTotalNumParts = jsonMsgObject.getLong("Of");
+                long lTotalNumParts = oMsg.getOf();
 
                 log_.info("DataReceiver received AmqpMessageId=%d - TableName=%s, "
                               + "Part %d Of %d, IntervalId=%d, EndInterval=%s, StartInterval=%s, "
                               + "AmqpMsgLength=%d", lAmqpMessageId, sTableName,
                               lThisMsgsPartNum, lTotalNumParts, lIntervalId, sEndIntvlTimeMs,
-                              sStartIntvlTimeMs, sAmqpMsg.length());
+                              sStartIntvlTimeMs, body.length);
 
                 if (sTableName == null) {
                     throw new RuntimeException("DataReceiver received an invalid message with empty table name");
@@ -302,19 +320,20 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
 
                 String sAmqpRoutingKey = sTableName;  // use the table name as the routing key.
 
-                mDataReceiver.getChannel().basicPublish(Adapter.DataMoverExchangeName, sAmqpRoutingKey, null, adapter.jsonParser().toString(jsonMsgObject).getBytes());
+                // Forward the original message bytes (and content type), there is no need to serialize it again.
+                AMQP.BasicProperties oPublishProperties = DataMoverMessage.isBinary(properties) ? DataMoverMessage.properties() : null;
+                mDataReceiver.getChannel().basicPublish(Adapter.DataMoverExchangeName, sAmqpRoutingKey, oPublishProperties, body);
                 log_.info("Published AmqpMessageId=%d - IntervalId=%d, EndIntervalTs=%s, StartIntervalTs=%s, RoutingKey=%s, TableName=%s, Part %d Of %d",
                           lAmqpMessageId, lIntervalId, sEndIntvlTimeMs, sStartIntvlTimeMs, sAmqpRoutingKey,
                           sTableName, lThisMsgsPartNum, lTotalNumParts);
 
-                // Reconstitute the original VoltTable from the specified Json string.
-                VoltTable vtFromMsg = VoltTable.fromJSONString(sAmqpMsg);
-
                 // Update the corresponding table in nearline tier
-                mTableUpdater.Update(sTableName, vtFromMsg);
+                mTableUpdater.Update(sTableName, oMsg.getTable());
 
                 log_.info("AmqpDataReceiverMsgConsumer - updated nearline table - "
                               + "AmqpMessageId=%d, TableName=%s", lAmqpMessageId, sTableName);
+                // Let the subscribers waiting for this table's rows know how far Tier2 is.
+                DataMoverHighWaterMarks.publish(mDataReceiver.getChannel(), oMsg, adapter.jsonParser());
 
                 // Save restart data indicating the timestamp of the last data that was moved from
                 // Tier1 to Tier2.
@@ -31,6 +31,9 @@ public abstract class AdapterOnlineTier {
     WorkQueue workQueue;
     SyncAdapterShutdownHandler shutdownHandler;
     String rabbitMQHost = "localhost";
+    String dataMoverFormat = DataMoverMessage.FORMAT_JSON;  // format of the DataMover messages (json, binary or binary-deflate).
+    boolean dataMoverStreamingQuery = false;  // read the DataMover tables one at a time (DataMoverGetTableRecsToMove) rather than all at once.
+    int dataMoverMaxRowsPerTable = 10000;     // max number of rows the streaming query reads from a table per interval.
 
     // Constructor
     AdapterOnlineTier(Logger logger) throws IOException, TimeoutException {
@@ -189,6 +192,37 @@ public abstract class AdapterOnlineTier {
                 rabbitMQHost = sParm.substring(sParm.indexOf("=")+1).trim();
                 log_.info("DataMover - setting rabbitMQHost to %s", rabbitMQHost);
             }
+            else if (sParm.startsWith("DataMoverFormat=")) {
+                String sFormat = sParm.substring(sParm.indexOf("=")+1).trim();
+                if (sFormat.equals(DataMoverMessage.FORMAT_JSON) || sFormat.equals(DataMoverMessage.FORMAT_BINARY) ||
+                        sFormat.equals(DataMoverMessage.FORMAT_BINARY_COMPRESSED)) {
+                    dataMoverFormat = sFormat;
+                    log_.info("DataMover - setting dataMoverFormat to %s", dataMoverFormat);
+                }
+                else
+                    log_.warn("DataMover - ignoring unknown DataMoverFormat '%s', using %s", sFormat, dataMoverFormat);
+            }
+            else if (sParm.startsWith("DataMoverQuery=")) {
+                String sQuery = sParm.substring(sParm.indexOf("=")+1).trim();
+                if (sQuery.equals("streaming") || sQuery.equals("single")) {
+                    dataMoverStreamingQuery = sQuery.equals("streaming");
+                    log_.info("DataMover - setting DataMoverQuery to %s", sQuery);
+                }
+                else
+                    log_.warn("DataMover - ignoring unknown DataMoverQuery '%s'", sQuery);
+            }
+            else if (sParm.startsWith("DataMoverMaxRowsPerTable=")) {
+                try {
+                    int iMaxRows = Integer.parseInt( sParm.substring(sParm.indexOf("=")+1).trim() );
+                    if (iMaxRows <= 0)
+                        throw new NumberFormatException("must be positive");
+                    dataMoverMaxRowsPerTable = iMaxRows;
+                    log_.info("DataMover - setting DataMoverMaxRowsPerTable to %d", dataMoverMaxRowsPerTable);
+                }
+                catch (NumberFormatException e) {
+                    log_.warn("DataMover - ignoring invalid '%s', using DataMoverMaxRowsPerTable=%d", sParm, dataMoverMaxRowsPerTable);
+                }
+            }
         }
 
     }
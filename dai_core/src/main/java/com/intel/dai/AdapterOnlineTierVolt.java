@@ -49,6 +49,9 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
     // (we are tracking this so that we do not end up with a constant stream consisting simply of DataMover/DataReceiver work items, that "recurse" because
     //  we can't update the DataMover/DataReceiver work items WorkingResults info until after that DataMover interval has finished, so then the next interval it would send the DataMover update, which results in an update, which would then be sent, on, on, on).
     private boolean mLastIntvlWasOnlyDataMoverWIs;
+    DataMoverIntervalFetcher mDataMoverFetcher = null;  // streaming DataMover query, null when using the single DataMoverGetListOfRecsToMove query.
+    static final long DataMoverMinTimeInIntervalMs = 1000L;        // shortest interval the streaming query adapts down to.
+    static final long DataMoverMaxTimeInIntervalMs = 10 * 60 * 1000L;  // longest interval the streaming query adapts up to.
 
 
     //---------------------------------------------------------
@@ -99,6 +102,10 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
 
         // Set up AMQP for directly moving data from Tier1 to Tier2 (via a queue, not pub-sub).
         DataMoverAmqp oDataMover = new DataMoverAmqp(rabbitMQHost, adapter, log_, workQueue.workItemId());
+        // Set up the streaming query (if requested), it reads the tables one at a time rather than in one large transaction.
+        if (dataMoverStreamingQuery)
+            mDataMoverFetcher = new DataMoverIntervalFetcher(adapter.client(), adapter.dataMoverResultTblIndxToTableNameMap().size(),
+                    dataMoverMaxRowsPerTable, DataMoverMinTimeInIntervalMs, DataMoverMaxTimeInIntervalMs, log_);
 
         //----------------------------------------------------------------------
         // Loop forever moving data from Tier1 to Tier2 (each iteration through this loop is referred to as an interval).
@@ -108,7 +115,11 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
             //------------------------------------------------------------------
             // Handle any data that needs to be moved from Tier1 to Tier2
             //------------------------------------------------------------------
-            handleDataNeedingToMoveFromTier1ToTier2(oDataMover);
+            boolean bCaughtUp;
+            if (mDataMoverFetcher != null)
+                bCaughtUp = handleDataNeedingToMoveFromTier1ToTier2Streaming(oDataMover);
+            else
+                bCaughtUp = handleDataNeedingToMoveFromTier1ToTier2(oDataMover);
             //------------------------------------------------------------------
             // Periodically purge data that has already been moved to Tier2 (by handleDataNeedingToMoveFromTier1ToTier2) AND
             // that is older than the LengthOfTimeToRetainPurgeableData.
@@ -123,16 +134,19 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
                 lLastTimePurgeDataChkInMillis = System.currentTimeMillis();
             }
 
-            // Sleep for 1 second between iterations.
+            // Sleep for 1 second between iterations (unless we are still catching up, e.g., after an outage).
             //      Optimization would be to keep a summary indicating which tables had updates for this interval, and how many updates have shown up this interval.
             //      These would let us know which tables should be queried (only query those tables that we know have changed) and also could use the summary of number of changes to possibly increase or decrease the 1 second interval based on amount of "traffic".
-            Thread.sleep(1 * 1000);
+            if (bCaughtUp)
+                Thread.sleep(1 * 1000);
         }   // loop forever processing as a "DataMover"
 
         // Signal the data receiver that no more messages will be sent as we're shutting down
         sendFinalMessage(oDataMover);
 
         // Shutdown the DataMover AMQP infrastructure.
+        if (mDataMoverFetcher != null)
+            mDataMoverFetcher.close();
         oDataMover.close();
         return 0;
     }   // End sendDataMoverData()
@@ -250,9 +264,9 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
     }   // End handlePurgingData(long lTimeOfLastMovedTier1DataInMillis, long lTimeToKeepMovedDataBeforePurgingInMillis)
 
 
-    private final void handleDataNeedingToMoveFromTier1ToTier2(DataMoverAmqp oDataMover) throws IOException, ProcCallException, InterruptedException, ConfigIOParseException {
+    // Returns false when the interval had to be shortened (i.e., we are behind and should not wait before the next interval).
+    private final boolean handleDataNeedingToMoveFromTier1ToTier2(DataMoverAmqp oDataMover) throws IOException, ProcCallException, InterruptedException, ConfigIOParseException {
         final long MaxTimeInIntervalMs = (15 * 1000L);  // Don't calculate an interval that is too long (want to avoid org.voltcore.network.VoltProtocolHandler$BadMessageLength).
-        DecimalFormat decimalFormatter = new DecimalFormat("#,###,###");  // pretty formatting
         SimpleDateFormat sdfSqlDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
         sdfSqlDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));  // this line cause timestamps formatted by this SimpleDateFormat to be converted into UTC time zone
 
@@ -294,13 +308,53 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
         ClientResponse response = getListOfDbRecsToMove(sTempStoredProcedure, lEndIntvlTimeMs, mDataMoverPrevProcessedTimeMs);
         // Save away the volt table results.
         VoltTable[] aVt = response.getResults();
+        moveThisIntervalsRecsToTier2(aVt, lEndIntvlTimeMs, sEndIntvlTimestamp, sStartIntvlTimestamp, oDataMover);
+        return (lEndIntvlTimeMs != lMaxEndingTimeMs);
+    }   // End handleDataNeedingToMoveFromTier1ToTier2(DataMoverAmqp oDataMover)
+
+
+    //--------------------------------------------------------------------------
+    // Streaming flavor of handleDataNeedingToMoveFromTier1ToTier2, each table is read with its own (short) DataMoverGetTableRecsToMove
+    // call, and the length of the interval adapts to the row rate rather than being limited to MaxTimeInIntervalMs.
+    // When behind, the next interval is fetched while this interval's messages are being published.
+    // Returns true when this interval reached the current time (i.e., we are caught up).
+    //--------------------------------------------------------------------------
+    final boolean handleDataNeedingToMoveFromTier1ToTier2Streaming(DataMoverAmqp oDataMover) throws IOException, ProcCallException, ConfigIOParseException {
+        SimpleDateFormat sdfSqlDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        sdfSqlDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));  // this line cause timestamps formatted by this SimpleDateFormat to be converted into UTC time zone
+        long lBaseTimeMs = mDataMoverPrevProcessedTimeMs;
+        if (mDataMoverPrevProcessedTimeMs <= 0L) {
+            // initial startup flow - the interval length is added to the time the schema was populated rather than to the beginning of time.
+            lBaseTimeMs = Long.parseLong( adapter.client().callProcedure("UCSCONFIGVALUE.select", "UcsDbPopulateSchemaStartTsMs").getResults()[0].fetchRow(0).getString("Value") );
+            log_.info("Special initial startup flow, basing the first interval on the UcsDbPopulateSchemaStartTsMs=%d", lBaseTimeMs);
+        }
+        DataMoverIntervalFetcher.Interval oInterval = mDataMoverFetcher.next(mDataMoverPrevProcessedTimeMs, lBaseTimeMs);
+        if (!oInterval.caughtUp) {
+            log_.info("DataMover - catching up, interval of %d ms with %d rows (next interval length %d ms)",
+                      oInterval.endMs - oInterval.startMs, oInterval.rowCount, mDataMoverFetcher.intervalLengthMs());
+            // Overlap getting the next interval with publishing this one.
+            mDataMoverFetcher.prefetch(oInterval.endMs);
+        }
+        moveThisIntervalsRecsToTier2(oInterval.tables, oInterval.endMs, sdfSqlDateFormat.format(new Date(oInterval.endMs)),
+                sdfSqlDateFormat.format(new Date(oInterval.startMs)), oDataMover);
+        return oInterval.caughtUp;
+    }   // End handleDataNeedingToMoveFromTier1ToTier2Streaming(DataMoverAmqp oDataMover)
+
+
+    //--------------------------------------------------------------------------
+    // Send this interval's changes (one VoltTable per DataMover table, see DataMoverGetListOfRecsToMove) to Tier2 and record our progress.
+    //--------------------------------------------------------------------------
+    private final void moveThisIntervalsRecsToTier2(VoltTable[] aVt, long lEndIntvlTimeMs, String sEndIntvlTimestamp, String sStartIntvlTimestamp,
+                                                    DataMoverAmqp oDataMover) throws IOException, ConfigIOParseException {
+        DecimalFormat decimalFormatter = new DecimalFormat("#,###,###");  // pretty formatting
         String[] aVtJson = new String[aVt.length];  // VoltTables in form of JSON-formatted strings, one json string per table.
         int iNumRecsBeingMoved = 0;  // initialize the total number of db rows being moved from Tier1 to Tier2 this interval.
         for (int iVtCntr=0; iVtCntr < aVt.length; ++iVtCntr) {
             // Add the number of rows being moved for this table to the total number being moved this interval.
             iNumRecsBeingMoved += aVt[iVtCntr].getRowCount();
             // Get the Json-formatted string for this table (if appropriate).
-            if (aVt[iVtCntr].getRowCount() != 0) {
+            // (the binary formats send the VoltTables themselves, so there is no need for the json string).
+            if (aVt[iVtCntr].getRowCount() != 0 && dataMoverFormat.equals(DataMoverMessage.FORMAT_JSON)) {
                 aVtJson[iVtCntr] = aVt[iVtCntr].toJSONString();  // convert the rows being moved for this table into a single json formatted string.
             }
         }
@@ -345,8 +399,12 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
         //----------------------------------------------
         for (int iVtCntr=0; iVtCntr < aVtJson.length; ++iVtCntr) {
             // Send this table's changes to the Tier2 DataReceiver.
-            sendThisTablesChangesToTier2(lEndIntvlTimeMs, sEndIntvlTimestamp, sStartIntvlTimestamp,
-                    adapter.dataMoverResultTblIndxToTableNameMap().get(iVtCntr), aVt[iVtCntr].getRowCount(), aVtJson[iVtCntr], oDataMover);
+            if (dataMoverFormat.equals(DataMoverMessage.FORMAT_JSON))
+                sendThisTablesChangesToTier2(lEndIntvlTimeMs, sEndIntvlTimestamp, sStartIntvlTimestamp,
+                        adapter.dataMoverResultTblIndxToTableNameMap().get(iVtCntr), aVt[iVtCntr].getRowCount(), aVtJson[iVtCntr], oDataMover);
+            else
+                sendThisTablesChangesToTier2Binary(lEndIntvlTimeMs, sEndIntvlTimestamp, sStartIntvlTimestamp,
+                        adapter.dataMoverResultTblIndxToTableNameMap().get(iVtCntr), aVt[iVtCntr], oDataMover);
         }
 
         //--------------------------------------------------------------
@@ -357,7 +415,7 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
 
         // Set the "next" value that will be used as the previously processed timestamp (indicates which data has already been moved).
         mDataMoverPrevProcessedTimeMs = lEndIntvlTimeMs;
-    }   // End handleDataNeedingToMoveFromTier1ToTier2(DataMoverAmqp oDataMover)
+    }   // End moveThisIntervalsRecsToTier2(...)
 
 
     private final ClientResponse getListOfDbRecsToMove(String sStoredProcedure, long lEndIntvlTimeMs, long lStartIntvlTimeMs)
@@ -451,6 +509,31 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
     }   // End sendThisTablesChangesToTier2(...)
 
 
+    //--------------------------------------------------------------------------
+    // Binary flavor of sendThisTablesChangesToTier2, each message carries the serialized VoltTable for up to NumRowsPerAmqpMsg rows
+    // (optionally compressed) behind a small binary header, so the table is neither converted to json nor parsed back again.
+    //--------------------------------------------------------------------------
+    final void sendThisTablesChangesToTier2Binary(long lEndIntvlTimeMs, String sEndIntvlTimestamp, String sStartIntvlTimestamp,
+                                                  String sTableName, VoltTable vtThisTablesChanges, DataMoverAmqp oDataMover) throws IOException
+    {
+        final int NumRowsPerAmqpMsg = 1000;  // max number of "data" entries to include in a AMQP message.
+        boolean bCompress = dataMoverFormat.equals(DataMoverMessage.FORMAT_BINARY_COMPRESSED);
+
+        List<VoltTable> alParts = DataMoverMessage.split(vtThisTablesChanges, NumRowsPerAmqpMsg);
+        for (int iThisMsgsPartNum=1; iThisMsgsPartNum <= alParts.size(); ++iThisMsgsPartNum) {
+            VoltTable vtPart = alParts.get(iThisMsgsPartNum - 1);
+            DataMoverMessage oMsg = new DataMoverMessage(++mDataMoverAmqpMessageId, mDataMoverIntervalId, lEndIntvlTimeMs,
+                    mDataMoverPrevProcessedTimeMs, sTableName, iThisMsgsPartNum, alParts.size(), vtPart);
+            byte[] aMsgBytes = oMsg.encode(bCompress);
+            // Put this message onto the DataMover queue (marked as persistent, i.e. save the message to disk).
+            oDataMover.getChannel().basicPublish("", Adapter.DataMoverQueueName, DataMoverMessage.properties(), aMsgBytes);
+            log_.info("DataMover sent AmqpMessageId=%d - IntervalId=%d, EndIntervalTs=%s, StartIntervalTs=%s, AmqpQueue=%s, TableName=%s, Part %d Of %d, NumDataRows=%d, NumBytes=%d",
+                      mDataMoverAmqpMessageId, mDataMoverIntervalId, sEndIntvlTimestamp, sStartIntvlTimestamp, Adapter.DataMoverQueueName,
+                      sTableName, iThisMsgsPartNum, alParts.size(), vtPart.getRowCount(), aMsgBytes.length);
+        }
+    }   // End sendThisTablesChangesToTier2Binary(...)
+
+
     //--------------------------------------------------------------------------
     // This method checks for and prevents a constant stream of the DataMover moving only DataMover/DataReceiver work items, this "recursion" occurs because we can't update the DataMover/DataReceiver work item's WorkingResults field
     // until AFTER that DataMover interval has finished, which means that in the next interval it would then send the DataMover update, which results in an update, which would then be sent, on, on, on).
@@ -0,0 +1,218 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.config_io.ConfigIO;
+import com.intel.config_io.ConfigIOFactory;
+import com.intel.config_io.ConfigIOParseException;
+import com.intel.logging.Logger;
+import com.intel.networking.sink.NetworkDataSink;
+import com.intel.networking.sink.NetworkDataSinkFactory;
+import com.intel.properties.PropertyMap;
+import com.intel.properties.PropertyNotExpectedType;
+import com.rabbitmq.client.Channel;
+import org.voltdb.VoltTable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-table high-water marks of the data the DataMover moved from Tier1 to Tier2. Once the DataReceiver wrote a
+ * DataMover message into the nearline tier it publishes the newest DbUpdatedTimestamp of the message's rows on the
+ * DataMover exchange (routing key HighWaterMark.TableName). A client that updated a table in Tier1 subscribes to the
+ * table's high-water marks and waits on a future that completes once the high-water mark reaches the newest
+ * DbUpdatedTimestamp it wrote, rather than polling Tier2.
+ */
+public class DataMoverHighWaterMarks implements Closeable {
+    public DataMoverHighWaterMarks(Logger log) {
+        log_ = log;
+        jsonParser_ = ConfigIOFactory.getInstance("json");
+    }
+
+    public static String routingKey(String tableName) {
+        return ROUTING_KEY_PREFIX + tableName;
+    }
+
+    /**
+     * Subscribe to the high-water marks of the given tables.
+     *
+     * @return Whether the subscription was made, without it the futures only complete for targets already reached.
+     */
+    public boolean startListening(String rabbitMQHost, Collection<String> tableNames) {
+        List<String> subjects = new ArrayList<>();
+        for (String tableName : tableNames)
+            subjects.add(routingKey(tableName));
+        Map<String, String> args = new HashMap<>();
+        args.put("exchangeName", Adapter.DataMoverExchangeName);
+        args.put("subjects", String.join(",", subjects));
+        args.put("uri", "amqp://" + rabbitMQHost);
+        try {
+            NetworkDataSink sink = createSink(args);
+            sink.setLogger(log_);
+            sink.setCallbackDelegate(this::onHighWaterMark);
+            sink.startListening();
+            if (!sink.isListening()) {
+                log_.warn("Unable to listen for DataMover high-water marks (RabbitMQHost=%s)", rabbitMQHost);
+                return false;
+            }
+            sink_ = sink;
+            return true;
+        } catch (NetworkDataSinkFactory.FactoryException e) {
+            log_.warn("Unable to listen for DataMover high-water marks (RabbitMQHost=%s): %s", rabbitMQHost,
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    NetworkDataSink createSink(Map<String, String> args) throws NetworkDataSinkFactory.FactoryException {
+        return NetworkDataSinkFactory.createInstance(log_, "rabbitmq", args);
+    }
+
+    /**
+     * @param dbUpdatedTimestampInUs The newest DbUpdatedTimestamp written to the table in Tier1, in microseconds
+     *                               since epoch.
+     * @return A future that completes (with the high-water mark) once the table's rows through dbUpdatedTimestampInUs
+     * were written to Tier2.
+     */
+    public CompletableFuture<Long> whenMoved(String tableName, long dbUpdatedTimestampInUs) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        synchronized (highWaterMarks_) {
+            long highWaterMark = highWaterMarks_.getOrDefault(tableName, NONE);
+            if (highWaterMark >= dbUpdatedTimestampInUs) {
+                future.complete(highWaterMark);
+                return future;
+            }
+            waiters_.computeIfAbsent(tableName, (table) -> new ArrayList<>()).
+                    add(new Waiter(dbUpdatedTimestampInUs, future));
+        }
+        return future;
+    }
+
+    /**
+     * @return The newest DbUpdatedTimestamp of the table written to Tier2 (as far as published since we subscribed),
+     * in microseconds since epoch.
+     */
+    public long getHighWaterMark(String tableName) {
+        synchronized (highWaterMarks_) {
+            return highWaterMarks_.getOrDefault(tableName, NONE);
+        }
+    }
+
+    /**
+     * Stop listening, the futures not completed yet are cancelled.
+     */
+    @Override
+    public void close() {
+        if (sink_ != null) {
+            sink_.stopListening();
+            sink_ = null;
+        }
+        synchronized (highWaterMarks_) {
+            for (List<Waiter> waiters : waiters_.values())
+                for (Waiter waiter : waiters)
+                    waiter.future.cancel(false);
+            waiters_.clear();
+        }
+    }
+
+    void onHighWaterMark(String subject, String payload) {
+        String tableName;
+        long highWaterMark;
+        try {
+            PropertyMap message = jsonParser_.fromString(payload).getAsMap();
+            tableName = message.getString(TABLE_NAME);
+            highWaterMark = message.getLong(DB_UPDATED_TIMESTAMP);
+        } catch (ConfigIOParseException | PropertyNotExpectedType | RuntimeException e) {
+            log_.warn("Ignoring the invalid DataMover high-water mark '%s' (%s): %s", payload, subject,
+                    e.getMessage());
+            return;
+        }
+        List<CompletableFuture<Long>> reached = new ArrayList<>();
+        synchronized (highWaterMarks_) {
+            // The marks of a table only move forward, whatever order they arrive in.
+            highWaterMark = highWaterMarks_.merge(tableName, highWaterMark, Math::max);
+            List<Waiter> waiters = waiters_.getOrDefault(tableName, new ArrayList<>());
+            for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+                Waiter waiter = it.next();
+                if (waiter.dbUpdatedTimestampInUs <= highWaterMark) {
+                    reached.add(waiter.future);
+                    it.remove();
+                }
+            }
+        }
+        log_.debug("DataMover high-water mark of %s: %d", tableName, highWaterMark);
+        for (CompletableFuture<Long> future : reached)
+            future.complete(highWaterMark);
+    }
+
+    /**
+     * Publish the high-water mark of a DataMover message that was written to Tier2. Nothing is published for tables
+     * without a DbUpdatedTimestamp column.
+     */
+    static void publish(Channel channel, DataMoverMessage message, ConfigIO jsonParser) throws IOException {
+        byte[] payload = payload(message, jsonParser);
+        if (payload != null)
+            channel.basicPublish(Adapter.DataMoverExchangeName, routingKey(message.getTableName()), null, payload);
+    }
+
+    static byte[] payload(DataMoverMessage message, ConfigIO jsonParser) {
+        long highWaterMark = newestDbUpdatedTimestamp(message.getTable());
+        if (highWaterMark == NONE)
+            return null;
+        PropertyMap payload = new PropertyMap();
+        payload.put(TABLE_NAME, message.getTableName());
+        payload.put("IntervalId", message.getIntervalId());
+        payload.put("AmqpMessageId", message.getAmqpMessageId());
+        payload.put(DB_UPDATED_TIMESTAMP, highWaterMark);
+        return jsonParser.toString(payload).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // In microseconds since epoch, NONE if the table has no (non null) DbUpdatedTimestamp.
+    static long newestDbUpdatedTimestamp(VoltTable table) {
+        int column;
+        try {
+            column = table.getColumnIndex("DbUpdatedTimestamp");
+        } catch (IllegalArgumentException e) {
+            return NONE;
+        }
+        long newest = NONE;
+        table.resetRowPosition();
+        while (table.advanceRow()) {
+            long timestamp = table.getTimestampAsLong(column);
+            if (!table.wasNull())
+                newest = Math.max(newest, timestamp);
+        }
+        table.resetRowPosition();
+        return newest;
+    }
+
+    private static final class Waiter {
+        Waiter(long dbUpdatedTimestampInUs, CompletableFuture<Long> future) {
+            this.dbUpdatedTimestampInUs = dbUpdatedTimestampInUs;
+            this.future = future;
+        }
+        final long dbUpdatedTimestampInUs;
+        final CompletableFuture<Long> future;
+    }
+
+    public static final String ROUTING_KEY_PREFIX = "HighWaterMark.";
+    static final String TABLE_NAME = "TableName";
+    static final String DB_UPDATED_TIMESTAMP = "DbUpdatedTimestampInUs";
+    static final long NONE = Long.MIN_VALUE;
+
+    private final Logger log_;
+    private final ConfigIO jsonParser_;
+    private final Map<String, Long> highWaterMarks_ = new HashMap<>();
+    private final Map<String, List<Waiter>> waiters_ = new HashMap<>(); // Guarded by highWaterMarks_.
+    private volatile NetworkDataSink sink_ = null;
+}
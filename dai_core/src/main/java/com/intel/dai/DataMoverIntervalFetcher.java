@@ -0,0 +1,188 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.logging.Logger;
+import org.voltdb.VoltTable;
+import org.voltdb.client.Client;
+import org.voltdb.client.ProcCallException;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming query side of the DataMover. Rather than getting every changed row of every DataMover table in a single
+ * DataMoverGetListOfRecsToMove transaction, each table is read with its own short DataMoverGetTableRecsToMove call that
+ * returns at most maxRowsPerTable rows. When a table has more rows than that the interval is cut short just before the
+ * first row that did not fit, so no interval is ever larger than the limit no matter how far behind the DataMover is.
+ * The interval length adapts to the observed row rate, and the next interval can be fetched in the background while
+ * the current one is being published.
+ */
+final class DataMoverIntervalFetcher implements AutoCloseable {
+    static final String PROCEDURE = "DataMoverGetTableRecsToMove";
+    static final long IN_FLIGHT_MARGIN_MS = 25L;
+    static final long INITIAL_INTERVAL_MS = 15 * 1000L;
+
+    static final class Interval {
+        Interval(long startMs, long endMs, VoltTable[] tables, boolean caughtUp) {
+            this.startMs = startMs;
+            this.endMs = endMs;
+            this.tables = tables;
+            this.caughtUp = caughtUp;
+            int rows = 0;
+            for (VoltTable table : tables)
+                rows += table.getRowCount();
+            rowCount = rows;
+        }
+        final long startMs;
+        final long endMs;
+        final VoltTable[] tables;
+        final int rowCount;
+        final boolean caughtUp; // true when the interval reaches (almost) the current time.
+    }
+
+    DataMoverIntervalFetcher(Client client, int numTables, int maxRowsPerTable, long minIntervalMs,
+                             long maxIntervalMs, Logger log) {
+        assert numTables > 0 && maxRowsPerTable > 0 && minIntervalMs > 0 && maxIntervalMs >= minIntervalMs;
+        client_ = client;
+        numTables_ = numTables;
+        maxRowsPerTable_ = maxRowsPerTable;
+        minIntervalMs_ = minIntervalMs;
+        maxIntervalMs_ = maxIntervalMs;
+        intervalMs_ = Math.max(minIntervalMs, Math.min(maxIntervalMs, INITIAL_INTERVAL_MS));
+        log_ = log;
+    }
+
+    long intervalLengthMs() { return intervalMs_; }
+
+    /**
+     * Get the interval starting right after startMs, using the interval that was prefetched for it if there is one.
+     *
+     * @param startMs End of the previously moved interval (the rows AT this time were already moved).
+     * @param baseMs Time the interval length is added to, normally startMs.
+     */
+    Interval next(long startMs, long baseMs) throws IOException, ProcCallException {
+        Future<Interval> pending = pending_;
+        long pendingStartMs = pendingStartMs_;
+        pending_ = null;
+        if (pending != null) {
+            try {
+                Interval interval = pending.get();
+                if (pendingStartMs == startMs && baseMs == startMs)
+                    return interval;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the prefetched DataMover interval", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ProcCallException)
+                    throw (ProcCallException)e.getCause();
+                throw new IOException("Failed to prefetch the DataMover interval", e.getCause());
+            }
+        }
+        return fetch(startMs, baseMs, System.currentTimeMillis());
+    }
+
+    /**
+     * Start fetching the interval after startMs in the background (the next call to next(startMs, startMs) picks it up).
+     */
+    void prefetch(long startMs) {
+        if (executor_ == null) {
+            executor_ = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "DataMover-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        pendingStartMs_ = startMs;
+        pending_ = executor_.submit(() -> fetch(startMs, startMs, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void close() {
+        if (executor_ != null)
+            executor_.shutdownNow();
+    }
+
+    Interval fetch(long startMs, long baseMs, long nowMs) throws IOException, ProcCallException {
+        long currentEndMs = nowMs - IN_FLIGHT_MARGIN_MS;
+        long endMs = Math.min(currentEndMs, baseMs + intervalMs_);
+        boolean caughtUp = endMs == currentEndMs;
+        VoltTable[] tables = new VoltTable[numTables_];
+        for (int i = 0; i < numTables_; i++) {
+            VoltTable table = callProcedure(i, startMs, endMs, maxRowsPerTable_ + 1);
+            if (table.getRowCount() > maxRowsPerTable_) {
+                // Too many rows - end the interval just before the first row that did not fit.
+                long firstExcludedUs = table.fetchRow(maxRowsPerTable_).getTimestampAsLong("DbUpdatedTimestamp");
+                long newEndMs = Math.floorDiv(firstExcludedUs, 1000L) - 1L;
+                if (newEndMs <= startMs) {
+                    // More rows than the limit within a single millisecond, move that entire millisecond.
+                    newEndMs = startMs + 1L;
+                    table = callProcedure(i, startMs, newEndMs, Integer.MAX_VALUE);
+                }
+                log_.info("DataMover - table %d has more than %d rows, ending the interval at %d rather than %d",
+                        i, maxRowsPerTable_, newEndMs, endMs);
+                endMs = newEndMs;
+                caughtUp = false;
+                for (int j = 0; j <= i; j++)
+                    tables[j] = rowsThrough(j < i ? tables[j] : table, endMs);
+            }
+            else
+                tables[i] = table;
+        }
+        Interval interval = new Interval(startMs, endMs, tables, caughtUp);
+        adaptIntervalLength(interval);
+        return interval;
+    }
+
+    // Aim for intervals of about half of maxRowsPerTable rows, based on the row rate of the interval just fetched.
+    private void adaptIntervalLength(Interval interval) {
+        long lengthMs = Math.max(1L, interval.endMs - interval.startMs);
+        long targetRows = Math.max(1L, maxRowsPerTable_ / 2);
+        long newIntervalMs;
+        if (interval.rowCount == 0)
+            newIntervalMs = interval.caughtUp ? intervalMs_ : intervalMs_ * 2L;
+        else
+            newIntervalMs = lengthMs * targetRows / interval.rowCount;
+        newIntervalMs = Math.max(minIntervalMs_, Math.min(maxIntervalMs_, newIntervalMs));
+        if (newIntervalMs != intervalMs_)
+            log_.debug("DataMover - interval length changed from %d to %d ms", intervalMs_, newIntervalMs);
+        intervalMs_ = newIntervalMs;
+    }
+
+    private VoltTable callProcedure(int tableIndx, long startMs, long endMs, long maxRows)
+            throws IOException, ProcCallException {
+        return client_.callProcedure(PROCEDURE, (long)tableIndx, endMs * 1000L,
+                (startMs * 1000L) + 1L,  // note: adding 1 microsecond to the start timestamp so we don't "regrab" records that we already handled!
+                maxRows).getResults()[0];
+    }
+
+    // The rows of the table (ordered by DbUpdatedTimestamp) up to and including endMs.
+    private static VoltTable rowsThrough(VoltTable table, long endMs) {
+        long endUs = endMs * 1000L;
+        int rows = 0;
+        while (rows < table.getRowCount() && table.fetchRow(rows).getTimestampAsLong("DbUpdatedTimestamp") <= endUs)
+            rows++;
+        if (rows == table.getRowCount())
+            return table;
+        VoltTable trimmed = new VoltTable(table.getTableSchema());
+        for (int i = 0; i < rows; i++)
+            trimmed.add(table.fetchRow(i));
+        return trimmed;
+    }
+
+    private final Client client_;
+    private final int numTables_;
+    private final int maxRowsPerTable_;
+    private final long minIntervalMs_;
+    private final long maxIntervalMs_;
+    private final Logger log_;
+    private long intervalMs_;
+    private ExecutorService executor_ = null;
+    private Future<Interval> pending_ = null;
+    private long pendingStartMs_;
+}
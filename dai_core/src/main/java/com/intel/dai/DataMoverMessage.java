@@ -0,0 +1,203 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.config_io.ConfigIO;
+import com.intel.config_io.ConfigIOParseException;
+import com.intel.properties.PropertyMap;
+import com.intel.properties.PropertyNotExpectedType;
+import com.rabbitmq.client.AMQP;
+import org.voltdb.PrivateVoltTableFactory;
+import org.voltdb.VoltTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary DataMover message, an alternative to the JSON message that carries the VoltTable's own serialized buffer
+ * (optionally deflate compressed) behind a small fixed header holding the same fields as the JSON message header.
+ * Binary messages are recognized by the AMQP content type, messages without it are JSON.
+ *
+ * Layout (big endian): magic (int), version (byte), flags (byte), AmqpMessageId (long), IntervalId (long),
+ * EndIntvlTsInMsSinceEpoch (long), StartIntvlTsInMsSinceEpoch (long), Part (int), Of (int), TableName (short
+ * length + UTF-8 bytes), serialized table length (int), payload length (int), payload.
+ */
+final class DataMoverMessage {
+    static final String CONTENT_TYPE = "application/x-dai-volttable";
+    static final String FORMAT_JSON = "json";
+    static final String FORMAT_BINARY = "binary";
+    static final String FORMAT_BINARY_COMPRESSED = "binary-deflate";
+
+    DataMoverMessage(long amqpMessageId, long intervalId, long endIntvlTimeMs, long startIntvlTimeMs,
+                     String tableName, int part, int of, VoltTable table) {
+        amqpMessageId_ = amqpMessageId;
+        intervalId_ = intervalId;
+        endIntvlTimeMs_ = endIntvlTimeMs;
+        startIntvlTimeMs_ = startIntvlTimeMs;
+        tableName_ = tableName;
+        part_ = part;
+        of_ = of;
+        table_ = table;
+    }
+
+    long getAmqpMessageId() { return amqpMessageId_; }
+    long getIntervalId() { return intervalId_; }
+    long getEndIntvlTimeMs() { return endIntvlTimeMs_; }
+    long getStartIntvlTimeMs() { return startIntvlTimeMs_; }
+    String getTableName() { return tableName_; }
+    int getPart() { return part_; }
+    int getOf() { return of_; }
+    VoltTable getTable() { return table_; }
+
+    static boolean isBinary(AMQP.BasicProperties properties) {
+        return properties != null && CONTENT_TYPE.equals(properties.getContentType());
+    }
+
+    /**
+     * Decode a binary or json DataMover message.
+     *
+     * @return The message, or null for the end of messages (EOM) message.
+     */
+    static DataMoverMessage parse(AMQP.BasicProperties properties, byte[] body, ConfigIO jsonParser)
+            throws IOException {
+        if (isBinary(properties))
+            return decode(body);
+        try {
+            String json = new String(body, StandardCharsets.UTF_8);
+            PropertyMap message = jsonParser.fromString(json).getAsMap();
+            if (message.getBoolean("EOM"))
+                return null;
+            // Reconstitute the original VoltTable from the json string.
+            return new DataMoverMessage(message.getLong("AmqpMessageId"), message.getLong("IntervalId"),
+                    message.getLong("EndIntvlTsInMsSinceEpoch"), message.getLong("StartIntvlTsInMsSinceEpoch"),
+                    message.getString("TableName"), message.getInt("Part"), message.getInt("Of"),
+                    VoltTable.fromJSONString(json));
+        } catch (ConfigIOParseException | PropertyNotExpectedType | org.json_voltpatches.JSONException e) {
+            throw new IOException("Invalid json DataMover message", e);
+        }
+    }
+
+    // Persistent delivery like MessageProperties.PERSISTENT_BASIC, tagged with the binary content type.
+    static AMQP.BasicProperties properties() {
+        return new AMQP.BasicProperties.Builder().contentType(CONTENT_TYPE).deliveryMode(2).priority(0).build();
+    }
+
+    byte[] encode(boolean compress) {
+        byte[] table = new byte[table_.getSerializedSize()];
+        table_.flattenToBuffer(ByteBuffer.wrap(table));
+        byte[] payload = table;
+        int payloadLength = table.length;
+        if (compress) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(table);
+                deflater.finish();
+                payload = new byte[table.length + 64];
+                payloadLength = 0;
+                while (!deflater.finished()) {
+                    if (payloadLength == payload.length)
+                        payload = Arrays.copyOf(payload, payload.length * 2);
+                    payloadLength += deflater.deflate(payload, payloadLength, payload.length - payloadLength);
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+        byte[] name = tableName_.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + name.length + payloadLength);
+        buffer.putInt(MAGIC).put(VERSION).put(compress ? FLAG_COMPRESSED : NO_FLAGS);
+        buffer.putLong(amqpMessageId_).putLong(intervalId_).putLong(endIntvlTimeMs_).putLong(startIntvlTimeMs_);
+        buffer.putInt(part_).putInt(of_);
+        buffer.putShort((short)name.length).put(name);
+        buffer.putInt(table.length).putInt(payloadLength).put(payload, 0, payloadLength);
+        return buffer.array();
+    }
+
+    static DataMoverMessage decode(byte[] body) throws IOException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a binary DataMover message");
+            byte version = buffer.get();
+            if (version != VERSION)
+                throw new IOException("Unsupported binary DataMover message version: " + version);
+            boolean compressed = (buffer.get() & FLAG_COMPRESSED) != 0;
+            long amqpMessageId = buffer.getLong();
+            long intervalId = buffer.getLong();
+            long endIntvlTimeMs = buffer.getLong();
+            long startIntvlTimeMs = buffer.getLong();
+            int part = buffer.getInt();
+            int of = buffer.getInt();
+            byte[] name = new byte[buffer.getShort() & 0xffff];
+            buffer.get(name);
+            int tableLength = buffer.getInt();
+            int payloadLength = buffer.getInt();
+            if (payloadLength != buffer.remaining())
+                throw new IOException("Truncated binary DataMover message");
+            VoltTable table;
+            if (compressed) {
+                byte[] tableBytes = new byte[tableLength];
+                Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(body, buffer.position(), payloadLength);
+                    if (inflater.inflate(tableBytes) != tableLength || !inflater.finished())
+                        throw new IOException("Corrupt compressed binary DataMover message");
+                } finally {
+                    inflater.end();
+                }
+                table = tableFromFlattened(tableBytes, 0, tableLength);
+            } else {
+                table = tableFromFlattened(body, buffer.position(), payloadLength);
+            }
+            return new DataMoverMessage(amqpMessageId, intervalId, endIntvlTimeMs, startIntvlTimeMs,
+                    new String(name, StandardCharsets.UTF_8), part, of, table);
+        } catch (DataFormatException | RuntimeException e) {
+            throw new IOException("Corrupt binary DataMover message", e);
+        }
+    }
+
+    // A flattened table starts with its length, the table itself follows. The table shares the message bytes.
+    private static VoltTable tableFromFlattened(byte[] bytes, int offset, int length) {
+        ByteBuffer table = ByteBuffer.wrap(bytes, offset + Integer.BYTES, length - Integer.BYTES).slice();
+        return PrivateVoltTableFactory.createVoltTableFromBuffer(table, true);
+    }
+
+    // Split a table into parts of at most rowsPerPart rows, an empty table yields no parts.
+    static List<VoltTable> split(VoltTable table, int rowsPerPart) {
+        List<VoltTable> parts = new ArrayList<>((table.getRowCount() + rowsPerPart - 1) / rowsPerPart);
+        table.resetRowPosition();
+        VoltTable part = null;
+        while (table.advanceRow()) {
+            if (part == null || part.getRowCount() == rowsPerPart) {
+                part = new VoltTable(table.getTableSchema());
+                parts.add(part);
+            }
+            part.add(table);
+        }
+        return parts;
+    }
+
+    private final long amqpMessageId_;
+    private final long intervalId_;
+    private final long endIntvlTimeMs_;
+    private final long startIntvlTimeMs_;
+    private final String tableName_;
+    private final int part_;
+    private final int of_;
+    private final VoltTable table_;
+
+    private static final int MAGIC = 0x44414d56; // "DAMV"
+    private static final byte VERSION = 1;
+    private static final byte NO_FLAGS = 0;
+    private static final byte FLAG_COMPRESSED = 1;
+    private static final int HEADER_SIZE = 4 + 1 + 1 + 8 * 4 + 4 * 2 + 2 + 4 * 2;
+}
@@ -57,42 +57,41 @@ public class NearlineTableUpdater {
             //log.info("SNAPSHOT TABLE UPDATE TABLE NAME %s \t STATEMNET %s",tableName+"_SS", snapshotStmt); // KEEP
             throw new DataStoreException("Unsupported table in nearline tier: " + tableName);
         }
-        if (snapshotStmt != null && USE_SNAPSHOTS) {
-            try {
+        boolean batched = isBatched(tableName);
+        try {
+            if(tableName.equals("RasEvent"))
+                benchmarker.addNamedValue("BeforeRasDataWrite", tableData.getRowCount());
 
-                // Store all the data for this table
-                while (tableData.advanceRow()) {
-                    dbUpdateHelper(snapshotStmt, tableName, tableData);
-                    dbUpdateHelper(stmt, tableName, tableData);
+            // Store all the data for this table, history inserts are sent as JDBC batches and the whole message is
+            // committed once
+            int pendingRows = 0;
+            while (tableData.advanceRow()) {
+                if (snapshotStmt != null && USE_SNAPSHOTS) {
+                    setRowParameters(snapshotStmt, tableData);
+                    snapshotStmt.execute();
                 }
-                mConn.commit();
-
-            } catch (SQLException ex) {
-                mConn.close();
-                mConn = get_connection();
-                mCachedStmts = new HashMap<>();
-                throw new DataStoreException("Unable to update nearline tier table: " + tableName, ex);
-            }
-
-        } else {
-            try {
-                if(tableName.equals("RasEvent"))	                // Store all the data for this table
-                    benchmarker.addNamedValue("BeforeRasDataWrite", tableData.getRowCount());
-
-                // Store all the data for this table
-                while (tableData.advanceRow()) {
-                    dbUpdateHelper(stmt, tableName, tableData);
+                setRowParameters(stmt, tableData);
+                if (batched) {
+                    stmt.addBatch();
+                    if (++pendingRows >= MAX_BATCH_ROWS) {
+                        stmt.executeBatch();
+                        pendingRows = 0;
+                    }
+                } else {
+                    stmt.execute();
                 }
-                mConn.commit();
-
-                if(tableName.equals("RasEvent"))
-                    benchmarker.addNamedValue("WroteRasData", tableData.getRowCount());
-            } catch (SQLException ex) {
-                mConn.close();
-                mConn = get_connection();
-                mCachedStmts = new HashMap<>();
-                throw new DataStoreException("Unable to update nearline tier table: " + tableName, ex);
             }
+            if (pendingRows > 0)
+                stmt.executeBatch();
+            mConn.commit();
+
+            if(tableName.equals("RasEvent"))
+                benchmarker.addNamedValue("WroteRasData", tableData.getRowCount());
+        } catch (SQLException ex) {
+            mConn.close();
+            mConn = get_connection();
+            mCachedStmts = new HashMap<>();
+            throw new DataStoreException("Unable to update nearline tier table: " + tableName, ex);
         }
     }
 
@@ -100,7 +99,13 @@ public class NearlineTableUpdater {
         this.benchmarker = benchmarker;
     }
 
-    private void dbUpdateHelper (PreparedStatement stmt, String tableName, VoltTable tableData) throws SQLException{
+    // Plain inserts can be batched, stored procedure calls return a result and must be executed one row at a time.
+    private static boolean isBatched(String tableName) {
+        DataUpdateStmt dus = SQL_STMTS.get(tableName);
+        return dus != null && !dus.isProcedure;
+    }
+
+    private void setRowParameters(PreparedStatement stmt, VoltTable tableData) throws SQLException {
         for (int i = 0; i < tableData.getColumnCount(); ++i) {
             VoltType voltType = tableData.getColumnType(i);
             int sqlType = voltType.getJdbcSqlType(); // Get equivalent JDBC type
@@ -112,8 +117,7 @@ public class NearlineTableUpdater {
                 // Convert to GMT time zone
                 value = tableData.getTimestampAsSqlTimestamp(i);
                 if (value != null){
-                    Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-                    stmt.setTimestamp(i + 1, (Timestamp) value, cal);
+                    stmt.setTimestamp(i + 1, (Timestamp) value, mGmtCalendar);
                 }
                 else {
                     stmt.setObject(i + 1, value, sqlType);
@@ -125,7 +129,6 @@ public class NearlineTableUpdater {
                 stmt.setObject(i + 1, value, sqlType);
             }
         }
-        stmt.execute();
     }
 
     private PreparedStatement getStmt(String tableName) throws DataStoreException {
@@ -157,6 +160,11 @@ public class NearlineTableUpdater {
 
     private Connection mConn;
     private Map<String, PreparedStatement> mCachedStmts;
+    // Only read by the JDBC driver, so one GMT calendar serves every timestamp column of every row
+    private final Calendar mGmtCalendar = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+
+    // Rows sent to the database in one JDBC batch, a large DataMover part is sent as several batches
+    static final int MAX_BATCH_ROWS = 1000;
 
     // SQL statements for all the supported tables in tier 2
     private static final Map<String, DataUpdateStmt> SQL_STMTS;
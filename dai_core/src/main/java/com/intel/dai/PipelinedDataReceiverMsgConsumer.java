@@ -0,0 +1,280 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.dai.dsapi.WorkQueue;
+import com.intel.dai.exceptions.DataStoreException;
+import com.intel.logging.Logger;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.DefaultConsumer;
+import com.rabbitmq.client.Envelope;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * DataReceiver that decodes, checks and republishes DataMover messages on the AMQP consumer thread and hands the
+ * nearline tier updates to per-table worker threads, each with its own JDBC connection. All messages of a table go to
+ * the same worker so they are written in order. Messages are acknowledged with multiple-acks once every message up to
+ * them has been written, and the restart checkpoint is saved once per interval rather than once per message. The
+ * table's high-water mark (see DataMoverHighWaterMarks) is published at the same point.
+ */
+final class PipelinedDataReceiverMsgConsumer extends DefaultConsumer {
+    interface TableUpdaterFactory {
+        NearlineTableUpdater createNearlineTableUpdater() throws DataStoreException;
+    }
+
+    PipelinedDataReceiverMsgConsumer(DataReceiverAmqp receiver, long previousId, IAdapter adapter, Logger log,
+                                     TableUpdaterFactory updaterFactory, AdapterNearlineTierJdbc nearlineAdapter,
+                                     int workers, int ackBatch) throws DataStoreException {
+        super(receiver.getChannel());
+        assert workers > 0:"The DataReceiver needs at least one worker";
+        receiver_ = receiver;
+        prevAmqpMessageId_ = previousId;
+        adapter_ = adapter;
+        log_ = log;
+        workQueue_ = adapter.workQueue();
+        nearlineAdapter_ = nearlineAdapter;
+        ackBatch_ = Math.max(1, ackBatch);
+        sdfSqlDateFormat_.setTimeZone(TimeZone.getTimeZone("UTC"));
+        for (int i = 0; i < workers; i++)
+            workers_.add(new Worker(i, updaterFactory.createNearlineTableUpdater()));
+    }
+
+    void start() {
+        for (Worker worker : workers_)
+            worker.start();
+    }
+
+    /**
+     * Stop the workers once they finished the messages already handed to them.
+     */
+    void close() throws InterruptedException {
+        for (Worker worker : workers_)
+            worker.queue.add(STOP);
+        for (Worker worker : workers_)
+            worker.join();
+    }
+
+    // Runs on the AMQP consumer thread, so the messages are seen in queue order.
+    @Override
+    public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties, byte[] body) {
+        long lAmqpMessageId = -99999L;
+        DataMoverMessage message;
+        try {
+            message = DataMoverMessage.parse(properties, body, adapter_.jsonParser());
+            if (message == null) {
+                complete(track(envelope.getDeliveryTag(), null));
+                waitUntilWritten();
+                nearlineAdapter_.signalEom();
+                log_.info("Received EOM from data mover");
+                return;
+            }
+            nearlineAdapter_.stillProcessingMessages();
+            lAmqpMessageId = message.getAmqpMessageId();
+            if (message.getTableName() == null)
+                throw new RuntimeException("DataReceiver received an invalid message with empty table name");
+            log_.info("DataReceiver received AmqpMessageId=%d - TableName=%s, Part %d Of %d, IntervalId=%d, " +
+                            "AmqpMsgLength=%d", lAmqpMessageId, message.getTableName(), message.getPart(),
+                    message.getOf(), message.getIntervalId(), body.length);
+            checkAmqpMessageId(message);
+            prevAmqpMessageId_ = lAmqpMessageId;
+
+            // Forward the original message bytes (and content type) on the pub-sub exchange.
+            AMQP.BasicProperties publishProperties = DataMoverMessage.isBinary(properties) ?
+                    DataMoverMessage.properties() : null;
+            synchronized (inFlight_) { // the channel is shared with the workers acknowledging messages
+                receiver_.getChannel().basicPublish(Adapter.DataMoverExchangeName, message.getTableName(),
+                        publishProperties, body);
+            }
+        } catch (Exception e) {
+            log_.error("PipelinedDataReceiverMsgConsumer - Exception occurred (msg will be skipped): %s!", e.getMessage());
+            log_.error("%s", Adapter.stackTraceToString(e));
+            prevAmqpMessageId_ = lAmqpMessageId;
+            logRasException(e, lAmqpMessageId, null);
+            complete(track(envelope.getDeliveryTag(), null));
+            return;
+        }
+        Worker worker = workers_.get(Math.floorMod(message.getTableName().hashCode(), workers_.size()));
+        worker.queue.add(track(envelope.getDeliveryTag(), message));
+    }
+
+    private void checkAmqpMessageId(DataMoverMessage message) throws IOException {
+        // Ensure that this AmqpMessageId is "valid/expected" (should be monotonically increasing with no skipped
+        // values).
+        long lExpectedAmqpMessageId = prevAmqpMessageId_ + 1L;
+        if (message.getAmqpMessageId() != lExpectedAmqpMessageId) {
+            // Cut a ras event to record that we received an unexpected (out of sequence) message id while receiving
+            // data from Tier1.
+            adapter_.logRasEventNoEffectedJob("RasAntDataReceiverInvalidMsgId",
+                    ("IntervalId=" + message.getIntervalId() + ", ReceivedAmqpMessageId=" +
+                            message.getAmqpMessageId() + ", ExpectedAmqpMessageId=" + lExpectedAmqpMessageId),
+                    null, System.currentTimeMillis() * 1000L, adapter_.adapterType(), workQueue_.workItemId());
+            log_.fatal("DataReceiver received an unexpected/out of sequence AmqpMessageId, data may have been lost - IntervalId=%d, ReceivedAmqpMessageId=%d, ExpectedAmqpMessageId=%d, AdapterType=%s, ThisAdapterId=%d!",
+                    message.getIntervalId(), message.getAmqpMessageId(), lExpectedAmqpMessageId,
+                    adapter_.adapterType(), adapter_.adapterId());
+            // Note: after logging that this has occurred, continue and processing this message!
+        }
+    }
+
+    private void logRasException(Exception e, long lAmqpMessageId, String sTableName) {
+        try {
+            adapter_.logRasEventNoEffectedJob("RasAntException",
+                    "AmqpMessageId=" + lAmqpMessageId + ", TableName=" + sTableName + "Exception=" + e, null,
+                    System.currentTimeMillis() * 1000L, adapter_.adapterType(), workQueue_.baseWorkItemId());
+        } catch (Exception e2) {
+            log_.error("PipelinedDataReceiverMsgConsumer - Second exception occurred (exception within exception handler): %s!", e.getMessage());
+        }
+    }
+
+    private Delivery track(long tag, DataMoverMessage message) {
+        Delivery delivery = new Delivery(tag, message);
+        synchronized (inFlight_) {
+            inFlight_.addLast(delivery);
+        }
+        return delivery;
+    }
+
+    // Marks a delivery written. Once every delivery up to it is written they are acknowledged (at most every
+    // ackBatch_ deliveries, or when nothing is left in flight) and, at an interval boundary, checkpointed.
+    void complete(Delivery delivery) {
+        synchronized (inFlight_) {
+            delivery.written = true;
+            Delivery last = null;
+            while (!inFlight_.isEmpty() && inFlight_.peekFirst().written) {
+                last = inFlight_.pollFirst();
+                if (last.message != null)
+                    lastWritten_ = last;
+                if (last.updated)
+                    publishHighWaterMark(last.message);
+                unacked_++;
+            }
+            if (last == null)
+                return;
+            try {
+                if (unacked_ >= ackBatch_ || inFlight_.isEmpty()) {
+                    getChannel().basicAck(last.tag, true);
+                    log_.debug("DataReceiver acknowledged %d messages through delivery tag %d", unacked_, last.tag);
+                    unacked_ = 0;
+                }
+                Delivery next = inFlight_.peekFirst();
+                if (lastWritten_ != null && lastWritten_ != checkpointed_ && (next == null || next.message == null ||
+                        next.message.getIntervalId() != lastWritten_.message.getIntervalId()))
+                    saveCheckpoint(lastWritten_);
+            } catch (Exception e) {
+                log_.exception(e, "DataReceiver failed to acknowledge or checkpoint through delivery tag %d",
+                        last.tag);
+            } finally {
+                inFlight_.notifyAll();
+            }
+        }
+    }
+
+    // Must be called while holding inFlight_, so the high-water marks are published in queue order.
+    private void publishHighWaterMark(DataMoverMessage message) {
+        try {
+            DataMoverHighWaterMarks.publish(getChannel(), message, adapter_.jsonParser());
+        } catch (Exception e) {
+            log_.exception(e, "DataReceiver failed to publish the high-water mark of AmqpMessageId=%d",
+                    message.getAmqpMessageId());
+        }
+    }
+
+    // Must be called while holding inFlight_.
+    private void saveCheckpoint(Delivery delivery) throws IOException {
+        DataMoverMessage message = delivery.message;
+        String sRestartData = "Processed through (" + AdapterNearlineTierJdbc.TimestampPrefix +
+                sdfSqlDateFormat_.format(new Date(message.getEndIntvlTimeMs())) + ") (" +
+                AdapterNearlineTierJdbc.IntervalIdPrefix + message.getIntervalId() + ") (" +
+                AdapterNearlineTierJdbc.AmqpMessageIdPrefix + message.getAmqpMessageId() + ") (" +
+                AdapterNearlineTierJdbc.TableNamePrefix + message.getTableName() + ")";
+        // false means to update this workitem's history record rather than doing an insert of another history record.
+        workQueue_.saveWorkItemsRestartData(workQueue_.workItemId(), sRestartData, false);
+        checkpointed_ = delivery;
+    }
+
+    private void waitUntilWritten() {
+        synchronized (inFlight_) {
+            try {
+                while (!inFlight_.isEmpty())
+                    inFlight_.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static final class Delivery {
+        Delivery(long tag, DataMoverMessage message) {
+            this.tag = tag;
+            this.message = message;
+        }
+        final long tag;
+        final DataMoverMessage message;
+        boolean written = false; // Guarded by inFlight_.
+        volatile boolean updated = false; // The nearline tier table was updated.
+    }
+
+    private final class Worker extends Thread {
+        Worker(int index, NearlineTableUpdater updater) {
+            super("DataReceiver-worker-" + index);
+            setDaemon(true);
+            updater_ = updater;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Delivery delivery;
+                try {
+                    delivery = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (delivery == STOP)
+                    return;
+                DataMoverMessage message = delivery.message;
+                try {
+                    updater_.Update(message.getTableName(), message.getTable());
+                    delivery.updated = true;
+                    log_.info("PipelinedDataReceiverMsgConsumer - updated nearline table - AmqpMessageId=%d, " +
+                            "TableName=%s", message.getAmqpMessageId(), message.getTableName());
+                } catch (Exception e) {
+                    log_.error("PipelinedDataReceiverMsgConsumer - Exception occurred (msg will be skipped): %s!", e.getMessage());
+                    log_.error("%s", Adapter.stackTraceToString(e));
+                    logRasException(e, message.getAmqpMessageId(), message.getTableName());
+                } finally {
+                    complete(delivery);
+                }
+            }
+        }
+
+        final BlockingQueue<Delivery> queue = new LinkedBlockingQueue<>();
+        private final NearlineTableUpdater updater_;
+    }
+
+    private static final Delivery STOP = new Delivery(-1L, null);
+
+    private final DataReceiverAmqp receiver_;
+    private final IAdapter adapter_;
+    private final Logger log_;
+    private final WorkQueue workQueue_;
+    private final AdapterNearlineTierJdbc nearlineAdapter_;
+    private final int ackBatch_;
+    private final List<Worker> workers_ = new ArrayList<>();
+    private final SimpleDateFormat sdfSqlDateFormat_ = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    private final ArrayDeque<Delivery> inFlight_ = new ArrayDeque<>(); // Deliveries in queue order.
+    private long prevAmqpMessageId_; // Only used on the AMQP consumer thread.
+    private long unacked_ = 0L;
+    private Delivery lastWritten_ = null;
+    private Delivery checkpointed_ = null;
+}
@@ -21,6 +21,7 @@ public interface DataStoreFactory {
     BootImage createBootImageApi(IAdapter adapter);
     InventoryTrackingApi createInventoryTrackingApi();
     DataLoaderApi createDataLoaderApi() throws DataStoreException;
+    DataLoaderApi createDataLoaderApi(int numThreads, int batchSize) throws DataStoreException;
     DbStatusApi createDbStatusApi(Client client) throws DataStoreException;
     EventsLog createEventsLog(String adapterName, String adapterType);
     Location createLocation();
@@ -33,8 +34,10 @@ public interface DataStoreFactory {
     WorkQueue createWorkQueue(AdapterInformation adapter);
     RasEventLog createRasEventLog(IAdapter adapter) throws DataStoreException;
     RasEventLog createRasEventLog(AdapterInformation adapter);
+    RasEventLog createRasEventLog(AdapterInformation adapter, int batchSize, long lingerMs);
     BootImage createBootImageApi(AdapterInformation adapter);
     StoreTelemetry createStoreTelemetry(Logger logger);
+    StoreTelemetry createStoreTelemetry(Logger logger, int batchSize, long lingerMs);
     NodeInformation createNodeInformation();
     InventoryApi createInventoryApi(AdapterInformation adapter);
     HWInvDbApi createHWInvApi();
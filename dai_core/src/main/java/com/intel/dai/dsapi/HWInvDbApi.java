@@ -50,10 +50,35 @@ public interface HWInvDbApi {
      */
     int ingestCookedNodesChanged(Map<String, String> lastNodeLocationChangeTimestamp) throws DataStoreException;
 
+    /**
+     * <p> Upserts a raw DIMM document, unless the stored document of the same DIMM (serial) is newer. </p>
+     * @return 1 if the document was written, 0 if it was not (i.e. the stored document is newer)
+     * @throws DataStoreException when the document could not be written
+     */
     int ingest(String id, Dimm dimm) throws DataStoreException;
+
+    /**
+     * <p> Upserts a raw FRU host document, unless the stored document of the same FRU host (mac) is newer. </p>
+     * @return 1 if the document was written, 0 if it was not (i.e. the stored document is newer)
+     * @throws DataStoreException when the document could not be written
+     */
     int ingest(String id, FruHost fruHost) throws DataStoreException;
     int ingest(NodeInventory nodeInventory) throws DataStoreException;
 
+    /**
+     * <p> Newest DbUpdatedTimestamp of the raw DIMMs, i.e. of the last raw DIMM the data mover has to move. </p>
+     * @return timestamp in microseconds since epoch, 0 if there are no raw DIMMs
+     * @throws DataStoreException when the online database could not be queried
+     */
+    long getLastRawDimmUpdateTimestamp() throws DataStoreException;
+
+    /**
+     * <p> Newest DbUpdatedTimestamp of the raw FRU hosts, i.e. of the last raw FRU host the data mover has to move. </p>
+     * @return timestamp in microseconds since epoch, 0 if there are no raw FRU hosts
+     * @throws DataStoreException when the online database could not be queried
+     */
+    long getLastRawFruHostUpdateTimestamp() throws DataStoreException;
+
     List<FruHost> enumerateFruHosts();
     Map<String, String> getDimmJsonsOnFruHost(String fruHostMac);
 }
@@ -23,4 +23,10 @@ public interface RasEventLog {
     void setRasEventAssociatedJobID(String jobID, String rasEventType, long rasEventID)
             throws IOException;
     void loadRasMetadata();
+
+    /**
+     * Send any RAS events buffered by a batching implementation now. Implementations sending each event immediately
+     * have nothing to do.
+     */
+    default void flush() {}
 }
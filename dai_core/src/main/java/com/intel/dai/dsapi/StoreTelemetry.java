@@ -5,6 +5,7 @@
 package com.intel.dai.dsapi;
 
 import com.intel.dai.exceptions.DataStoreException;
+import com.intel.perflogging.BenchmarkHelper;
 
 import java.io.Closeable;
 
@@ -15,4 +16,19 @@ public interface StoreTelemetry extends AutoCloseable, Closeable {
     long logEnvDataAggregated(String sTypeOfData, String sLctn, long lTsInMicroSecs, double dMaxValue,
                               double dMinValue, double dAvgValue, String sReqAdapterType, long lReqWorkItemId)
             throws DataStoreException;
+
+    /**
+     * Store any rows buffered by a batching implementation now. Implementations storing each row immediately have
+     * nothing to do.
+     *
+     * @throws DataStoreException When the buffered rows could not be stored.
+     */
+    default void flush() throws DataStoreException {}
+
+    /**
+     * Report store metrics to a benchmarking helper. Implementations without metrics to report ignore it.
+     *
+     * @param benchmarker The helper to report to or null to stop reporting.
+     */
+    default void setBenchmarker(BenchmarkHelper benchmarker) {}
 }
@@ -12,6 +12,7 @@ import com.intel.dai.dsapi.*;
 import com.intel.dai.dsimpl.jdbc.DataLoaderApiJdbc;
 import com.intel.dai.dsimpl.jdbc.DbConnectionFactory;
 import com.intel.dai.dsimpl.jdbc.InventorySnapshotJdbc;
+import com.intel.dai.dsimpl.jdbc.JdbcBatchedStoreTelemetry;
 import com.intel.dai.dsimpl.jdbc.JdbcStoreTelemetry;
 import com.intel.dai.dsimpl.voltdb.*;
 import com.intel.dai.exceptions.DataStoreException;
@@ -97,6 +98,14 @@ public class DataStoreFactoryImpl implements DataStoreFactory {
         return instance;
     }
 
+    @Override
+    public RasEventLog createRasEventLog(AdapterInformation adapter, int batchSize, long lingerMs) {
+        VoltDbRasEventLog instance = createRasEventLog(adapter);
+        if(batchSize <= 1)
+            return instance;
+        return new VoltDbBatchedRasEventLog(instance, adapter.getName(), logger_, batchSize, lingerMs);
+    }
+
     @Override
     public InventorySnapshot createInventorySnapshotApi() {
         return new InventorySnapshotJdbc(logger_);
@@ -124,10 +133,16 @@ public class DataStoreFactoryImpl implements DataStoreFactory {
 
     @Override
     public DataLoaderApi createDataLoaderApi() throws DataStoreException {
+        return createDataLoaderApi(1, DataLoaderApiJdbc.DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public DataLoaderApi createDataLoaderApi(int numThreads, int batchSize) throws DataStoreException {
         Connection nearlineConn = createTier2Connection();
         Connection onlineConn = createTier1Connection();
 
-        DataLoaderApi api = new DataLoaderApiJdbc(onlineConn, nearlineConn, logger_);
+        DataLoaderApi api = new DataLoaderApiJdbc(onlineConn, nearlineConn, this::createTier1Connection,
+                this::createTier2Connection, createOnlineTierBulkLoadClient(), numThreads, batchSize, logger_);
         Runtime.getRuntime().addShutdownHook(new Thread(()-> {
             try {
                 api.disconnectAll();
@@ -138,6 +153,17 @@ public class DataStoreFactoryImpl implements DataStoreFactory {
         return api;
     }
 
+    // The data loader stores the Online tier rows through VoltDB bulk loaders of this client. Without a client (no
+    // VoltDB server could be reached) it falls back to JDBC batches over the Online tier connections.
+    protected Client createOnlineTierBulkLoadClient() {
+        try {
+            return new VoltDbLegacyDirectAccess(parsedServers).getVoltDbClient();
+        } catch (RuntimeException ex) {
+            logger_.warn("Unable to connect a VoltDB client to load the Online tier in bulk: %s", ex.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public DbStatusApi createDbStatusApi(Client client) throws DataStoreException {
         return new DbStatusApiImpl(logger_, client);
@@ -205,6 +231,13 @@ public class DataStoreFactoryImpl implements DataStoreFactory {
         return new JdbcStoreTelemetry(logger);
     }
 
+    @Override
+    public StoreTelemetry createStoreTelemetry(Logger logger, int batchSize, long lingerMs) {
+        if(batchSize <= 1)
+            return createStoreTelemetry(logger);
+        return new JdbcBatchedStoreTelemetry(logger, batchSize, lingerMs);
+    }
+
     @Override
     public LegacyVoltDbDirectAccess createVoltDbLegacyAccess() {
         return new VoltDbLegacyDirectAccess(parsedServers);
@@ -7,23 +7,63 @@ package com.intel.dai.dsimpl.jdbc;
 import com.intel.dai.dsapi.DataLoaderApi;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.logging.Logger;
+import org.voltdb.client.Client;
+import org.voltdb.client.VoltBulkLoader.BulkLoaderFailureCallBack;
+import org.voltdb.client.VoltBulkLoader.VoltBulkLoader;
+import org.voltdb.types.TimestampType;
 
 import java.sql.*;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DataLoaderApiJdbc implements DataLoaderApi {
+    // Creates an additional connection to one of the tiers, used by the threads loading tables in parallel.
+    public interface ConnectionFactory {
+        Connection createConnection() throws DataStoreException;
+    }
 
     public DataLoaderApiJdbc(Connection onlineConn, Connection nearlineConn, Logger log) {
+        this(onlineConn, nearlineConn, null, null, 1, DEFAULT_BATCH_SIZE, log);
+    }
+
+    public DataLoaderApiJdbc(Connection onlineConn, Connection nearlineConn, ConnectionFactory onlineConnFactory,
+                             ConnectionFactory nearlineConnFactory, int numThreads, int batchSize, Logger log) {
+        this(onlineConn, nearlineConn, onlineConnFactory, nearlineConnFactory, null, numThreads, batchSize, log);
+    }
+
+    /**
+     * Loader that populates up to numThreads Online tier tables at the same time, each with its own Nearline tier
+     * connection. Rows are fetched from the Nearline tier batchSize rows at a time. When a VoltDB client is given, the
+     * rows are handed to a VoltDB bulk loader per Online tier table, which inserts batchSize rows per call and keeps
+     * several calls in flight; otherwise they are inserted through JDBC batches on the Online tier connections.
+     */
+    public DataLoaderApiJdbc(Connection onlineConn, Connection nearlineConn, ConnectionFactory onlineConnFactory,
+                             ConnectionFactory nearlineConnFactory, Client onlineClient, int numThreads,
+                             int batchSize, Logger log) {
         assert onlineConn != null : "Online tier DB connection must be provided to DataLoaderApiJdbc";
         assert nearlineConn != null : "Nearline tier DB connection must be provided to DataLoaderApiJdbc";
         assert log != null : "Logger must be provided to DataLoaderApiJdbc";
+        assert numThreads <= 1 || (onlineConnFactory != null && nearlineConnFactory != null) :
+                "Connection factories must be provided to load tables in parallel";
 
         this.log = log;
 
         this.onlineTierConn = onlineConn;
         this.nearlineTierConn = nearlineConn;
+        this.onlineTierConnFactory = onlineConnFactory;
+        this.nearlineTierConnFactory = nearlineConnFactory;
+        this.onlineTierClient = onlineClient;
+        this.numThreads = Math.max(1, numThreads);
+        this.batchSize = Math.max(1, batchSize);
     }
 
     @Override
@@ -68,8 +108,69 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
 
     @Override
     public void populateOnlineTierFromNearlineTier() throws DataStoreException {
-        for (String tableName : tables) {
-            populateOnlineTableFromNearline(tableName);
+        long start = System.nanoTime();
+        long rows = 0;
+        if (numThreads == 1 || tables.length <= 1) {
+            for (String tableName : tables) {
+                rows += populateOnlineTableFromNearline(tableName, onlineTierConn, nearlineTierConn);
+            }
+        } else {
+            rows = populateOnlineTablesInParallel();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Populated %d Online tier tables with %d rows in %d ms (%.0f rows/s)", tables.length, rows,
+                elapsedMs, rowsPerSecond(rows, elapsedMs));
+    }
+
+    // Fans the tables out over the thread pool. The first failure cancels the tables not loaded yet.
+    private long populateOnlineTablesInParallel() throws DataStoreException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(numThreads, tables.length), (runnable) -> {
+            Thread thread = new Thread(runnable, "DataLoader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletionService<Long> completion = new ExecutorCompletionService<>(executor);
+            for (String tableName : tables) {
+                completion.submit(() -> populateOnlineTableWithNewConnections(tableName));
+            }
+            long rows = 0;
+            for (int i = 0; i < tables.length; i++) {
+                rows += completion.take().get();
+            }
+            return rows;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof DataStoreException) {
+                throw (DataStoreException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DataStoreException("An error occurred while populating the Online tier", cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DataStoreException("Interrupted while populating the Online tier", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long populateOnlineTableWithNewConnections(String tableName) throws DataStoreException {
+        Connection nearlineConn = nearlineTierConnFactory.createConnection();
+        try {
+            if (onlineTierClient != null) {
+                return populateOnlineTableInBulk(tableName, nearlineConn);
+            }
+            Connection onlineConn = onlineTierConnFactory.createConnection();
+            try {
+                return populateOnlineTableFromNearline(tableName, onlineConn, nearlineConn);
+            } finally {
+                closeConn(onlineConn);
+            }
+        } finally {
+            closeConn(nearlineConn);
         }
     }
 
@@ -104,7 +205,11 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private void populateOnlineTableFromNearline(String tableName) throws DataStoreException {
+    private long populateOnlineTableFromNearline(String tableName, Connection onlineConn, Connection nearlineConn)
+            throws DataStoreException {
+        if (onlineTierClient != null) {
+            return populateOnlineTableInBulk(tableName, nearlineConn);
+        }
         PreparedStatement loadStmt = null;
         PreparedStatement activeStoreStmt = null;
         PreparedStatement historyStoreStmt = null;
@@ -112,10 +217,10 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         boolean hasHistoryTable = historyTable != null;
 
         try {
-            loadStmt = createNearlineTableLoadStmt(tableName);
-            activeStoreStmt = createOnlineTierTableStoreStmt(tableName);
+            loadStmt = createNearlineTableLoadStmt(tableName, nearlineConn);
+            activeStoreStmt = createOnlineTierTableStoreStmt(tableName, onlineConn);
             if (hasHistoryTable) {
-                historyStoreStmt = createOnlineTierHistoryTableStoreStmt(historyTable);
+                historyStoreStmt = createOnlineTierHistoryTableStoreStmt(historyTable, onlineConn);
             }
         } catch (DataStoreException ex) {
             closeStmt(loadStmt);
@@ -129,7 +234,10 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         ResultSetMetaData metaData;
 
         log.info("Loading data from Nearline tier table: %s", tableName);
+        long start = System.nanoTime();
         try {
+            // Stream the rows, one insert batch per round trip, rather than holding the whole table in memory.
+            loadStmt.setFetchSize(batchSize);
             data = loadStmt.executeQuery();
             metaData = data.getMetaData();
         } catch (SQLException ex) {
@@ -143,6 +251,8 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
             throw new DataStoreException("Unable to load data from Nearline tier", ex);
         }
 
+        long rows = 0;
+        long nextProgressRows = PROGRESS_INTERVAL_ROWS;
         try {
             log.info("Storing data in Online tier table: %s", tableName);
             Map<String, Integer> columnTypes = getColumnTypesFromMetaData(metaData);
@@ -151,16 +261,28 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
                 assert fields != null : "Missing Nearline database schema details in DataLoaderApi";
 
                 setStmtData(data, tableName, fields, columnTypes, activeStoreStmt);
-                activeStoreStmt.execute();
+                activeStoreStmt.addBatch();
 
                 if (hasHistoryTable) {
                     String[] historyFields = historyTableFields.get(historyTable);
                     assert historyFields != null : "Missing Nearline database schema details in DataLoaderApi";
 
                     setStmtData(data, historyTable, historyFields, columnTypes, historyStoreStmt);
-                    historyStoreStmt.execute();
+                    historyStoreStmt.addBatch();
                 }
+                if (++rows % batchSize == 0) {
+                    executeBatches(activeStoreStmt, historyStoreStmt);
+                    if (rows >= nextProgressRows) {
+                        nextProgressRows += PROGRESS_INTERVAL_ROWS;
+                        logStoreProgress(tableName, rows, start);
+                    }
+                }
+            }
+            if (rows % batchSize != 0) {
+                executeBatches(activeStoreStmt, historyStoreStmt);
             }
+            logStoreCompleted(tableName, rows, start);
+            return rows;
         } catch (SQLException ex) {
             log.exception(ex, "An error occurred while updating Online tier database");
             throw new DataStoreException("An error occurred while updating Online tier database", ex);
@@ -172,9 +294,199 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private PreparedStatement createNearlineTableLoadStmt(String tableName) throws DataStoreException {
+    // Streams the Nearline tier rows into a VoltDB bulk loader per Online tier table. The bulk loaders send batchSize
+    // rows per call to the table's insert procedure and do not wait for one call to be answered before sending the
+    // next, so the load is not bound by one round trip per row (or per JDBC batch).
+    private long populateOnlineTableInBulk(String tableName, Connection nearlineConn) throws DataStoreException {
+        String[] fields = tableFields.get(tableName);
+        assert fields != null : "Missing Nearline database schema details in DataLoaderApi";
+        String historyTable = historyTables.get(tableName);
+        String[] historyFields = historyTable != null ? historyTableFields.get(historyTable) : null;
+        assert historyTable == null || historyFields != null :
+                "Missing Nearline database schema details in DataLoaderApi";
+
+        AtomicLong failedRows = new AtomicLong();
+        BulkLoaderFailureCallBack onFailure = (rowHandle, row, response) -> {
+            if (failedRows.getAndIncrement() == 0) {
+                log.error("Unable to store row %s of Nearline tier table %s in Online tier: %s", rowHandle,
+                        tableName, response.getStatusString());
+            }
+        };
+
+        PreparedStatement loadStmt = createNearlineTableLoadStmt(tableName, nearlineConn);
+        BulkTable activeStore = null;
+        BulkTable historyStore = null;
+        ResultSet data = null;
+        long rows = 0;
+        long nextProgressRows = PROGRESS_INTERVAL_ROWS;
         try {
-            PreparedStatement stmt = nearlineTierConn.prepareCall(
+            activeStore = createBulkTable(tableName, fields, onFailure);
+            if (historyTable != null) {
+                historyStore = createBulkTable(historyTable, historyFields, onFailure);
+            }
+
+            log.info("Loading data from Nearline tier table: %s", tableName);
+            long start = System.nanoTime();
+            loadStmt.setFetchSize(batchSize);
+            data = loadStmt.executeQuery();
+            Map<String, Integer> columnTypes = getColumnTypesFromMetaData(data.getMetaData());
+
+            log.info("Storing data in Online tier table: %s", tableName);
+            while (data.next()) {
+                activeStore.insertRow(rows, data, columnTypes);
+                if (historyStore != null) {
+                    historyStore.insertRow(rows, data, columnTypes);
+                }
+                if (++rows >= nextProgressRows) {
+                    nextProgressRows += PROGRESS_INTERVAL_ROWS;
+                    logStoreProgress(tableName, rows, start);
+                }
+            }
+            activeStore.loader.drain();
+            if (historyStore != null) {
+                historyStore.loader.drain();
+            }
+            if (failedRows.get() != 0) {
+                throw new DataStoreException(String.format("Unable to store %d rows of Nearline tier table %s in " +
+                        "Online tier", failedRows.get(), tableName));
+            }
+            logStoreCompleted(tableName, rows, start);
+            return rows;
+        } catch (SQLException ex) {
+            log.exception(ex, "An error occurred while loading Nearline tier table %s", tableName);
+            throw new DataStoreException("An error occurred while loading Nearline tier table " + tableName, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DataStoreException("Interrupted while updating Online tier table " + tableName, ex);
+        } finally {
+            closeResultSet(data);
+            closeStmt(loadStmt);
+            closeBulkTable(activeStore);
+            closeBulkTable(historyStore);
+        }
+    }
+
+    private BulkTable createBulkTable(String tableName, String[] fields, BulkLoaderFailureCallBack onFailure)
+            throws DataStoreException {
+        VoltBulkLoader loader;
+        try {
+            loader = onlineTierClient.getNewBulkLoader(tableName, batchSize, onFailure);
+        } catch (Exception ex) {
+            throw new DataStoreException("Unable to create bulk loader to store data in Online tier table: " +
+                    tableName, ex);
+        }
+        // The bulk loader takes whole rows in the table's column order, the columns not copied from the Nearline
+        // tier stay null.
+        Map<String, Integer> columnPositions = new HashMap<>();
+        for (Map.Entry<Integer, String> column : loader.getColumnNames().entrySet()) {
+            columnPositions.put(column.getValue().toUpperCase(), column.getKey());
+        }
+        int[] positions = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Integer position = columnPositions.get(fields[i].toUpperCase());
+            if (position == null) {
+                closeBulkLoader(tableName, loader);
+                throw new DataStoreException(String.format("Column not found in Online tier table %s: %s",
+                        tableName, fields[i]));
+            }
+            positions[i] = position;
+        }
+        return new BulkTable(tableName, fields, positions, columnPositions.size(), loader);
+    }
+
+    private void closeBulkTable(BulkTable table) {
+        if (table != null) {
+            closeBulkLoader(table.name, table.loader);
+        }
+    }
+
+    private void closeBulkLoader(String tableName, VoltBulkLoader loader) {
+        try {
+            loader.close();
+        } catch (Exception ex) {
+            log.warn("An unexpected error occurred while closing the bulk loader of Online tier table %s: %s",
+                    tableName, ex.getMessage());
+        }
+    }
+
+    // An Online tier table being populated through a VoltDB bulk loader.
+    private final class BulkTable {
+        BulkTable(String name, String[] fields, int[] positions, int numColumns, VoltBulkLoader loader) {
+            this.name = name;
+            this.fields = fields;
+            this.positions = positions;
+            this.numColumns = numColumns;
+            this.loader = loader;
+        }
+
+        void insertRow(long rowHandle, ResultSet data, Map<String, Integer> columnTypes)
+                throws SQLException, InterruptedException {
+            Object[] row = new Object[numColumns];
+            for (int i = 0; i < fields.length; i++) {
+                row[positions[i]] = getRowValue(data, name, fields[i], columnTypes);
+            }
+            loader.insertRow(rowHandle, row);
+        }
+
+        private final String name;
+        private final String[] fields;
+        private final int[] positions;
+        private final int numColumns;
+        private final VoltBulkLoader loader;
+    }
+
+    private Object getRowValue(ResultSet data, String tableName, String field, Map<String, Integer> columnTypes)
+            throws SQLException {
+        Integer sqlType = columnTypes.get(field.toUpperCase());
+        if (sqlType == null) {
+            log.error("An unexpected error has occurred: column not found in table %s: %s", tableName, field);
+            throw new RuntimeException(
+                    String.format("An unexpected error has occurred: column not found in table %s: %s",
+                            tableName, field));
+        }
+        if (sqlType == Types.BINARY || sqlType == Types.VARBINARY) {
+            return data.getBytes(field);
+        }
+        if (sqlType == Types.TIMESTAMP) {
+            Timestamp value = data.getTimestamp(field);
+            if (value == null) {
+                return null;
+            }
+            Timestamp fromGmt = new Timestamp(value.getTime() + TimeZone.getDefault().getOffset(value.getTime()));
+            fromGmt.setNanos(value.getNanos());
+            return new TimestampType(fromGmt);
+        }
+        return data.getObject(field);
+    }
+
+    private void logStoreProgress(String tableName, long rows, long start) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Stored %d rows in Online tier table %s so far (%.0f rows/s)", rows, tableName,
+                rowsPerSecond(rows, elapsedMs));
+    }
+
+    private void logStoreCompleted(String tableName, long rows, long start) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Stored %d rows in Online tier table %s in %d ms (%.0f rows/s)", rows, tableName, elapsedMs,
+                rowsPerSecond(rows, elapsedMs));
+    }
+
+    private void executeBatches(PreparedStatement activeStoreStmt, PreparedStatement historyStoreStmt)
+            throws SQLException {
+        activeStoreStmt.executeBatch();
+        if (historyStoreStmt != null) {
+            historyStoreStmt.executeBatch();
+        }
+    }
+
+    private static double rowsPerSecond(long rows, long elapsedMs) {
+        return rows * 1000.0 / Math.max(1L, elapsedMs);
+    }
+
+    private PreparedStatement createNearlineTableLoadStmt(String tableName, Connection nearlineConn)
+            throws DataStoreException {
+        try {
+            PreparedStatement stmt = nearlineConn.prepareCall(
                     generateProcCallText(tableToProcedure.get(tableName)));
             return stmt;
         } catch (SQLException ex) {
@@ -183,13 +495,14 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private PreparedStatement createOnlineTierTableStoreStmt(String tableName) throws DataStoreException {
+    private PreparedStatement createOnlineTierTableStoreStmt(String tableName, Connection onlineConn)
+            throws DataStoreException {
         try {
             String[] fields = tableFields.get(tableName);
             // fields should never be null (if it is, it's a programmer error)
             assert fields != null : "Missing Nearline database schema details in DataLoaderApi";
 
-            PreparedStatement stmt = onlineTierConn.prepareStatement(
+            PreparedStatement stmt = onlineConn.prepareStatement(
                     generateInsertStatementText(tableName, fields));
             return stmt;
         } catch (SQLException ex) {
@@ -198,13 +511,14 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private PreparedStatement createOnlineTierHistoryTableStoreStmt(String historyTableName) throws DataStoreException {
+    private PreparedStatement createOnlineTierHistoryTableStoreStmt(String historyTableName, Connection onlineConn)
+            throws DataStoreException {
         try {
             String[] fields = historyTableFields.get(historyTableName);
             // fields should never be null (if it is, it's a programmer error)
             assert fields != null : "Missing Nearline database schema details in DataLoaderApi";
 
-            PreparedStatement stmt = onlineTierConn.prepareStatement(
+            PreparedStatement stmt = onlineConn.prepareStatement(
                     generateInsertStatementText(historyTableName, fields));
             return stmt;
         } catch (SQLException ex) {
@@ -288,6 +602,14 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
+    private void closeConn(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ex) {
+            log.warn("An unexpected error occurred while closing a DB resources (connection): " + ex.getMessage());
+        }
+    }
+
     private void closeStmt(PreparedStatement stmt) {
         try {
             if (stmt != null) {
@@ -313,6 +635,9 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
     Map<String, String[]> tableFields = TABLE_FIELDS;
     Map<String, String[]> historyTableFields = HISTORY_TABLE_FIELDS;
 
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final long PROGRESS_INTERVAL_ROWS = 100000L;
+
     private static final String VALUE_COL = "value";
     private static final String GET_TIER2_VALID_CONFIG_VALUE_SQL =
             "select " + VALUE_COL + " from tier2_config where key = 'tier2_valid'";
@@ -473,6 +798,11 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
 
     private Connection onlineTierConn;
     private Connection nearlineTierConn;
+    private final ConnectionFactory onlineTierConnFactory;
+    private final ConnectionFactory nearlineTierConnFactory;
+    private final Client onlineTierClient;
+    private final int numThreads;
+    private final int batchSize;
     private Logger log;
 
     private PreparedStatement tier2ValidGetStmt = null;
@@ -0,0 +1,405 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.jdbc;
+
+import com.intel.config_io.ConfigIOParseException;
+import com.intel.dai.DbConfig;
+import com.intel.dai.exceptions.DataStoreException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * A small JDBC connection pool. Connections handed out are wrappers whose close() returns the physical connection to
+ * the pool (rolled back when not in auto-commit mode). Each physical connection keeps the prepared and callable
+ * statements created on it in an LRU cache, closing a statement wrapper only clears its parameters. A connection that
+ * has been idle longer than the validation interval is checked with Connection.isValid() before being handed out and
+ * replaced when the check fails.
+ *
+ * The optional pool settings are read from the "db" object of NearlineConfig.json:
+ *      pool-size                     Maximum number of connections (default 8).
+ *      pool-statement-cache-size     Cached statements per connection, 0 disables the cache (default 32).
+ *      pool-validation-interval-ms   Idle time after which a connection is validated (default 30000).
+ *      pool-borrow-timeout-ms        Maximum wait for a free connection (default 30000).
+ *      fetch-size                    Rows fetched per round trip by the statements of the pool (default 1000).
+ */
+public class DbConnectionPool implements DataSource, AutoCloseable {
+    @FunctionalInterface
+    public interface ConnectionSource {
+        Connection createConnection() throws DataStoreException;
+    }
+
+    /**
+     * Create a pool.
+     *
+     * @param source Creates the physical connections.
+     * @param maxSize The maximum number of connections open at one time.
+     * @param statementCacheSize The number of statements cached per connection (0 for none).
+     * @param validationIntervalMs Idle time in milliseconds after which a connection is validated before use.
+     * @param borrowTimeoutMs Time in milliseconds getConnection waits for a free connection before failing.
+     */
+    public DbConnectionPool(ConnectionSource source, int maxSize, int statementCacheSize, long validationIntervalMs,
+                            long borrowTimeoutMs) {
+        if(maxSize < 1 || statementCacheSize < 0 || validationIntervalMs < 0 || borrowTimeoutMs < 0)
+            throw new IllegalArgumentException("Invalid connection pool settings");
+        source_ = source;
+        maxSize_ = maxSize;
+        statementCacheSize_ = statementCacheSize;
+        validationIntervalMs_ = validationIntervalMs;
+        borrowTimeoutMs_ = borrowTimeoutMs;
+        permits_ = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Get the process wide pool for the default (Nearline tier) database described by NearlineConfig.json, the pool
+     * is created on first use.
+     *
+     * @return The shared pool.
+     * @throws DataStoreException If the configuration cannot be loaded.
+     */
+    public static synchronized DbConnectionPool getDefaultPool() throws DataStoreException {
+        if(defaultPool_ == null) {
+            DbConfig config = new DbConfig();
+            try {
+                config.loadFromFile(DEFAULT_CONFIG_FILE);
+            } catch(IOException | ConfigIOParseException e) {
+                throw new DataStoreException("Unable to load DB configuration parameters from file: " +
+                        DEFAULT_CONFIG_FILE, e);
+            }
+            Map<String, String> params = config.getDbConfig();
+            defaultPool_ = new DbConnectionPool(() -> DbConnectionFactory.createConnectionFromConfig(config),
+                    (int)setting(params, "pool-size", DEFAULT_SIZE),
+                    (int)setting(params, "pool-statement-cache-size", DEFAULT_STATEMENT_CACHE_SIZE),
+                    setting(params, "pool-validation-interval-ms", DEFAULT_VALIDATION_INTERVAL_MS),
+                    setting(params, "pool-borrow-timeout-ms", DEFAULT_BORROW_TIMEOUT_MS));
+            defaultPool_.setFetchSize((int)setting(params, "fetch-size", DEFAULT_FETCH_SIZE));
+        }
+        return defaultPool_;
+    }
+
+    /**
+     * Close the process wide pool if it was created.
+     */
+    public static synchronized void closeDefaultPool() {
+        if(defaultPool_ != null) {
+            defaultPool_.close();
+            defaultPool_ = null;
+        }
+    }
+
+    private static long setting(Map<String, String> params, String key, long defaultValue)
+            throws DataStoreException {
+        String value = params.get(key);
+        if(value == null || value.trim().isEmpty())
+            return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch(NumberFormatException e) {
+            throw new DataStoreException(String.format("The '%s' DB setting '%s' is not a number", key, value), e);
+        }
+    }
+
+    /**
+     * Set the fetch size given to every statement created through the pool's connections, so results are read from
+     * the database in batches of this many rows rather than all at once (drivers like PostgreSQL's only use a cursor
+     * when it is set).
+     *
+     * @param rows The number of rows, 0 leaves the driver default.
+     */
+    public void setFetchSize(int rows) {
+        if(rows < 0)
+            throw new IllegalArgumentException("The fetch size cannot be negative");
+        fetchSize_ = rows;
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting up to the borrow timeout for one to become free.
+     *
+     * @return The connection, closing it returns it to the pool.
+     * @throws SQLException If no connection becomes free in time, the pool is closed or a new connection cannot be
+     * created.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if(closed_)
+            throw new SQLException("The connection pool is closed");
+        try {
+            if(!permits_.tryAcquire(borrowTimeoutMs_, TimeUnit.MILLISECONDS))
+                throw new SQLTimeoutException(String.format("Timed out after %d ms waiting for one of the %d pooled " +
+                        "connections", borrowTimeoutMs_, maxSize_));
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+        try {
+            PooledConnection pooled = takeHealthyIdleConnection();
+            if(pooled == null) {
+                try {
+                    pooled = new PooledConnection(source_.createConnection());
+                } catch(DataStoreException e) {
+                    throw new SQLException(e.getMessage(), e);
+                }
+            }
+            return pooled.borrow();
+        } catch(SQLException | RuntimeException e) {
+            permits_.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The pool only creates connections for its configured user");
+    }
+
+    /**
+     * Close all idle connections and refuse new borrows. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed_ = true;
+        PooledConnection pooled;
+        while((pooled = idle_.pollFirst()) != null)
+            pooled.closePhysical();
+    }
+
+    int idleCount() { return idle_.size(); }
+
+    // Most recently used first, so the least used connections age out through validation.
+    private PooledConnection takeHealthyIdleConnection() {
+        PooledConnection pooled;
+        while((pooled = idle_.pollFirst()) != null) {
+            if(pooled.isHealthy())
+                return pooled;
+            pooled.closePhysical();
+        }
+        return null;
+    }
+
+    private void giveBack(PooledConnection pooled, boolean reusable) {
+        if(reusable && !closed_)
+            idle_.addFirst(pooled);
+        else
+            pooled.closePhysical();
+        permits_.release();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // One physical connection with its statement cache. The borrower gets a dynamic proxy of Connection that
+    // intercepts close(), prepareStatement(String) and prepareCall(String), and every statement handed out is a proxy
+    // that intercepts close().
+    //------------------------------------------------------------------------------------------------------------------
+    private final class PooledConnection {
+        PooledConnection(Connection physical) {
+            physical_ = physical;
+        }
+
+        Connection borrow() {
+            returned_ = false;
+            return (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, this::invokeOnConnection);
+        }
+
+        boolean isHealthy() {
+            try {
+                if(physical_.isClosed())
+                    return false;
+                if(System.currentTimeMillis() - lastReturnedMs_ < validationIntervalMs_)
+                    return true;
+                return physical_.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch(SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            for(PreparedStatement statement: statements_.values())
+                closeQuietly(statement);
+            statements_.clear();
+            closeQuietly(physical_);
+        }
+
+        private Object invokeOnConnection(Object proxy, Method method, Object[] args) throws Throwable {
+            switch(method.getName()) {
+                case "close":
+                    if(!returned_)
+                        giveBackToPool();
+                    return null;
+                case "isClosed":
+                    return returned_ || physical_.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + physical_;
+                default:
+                    break;
+            }
+            if(returned_)
+                throw new SQLException("The pooled connection was already closed");
+            if(statementCacheSize_ > 0 && args != null && args.length == 1 && args[0] instanceof String &&
+                    (method.getName().equals("prepareStatement") || method.getName().equals("prepareCall")))
+                return cachedStatement(method, (String)args[0]);
+            return withFetchSize(invoke(physical_, method, args));
+        }
+
+        private Object withFetchSize(Object result) throws SQLException {
+            if(fetchSize_ > 0 && result instanceof Statement)
+                ((Statement)result).setFetchSize(fetchSize_);
+            return result;
+        }
+
+        private Object cachedStatement(Method method, String sql) throws Throwable {
+            String key = method.getName() + ":" + sql;
+            PreparedStatement statement = statements_.remove(key); // In use until its wrapper is closed.
+            if(statement == null || statement.isClosed())
+                statement = (PreparedStatement)withFetchSize(invoke(physical_, method, new Object[] { sql }));
+            PreparedStatement physicalStatement = statement;
+            Class<?> type = method.getReturnType();
+            boolean[] closed = { false };
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, stmtMethod, args) -> {
+                switch(stmtMethod.getName()) {
+                    case "close":
+                        if(!closed[0]) {
+                            closed[0] = true;
+                            cacheStatement(key, physicalStatement);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed[0] || physicalStatement.isClosed();
+                    case "getConnection":
+                        return null; // Never hand out the physical connection.
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        if(closed[0])
+                            throw new SQLException("The statement was already closed");
+                        return invoke(physicalStatement, stmtMethod, args);
+                }
+            });
+        }
+
+        private void cacheStatement(String key, PreparedStatement statement) {
+            try {
+                if(returned_ || statement.isClosed()) {
+                    closeQuietly(statement);
+                    return;
+                }
+                statement.clearParameters();
+            } catch(SQLException e) {
+                closeQuietly(statement);
+                return;
+            }
+            PreparedStatement previous = statements_.put(key, statement);
+            if(previous != null && previous != statement)
+                closeQuietly(previous);
+        }
+
+        private void giveBackToPool() {
+            returned_ = true;
+            boolean reusable;
+            try {
+                if(!physical_.isClosed() && !physical_.getAutoCommit())
+                    physical_.rollback();
+                reusable = !physical_.isClosed();
+            } catch(SQLException e) {
+                reusable = false;
+            }
+            lastReturnedMs_ = System.currentTimeMillis();
+            giveBack(this, reusable);
+        }
+
+        private final Connection physical_;
+        private volatile boolean returned_ = false;
+        private volatile long lastReturnedMs_ = System.currentTimeMillis();
+        @SuppressWarnings("serial")
+        private final Map<String, PreparedStatement> statements_ = new LinkedHashMap<String, PreparedStatement>(16,
+                0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if(size() <= statementCacheSize_)
+                    return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch(InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch(Exception e) { /* Nothing to do if close fails. */ }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() { return logWriter_; }
+
+    @Override
+    public void setLogWriter(PrintWriter out) { logWriter_ = out; }
+
+    @Override
+    public void setLoginTimeout(int seconds) { loginTimeout_ = seconds; }
+
+    @Override
+    public int getLoginTimeout() { return loginTimeout_; }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("java.util.logging is not used");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if(iface.isInstance(this))
+            return iface.cast(this);
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) { return iface.isInstance(this); }
+
+    private final ConnectionSource source_;
+    private final int maxSize_;
+    private final int statementCacheSize_;
+    private final long validationIntervalMs_;
+    private final long borrowTimeoutMs_;
+    private final Semaphore permits_;
+    private final Deque<PooledConnection> idle_ = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed_ = false;
+    private volatile int fetchSize_ = 0;
+    private PrintWriter logWriter_ = null;
+    private int loginTimeout_ = 0;
+
+    private static DbConnectionPool defaultPool_ = null;
+    private static final String DEFAULT_CONFIG_FILE = "NearlineConfig.json";
+    private static final long DEFAULT_SIZE = 8L;
+    private static final long DEFAULT_STATEMENT_CACHE_SIZE = 32L;
+    private static final long DEFAULT_VALIDATION_INTERVAL_MS = 30_000L;
+    private static final long DEFAULT_BORROW_TIMEOUT_MS = 30_000L;
+    private static final long DEFAULT_FETCH_SIZE = 1_000L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+}
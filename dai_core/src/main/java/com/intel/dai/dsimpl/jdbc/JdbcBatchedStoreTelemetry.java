@@ -0,0 +1,225 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.jdbc;
+
+import com.intel.dai.exceptions.DataStoreException;
+import com.intel.logging.Logger;
+import com.intel.perflogging.BenchmarkHelper;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description of class JdbcBatchedStoreTelemetry. Aggregated telemetry rows are buffered and written with a single
+ * batched insert and one commit once batchSize rows are pending or the oldest pending row is lingerMs old. Pending
+ * rows are written on flush() and close(). When a benchmarking helper is set the stored rows and batches and the
+ * batch store times are reported to it ("TelemetryRowsStored", "TelemetryBatchesStored", "TelemetryBatchStoreUs" and
+ * the "TelemetryMaxBatchStoreUs" maximum).
+ */
+public class JdbcBatchedStoreTelemetry extends JdbcStoreTelemetry {
+    public JdbcBatchedStoreTelemetry(Logger log, int batchSize, long lingerMs) {
+        super(log);
+        assert batchSize > 0:"The telemetry batch size must be positive";
+        assert lingerMs > 0L:"The telemetry batch linger time must be positive";
+        log_ = log;
+        batchSize_ = batchSize;
+        lingerNs_ = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        pending_ = new ArrayList<>(batchSize);
+        timer_ = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "telemetry-batch-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer_.scheduleWithFixedDelay(this::flushLingeringRows, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long logEnvDataAggregated(String sTypeOfData, String sLctn, long lTsInMicroSecs, double dMaxValue,
+                                     double dMinValue, double dAvgValue, String sReqAdapterType, long lReqWorkItemId)
+            throws DataStoreException {
+        List<Row> batch = null;
+        synchronized (pendingLock_) {
+            if(pending_.isEmpty())
+                oldestPendingNs_ = System.nanoTime();
+            pending_.add(new Row(sTypeOfData, sLctn, lTsInMicroSecs, dMaxValue, dMinValue, dAvgValue,
+                    sReqAdapterType, lReqWorkItemId));
+            if(pending_.size() >= batchSize_)
+                batch = takePendingRows();
+        }
+        if(batch != null)
+            storeBatch(batch);
+        return 0L;
+    }
+
+    @Override
+    public void flush() throws DataStoreException {
+        List<Row> batch;
+        synchronized (pendingLock_) {
+            batch = takePendingRows();
+        }
+        storeBatch(batch);
+    }
+
+    @Override
+    public void close() throws IOException {
+        timer_.shutdownNow();
+        try {
+            flush();
+        } catch(DataStoreException e) {
+            log_.exception(e, "Failed to store the pending aggregated telemetry on close");
+        }
+        log_.info("Stored %d aggregated telemetry rows in %d batches (%.1f rows/s)", getStoredRows(),
+                getStoredBatches(), getRowsPerSecond());
+        try {
+            if(batchInsert_ != null)
+                batchInsert_.close();
+        } catch(SQLException e) {
+            log_.exception(e, "Failed to properly close the telemetry batch statement");
+        }
+        super.close();
+    }
+
+    @Override
+    public void setBenchmarker(BenchmarkHelper benchmarker) {
+        benchmarker_ = benchmarker;
+    }
+
+    /**
+     * @return The number of aggregated rows committed so far.
+     */
+    public synchronized long getStoredRows() { return storedRows_; }
+
+    /**
+     * @return The number of batches committed so far.
+     */
+    public synchronized long getStoredBatches() { return storedBatches_; }
+
+    /**
+     * @return The achieved rate of committed rows per second since the first batch started.
+     */
+    public synchronized double getRowsPerSecond() {
+        if(firstBatchNs_ == 0L)
+            return 0.0;
+        long elapsedNs = Math.max(1L, System.nanoTime() - firstBatchNs_);
+        return storedRows_ * 1_000_000_000.0 / elapsedNs;
+    }
+
+    // Must be called while holding pendingLock_.
+    private List<Row> takePendingRows() {
+        List<Row> batch = pending_;
+        pending_ = new ArrayList<>(batchSize_);
+        return batch;
+    }
+
+    // Runs on the timer thread, writes the pending rows once the oldest one has waited the linger time.
+    private void flushLingeringRows() {
+        List<Row> batch = null;
+        synchronized (pendingLock_) {
+            if(!pending_.isEmpty() && System.nanoTime() - oldestPendingNs_ >= lingerNs_)
+                batch = takePendingRows();
+        }
+        if(batch == null)
+            return;
+        try {
+            storeBatch(batch);
+        } catch(DataStoreException e) {
+            log_.exception(e, "Failed to store a lingering batch of aggregated telemetry");
+        }
+    }
+
+    // Synchronized on this instance so the connection and statement are used by one thread at a time.
+    private synchronized void storeBatch(List<Row> batch) throws DataStoreException {
+        if(batch.isEmpty())
+            return;
+        createConnection();
+        createBatchInsertStatement();
+        long start = System.nanoTime();
+        if(firstBatchNs_ == 0L)
+            firstBatchNs_ = start;
+        try {
+            for(Row row: batch) {
+                setRowParameters(batchInsert_, row.type, row.location, row.tsInMicroSecs, row.max, row.min, row.avg,
+                        row.adapterType, row.workItemId);
+                batchInsert_.addBatch();
+            }
+            batchInsert_.executeBatch();
+            connection_.commit();
+        } catch(SQLException ex) {
+            try {
+                batchInsert_.clearBatch();
+                connection_.rollback(); // Cancel current transaction.
+            } catch(SQLException e) {
+                log_.exception(e, "Rollback failed after telemetry batch store failed");
+            }
+            log_.exception(ex, "An error occurred while storing a batch of %d aggregated telemetry rows",
+                    batch.size());
+            throw new DataStoreException("Failed to store the aggregated telemetry batch", ex);
+        }
+        storedRows_ += batch.size();
+        storedBatches_++;
+        long storeUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        BenchmarkHelper benchmarker = benchmarker_;
+        if(benchmarker != null) {
+            benchmarker.addNamedValue("TelemetryRowsStored", batch.size());
+            benchmarker.addNamedValue("TelemetryBatchesStored", 1L);
+            benchmarker.addNamedValue("TelemetryBatchStoreUs", storeUs);
+            benchmarker.addNamedMaximum("TelemetryMaxBatchStoreUs", storeUs);
+        }
+        log_.debug("Stored a batch of %d aggregated telemetry rows in %d us", batch.size(), storeUs);
+    }
+
+    protected void createBatchInsertStatement() throws DataStoreException {
+        try {
+            if(batchInsert_ == null)
+                batchInsert_ = connection_.prepareStatement(BATCH_INSERT_SQL);
+        } catch(SQLException e) {
+            throw new DataStoreException("Failed to create the data store batch statement for telemetry", e);
+        }
+    }
+
+    private static final class Row {
+        Row(String type, String location, long tsInMicroSecs, double max, double min, double avg,
+            String adapterType, long workItemId) {
+            this.type = type;
+            this.location = location;
+            this.tsInMicroSecs = tsInMicroSecs;
+            this.max = max;
+            this.min = min;
+            this.avg = avg;
+            this.adapterType = adapterType;
+            this.workItemId = workItemId;
+        }
+        final String type;
+        final String location;
+        final long tsInMicroSecs;
+        final double max;
+        final double min;
+        final double avg;
+        final String adapterType;
+        final long workItemId;
+    }
+
+    // Same insert as the AggregatedEnvDataStore stored procedure, a procedure call can't be batched.
+    private static final String BATCH_INSERT_SQL = "insert into Tier2_AggregatedEnvData(Lctn, Timestamp, Type, " +
+            "MaximumValue, MinimumValue, AverageValue, AdapterType, WorkItemId) values(?,?,?,?,?,?,?,?)";
+    private final Logger log_;
+    private final int batchSize_;
+    private final long lingerNs_;
+    private final ScheduledExecutorService timer_;
+    private final Object pendingLock_ = new Object();
+    private List<Row> pending_;
+    private long oldestPendingNs_ = 0L;
+    private long storedRows_ = 0L;
+    private long storedBatches_ = 0L;
+    private long firstBatchNs_ = 0L;
+    private volatile BenchmarkHelper benchmarker_ = null;
+    protected PreparedStatement batchInsert_ = null;
+}
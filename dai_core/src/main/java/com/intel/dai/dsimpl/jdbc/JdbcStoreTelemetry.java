@@ -34,16 +34,8 @@ public class JdbcStoreTelemetry implements StoreTelemetry {
         createlogEnvDataAggregatedPreparedCall();
 //        log_.debug("\n\n*** UNIQUE TUPLE: TYPE='%s'; LOCATION='%s'; TS='%d'\n", sTypeOfData, sLctn, lTsInMicroSecs);
         try {
-            telemetryAggregatedData_.setString(1, sLctn);
-            Timestamp jts = new Timestamp(lTsInMicroSecs / 1_000_000L * 1_000L); // Set in truncated Milliseconds
-            jts.setNanos(((int)(lTsInMicroSecs % 1_000_000L)) * 1_000); // Set remaining microseconds as nano seconds.
-            telemetryAggregatedData_.setTimestamp(2, jts, gmt_);
-            telemetryAggregatedData_.setString(3, sTypeOfData);
-            telemetryAggregatedData_.setDouble(4, dMaxValue);
-            telemetryAggregatedData_.setDouble(5, dMinValue);
-            telemetryAggregatedData_.setDouble(6, dAvgValue);
-            telemetryAggregatedData_.setString(7, sReqAdapterType);
-            telemetryAggregatedData_.setLong(8, lReqWorkItemId);
+            setRowParameters(telemetryAggregatedData_, sTypeOfData, sLctn, lTsInMicroSecs, dMaxValue, dMinValue,
+                    dAvgValue, sReqAdapterType, lReqWorkItemId);
             telemetryAggregatedData_.execute();
             connection_.commit();
         } catch(SQLException ex) {
@@ -64,6 +56,22 @@ public class JdbcStoreTelemetry implements StoreTelemetry {
         return 0L;
     }
 
+    // The parameter order is the same for the stored procedure and the batched insert.
+    static void setRowParameters(PreparedStatement statement, String sTypeOfData, String sLctn, long lTsInMicroSecs,
+                                 double dMaxValue, double dMinValue, double dAvgValue, String sReqAdapterType,
+                                 long lReqWorkItemId) throws SQLException {
+        statement.setString(1, sLctn);
+        Timestamp jts = new Timestamp(lTsInMicroSecs / 1_000_000L * 1_000L); // Set in truncated Milliseconds
+        jts.setNanos(((int)(lTsInMicroSecs % 1_000_000L)) * 1_000); // Set remaining microseconds as nano seconds.
+        statement.setTimestamp(2, jts, gmt_);
+        statement.setString(3, sTypeOfData);
+        statement.setDouble(4, dMaxValue);
+        statement.setDouble(5, dMinValue);
+        statement.setDouble(6, dAvgValue);
+        statement.setString(7, sReqAdapterType);
+        statement.setLong(8, lReqWorkItemId);
+    }
+
     protected void createlogEnvDataAggregatedPreparedCall() throws DataStoreException {
         try {
             if (telemetryAggregatedData_ == null)
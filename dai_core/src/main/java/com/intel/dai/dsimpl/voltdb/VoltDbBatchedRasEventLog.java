@@ -0,0 +1,287 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.voltdb;
+
+import com.intel.dai.dsapi.RasEventLog;
+import com.intel.logging.Logger;
+import org.voltdb.client.ClientResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Description of class VoltDbBatchedRasEventLog. Decorates a VoltDbRasEventLog, the asynchronous RAS event stores are
+ * grouped by event type (and requesting adapter type and work item) and stored with one RasEventStoreBatch call per
+ * group once batchSize events are pending or the oldest pending event is lingerMs old. Pending events are stored on
+ * flush() and close(). Everything else, including the synchronous store, is passed to the decorated instance.
+ */
+public class VoltDbBatchedRasEventLog implements RasEventLog, Closeable {
+    public VoltDbBatchedRasEventLog(VoltDbRasEventLog eventLog, String adapterName, Logger logger, int batchSize,
+                                    long lingerMs) {
+        assert batchSize > 0:"The RAS event batch size must be positive";
+        assert lingerMs > 0L:"The RAS event batch linger time must be positive";
+        eventLog_ = eventLog;
+        adapterName_ = adapterName;
+        log_ = logger;
+        batchSize_ = batchSize;
+        lingerNs_ = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        timer_ = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "ras-event-batch-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer_.scheduleWithFixedDelay(this::flushLingeringEvents, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String ensureRasDescrNameIsValid(String sDescriptiveName, long workItemId) {
+        return eventLog_.ensureRasDescrNameIsValid(sDescriptiveName, workItemId);
+    }
+
+    @Override
+    public void logRasEventNoEffectedJob(String sEventType, String sInstanceData, String sLctn, long lTsInMicroSecs,
+                                         String sReqAdapterType, long lReqWorkItemId) {
+        addEvent(sEventType, sInstanceData, sLctn, null, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId);
+    }
+
+    @Override
+    public void logRasEventSyncNoEffectedJob(String sEventType, String sInstanceData, String sLctn,
+                                             long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId) {
+        eventLog_.logRasEventSyncNoEffectedJob(sEventType, sInstanceData, sLctn, lTsInMicroSecs, sReqAdapterType,
+                lReqWorkItemId);
+    }
+
+    @Override
+    public void logRasEventWithEffectedJob(String sEventType, String sInstanceData, String sLctn, String sJobId,
+                                           long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId) {
+        addEvent(sEventType, sInstanceData, sLctn, sJobId, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId);
+    }
+
+    @Override
+    public void logRasEventCheckForEffectedJob(String sEventType, String sInstanceData, String sLctn,
+                                               long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId) {
+        // No use looking for an associated job if there was no lctn specified (same as VoltDbRasEventLog).
+        String sJobId = ((sLctn == null) || (sLctn.trim().isEmpty())) ? null : "?";
+        addEvent(sEventType, sInstanceData, sLctn, sJobId, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId);
+    }
+
+    @Override
+    public void setRasEventAssociatedJobID(String jobID, String rasEventType, long rasEventID) throws IOException {
+        eventLog_.setRasEventAssociatedJobID(jobID, rasEventType, rasEventID);
+    }
+
+    @Override
+    public void loadRasMetadata() {
+        eventLog_.loadRasMetadata();
+    }
+
+    @Override
+    public void flush() {
+        Map<Key, Batch> batches;
+        synchronized (pendingLock_) {
+            batches = takePendingEvents();
+        }
+        storeBatches(batches);
+    }
+
+    @Override
+    public void close() {
+        timer_.shutdownNow();
+        flush();
+        log_.info("Stored %d RAS events in %d batches (average flush latency %d us, maximum %d us)",
+                getStoredEvents(), getStoredBatches(), getAverageFlushLatencyUs(), getMaxFlushLatencyUs());
+    }
+
+    /**
+     * @return The number of RAS events waiting for their batch to be sent.
+     */
+    public int getPendingEvents() {
+        synchronized (pendingLock_) {
+            return pendingEvents_;
+        }
+    }
+
+    /**
+     * @return The number of RAS events sent whose batch has not been answered yet.
+     */
+    public long getInFlightEvents() { return inFlightEvents_.get(); }
+
+    /**
+     * @return The number of RAS events stored so far.
+     */
+    public long getStoredEvents() { return storedEvents_.get(); }
+
+    /**
+     * @return The number of batches stored so far.
+     */
+    public long getStoredBatches() { return storedBatches_.get(); }
+
+    /**
+     * @return The average time from sending a batch until its response arrived, in microseconds.
+     */
+    public long getAverageFlushLatencyUs() {
+        long batches = answeredBatches_.get();
+        return (batches == 0L) ? 0L : TimeUnit.NANOSECONDS.toMicros(flushLatencyNs_.get() / batches);
+    }
+
+    /**
+     * @return The longest time from sending a batch until its response arrived, in microseconds.
+     */
+    public long getMaxFlushLatencyUs() { return TimeUnit.NANOSECONDS.toMicros(maxFlushLatencyNs_.get()); }
+
+    private void addEvent(String sEventType, String sInstanceData, String sLctn, String sJobId, long lTsInMicroSecs,
+                          String sReqAdapterType, long lReqWorkItemId) {
+        Map<Key, Batch> batches = null;
+        synchronized (pendingLock_) {
+            if(pendingEvents_ == 0)
+                oldestPendingNs_ = System.nanoTime();
+            pending_.computeIfAbsent(new Key(sEventType, sReqAdapterType, lReqWorkItemId), (key) -> new Batch()).
+                    add(sInstanceData, sLctn, sJobId, lTsInMicroSecs);
+            if(++pendingEvents_ >= batchSize_)
+                batches = takePendingEvents();
+        }
+        if(batches != null)
+            storeBatches(batches);
+    }
+
+    // Must be called while holding pendingLock_.
+    private Map<Key, Batch> takePendingEvents() {
+        Map<Key, Batch> batches = pending_;
+        pending_ = new LinkedHashMap<>();
+        pendingEvents_ = 0;
+        return batches;
+    }
+
+    // Runs on the timer thread, sends the pending events once the oldest one has waited the linger time.
+    private void flushLingeringEvents() {
+        Map<Key, Batch> batches = null;
+        synchronized (pendingLock_) {
+            if(pendingEvents_ > 0 && System.nanoTime() - oldestPendingNs_ >= lingerNs_)
+                batches = takePendingEvents();
+        }
+        if(batches != null)
+            storeBatches(batches);
+    }
+
+    private void storeBatches(Map<Key, Batch> batches) {
+        for(Map.Entry<Key, Batch> entry: batches.entrySet())
+            storeBatch(entry.getKey(), entry.getValue());
+    }
+
+    private void storeBatch(Key key, Batch batch) {
+        int count = batch.instanceData.size();
+        // One callback per batch, a failure is reported the same way as for a single RasEventStore.
+        VoltDbCallBackForHouseKeeping houseKeeping = new VoltDbCallBackForHouseKeeping(eventLog_, key.adapterType,
+                adapterName_, STORED_PROCEDURE, key.eventType + " x" + count, key.workItemId, log_);
+        long sentNs = System.nanoTime();
+        inFlightEvents_.addAndGet(count);
+        try {
+            eventLog_.voltClient.callProcedure((response) -> {
+                        inFlightEvents_.addAndGet(-count);
+                        recordFlushLatency(System.nanoTime() - sentNs);
+                        if(response.getStatus() == ClientResponse.SUCCESS) {
+                            storedEvents_.addAndGet(count);
+                            storedBatches_.incrementAndGet();
+                        }
+                        houseKeeping.clientCallback(response);
+                    }
+                    ,STORED_PROCEDURE                                   // stored procedure name
+                    ,key.eventType                                      // type of the ras events
+                    ,batch.instanceData.toArray(new String[0])          // each event's instance data
+                    ,batch.lctns.toArray(new String[0])                 // location that each ras event occurred on
+                    ,batch.jobIds.toArray(new String[0])                // null (no job), ? (check for a job) or the effected job
+                    ,batch.timestamps()                                 // time that each event occurred, in micro-seconds since epoch
+                    ,key.adapterType                                    // type of the adapter that is requesting/issuing this stored procedure
+                    ,key.workItemId                                     // work item id that is requesting/issuing this stored procedure
+            );
+            log_.debug("Sent a batch of %d RAS events of type %s", count, key.eventType);
+        } catch(Exception e) {
+            inFlightEvents_.addAndGet(-count);
+            log_.error("VoltDbBatchedRasEventLog - exception occurred trying to log %d ras events %s!", count,
+                    key.eventType);
+            log_.exception(e, "storeBatch");
+        }
+    }
+
+    private void recordFlushLatency(long latencyNs) {
+        answeredBatches_.incrementAndGet();
+        flushLatencyNs_.addAndGet(latencyNs);
+        maxFlushLatencyNs_.accumulateAndGet(latencyNs, Math::max);
+    }
+
+    private static final class Key {
+        Key(String eventType, String adapterType, long workItemId) {
+            this.eventType = eventType;
+            this.adapterType = adapterType;
+            this.workItemId = workItemId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof Key))
+                return false;
+            Key key = (Key)other;
+            return workItemId == key.workItemId && Objects.equals(eventType, key.eventType) &&
+                    Objects.equals(adapterType, key.adapterType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventType, adapterType, workItemId);
+        }
+
+        final String eventType;
+        final String adapterType;
+        final long workItemId;
+    }
+
+    private static final class Batch {
+        void add(String instanceData, String lctn, String jobId, long tsInMicroSecs) {
+            this.instanceData.add(instanceData);
+            lctns.add(lctn);
+            jobIds.add(jobId);
+            this.tsInMicroSecs.add(tsInMicroSecs);
+        }
+
+        long[] timestamps() {
+            long[] result = new long[tsInMicroSecs.size()];
+            for(int i = 0; i < result.length; i++)
+                result[i] = tsInMicroSecs.get(i);
+            return result;
+        }
+
+        final List<String> instanceData = new ArrayList<>();
+        final List<String> lctns = new ArrayList<>();
+        final List<String> jobIds = new ArrayList<>();
+        final List<Long> tsInMicroSecs = new ArrayList<>();
+    }
+
+    private static final String STORED_PROCEDURE = "RasEventStoreBatch";
+    private final VoltDbRasEventLog eventLog_;
+    private final String adapterName_;
+    private final Logger log_;
+    private final int batchSize_;
+    private final long lingerNs_;
+    private final ScheduledExecutorService timer_;
+    private final Object pendingLock_ = new Object();
+    private Map<Key, Batch> pending_ = new LinkedHashMap<>();
+    private int pendingEvents_ = 0;
+    private long oldestPendingNs_ = 0L;
+    private final AtomicLong inFlightEvents_ = new AtomicLong(0L);
+    private final AtomicLong storedEvents_ = new AtomicLong(0L);
+    private final AtomicLong storedBatches_ = new AtomicLong(0L);
+    private final AtomicLong answeredBatches_ = new AtomicLong(0L);
+    private final AtomicLong flushLatencyNs_ = new AtomicLong(0L);
+    private final AtomicLong maxFlushLatencyNs_ = new AtomicLong(0L);
+}
@@ -29,6 +29,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Interface that allows HW inventory to be stored in an underlying DB.  The HW
@@ -130,39 +135,120 @@ public class VoltHWInvDbApi implements HWInvDbApi {
         }
     }
 
+    /**
+     * <p> Upserts the locations in batches with RawInventoryInsertBatch.  At most MAX_BATCHES_IN_FLIGHT batches are
+     * sent and not yet answered, so a full machine inventory is not queued in the client all at once.  A batch is one
+     * transaction, so one bad location rolls back all of them; the locations of a failed batch are upserted again one
+     * at a time with RawInventoryInsert once all batches were answered. </p>
+     */
     private int ingest(HWInvTree hwInv) throws IOException, DataStoreException, InterruptedException {
         logger.debug("HWI:%n  ingest(HWInvTree hwInv=%s) >>", util.head(toString(), 360));
-        int numRowsIngested = 0;
+        if (hwInv.locs == null) {
+            logger.error("HWI:%n  Null locs list");
+            throw new DataStoreException("Null locs list");
+        }
+        if (client == null) {
+            logger.error("Null client");
+            throw new DataStoreException("Null client");
+        }
+
+        int numLocs = hwInv.locs.size();
+        AtomicInteger numRowsIngested = new AtomicInteger(0);
+        Queue<List<HWInvLoc>> failedBatches = new ConcurrentLinkedQueue<>();
+        Semaphore batchesInFlight = new Semaphore(MAX_BATCHES_IN_FLIGHT);
+        long start = System.nanoTime();
+        int nextProgressReport = PROGRESS_REPORT_INTERVAL;
+        for (int first = 0; first < numLocs; first += INGEST_BATCH_SIZE) {
+            List<HWInvLoc> batch = hwInv.locs.subList(first, Math.min(numLocs, first + INGEST_BATCH_SIZE));
+            batchesInFlight.acquire();
+            try {
+                sendRawInventoryBatch(batch, numRowsIngested, failedBatches, batchesInFlight);
+            } catch (IOException e) {
+                batchesInFlight.release();
+                throw e;
+            }
+            if (first + batch.size() >= nextProgressReport) {
+                logger.info("HWI:%n  Sent %d of %d HW inventory locations", first + batch.size(), numLocs);
+                nextProgressReport += PROGRESS_REPORT_INTERVAL;
+            }
+        }
+        batchesInFlight.acquire(MAX_BATCHES_IN_FLIGHT); // wait for the answers to the last batches
+        batchesInFlight.release(MAX_BATCHES_IN_FLIGHT);
+        for (List<HWInvLoc> failedBatch : failedBatches)
+            numRowsIngested.addAndGet(insertRawInventoryRows(failedBatch));
+        try {
+            client.drain();
+        } catch (NoConnectionsException e) {
+            logger.error("No DB Connections");
+            throw new DataStoreException(e.getMessage());
+        }
+        long elapsedMs = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("HWI:%n  Ingested %d of %d HW inventory locations in %d ms (%.1f locations/s)",
+                numRowsIngested.get(), numLocs, elapsedMs, numRowsIngested.get() * 1000.0 / elapsedMs);
+        return numRowsIngested.get();
+    }
 
-        // The HWInvTree constructor guarantees that hwInv.locs is never null.
-        for (HWInvLoc loc : hwInv.locs) {
+    private void sendRawInventoryBatch(List<HWInvLoc> batch, AtomicInteger numRowsIngested,
+                                       Queue<List<HWInvLoc>> failedBatches, Semaphore batchesInFlight)
+            throws IOException {
+        int size = batch.size();
+        String[] ids = new String[size];
+        String[] types = new String[size];
+        int[] ordinals = new int[size];
+        String[] infos = new String[size];
+        String[] fruIds = new String[size];
+        String[] fruTypes = new String[size];
+        String[] fruSubTypes = new String[size];
+        String[] fruInfos = new String[size];
+        for (int i = 0; i < size; i++) {
+            HWInvLoc loc = batch.get(i);
+            ids[i] = loc.ID;
+            types[i] = loc.Type;
+            ordinals[i] = loc.Ordinal;
+            infos[i] = loc.Info;
+            fruIds[i] = loc.FRUID;
+            fruTypes[i] = loc.FRUType;
+            fruSubTypes[i] = loc.FRUSubType;
+            fruInfos[i] = loc.FRUInfo;
+        }
+        boolean queued = client.callProcedure(response -> {
+                    if (response.getStatus() != ClientResponse.SUCCESS) {
+                        logger.error("HWI:%n  RawInventoryInsertBatch(first loc=%s, %d locs) => %d: %s, " +
+                                        "inserting its locations one at a time", ids[0], size, response.getStatus(),
+                                response.getStatusString());
+                        failedBatches.add(batch);
+                    } else
+                        numRowsIngested.addAndGet(size);
+                    batchesInFlight.release();
+                }, "RawInventoryInsertBatch",
+                ids, types, ordinals, infos, fruIds, fruTypes, fruSubTypes, fruInfos);
+        if (!queued) {
+            logger.error("HWI:%n  RawInventoryInsertBatch(first loc=%s, %d locs) could not be queued, " +
+                    "inserting its locations one at a time", ids[0], size);
+            failedBatches.add(batch);
+            batchesInFlight.release();
+        }
+    }
+
+    // Upserts the locations one row per transaction, so a bad location only loses itself.
+    private int insertRawInventoryRows(List<HWInvLoc> locs) throws IOException {
+        int numRowsIngested = 0;
+        for (HWInvLoc loc : locs) {
             try {
-                logger.debug("Ingest loc %s", loc.toString());
                 ClientResponse cr = client.callProcedure("RawInventoryInsert",
                         loc.ID, loc.Type, loc.Ordinal, loc.Info,
                         loc.FRUID, loc.FRUType, loc.FRUSubType, loc.FRUInfo);
                 if (cr.getStatus() != ClientResponse.SUCCESS) {
-                    logger.error("HWI:%n  RawInventoryInsert(loc=%s) => %d",
-                            loc.toString(), cr.getStatus());
+                    logger.error("HWI:%n  RawInventoryInsert(loc=%s) => %d", loc.toString(), cr.getStatus());
+                    continue;
                 }
                 numRowsIngested++;
             } catch (ProcCallException e) {
                 // upsert errors are ignored
-                logger.error("HWI:%n  ProcCallException during RawInventoryInsert: %s", e.getMessage());
-            } catch (NullPointerException e) {
-                logger.error("HWI:%n  Null locs list");
-                throw new DataStoreException(e.getMessage());
+                logger.error("HWI:%n  ProcCallException during RawInventoryInsert(loc=%s): %s", loc.ID,
+                        e.getMessage());
             }
         }
-        try {
-            client.drain();
-        } catch (NoConnectionsException e) {
-            logger.error("No DB Connections");
-            throw new DataStoreException(e.getMessage());
-        } catch (NullPointerException e) {
-            logger.error("Null client");
-            throw new DataStoreException(e.getMessage());
-        }
         return numRowsIngested;
     }
 
@@ -466,6 +552,10 @@ public class VoltHWInvDbApi implements HWInvDbApi {
             logger.error("upsertRawDimm(id=%s) => %d", id, cr.getStatus());
             return 0;
         }
+        if (cr.getResults()[0].asScalarLong() != 1) {
+            logger.debug("upsertRawDimm(id=%s) kept the newer stored document", id);
+            return 0;
+        }
         guaranteeDbUpdatedTimestampUniqueness();
         return 1;
     }
@@ -479,6 +569,10 @@ public class VoltHWInvDbApi implements HWInvDbApi {
             logger.error("upsertRawFruHost(id=%s) => %d", id, cr.getStatus());
             return 0;
         }
+        if (cr.getResults()[0].asScalarLong() != 1) {
+            logger.debug("upsertRawFruHost(id=%s) kept the newer stored document", id);
+            return 0;
+        }
         guaranteeDbUpdatedTimestampUniqueness();
         return 1;
     }
@@ -503,6 +597,29 @@ public class VoltHWInvDbApi implements HWInvDbApi {
         return 1;
     }
 
+    public long getLastRawDimmUpdateTimestamp() throws DataStoreException {
+        return lastUpdateTimestamp("Raw_DIMM_LastUpdate");
+    }
+
+    public long getLastRawFruHostUpdateTimestamp() throws DataStoreException {
+        return lastUpdateTimestamp("Raw_FRU_Host_LastUpdate");
+    }
+
+    private long lastUpdateTimestamp(String procedure) throws DataStoreException {
+        try {
+            VoltTable result = client.callProcedure(procedure).getResults()[0];
+            result.advanceRow();
+            long timestamp = result.getTimestampAsLong(0);
+            return result.wasNull() ? 0L : timestamp;
+        } catch (IOException | ProcCallException e) {
+            logger.error("%s during %s", e.getClass().getSimpleName(), procedure);
+            throw new DataStoreException(e.getMessage());
+        } catch (NullPointerException e) {
+            logger.error("Null client");
+            throw new DataStoreException(e.getMessage());
+        }
+    }
+
     public List<FruHost> enumerateFruHosts() {
         try {
             ClientResponse cr = client.callProcedure("Get_FRU_Hosts");
@@ -560,6 +677,10 @@ public class VoltHWInvDbApi implements HWInvDbApi {
     }
 
     private final static Gson gson = new Gson();
+    // Locations per RawInventoryInsertBatch call, at most MAX_BATCHES_IN_FLIGHT calls are waiting for an answer.
+    static final int INGEST_BATCH_SIZE = 500;
+    static final int MAX_BATCHES_IN_FLIGHT = 4;
+    static final int PROGRESS_REPORT_INTERVAL = 50_000;
     private final Logger logger;
     private final String[] servers;
     private Client client = null;
@@ -1,5 +1,6 @@
 package com.intel.dai.dsimpl
 
+import com.intel.dai.dsimpl.jdbc.JdbcBatchedStoreTelemetry
 import com.intel.dai.dsimpl.voltdb.VoltDbClient
 import com.intel.dai.IAdapter
 import com.intel.dai.AdapterInformation
@@ -150,6 +151,16 @@ class DataStoreFactoryImplSpec extends Specification {
 
         expect: ts.createStoreTelemetry() != null
     }
+    def "createStoreTelemetry batched"() {
+        def logger = Mock(Logger)
+        def ts = new DataStoreFactoryImpl("sServers", logger)
+        def batched = ts.createStoreTelemetry(logger, 100, 1000L)
+
+        expect: batched instanceof JdbcBatchedStoreTelemetry
+        and:    !(ts.createStoreTelemetry(logger, 1, 1000L) instanceof JdbcBatchedStoreTelemetry)
+
+        cleanup: batched.close()
+    }
     def "createVoltDbLegacyAccess"() {
         def logger = Mock(Logger)
         def ts = new DataStoreFactoryImpl("sServers", logger)
@@ -1,12 +1,16 @@
 package com.intel.dai.dsimpl.voltdb
 
 import com.intel.dai.dsapi.HWInvHistory
+import com.intel.dai.dsapi.HWInvLoc
+import com.intel.dai.dsapi.HWInvTree
 import com.intel.dai.exceptions.DataStoreException
 import com.intel.logging.Logger
 import org.voltdb.ClientResponseImpl
 import org.voltdb.VoltTable
 import org.voltdb.client.Client
 import org.voltdb.client.ClientResponse
+import org.voltdb.client.ProcCallException
+import org.voltdb.client.ProcedureCallback
 import spock.lang.Specification
 import java.nio.file.Paths
 
@@ -60,6 +64,41 @@ class VoltHWInvDbApiSpec extends Specification {
         then: notThrown DataStoreException
     }
 
+    def "ingest HWInvTree in batches"() {
+        def tree = new HWInvTree()
+        int numLocs = VoltHWInvDbApi.INGEST_BATCH_SIZE * 2 + 1
+        (0..<numLocs).each { tree.locs.add(new HWInvLoc(ID: "x0c0s" + it, FRUID: "fru" + it)) }
+        def batchSizes = []
+        api.client = Mock(Client)
+        api.client.callProcedure(_ as ProcedureCallback, "RawInventoryInsertBatch", *_) >> { args ->
+            batchSizes.add(args[2][0].length)
+            def cr = Mock(ClientResponse)
+            cr.getStatus() >> (batchSizes.size() == 2 ? ClientResponse.UNEXPECTED_FAILURE : ClientResponse.SUCCESS)
+            args[0].clientCallback(cr)
+            return true
+        }
+
+        def retried = []
+        api.client.callProcedure("RawInventoryInsert", *_) >> { args ->
+            retried.add(args[1][0])
+            if (args[1][0] == "x0c0s" + (VoltHWInvDbApi.INGEST_BATCH_SIZE + 7))
+                throw new ProcCallException(Mock(ClientResponse), "constraint violation", null)
+            def cr = Mock(ClientResponse)
+            cr.getStatus() >> ClientResponse.SUCCESS
+            return cr
+        }
+
+        expect: api.ingest(tree) == numLocs - 1
+        and:    batchSizes == [VoltHWInvDbApi.INGEST_BATCH_SIZE, VoltHWInvDbApi.INGEST_BATCH_SIZE, 1]
+        and:    retried.size() == VoltHWInvDbApi.INGEST_BATCH_SIZE
+        and:    retried[0] == "x0c0s" + VoltHWInvDbApi.INGEST_BATCH_SIZE
+    }
+
+    def "ingest HWInvTree without a client"() {
+        when: api.ingest(new HWInvTree())
+        then: thrown DataStoreException
+    }
+
     def "allLocationsAt"() {
         when: api.allLocationsAt(null, null)
         then: thrown DataStoreException
@@ -4,6 +4,7 @@
 
 package com.intel.dai;
 
+import com.intel.config_io.ConfigIOFactory;
 import com.intel.dai.dsapi.WorkQueue;
 import com.intel.dai.dsapi.DataStoreFactory;
 import com.intel.dai.dsapi.DataLoaderApi;
@@ -219,6 +220,20 @@ public class AdapterNearlineTierJdbcTest {
         nearline.receiveDataFromDataMover();
     }
 
+    @Test
+    public void receiveDataFromDataMoverPipelined() throws Exception {
+        AdapterNearlineTierJdbc nearline = new MockAdapterNearlineTierJdbc(mockDsFactory);
+        when(nearline.workQueue.isThisNewWorkItem()).thenReturn(true);
+        nearline.processClientParams(new String[] {"DataReceiverWorkers=2", "DataReceiverPrefetch=200"});
+        Channel channel = mock(Channel.class);
+        when(mover.getChannel()).thenReturn(channel);
+        nearline.receiveDataFromDataMover();
+        verify(channel).basicQos(200, false);
+        verify(channel).basicConsume(eq(Adapter.DataMoverQueueName), eq(false), anyString(),
+                any(PipelinedDataReceiverMsgConsumer.class));
+        verify(channel).basicCancel(anyString());
+    }
+
     @Test
     public void handleDelivery1() throws Exception {
         IAdapter adapter = mock(IAdapter.class);
@@ -270,6 +285,45 @@ public class AdapterNearlineTierJdbcTest {
         handler.handleDelivery("", envelope, basicProperties, makeBody(null));
     }
 
+    @Test
+    public void handleDeliveryBinary() throws Exception {
+        IAdapter adapter = mock(IAdapter.class);
+        NearlineTableUpdater updater = mock(NearlineTableUpdater.class);
+        AdapterNearlineTierJdbc nearline = new MockAdapterNearlineTierJdbc(mockDsFactory);
+        AdapterNearlineTierJdbc.AmqpDataReceiverMsgConsumer handler = new AdapterNearlineTierJdbc.AmqpDataReceiverMsgConsumer(
+                mover, 98L, adapter, mock(Logger.class), updater, nearline);
+        Envelope envelope = new Envelope(555L, false, "exchange", "routing_key");
+        Channel channel = mock(Channel.class);
+        when(mover.getChannel()).thenReturn(channel);
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo[] {
+                new VoltTable.ColumnInfo("column1", VoltType.STRING)});
+        table.addRow("row1");
+        table.addRow("row2");
+        byte[] body = new DataMoverMessage(99L, 1L, 100L, 0L, "Adapter", 1, 1, table).encode(true);
+        handler.handleDelivery("", envelope, DataMoverMessage.properties(), body);
+        verify(updater).Update(eq("Adapter"), argThat(vt -> vt.hasSameContents(table)));
+        verify(channel).basicPublish(eq(Adapter.DataMoverExchangeName), eq("Adapter"),
+                argThat(DataMoverMessage::isBinary), same(body));
+        verify(channel).basicAck(555L, false);
+    }
+
+    @Test
+    public void handleDeliveryForwardsJsonBytes() throws Exception {
+        IAdapter adapter = mock(IAdapter.class);
+        when(adapter.jsonParser()).thenReturn(ConfigIOFactory.getInstance("json"));
+        NearlineTableUpdater updater = mock(NearlineTableUpdater.class);
+        AdapterNearlineTierJdbc nearline = new MockAdapterNearlineTierJdbc(mockDsFactory);
+        AdapterNearlineTierJdbc.AmqpDataReceiverMsgConsumer handler = new AdapterNearlineTierJdbc.AmqpDataReceiverMsgConsumer(
+                mover, 98L, adapter, mock(Logger.class), updater, nearline);
+        Envelope envelope = new Envelope(555L, false, "exchange", "routing_key");
+        Channel channel = mock(Channel.class);
+        when(mover.getChannel()).thenReturn(channel);
+        byte[] body = new String(makeBody("Adapter")).replaceFirst("\\{", "{\"EOM\": false,").getBytes();
+        handler.handleDelivery("", envelope, new AMQP.BasicProperties(), body);
+        verify(updater).Update(eq("Adapter"), argThat(vt -> vt.getRowCount() == 5));
+        verify(channel).basicPublish(eq(Adapter.DataMoverExchangeName), eq("Adapter"), isNull(), same(body));
+    }
+
     private DataReceiverAmqp mover = mock(DataReceiverAmqp.class);
     private DataLoaderApi mockDataLoader;
     private DataStoreFactory mockDsFactory;
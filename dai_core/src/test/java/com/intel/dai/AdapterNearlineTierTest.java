@@ -76,4 +76,17 @@ public class AdapterNearlineTierTest {
         when(nearline.workQueue.grabNextAvailWorkItem()).thenThrow(new RuntimeException());
         nearline.mainProcessingFlow(new String[] {});
     }
+
+    @Test
+    public void processClientParams() throws Exception {
+        AdapterNearlineTier nearline = new MockAdapterNearlineTier();
+        nearline.processClientParams(new String[] {"RabbitMQHost=rabbit", "DataReceiverWorkers=4",
+                "DataReceiverPrefetch=500", "DataReceiverAckBatch=bad"});
+        assertEquals("rabbit", nearline.rabbitMQ);
+        assertEquals(4, nearline.dataReceiverWorkers);
+        assertEquals(500, nearline.dataReceiverPrefetch);
+        assertEquals(50, nearline.dataReceiverAckBatch);
+        nearline.processClientParams(new String[] {"DataReceiverWorkers=0"});
+        assertEquals(4, nearline.dataReceiverWorkers);
+    }
 }
@@ -13,6 +13,7 @@ import org.junit.Test;
 import org.junit.Ignore;
 
 import com.rabbitmq.client.*;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.stubbing.Answer;
 import org.voltdb.VoltTable;
@@ -27,9 +28,9 @@ import java.util.concurrent.TimeoutException;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 public class AdapterOnlineTierVoltTest {
     class MockAdapterOnlineTierVolt extends AdapterOnlineTierVolt {
@@ -133,5 +134,96 @@ public class AdapterOnlineTierVoltTest {
         online.handlePurgingData(5L, 1L);
     }
 
+    @Test
+    public void sendThisTablesChangesToTier2Binary() throws Exception {
+        AdapterOnlineTierVolt online = new MockAdapterOnlineTierVolt();
+        online.processClientParams(new String[] {"DataMoverFormat=binary-deflate"});
+        assertEquals(DataMoverMessage.FORMAT_BINARY_COMPRESSED, online.dataMoverFormat);
+        Channel channel = mock(Channel.class);
+        when(mover.getChannel()).thenReturn(channel);
+        VoltTable table = buildTable(new String[] {"Lctn", "State"}, 1500)[0];
+        online.sendThisTablesChangesToTier2Binary(100L, "end", "start", "ComputeNode", table, mover);
+        ArgumentCaptor<byte[]> bodies = ArgumentCaptor.forClass(byte[].class);
+        verify(channel, times(2)).basicPublish(eq(""), eq(Adapter.DataMoverQueueName),
+                argThat(DataMoverMessage::isBinary), bodies.capture());
+        DataMoverMessage first = DataMoverMessage.decode(bodies.getAllValues().get(0));
+        DataMoverMessage second = DataMoverMessage.decode(bodies.getAllValues().get(1));
+        assertEquals(1L, first.getAmqpMessageId());
+        assertEquals(2L, second.getAmqpMessageId());
+        assertEquals("ComputeNode", second.getTableName());
+        assertEquals(2, second.getPart());
+        assertEquals(2, second.getOf());
+        assertEquals(1000, first.getTable().getRowCount());
+        assertEquals(500, second.getTable().getRowCount());
+    }
+
+    @Test
+    public void processClientParamsUnknownDataMoverFormat() throws Exception {
+        AdapterOnlineTierVolt online = new MockAdapterOnlineTierVolt();
+        online.processClientParams(new String[] {"DataMoverFormat=xml"});
+        assertEquals(DataMoverMessage.FORMAT_JSON, online.dataMoverFormat);
+    }
+
+    @Test
+    public void handleDataNeedingToMoveFromTier1ToTier2Streaming() throws Exception {
+        AdapterOnlineTierVolt online = new MockAdapterOnlineTierVolt();
+        online.processClientParams(new String[] {"DataMoverQuery=streaming", "DataMoverMaxRowsPerTable=5",
+                "DataMoverFormat=binary"});
+        assertTrue(online.dataMoverStreamingQuery);
+        assertEquals(5, online.dataMoverMaxRowsPerTable);
+        Map<Integer, String> tableNames = new HashMap<>();
+        tableNames.put(0, "ComputeNode");
+        tableNames.put(1, "RasEvent");
+        when(online.adapter.dataMoverResultTblIndxToTableNameMap()).thenReturn(tableNames);
+        Client client = mock(Client.class);
+        when(online.adapter.client()).thenReturn(client);
+        VoltTable config = new VoltTable(new VoltTable.ColumnInfo("Value", VoltType.STRING));
+        config.addRow("1000");
+        ClientResponse configResponse = mock(ClientResponse.class);
+        when(configResponse.getResults()).thenReturn(new VoltTable[] {config});
+        when(client.callProcedure("UCSCONFIGVALUE.select", "UcsDbPopulateSchemaStartTsMs")).thenReturn(configResponse);
+        // 8 changed ComputeNode rows, 1 ms apart, and none for RasEvent.
+        when(client.callProcedure(eq(DataMoverIntervalFetcher.PROCEDURE), any(), any(), any(), any())).thenAnswer(invocation -> {
+            VoltTable table = new VoltTable(new VoltTable.ColumnInfo("DbUpdatedTimestamp", VoltType.TIMESTAMP));
+            long endUs = invocation.getArgument(2);
+            long startUs = invocation.getArgument(3);
+            long maxRows = invocation.getArgument(4);
+            for (long tsUs = 2_000_000L; tsUs < 2_008_000L && table.getRowCount() < maxRows; tsUs += 1000L)
+                if ((long)invocation.getArgument(1) == 0L && tsUs >= startUs && tsUs <= endUs)
+                    table.addRow(new org.voltdb.types.TimestampType(tsUs));
+            ClientResponse response = mock(ClientResponse.class);
+            when(response.getResults()).thenReturn(new VoltTable[] {table});
+            return response;
+        });
+        Channel channel = mock(Channel.class);
+        when(mover.getChannel()).thenReturn(channel);
+        online.mDataMoverFetcher = new DataMoverIntervalFetcher(client, tableNames.size(),
+                online.dataMoverMaxRowsPerTable, 1L, 60_000L, mock(Logger.class));
+
+        // The first interval stops after the first 5 rows, the next one (prefetched) has the remaining 3.
+        assertFalse(online.handleDataNeedingToMoveFromTier1ToTier2Streaming(mover));
+        online.handleDataNeedingToMoveFromTier1ToTier2Streaming(mover);
+        online.mDataMoverFetcher.close();
+        ArgumentCaptor<byte[]> bodies = ArgumentCaptor.forClass(byte[].class);
+        verify(channel, times(2)).basicPublish(eq(""), eq(Adapter.DataMoverQueueName),
+                argThat(DataMoverMessage::isBinary), bodies.capture());
+        DataMoverMessage first = DataMoverMessage.decode(bodies.getAllValues().get(0));
+        DataMoverMessage second = DataMoverMessage.decode(bodies.getAllValues().get(1));
+        assertEquals("ComputeNode", first.getTableName());
+        assertEquals(5, first.getTable().getRowCount());
+        assertEquals(3, second.getTable().getRowCount());
+        assertEquals(first.getIntervalId() + 1L, second.getIntervalId());
+        assertEquals(first.getEndIntvlTimeMs(), second.getStartIntvlTimeMs());
+        verify(online.workQueue, times(2)).saveWorkItemsRestartData(anyLong(), anyString(), eq(false));
+    }
+
+    @Test
+    public void processClientParamsInvalidDataMoverQuery() throws Exception {
+        AdapterOnlineTierVolt online = new MockAdapterOnlineTierVolt();
+        online.processClientParams(new String[] {"DataMoverQuery=paged", "DataMoverMaxRowsPerTable=-1"});
+        assertFalse(online.dataMoverStreamingQuery);
+        assertEquals(10000, online.dataMoverMaxRowsPerTable);
+    }
+
     private DataMoverAmqp mover = mock(DataMoverAmqp.class);
 }
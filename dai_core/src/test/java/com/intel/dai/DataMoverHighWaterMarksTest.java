@@ -0,0 +1,122 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai;
+
+import com.intel.config_io.ConfigIOFactory;
+import com.intel.logging.Logger;
+import com.intel.networking.sink.NetworkDataSink;
+import com.rabbitmq.client.Channel;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DataMoverHighWaterMarksTest {
+    @Before
+    public void setUp() {
+        sink_ = mock(NetworkDataSink.class);
+        highWaterMarks_ = new DataMoverHighWaterMarks(mock(Logger.class)) {
+            @Override NetworkDataSink createSink(Map<String, String> args) {
+                args_ = args;
+                return sink_;
+            }
+        };
+    }
+
+    private static DataMoverMessage message(String tableName, Long... timestampsInUs) {
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo("Id", VoltType.STRING),
+                new VoltTable.ColumnInfo("DBUPDATEDTIMESTAMP", VoltType.TIMESTAMP));
+        for (Long timestamp : timestampsInUs)
+            table.addRow("id", timestamp);
+        return new DataMoverMessage(7L, 3L, 2000L, 1000L, tableName, 1, 1, table);
+    }
+
+    private String payload(DataMoverMessage message) {
+        byte[] payload = DataMoverHighWaterMarks.payload(message, ConfigIOFactory.getInstance("json"));
+        return (payload == null) ? null : new String(payload, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void subscribesToTheTablesHighWaterMarks() {
+        when(sink_.isListening()).thenReturn(true);
+        assertTrue(highWaterMarks_.startListening("rabbit", Arrays.asList("Raw_DIMM", "Raw_FRU_Host")));
+        assertEquals("HighWaterMark.Raw_DIMM,HighWaterMark.Raw_FRU_Host", args_.get("subjects"));
+        assertEquals("amqp://rabbit", args_.get("uri"));
+        assertEquals(Adapter.DataMoverExchangeName, args_.get("exchangeName"));
+        verify(sink_).startListening();
+        highWaterMarks_.close();
+        verify(sink_).stopListening();
+    }
+
+    @Test
+    public void failedSubscription() {
+        when(sink_.isListening()).thenReturn(false);
+        assertFalse(highWaterMarks_.startListening("rabbit", Arrays.asList("Raw_DIMM")));
+    }
+
+    @Test
+    public void payloadHasTheNewestDbUpdatedTimestamp() {
+        highWaterMarks_.onHighWaterMark("", payload(message("Raw_DIMM", 30L, 50L, null, 40L)));
+        assertEquals(50L, highWaterMarks_.getHighWaterMark("Raw_DIMM"));
+        assertNull(payload(message("Raw_DIMM")));
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo("Id", VoltType.STRING));
+        table.addRow("id");
+        assertNull(payload(new DataMoverMessage(1L, 1L, 1L, 0L, "Other", 1, 1, table)));
+    }
+
+    @Test
+    public void futureCompletesOnceTheTargetIsReached() throws Exception {
+        CompletableFuture<Long> dimms = highWaterMarks_.whenMoved("Raw_DIMM", 100L);
+        CompletableFuture<Long> fruHosts = highWaterMarks_.whenMoved("Raw_FRU_Host", 100L);
+        highWaterMarks_.onHighWaterMark("", payload(message("Raw_DIMM", 99L)));
+        assertFalse(dimms.isDone());
+        highWaterMarks_.onHighWaterMark("", payload(message("Raw_DIMM", 120L)));
+        assertEquals(Long.valueOf(120L), dimms.get());
+        assertFalse(fruHosts.isDone());
+
+        // Already reached, and marks arriving late do not move it back.
+        highWaterMarks_.onHighWaterMark("", payload(message("Raw_DIMM", 110L)));
+        assertEquals(120L, highWaterMarks_.getHighWaterMark("Raw_DIMM"));
+        assertTrue(highWaterMarks_.whenMoved("Raw_DIMM", 120L).isDone());
+
+        highWaterMarks_.close();
+        assertTrue(fruHosts.isCancelled());
+    }
+
+    @Test
+    public void invalidPayloadIsIgnored() {
+        highWaterMarks_.onHighWaterMark("HighWaterMark.Raw_DIMM", "{\"TableName\":");
+        highWaterMarks_.onHighWaterMark("HighWaterMark.Raw_DIMM", "{\"TableName\":\"Raw_DIMM\"}");
+        assertEquals(DataMoverHighWaterMarks.NONE, highWaterMarks_.getHighWaterMark("Raw_DIMM"));
+    }
+
+    @Test
+    public void publish() throws Exception {
+        Channel channel = mock(Channel.class);
+        DataMoverHighWaterMarks.publish(channel, message("Raw_DIMM", 10L), ConfigIOFactory.getInstance("json"));
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(channel).basicPublish(eq(Adapter.DataMoverExchangeName), eq("HighWaterMark.Raw_DIMM"), isNull(),
+                body.capture());
+        highWaterMarks_.onHighWaterMark("", new String(body.getValue(), StandardCharsets.UTF_8));
+        assertEquals(10L, highWaterMarks_.getHighWaterMark("Raw_DIMM"));
+
+        DataMoverHighWaterMarks.publish(channel, message("Raw_DIMM"), ConfigIOFactory.getInstance("json"));
+        verifyNoMoreInteractions(channel);
+    }
+
+    private NetworkDataSink sink_;
+    private DataMoverHighWaterMarks highWaterMarks_;
+    private Map<String, String> args_;
+}
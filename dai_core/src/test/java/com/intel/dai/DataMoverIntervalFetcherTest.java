@@ -0,0 +1,138 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai;
+
+import com.intel.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+import org.voltdb.types.TimestampType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DataMoverIntervalFetcherTest {
+    // Stands in for DataMoverGetTableRecsToMove over the rows in tables_ (DbUpdatedTimestamps in microseconds).
+    @Before
+    public void setUp() throws Exception {
+        client_ = mock(Client.class);
+        when(client_.callProcedure(eq(DataMoverIntervalFetcher.PROCEDURE), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+            calls_++;
+            List<Long> rows = tables_.get((int)(long)invocation.getArgument(1));
+            long endUs = invocation.getArgument(2);
+            long startUs = invocation.getArgument(3);
+            long maxRows = invocation.getArgument(4);
+            VoltTable table = new VoltTable(new VoltTable.ColumnInfo("DbUpdatedTimestamp", VoltType.TIMESTAMP),
+                    new VoltTable.ColumnInfo("Id", VoltType.BIGINT));
+            for (int i = 0; i < rows.size() && table.getRowCount() < maxRows; i++)
+                if (rows.get(i) >= startUs && rows.get(i) <= endUs)
+                    table.addRow(new TimestampType(rows.get(i)), (long)i);
+            ClientResponse response = mock(ClientResponse.class);
+            when(response.getResults()).thenReturn(new VoltTable[] {table});
+            return response;
+        });
+        tables_.add(new ArrayList<>());
+        tables_.add(new ArrayList<>());
+    }
+
+    private DataMoverIntervalFetcher fetcher(int maxRowsPerTable) {
+        return new DataMoverIntervalFetcher(client_, tables_.size(), maxRowsPerTable, 1L, 60_000L, mock(Logger.class));
+    }
+
+    @Test
+    public void caughtUp() throws Exception {
+        tables_.get(0).add(1_500_000L);
+        tables_.get(1).add(1_600_000L);
+        DataMoverIntervalFetcher.Interval interval = fetcher(10).fetch(1000L, 1000L, 3000L);
+        assertTrue(interval.caughtUp);
+        assertEquals(3000L - DataMoverIntervalFetcher.IN_FLIGHT_MARGIN_MS, interval.endMs);
+        assertEquals(2, interval.rowCount);
+        assertEquals(2, calls_);
+    }
+
+    @Test
+    public void behind() throws Exception {
+        DataMoverIntervalFetcher fetcher = fetcher(10);
+        DataMoverIntervalFetcher.Interval interval = fetcher.fetch(1000L, 1000L, 100_000L);
+        assertFalse(interval.caughtUp);
+        assertEquals(1000L + DataMoverIntervalFetcher.INITIAL_INTERVAL_MS, interval.endMs);
+        assertEquals(0, interval.rowCount);
+        assertEquals(2 * DataMoverIntervalFetcher.INITIAL_INTERVAL_MS, fetcher.intervalLengthMs());
+    }
+
+    @Test
+    public void largeTablesShortenTheInterval() throws Exception {
+        // 100 rows in table 0 (0.5 ms apart) and 50 rows in table 1 (4 ms apart), starting at 1 s.
+        for (int i = 0; i < 100; i++)
+            tables_.get(0).add(1_000_000L + 1 + 500L * i);
+        for (int i = 0; i < 50; i++)
+            tables_.get(1).add(1_000_000L + 1 + 4000L * i);
+        DataMoverIntervalFetcher fetcher = fetcher(10);
+        Set<String> moved = new HashSet<>();
+        long startMs = 1000L;
+        int intervals = 0;
+        while (true) {
+            DataMoverIntervalFetcher.Interval interval = fetcher.fetch(startMs, startMs, 10_000L);
+            assertEquals(startMs, interval.startMs);
+            for (int t = 0; t < interval.tables.length; t++) {
+                VoltTable table = interval.tables[t];
+                assertTrue(table.getRowCount() <= 10);
+                for (int r = 0; r < table.getRowCount(); r++) {
+                    long tsUs = table.fetchRow(r).getTimestampAsLong("DbUpdatedTimestamp");
+                    assertTrue(tsUs > startMs * 1000L && tsUs <= interval.endMs * 1000L);
+                    assertTrue(moved.add(t + ":" + table.fetchRow(r).getLong("Id")));
+                }
+            }
+            intervals++;
+            startMs = interval.endMs;
+            if (interval.caughtUp)
+                break;
+        }
+        assertEquals(150, moved.size());
+        assertTrue(intervals > 10);
+    }
+
+    @Test
+    public void moreRowsThanTheLimitInOneMillisecond() throws Exception {
+        for (int i = 0; i < 25; i++)
+            tables_.get(0).add(1_000_500L);
+        tables_.get(1).add(1_000_700L);
+        tables_.get(1).add(1_001_700L);
+        DataMoverIntervalFetcher.Interval interval = fetcher(10).fetch(1000L, 1000L, 100_000L);
+        assertEquals(1001L, interval.endMs);
+        assertEquals(25, interval.tables[0].getRowCount());
+        assertEquals(1, interval.tables[1].getRowCount());
+        assertFalse(interval.caughtUp);
+    }
+
+    @Test
+    public void prefetch() throws Exception {
+        try (DataMoverIntervalFetcher fetcher = fetcher(10)) {
+            fetcher.prefetch(1000L);
+            DataMoverIntervalFetcher.Interval interval = fetcher.next(1000L, 1000L);
+            assertEquals(1000L, interval.startMs);
+            assertEquals(2, calls_);
+            // A prefetch for another interval is not used.
+            fetcher.prefetch(interval.endMs);
+            interval = fetcher.next(5000L, 5000L);
+            assertEquals(5000L, interval.startMs);
+            assertEquals(6, calls_);
+        }
+    }
+
+    private Client client_;
+    private final List<List<Long>> tables_ = new ArrayList<>();
+    private volatile int calls_ = 0;
+}
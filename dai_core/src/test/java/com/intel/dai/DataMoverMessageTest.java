@@ -0,0 +1,101 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.MessageProperties;
+import org.junit.Test;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+import org.voltdb.types.TimestampType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DataMoverMessageTest {
+    private VoltTable makeTable(int rows) {
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo[] {
+                new VoltTable.ColumnInfo("Lctn", VoltType.STRING),
+                new VoltTable.ColumnInfo("DbUpdatedTimestamp", VoltType.TIMESTAMP),
+                new VoltTable.ColumnInfo("Value", VoltType.BIGINT)
+        });
+        for (int i = 0; i < rows; i++)
+            table.addRow("R0-CH0-N" + i, new TimestampType(1000L * i), i % 3 == 0 ? null : (long)i);
+        return table;
+    }
+
+    private void roundTrip(boolean compress) throws IOException {
+        VoltTable table = makeTable(25);
+        DataMoverMessage message = new DataMoverMessage(7L, 3L, 2000L, 1000L, "ComputeNode", 2, 4, table);
+        DataMoverMessage decoded = DataMoverMessage.decode(message.encode(compress));
+        assertEquals(7L, decoded.getAmqpMessageId());
+        assertEquals(3L, decoded.getIntervalId());
+        assertEquals(2000L, decoded.getEndIntvlTimeMs());
+        assertEquals(1000L, decoded.getStartIntvlTimeMs());
+        assertEquals("ComputeNode", decoded.getTableName());
+        assertEquals(2, decoded.getPart());
+        assertEquals(4, decoded.getOf());
+        assertTrue(table.hasSameContents(decoded.getTable()));
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        roundTrip(false);
+    }
+
+    @Test
+    public void roundTripCompressed() throws Exception {
+        roundTrip(true);
+    }
+
+    @Test
+    public void compressedIsSmaller() {
+        DataMoverMessage message = new DataMoverMessage(1L, 1L, 0L, 0L, "RasEvent", 1, 1, makeTable(1000));
+        assertTrue(message.encode(true).length < message.encode(false).length);
+    }
+
+    @Test(expected = IOException.class)
+    public void decodeNotBinary() throws Exception {
+        DataMoverMessage.decode("{\"EOM\":true,\"IntervalId\":-1,\"AmqpMessageId\":-1}".getBytes());
+    }
+
+    @Test(expected = IOException.class)
+    public void decodeTruncated() throws Exception {
+        byte[] body = new DataMoverMessage(1L, 1L, 0L, 0L, "RasEvent", 1, 1, makeTable(5)).encode(false);
+        DataMoverMessage.decode(Arrays.copyOf(body, body.length - 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void decodeCorruptCompressed() throws Exception {
+        byte[] body = new DataMoverMessage(1L, 1L, 0L, 0L, "RasEvent", 1, 1, makeTable(5)).encode(true);
+        for (int i = body.length - 8; i < body.length; i++)
+            body[i] = (byte)0xff;
+        DataMoverMessage.decode(body);
+    }
+
+    @Test
+    public void isBinary() {
+        assertTrue(DataMoverMessage.isBinary(DataMoverMessage.properties()));
+        assertFalse(DataMoverMessage.isBinary(MessageProperties.PERSISTENT_BASIC));
+        assertFalse(DataMoverMessage.isBinary(new AMQP.BasicProperties()));
+        assertFalse(DataMoverMessage.isBinary(null));
+        assertEquals(Integer.valueOf(2), DataMoverMessage.properties().getDeliveryMode());
+    }
+
+    @Test
+    public void split() {
+        VoltTable table = makeTable(2501);
+        List<VoltTable> parts = DataMoverMessage.split(table, 1000);
+        assertEquals(3, parts.size());
+        assertEquals(1000, parts.get(0).getRowCount());
+        assertEquals(1000, parts.get(1).getRowCount());
+        assertEquals(501, parts.get(2).getRowCount());
+        assertEquals("R0-CH0-N2500", parts.get(2).fetchRow(500).getString(0));
+        assertEquals(0, DataMoverMessage.split(makeTable(0), 1000).size());
+    }
+}
@@ -15,11 +15,15 @@ import org.voltdb.types.TimestampType;
 import java.sql.*;
 import java.time.Instant;
 
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
 
 public class NearlineTableUpdaterTest {
     Logger log_ = mock(Logger.class);
+    Connection connection_;
+    PreparedStatement statement_;
+    CallableStatement call_;
 
     class MockNearlineTableUpdater extends NearlineTableUpdater {
         MockNearlineTableUpdater(Logger log) throws Exception {
@@ -29,9 +33,12 @@ public class NearlineTableUpdaterTest {
         @Override
         public Connection get_connection()  {
             Connection connection = mock(Connection.class);
+            statement_ = mock(PreparedStatement.class);
+            call_ = mock(CallableStatement.class);
+            connection_ = connection;
             try {
-                when(connection.prepareStatement(ArgumentMatchers.anyString())).thenReturn(mock(PreparedStatement.class));
-                when(connection.prepareCall(ArgumentMatchers.anyString())).thenReturn(mock(CallableStatement.class));
+                when(connection.prepareStatement(ArgumentMatchers.anyString())).thenReturn(statement_);
+                when(connection.prepareCall(ArgumentMatchers.anyString())).thenReturn(call_);
             } catch (Exception e) {
                 return connection;
             }
@@ -69,6 +76,59 @@ public class NearlineTableUpdaterTest {
         catch (DataStoreException e){}
     }
 
+    @Test
+    public void updateHistoryIsBatched() throws Exception {
+        NearlineTableUpdater updater = new MockNearlineTableUpdater(log_);
+        updater.Update("Adapter", makeTable());
+        verify(statement_, times(3)).addBatch();
+        verify(statement_, times(1)).executeBatch();
+        verify(statement_, never()).execute();
+        verify(connection_, times(1)).commit();
+    }
+
+    @Test
+    public void updateLargeHistoryIsSplitInBatches() throws Exception {
+        NearlineTableUpdater updater = new MockNearlineTableUpdater(log_);
+        updater.Update("Adapter", makeTable(NearlineTableUpdater.MAX_BATCH_ROWS + 1));
+        verify(statement_, times(NearlineTableUpdater.MAX_BATCH_ROWS + 1)).addBatch();
+        verify(statement_, times(2)).executeBatch();
+        verify(connection_, times(1)).commit();
+    }
+
+    @Test
+    public void updateProcedureIsExecutedPerRow() throws Exception {
+        NearlineTableUpdater updater = new MockNearlineTableUpdater(log_);
+        updater.Update("RasMetaData", makeTable());
+        verify(call_, times(3)).execute();
+        verify(call_, never()).executeBatch();
+        verify(connection_, times(1)).commit();
+    }
+
+    @Test
+    public void updateBatchFailureReconnects() throws Exception {
+        NearlineTableUpdater updater = new MockNearlineTableUpdater(log_);
+        Connection failed = connection_;
+        when(statement_.executeBatch()).thenThrow(BatchUpdateException.class);
+        try {
+            updater.Update("Adapter", makeTable());
+            fail();
+        } catch (DataStoreException e) { /* Expected */ }
+        verify(failed, never()).commit();
+        verify(failed).close();
+        assertNotSame(failed, connection_);
+    }
+
+    private VoltTable makeTable(int rows) {
+        VoltTable result = new VoltTable(new VoltTable.ColumnInfo[] {
+                new VoltTable.ColumnInfo("column1", VoltType.STRING),
+                new VoltTable.ColumnInfo("column2", VoltType.TIMESTAMP)
+        });
+        TimestampType ts = new TimestampType(Date.from(Instant.now()));
+        for (int i = 0; i < rows; i++)
+            result.addRow("red" + i, ts);
+        return result;
+    }
+
     private VoltTable makeTable() {
         VoltTable result = new VoltTable(new VoltTable.ColumnInfo[] {
                 new VoltTable.ColumnInfo("column1", VoltType.STRING),
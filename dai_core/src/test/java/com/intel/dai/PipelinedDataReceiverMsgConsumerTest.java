@@ -0,0 +1,167 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai;
+
+import com.intel.config_io.ConfigIOFactory;
+import com.intel.dai.dsapi.WorkQueue;
+import com.intel.logging.Logger;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class PipelinedDataReceiverMsgConsumerTest {
+    @Before
+    public void setUp() throws Exception {
+        adapter_ = mock(IAdapter.class);
+        workQueue_ = mock(WorkQueue.class);
+        when(adapter_.workQueue()).thenReturn(workQueue_);
+        when(adapter_.jsonParser()).thenReturn(ConfigIOFactory.getInstance("json"));
+        channel_ = mock(Channel.class);
+        receiver_ = mock(DataReceiverAmqp.class);
+        when(receiver_.getChannel()).thenReturn(channel_);
+        nearline_ = mock(AdapterNearlineTierJdbc.class);
+        updater_ = mock(NearlineTableUpdater.class);
+        doAnswer(invocation -> {
+            VoltTable table = invocation.getArgument(1);
+            updates_.add(invocation.getArgument(0) + ":" + table.fetchRow(0).getString(0));
+            return null;
+        }).when(updater_).Update(anyString(), any(VoltTable.class));
+        consumer_ = new PipelinedDataReceiverMsgConsumer(receiver_, 0L, adapter_, mock(Logger.class), () -> updater_,
+                nearline_, 3, 2);
+    }
+
+    private void deliver(long tag, long intervalId, String tableName, String firstValue) throws Exception {
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo[] {
+                new VoltTable.ColumnInfo("column1", VoltType.STRING)});
+        table.addRow(firstValue);
+        byte[] body = new DataMoverMessage(tag, intervalId, 1000L * intervalId, 1000L * (intervalId - 1),
+                tableName, 1, 1, table).encode(false);
+        consumer_.handleDelivery("", new Envelope(tag, false, "", ""), DataMoverMessage.properties(), body);
+    }
+
+    private void deliverEom(long tag) {
+        consumer_.handleDelivery("", new Envelope(tag, false, "", ""), new AMQP.BasicProperties(),
+                "{\"EOM\":true,\"IntervalId\":-1,\"AmqpMessageId\":-1}".getBytes());
+    }
+
+    private List<Long> ackedTags() throws Exception {
+        ArgumentCaptor<Long> tags = ArgumentCaptor.forClass(Long.class);
+        verify(channel_, atLeastOnce()).basicAck(tags.capture(), eq(true));
+        verify(channel_, never()).basicAck(anyLong(), eq(false));
+        return tags.getAllValues();
+    }
+
+    @Test
+    public void writesInTableOrderAndAcksAll() throws Exception {
+        deliver(1L, 1L, "RasEvent", "r1");
+        deliver(2L, 1L, "Job", "j1");
+        deliver(3L, 1L, "RasEvent", "r2");
+        deliver(4L, 1L, "RasEvent", "r3");
+        deliver(5L, 2L, "Job", "j2");
+        consumer_.start();
+        consumer_.close();
+
+        List<String> updates = new ArrayList<>(updates_);
+        assertEquals(5, updates.size());
+        assertTrue(updates.indexOf("RasEvent:r1") < updates.indexOf("RasEvent:r2"));
+        assertTrue(updates.indexOf("RasEvent:r2") < updates.indexOf("RasEvent:r3"));
+        assertTrue(updates.indexOf("Job:j1") < updates.indexOf("Job:j2"));
+        verify(channel_, times(5)).basicPublish(eq(Adapter.DataMoverExchangeName), anyString(),
+                argThat(DataMoverMessage::isBinary), any(byte[].class));
+
+        List<Long> acked = ackedTags();
+        assertEquals(Long.valueOf(5L), acked.get(acked.size() - 1));
+        List<Long> sorted = new ArrayList<>(acked);
+        Collections.sort(sorted);
+        assertEquals(sorted, acked);
+
+        ArgumentCaptor<String> restart = ArgumentCaptor.forClass(String.class);
+        verify(workQueue_, atMost(2)).saveWorkItemsRestartData(anyLong(), restart.capture(), eq(false));
+        String last = restart.getValue();
+        assertTrue(last.contains("(IntervalId=2)"));
+        assertTrue(last.contains("(AmqpMessageId=5)"));
+        assertTrue(last.contains("(TableName=Job)"));
+        verify(adapter_, never()).logRasEventNoEffectedJob(anyString(), anyString(), any(), anyLong(), any(),
+                anyLong());
+    }
+
+    @Test
+    public void eomWaitsForWrites() throws Exception {
+        consumer_.start();
+        deliver(1L, 1L, "RasEvent", "r1");
+        deliver(2L, 1L, "Job", "j1");
+        deliverEom(3L);
+        verify(nearline_).signalEom();
+        assertEquals(2, updates_.size());
+        assertEquals(Long.valueOf(3L), ackedTags().get(ackedTags().size() - 1));
+        consumer_.close();
+    }
+
+    @Test
+    public void gapIsReported() throws Exception {
+        deliver(2L, 1L, "RasEvent", "r1");
+        consumer_.start();
+        consumer_.close();
+        verify(adapter_).logRasEventNoEffectedJob(eq("RasAntDataReceiverInvalidMsgId"), anyString(), any(),
+                anyLong(), any(), anyLong());
+        assertEquals(1, updates_.size());
+    }
+
+    @Test
+    public void failedMessagesAreSkippedAndAcked() throws Exception {
+        doThrow(new RuntimeException("Failed")).when(updater_).Update(eq("Job"), any(VoltTable.class));
+        deliver(1L, 1L, "Job", "j1");
+        consumer_.handleDelivery("", new Envelope(2L, false, "", ""), DataMoverMessage.properties(),
+                new byte[] {1, 2, 3});
+        deliver(3L, 1L, "RasEvent", "r1");
+        consumer_.start();
+        consumer_.close();
+        verify(adapter_, times(2)).logRasEventNoEffectedJob(eq("RasAntException"), anyString(), any(), anyLong(),
+                any(), anyLong());
+        List<Long> acked = ackedTags();
+        assertEquals(Long.valueOf(3L), acked.get(acked.size() - 1));
+        assertEquals(Collections.singletonList("RasEvent:r1"), new ArrayList<>(updates_));
+    }
+
+    @Test
+    public void publishesTheHighWaterMarksOfWrittenMessages() throws Exception {
+        doThrow(new RuntimeException("Failed")).when(updater_).Update(eq("Job"), any(VoltTable.class));
+        for (String tableName : new String[] {"RasEvent", "Job"}) {
+            VoltTable table = new VoltTable(new VoltTable.ColumnInfo("column1", VoltType.STRING),
+                    new VoltTable.ColumnInfo("DbUpdatedTimestamp", VoltType.TIMESTAMP));
+            table.addRow("r1", 5000L);
+            long tag = tableName.equals("RasEvent") ? 1L : 2L;
+            byte[] body = new DataMoverMessage(tag, 1L, 1000L, 0L, tableName, 1, 1, table).encode(false);
+            consumer_.handleDelivery("", new Envelope(tag, false, "", ""), DataMoverMessage.properties(), body);
+        }
+        consumer_.start();
+        consumer_.close();
+        verify(channel_).basicPublish(eq(Adapter.DataMoverExchangeName), eq("HighWaterMark.RasEvent"), isNull(),
+                any(byte[].class));
+        verify(channel_, never()).basicPublish(eq(Adapter.DataMoverExchangeName), eq("HighWaterMark.Job"), any(),
+                any(byte[].class));
+    }
+
+    private IAdapter adapter_;
+    private WorkQueue workQueue_;
+    private Channel channel_;
+    private DataReceiverAmqp receiver_;
+    private AdapterNearlineTierJdbc nearline_;
+    private NearlineTableUpdater updater_;
+    private PipelinedDataReceiverMsgConsumer consumer_;
+    private final List<String> updates_ = Collections.synchronizedList(new ArrayList<>());
+}
@@ -35,6 +35,11 @@ public class DataStoreFactoryImplTest {
         protected Connection createTier2Connection() throws DataStoreException {
             return mock(Connection.class);
         }
+
+        @Override
+        protected Client createOnlineTierBulkLoadClient() {
+            return mock(Client.class);
+        }
     }
 
     @Before
@@ -13,6 +13,7 @@ import java.sql.Types;
 import java.sql.SQLException;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.junit.Before;
 import org.junit.Assert;
@@ -23,6 +24,10 @@ import org.mockito.stubbing.Answer;
 
 import com.intel.logging.Logger;
 import com.intel.dai.exceptions.DataStoreException;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+import org.voltdb.client.VoltBulkLoader.BulkLoaderFailureCallBack;
+import org.voltdb.client.VoltBulkLoader.VoltBulkLoader;
 
 public class DataLoaderApiJdbcTest {
     @Before
@@ -151,8 +156,13 @@ public class DataLoaderApiJdbcTest {
         // Must have stored data in the Online DB in each active (TABLES) and history table (HISTORY_TABLES)
         Mockito.verify(mockOnlineConn, Mockito.times(TABLES.length + HISTORY_TABLES.size()))
                 .prepareStatement(Mockito.anyString());
-        Mockito.verify(mockActiveStoreStmt, Mockito.times(TABLES.length)).execute(); // One record per table
-        Mockito.verify(mockHistoryStoreStmt, Mockito.times(HISTORY_TABLES.size())).execute(); // One record per table
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(TABLES.length)).addBatch(); // One record per table
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(HISTORY_TABLES.size())).addBatch(); // One record per table
+        // Each table's single record is flushed in its own batch
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(TABLES.length)).executeBatch();
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(HISTORY_TABLES.size())).executeBatch();
+        Mockito.verify(mockActiveStoreStmt, Mockito.never()).execute();
+        Mockito.verify(mockLoadStmt, Mockito.times(TABLES.length)).setFetchSize(DataLoaderApiJdbc.DEFAULT_BATCH_SIZE);
         // All the Nearline tier data must have been retrieved from result sets
         for (int i = 0; i < mockResultSets.length; i++) {
             // All the data from the result sets (data from Nearline tables) must have been retrieved (note: result
@@ -209,6 +219,129 @@ public class DataLoaderApiJdbcTest {
         }
     }
 
+    @Test
+    public void populatesOnlineTierInBatches() throws Exception {
+        CallableStatement mockLoadStmt = Mockito.mock(CallableStatement.class);
+        PreparedStatement mockActiveStoreStmt = Mockito.mock(PreparedStatement.class);
+        PreparedStatement mockHistoryStoreStmt = Mockito.mock(PreparedStatement.class);
+        ResultSet[] mockResultSets = new ResultSet[TABLES.length];
+
+        dataLoaderApi = new DataLoaderApiJdbc(mockOnlineConn, mockNearlineConn, null, null, 1, 2, mockLog);
+        preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, mockActiveStoreStmt, mockHistoryStoreStmt, "value",
+                mockResultSets);
+        dataLoaderApi.tables = new String[] {"DummyTable"};
+        Mockito.when(mockResultSets[0].next()).thenReturn(true, true, true, true, true, false); // Five records
+
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+
+        Mockito.verify(mockLoadStmt).setFetchSize(2);
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(5)).addBatch();
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(5)).addBatch();
+        // Two full batches and the remaining record
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(3)).executeBatch();
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(3)).executeBatch();
+    }
+
+    @Test
+    public void populatesOnlineTablesInParallel() throws Exception {
+        CallableStatement mockLoadStmt = Mockito.mock(CallableStatement.class);
+        PreparedStatement mockActiveStoreStmt = Mockito.mock(PreparedStatement.class);
+        PreparedStatement mockHistoryStoreStmt = Mockito.mock(PreparedStatement.class);
+        ResultSet[] mockResultSets = new ResultSet[TABLES.length];
+        Connection mockTableOnlineConn = Mockito.mock(Connection.class);
+        Connection mockTableNearlineConn = Mockito.mock(Connection.class);
+
+        // The tables are loaded over connections of their own
+        dataLoaderApi = new DataLoaderApiJdbc(mockTableOnlineConn, mockTableNearlineConn, () -> mockOnlineConn,
+                () -> mockNearlineConn, 4, 10, mockLog);
+        preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, mockActiveStoreStmt, mockHistoryStoreStmt, "value",
+                mockResultSets);
+
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+
+        Mockito.verify(mockNearlineConn, Mockito.times(TABLES.length)).prepareCall(Mockito.anyString());
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(TABLES.length)).addBatch();
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(TABLES.length)).executeBatch();
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(HISTORY_TABLES.size())).executeBatch();
+        // Every table's connections were closed once it was loaded
+        Mockito.verify(mockOnlineConn, Mockito.times(TABLES.length)).close();
+        Mockito.verify(mockNearlineConn, Mockito.times(TABLES.length)).close();
+        Mockito.verifyZeroInteractions(mockTableOnlineConn, mockTableNearlineConn);
+    }
+
+    @Test(expected = DataStoreException.class)
+    public void populateOnlineTablesInParallelHandlesOnlineStoreException() throws Exception {
+        CallableStatement mockLoadStmt = Mockito.mock(CallableStatement.class);
+        PreparedStatement mockActiveStoreStmt = Mockito.mock(PreparedStatement.class);
+        PreparedStatement mockHistoryStoreStmt = Mockito.mock(PreparedStatement.class);
+        ResultSet[] mockResultSets = new ResultSet[TABLES.length];
+
+        dataLoaderApi = new DataLoaderApiJdbc(mockOnlineConn, mockNearlineConn, () -> mockOnlineConn,
+                () -> mockNearlineConn, 4, 10, mockLog);
+        preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, mockActiveStoreStmt, mockHistoryStoreStmt, "value",
+                mockResultSets);
+        Mockito.when(mockActiveStoreStmt.executeBatch()).thenThrow(new SQLException("Connection closed by server"));
+
+        // Should handle the exception of the table's thread and throw DataStoreException
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+    }
+
+    @Test
+    public void populatesOnlineTablesThroughVoltBulkLoaders() throws Exception {
+        CallableStatement mockLoadStmt = Mockito.mock(CallableStatement.class);
+        ResultSet[] mockResultSets = new ResultSet[TABLES.length];
+        Client mockClient = Mockito.mock(Client.class);
+        VoltBulkLoader mockActiveLoader = prepareBulkLoader(mockClient, "DummyTable");
+        VoltBulkLoader mockActiveLoader2 = prepareBulkLoader(mockClient, "DummyTable2");
+        VoltBulkLoader mockHistoryLoader = prepareBulkLoader(mockClient, "DummyTable_History");
+
+        dataLoaderApi = new DataLoaderApiJdbc(mockOnlineConn, mockNearlineConn, () -> mockOnlineConn,
+                () -> mockNearlineConn, mockClient, 4, 10, mockLog);
+        preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, Mockito.mock(PreparedStatement.class),
+                Mockito.mock(PreparedStatement.class), "value", mockResultSets);
+        for (ResultSet mockResultSet : mockResultSets) {
+            for (String field : DUMMY_TABLE_FIELDS) {
+                Mockito.when(mockResultSet.getObject(field)).thenReturn(field + "-value");
+            }
+        }
+
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+
+        // Rows are laid out in the column order of the Online tier table, columns not copied stay null
+        Object[] row = {"field3-value", "field1-value", "field2-value", null};
+        Mockito.verify(mockActiveLoader).insertRow(0L, row);
+        Mockito.verify(mockActiveLoader2).insertRow(0L, row);
+        Mockito.verify(mockHistoryLoader).insertRow(0L, row);
+        for (VoltBulkLoader mockLoader : new VoltBulkLoader[] {mockActiveLoader, mockActiveLoader2, mockHistoryLoader}) {
+            Mockito.verify(mockLoader).drain();
+            Mockito.verify(mockLoader).close();
+        }
+        Mockito.verify(mockOnlineConn, Mockito.never()).prepareStatement(Mockito.anyString());
+        Mockito.verify(mockOnlineConn, Mockito.never()).close();
+        Mockito.verify(mockNearlineConn, Mockito.times(TABLES.length)).close();
+    }
+
+    @Test(expected = DataStoreException.class)
+    public void populateOnlineTablesThroughVoltBulkLoadersHandlesFailedRows() throws Exception {
+        CallableStatement mockLoadStmt = Mockito.mock(CallableStatement.class);
+        ResultSet[] mockResultSets = new ResultSet[TABLES.length];
+        Client mockClient = Mockito.mock(Client.class);
+        VoltBulkLoader mockLoader = prepareBulkLoader(mockClient, "DummyTable2");
+        Mockito.doAnswer(invocation -> {
+            failureCallBack.failureCallback(0L, new Object[0], Mockito.mock(ClientResponse.class));
+            return null;
+        }).when(mockLoader).drain();
+
+        dataLoaderApi = new DataLoaderApiJdbc(mockOnlineConn, mockNearlineConn, null, null, mockClient, 1, 10,
+                mockLog);
+        preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, Mockito.mock(PreparedStatement.class),
+                Mockito.mock(PreparedStatement.class), "value", mockResultSets);
+        dataLoaderApi.tables = new String[] {"DummyTable2"};
+
+        // Should count the rows the bulk loader could not store and throw DataStoreException
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+    }
+
     @Test(expected = DataStoreException.class)
     public void populateOnlineTierFromNearlineTierHandlesNearlineStatementCreationException() throws Exception {
         Mockito.when(mockNearlineConn.prepareCall(Mockito.anyString()))
@@ -268,12 +401,28 @@ public class DataLoaderApiJdbcTest {
         preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, mockActiveStoreStmt, mockHistoryStoreStmt, mockValue,
                 mockResultSets);
         // Throw exception when storing in Online tier
-        Mockito.when(mockActiveStoreStmt.execute()).thenThrow(new SQLException("Connection closed by server"));
+        Mockito.when(mockActiveStoreStmt.executeBatch()).thenThrow(new SQLException("Connection closed by server"));
 
         // Should handle exception and throw DataStoreException
         dataLoaderApi.populateOnlineTierFromNearlineTier();
     }
 
+    private VoltBulkLoader prepareBulkLoader(Client mockClient, String tableName) throws Exception {
+        VoltBulkLoader mockLoader = Mockito.mock(VoltBulkLoader.class);
+        Map<Integer, String> columnNames = new HashMap<>();
+        columnNames.put(0, "FIELD3");
+        columnNames.put(1, "FIELD1");
+        columnNames.put(2, "FIELD2");
+        columnNames.put(3, "FIELD4");
+        Mockito.when(mockLoader.getColumnNames()).thenReturn(columnNames);
+        Mockito.when(mockClient.getNewBulkLoader(Mockito.eq(tableName), Mockito.eq(10),
+                Mockito.any(BulkLoaderFailureCallBack.class))).thenAnswer(invocation -> {
+                    failureCallBack = invocation.getArgument(2);
+                    return mockLoader;
+                });
+        return mockLoader;
+    }
+
     private void preparePopulateOnlineTierFromNearlineTier(CallableStatement mockLoadStmt,
                                                            PreparedStatement mockActiveStoreStmt,
                                                            PreparedStatement mockHistoryStoreStmt,
@@ -292,10 +441,10 @@ public class DataLoaderApiJdbcTest {
         // Return a different result set per load (from Nearline connection)
         Mockito.when(mockLoadStmt.executeQuery()).thenAnswer(
                 new Answer() {
-                    private int invocationCount = 0;
+                    private final AtomicInteger invocationCount = new AtomicInteger(); // Tables may load in parallel
 
                     public Object answer(InvocationOnMock invocation) {
-                        return mockResultSets[invocationCount++];
+                        return mockResultSets[invocationCount.getAndIncrement()];
                     }
                 }
         );
@@ -351,4 +500,5 @@ public class DataLoaderApiJdbcTest {
     private ResultSet mockResultSet;
     private Logger mockLog;
     private DataLoaderApiJdbc dataLoaderApi;
+    private BulkLoaderFailureCallBack failureCallBack;
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package com.intel.dai.dsimpl.jdbc;
+
+import com.intel.dai.exceptions.DataStoreException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DbConnectionPoolTest {
+    @Before
+    public void setUp() {
+        created_ = new ArrayList<>();
+        statements_ = new ArrayList<>();
+        pool_ = new DbConnectionPool(this::createConnection, 2, 2, 60_000L, 50L);
+    }
+
+    @After
+    public void tearDown() {
+        pool_.close();
+    }
+
+    private Connection createConnection() throws DataStoreException {
+        if(failCreate_)
+            throw new DataStoreException("Cannot connect");
+        Connection conn = Mockito.mock(Connection.class);
+        try {
+            Mockito.when(conn.prepareCall(Mockito.anyString())).thenAnswer(invocation -> {
+                statements_.add(Mockito.mock(CallableStatement.class));
+                return statements_.get(statements_.size() - 1);
+            });
+            Mockito.when(conn.createStatement()).thenAnswer(invocation -> {
+                statements_.add(Mockito.mock(Statement.class));
+                return statements_.get(statements_.size() - 1);
+            });
+            Mockito.when(conn.prepareStatement(Mockito.anyString()))
+                    .thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+            Mockito.when(conn.isValid(Mockito.anyInt())).thenReturn(true);
+        } catch(SQLException e) {
+            throw new DataStoreException("Mock setup failed", e);
+        }
+        created_.add(conn);
+        return conn;
+    }
+
+    @Test
+    public void reusesReturnedConnections() throws Exception {
+        try (Connection conn = pool_.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool_.getConnection()) {
+            conn.setAutoCommit(false);
+        }
+        assertEquals(1, created_.size());
+        assertEquals(1, pool_.idleCount());
+        Mockito.verify(created_.get(0), Mockito.never()).close();
+        Mockito.verify(created_.get(0)).setAutoCommit(false);
+    }
+
+    @Test
+    public void rollsBackWhenReturned() throws Exception {
+        Connection conn = pool_.getConnection();
+        Mockito.when(created_.get(0).getAutoCommit()).thenReturn(false);
+        conn.close();
+        conn.close();
+        Mockito.verify(created_.get(0), Mockito.times(1)).rollback();
+        assertTrue(conn.isClosed());
+        try {
+            conn.prepareCall("{call Proc()}");
+            fail();
+        } catch(SQLException e) { /* Expected */ }
+    }
+
+    @Test
+    public void borrowTimesOutWhenExhausted() throws Exception {
+        Connection first = pool_.getConnection();
+        Connection second = pool_.getConnection();
+        assertNotSame(first, second);
+        try {
+            pool_.getConnection();
+            fail();
+        } catch(SQLTimeoutException e) { /* Expected */ }
+        second.close();
+        try (Connection conn = pool_.getConnection()) {
+            assertNotNull(conn);
+        }
+        first.close();
+        assertEquals(2, created_.size());
+    }
+
+    @Test
+    public void failedCreateReleasesTheSlot() throws Exception {
+        failCreate_ = true;
+        for(int i = 0; i < 3; i++) {
+            try {
+                pool_.getConnection();
+                fail();
+            } catch(SQLException e) {
+                assertTrue(e.getCause() instanceof DataStoreException);
+            }
+        }
+        failCreate_ = false;
+        try (Connection conn = pool_.getConnection()) {
+            assertNotNull(conn);
+        }
+    }
+
+    @Test
+    public void cachesStatements() throws Exception {
+        try (Connection conn = pool_.getConnection()) {
+            try (CallableStatement stmt = conn.prepareCall("{call A(?)}")) {
+                stmt.setInt(1, 5);
+            }
+            try (CallableStatement stmt = conn.prepareCall("{call A(?)}")) {
+                stmt.setInt(1, 6);
+                stmt.close();
+                assertTrue(stmt.isClosed());
+            }
+        }
+        Connection physical = created_.get(0);
+        Mockito.verify(physical, Mockito.times(1)).prepareCall("{call A(?)}");
+        try (Connection conn = pool_.getConnection()) {
+            conn.prepareCall("{call A(?)}").close();
+            conn.prepareCall("{call B()}").close();
+            conn.prepareCall("{call C()}").close(); // Evicts A, the cache holds 2 statements
+            conn.prepareCall("{call A(?)}").close();
+        }
+        Mockito.verify(physical, Mockito.times(2)).prepareCall("{call A(?)}");
+    }
+
+    @Test
+    public void sameStatementInUseTwiceIsNotShared() throws Exception {
+        try (Connection conn = pool_.getConnection()) {
+            PreparedStatement outer = conn.prepareStatement("SELECT 1");
+            PreparedStatement inner = conn.prepareStatement("SELECT 1");
+            outer.setInt(1, 1);
+            inner.close();
+            outer.close();
+        }
+        Mockito.verify(created_.get(0), Mockito.times(2)).prepareStatement("SELECT 1");
+    }
+
+    @Test
+    public void setsTheFetchSize() throws Exception {
+        pool_.setFetchSize(500);
+        try (Connection conn = pool_.getConnection()) {
+            conn.prepareCall("{call A()}").close();
+            conn.createStatement().close();
+            conn.prepareCall("{call A()}").close();
+        }
+        Mockito.verify(created_.get(0), Mockito.times(1)).prepareCall("{call A()}");
+        assertEquals(2, statements_.size());
+        for(Statement statement: statements_)
+            Mockito.verify(statement).setFetchSize(500);
+    }
+
+    @Test
+    public void replacesInvalidConnections() throws Exception {
+        pool_.close();
+        pool_ = new DbConnectionPool(this::createConnection, 2, 2, 0L, 50L);
+        pool_.getConnection().close();
+        Mockito.when(created_.get(0).isValid(Mockito.anyInt())).thenReturn(false);
+        pool_.getConnection().close();
+        assertEquals(2, created_.size());
+        Mockito.verify(created_.get(0)).close();
+        Mockito.verify(created_.get(1), Mockito.never()).close();
+    }
+
+    @Test
+    public void closeClosesIdleAndReturnedConnections() throws Exception {
+        Connection borrowed = pool_.getConnection();
+        pool_.getConnection().close();
+        pool_.close();
+        Mockito.verify(created_.get(1)).close();
+        borrowed.close();
+        Mockito.verify(created_.get(0)).close();
+        assertEquals(0, pool_.idleCount());
+        try {
+            pool_.getConnection();
+            fail();
+        } catch(SQLException e) { /* Expected */ }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidSettings() {
+        new DbConnectionPool(this::createConnection, 0, 0, 0L, 0L);
+    }
+
+    private DbConnectionPool pool_;
+    private List<Connection> created_;
+    private List<Statement> statements_;
+    private boolean failCreate_ = false;
+}
@@ -0,0 +1,121 @@
+package com.intel.dai.dsimpl.jdbc;
+
+import com.intel.dai.exceptions.DataStoreException;
+import com.intel.logging.Logger;
+import com.intel.perflogging.BenchmarkHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class JdbcBatchedStoreTelemetryTest {
+    class MockJdbcBatchedStoreTelemetry extends JdbcBatchedStoreTelemetry {
+        MockJdbcBatchedStoreTelemetry(Logger log, int batchSize, long lingerMs) {
+            super(log, batchSize, lingerMs);
+        }
+
+        @Override
+        protected void createBatchInsertStatement() throws DataStoreException {
+            batchInsert_ = statement_;
+        }
+
+        @Override
+        protected void createConnection() throws DataStoreException {
+            connection_ = connection;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        connection = mock(Connection.class);
+        statement_ = mock(PreparedStatement.class);
+        store = new MockJdbcBatchedStoreTelemetry(mock(Logger.class), 3, 60_000L);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Test
+    public void logEnvDataAggregatedBatches() throws Exception {
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 2L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        verify(statement_, never()).executeBatch();
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 3L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        verify(statement_, times(3)).addBatch();
+        verify(statement_, times(1)).executeBatch();
+        verify(connection, times(1)).commit();
+        assertEquals(3L, store.getStoredRows());
+        assertEquals(1L, store.getStoredBatches());
+        assertTrue(store.getRowsPerSecond() > 0.0);
+    }
+
+    @Test
+    public void reportsToBenchmarker() throws Exception {
+        BenchmarkHelper benchmarker = mock(BenchmarkHelper.class);
+        store.setBenchmarker(benchmarker);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 2L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        store.flush();
+        verify(benchmarker).addNamedValue("TelemetryRowsStored", 2L);
+        verify(benchmarker).addNamedValue("TelemetryBatchesStored", 1L);
+        verify(benchmarker).addNamedValue(eq("TelemetryBatchStoreUs"), anyLong());
+        verify(benchmarker).addNamedMaximum(eq("TelemetryMaxBatchStoreUs"), anyLong());
+    }
+
+    @Test
+    public void flush() throws Exception {
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        store.flush();
+        store.flush();
+        verify(statement_, times(1)).executeBatch();
+        assertEquals(1L, store.getStoredRows());
+    }
+
+    @Test
+    public void lingerFlush() throws Exception {
+        store.close();
+        store = new MockJdbcBatchedStoreTelemetry(mock(Logger.class), 100, 20L);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        verify(statement_, timeout(5_000L).times(1)).executeBatch();
+    }
+
+    @Test
+    public void close() throws Exception {
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        store.close();
+        verify(statement_, times(1)).executeBatch();
+        verify(statement_).close();
+        verify(connection).close();
+    }
+
+    @Test(expected = DataStoreException.class)
+    public void commitException() throws Exception {
+        doThrow(SQLException.class).when(connection).commit();
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        store.flush();
+    }
+
+    @Test
+    public void commitAndRollbackException() throws Exception {
+        doThrow(SQLException.class).when(connection).commit();
+        doThrow(SQLException.class).when(connection).rollback();
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        try {
+            store.flush();
+            fail();
+        } catch(DataStoreException e) { /* Expected */ }
+        assertEquals(0L, store.getStoredRows());
+    }
+
+    Connection connection;
+    PreparedStatement statement_;
+    JdbcBatchedStoreTelemetry store;
+}
@@ -0,0 +1,172 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai.dsimpl.voltdb;
+
+import com.intel.dai.AdapterInformation;
+import com.intel.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+import org.voltdb.client.ProcCallException;
+import org.voltdb.client.ProcedureCallback;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class VoltDbBatchedRasEventLogTest {
+    class VoltDbRasEventLogMock extends VoltDbRasEventLog {
+        VoltDbRasEventLogMock() {
+            super(new String[] {"localhost"}, new AdapterInformation("TestType", "TestName", "location", "hostname",
+                    1L), mock(Logger.class));
+            initialize();
+        }
+        @Override protected Client initializeVoltClient(String[] servers) { return client_; }
+    }
+
+    @Before
+    public void setUp() throws IOException, ProcCallException {
+        client_ = mock(Client.class);
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(ClientResponse.SUCCESS);
+        VoltTable table = new VoltTable(
+                new VoltTable.ColumnInfo("DescriptiveName", VoltType.STRING),
+                new VoltTable.ColumnInfo("Severity", VoltType.STRING),
+                new VoltTable.ColumnInfo("Category", VoltType.STRING),
+                new VoltTable.ColumnInfo("Component", VoltType.STRING),
+                new VoltTable.ColumnInfo("ControlOperation", VoltType.STRING),
+                new VoltTable.ColumnInfo("Msg", VoltType.STRING),
+                new VoltTable.ColumnInfo("GenerateAlert", VoltType.STRING));
+        table.addRow("RasTestEvent", "INFO", "Adapter", "AdapterTest", null, "", "N");
+        when(response.getResults()).thenReturn(new VoltTable[] { table });
+        when(client_.callProcedure(eq("@AdHoc"), anyString())).thenReturn(response);
+        batches_ = Collections.synchronizedList(new ArrayList<>());
+        callbacks_ = Collections.synchronizedList(new ArrayList<>());
+        sent_ = new CountDownLatch(1);
+        doAnswer((invocation) -> {
+            callbacks_.add(invocation.getArgument(0));
+            Object[] args = invocation.getArguments();
+            batches_.add(Arrays.copyOfRange(args, 2, args.length));
+            sent_.countDown();
+            return true;
+        }).when(client_).callProcedure(any(ProcedureCallback.class), eq("RasEventStoreBatch"), anyString(), any(),
+                any(), any(), any(), anyString(), anyLong());
+        eventLog_ = new VoltDbRasEventLogMock();
+    }
+
+    @After
+    public void tearDown() {
+        if(underTest_ != null)
+            underTest_.close();
+    }
+
+    @Test
+    public void groupsEventsByTypeUntilTheBatchIsFull() {
+        underTest_ = new VoltDbBatchedRasEventLog(eventLog_, "TestName", mock(Logger.class), 5, 60_000L);
+        underTest_.logRasEventNoEffectedJob("RasTestEvent", "data1", "x0", 10L, "TestType", 1L);
+        underTest_.logRasEventCheckForEffectedJob("RasTestEvent", "data2", "x1", 20L, "TestType", 1L);
+        underTest_.logRasEventCheckForEffectedJob("RasOtherEvent", "data3", " ", 30L, "TestType", 1L);
+        underTest_.logRasEventWithEffectedJob("RasTestEvent", "data4", "x2", "job1", 40L, "TestType", 1L);
+        assertEquals(4, underTest_.getPendingEvents());
+        assertTrue(batches_.isEmpty());
+
+        underTest_.logRasEventNoEffectedJob("RasTestEvent", "data5", "x3", 50L, "OtherType", 2L);
+        assertEquals(0, underTest_.getPendingEvents());
+        assertEquals(5L, underTest_.getInFlightEvents());
+        assertEquals(3, batches_.size());
+        Object[] first = batches_.get(0);
+        assertEquals("RasTestEvent", first[0]);
+        assertArrayEquals(new String[] {"data1", "data2", "data4"}, (String[])first[1]);
+        assertArrayEquals(new String[] {"x0", "x1", "x2"}, (String[])first[2]);
+        assertArrayEquals(new String[] {null, "?", "job1"}, (String[])first[3]);
+        assertArrayEquals(new long[] {10L, 20L, 40L}, (long[])first[4]);
+        assertEquals("TestType", first[5]);
+        assertEquals(1L, first[6]);
+        assertEquals("RasOtherEvent", batches_.get(1)[0]);
+        assertArrayEquals(new String[] {null}, (String[])batches_.get(1)[3]);
+        assertEquals("OtherType", batches_.get(2)[5]);
+        assertEquals(2L, batches_.get(2)[6]);
+    }
+
+    @Test
+    public void sendsLingeringEvents() throws Exception {
+        underTest_ = new VoltDbBatchedRasEventLog(eventLog_, "TestName", mock(Logger.class), 100, 10L);
+        underTest_.logRasEventNoEffectedJob("RasTestEvent", "data", "x0", 10L, "TestType", 1L);
+        assertTrue(sent_.await(5L, TimeUnit.SECONDS));
+        assertEquals(0, underTest_.getPendingEvents());
+    }
+
+    @Test
+    public void countsAnsweredBatches() throws Exception {
+        underTest_ = new VoltDbBatchedRasEventLog(eventLog_, "TestName", mock(Logger.class), 100, 60_000L);
+        underTest_.logRasEventNoEffectedJob("RasTestEvent", "data1", "x0", 10L, "TestType", 1L);
+        underTest_.logRasEventNoEffectedJob("RasTestEvent", "data2", "x0", 20L, "TestType", 1L);
+        underTest_.flush();
+        assertEquals(1, callbacks_.size());
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(ClientResponse.SUCCESS);
+        VoltTable result = new VoltTable(new VoltTable.ColumnInfo("", VoltType.BIGINT));
+        result.addRow(7L);
+        when(response.getResults()).thenReturn(new VoltTable[] { result });
+        callbacks_.get(0).clientCallback(response);
+        assertEquals(0L, underTest_.getInFlightEvents());
+        assertEquals(2L, underTest_.getStoredEvents());
+        assertEquals(1L, underTest_.getStoredBatches());
+        assertTrue(underTest_.getMaxFlushLatencyUs() >= underTest_.getAverageFlushLatencyUs());
+    }
+
+    @Test
+    public void failedBatchIsReported() throws Exception {
+        underTest_ = new VoltDbBatchedRasEventLog(eventLog_, "TestName", mock(Logger.class), 100, 60_000L);
+        underTest_.logRasEventNoEffectedJob("RasTestEvent", "data", "x0", 10L, "TestType", 1L);
+        underTest_.flush();
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(ClientResponse.UNEXPECTED_FAILURE);
+        when(response.getStatusString()).thenReturn("failed");
+        callbacks_.get(0).clientCallback(response);
+        assertEquals(0L, underTest_.getStoredEvents());
+        verify(client_).callProcedure(any(ProcedureCallback.class), eq("RasEventStore"),
+                eq("RasGenAdapterVoltDbCallBackForHouseKeepingFailed"), anyString(), isNull(), isNull(), anyLong(),
+                eq("TestType"), eq(1L));
+    }
+
+    @Test
+    public void failedSendIsNotInFlight() throws Exception {
+        doThrow(IOException.class).when(client_).callProcedure(any(ProcedureCallback.class),
+                eq("RasEventStoreBatch"), anyString(), any(), any(), any(), any(), anyString(), anyLong());
+        underTest_ = new VoltDbBatchedRasEventLog(eventLog_, "TestName", mock(Logger.class), 1, 60_000L);
+        underTest_.logRasEventNoEffectedJob("RasTestEvent", "data", "x0", 10L, "TestType", 1L);
+        assertEquals(0, underTest_.getPendingEvents());
+        assertEquals(0L, underTest_.getInFlightEvents());
+    }
+
+    @Test
+    public void passesOtherCallsThrough() throws Exception {
+        underTest_ = new VoltDbBatchedRasEventLog(eventLog_, "TestName", mock(Logger.class), 100, 60_000L);
+        assertEquals("RasTestEvent", underTest_.ensureRasDescrNameIsValid("RasTestEvent", 1L));
+        underTest_.logRasEventSyncNoEffectedJob("RasTestEvent", "data", "x0", 10L, "TestType", 1L);
+        verify(client_).callProcedure("RasEventStore", "RasTestEvent", "data", "x0", null, 10L, "TestType", 1L);
+        assertEquals(0, underTest_.getPendingEvents());
+    }
+
+    private Client client_;
+    private VoltDbRasEventLog eventLog_;
+    private VoltDbBatchedRasEventLog underTest_;
+    private List<Object[]> batches_;
+    private List<ProcedureCallback> callbacks_;
+    private CountDownLatch sent_;
+}
@@ -83,6 +83,62 @@ public class NetworkListenerConfig {
         return result;
     }
 
+    /**
+     * @return The maximum number of raw messages buffered between the network sinks and the processing threads for
+     * the current profile ("queueCapacity", default 10000).
+     */
+    public int getProfileQueueCapacity() {
+        checkProfile();
+        PropertyMap profile = profiles_.getMapOrDefault(currentProfile_, new PropertyMap());
+        return profile.getIntOrDefault("queueCapacity", DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @return The time in milliseconds a network sink is blocked on a full queue before the message is rejected for
+     * the current profile ("queueOfferTimeoutMs", default 30000). The Kafka sink blocks its polling thread for at most
+     * one such timeout per poll (the records after it are redelivered once resumed), so this must stay well below the
+     * Kafka consumer's max.poll.interval.ms (default 300000) to avoid a consumer group rebalance.
+     */
+    public long getProfileQueueOfferTimeoutMs() {
+        checkProfile();
+        PropertyMap profile = profiles_.getMapOrDefault(currentProfile_, new PropertyMap());
+        return profile.getLongOrDefault("queueOfferTimeoutMs", DEFAULT_QUEUE_OFFER_TIMEOUT_MS);
+    }
+
+    /**
+     * @return The number of message processing threads for the current profile ("processingThreads", either a
+     * positive number or "cores" for one thread per logical processor). The default is half of the logical processors
+     * limited to 1-3 threads.
+     */
+    public int getProfileProcessingThreads() {
+        checkProfile();
+        PropertyMap profile = profiles_.getMapOrDefault(currentProfile_, new PropertyMap());
+        if(THREADS_CORES.equals(profile.get("processingThreads")))
+            return THREAD_COUNT;
+        return profile.getIntOrDefault("processingThreads", Math.max(1, Math.min(THREAD_COUNT / 2, MAX_THREADS)));
+    }
+
+    /**
+     * @return How messages are spread over the processing threads for the current profile ("processingMode", one of
+     * "shared", "subject" or "location", default "shared"). Only "location" keeps the data of a location in order
+     * while spreading it over the threads, "subject" only helps a feed published on several subjects.
+     */
+    public String getProfileProcessingMode() {
+        checkProfile();
+        PropertyMap profile = profiles_.getMapOrDefault(currentProfile_, new PropertyMap());
+        return profile.getStringOrDefault("processingMode", MODE_SHARED);
+    }
+
+    /**
+     * @return What runs the processing threads for the current profile ("processingExecutor", either "threads" or
+     * "forkJoin", default "threads").
+     */
+    public String getProfileProcessingExecutor() {
+        checkProfile();
+        PropertyMap profile = profiles_.getMapOrDefault(currentProfile_, new PropertyMap());
+        return profile.getStringOrDefault("processingExecutor", EXECUTOR_THREADS);
+    }
+
     public String getProviderName() {
         checkProfile();
         String name = profiles_.getMapOrDefault(currentProfile_, null).getStringOrDefault("adapterProvider", null);
@@ -155,6 +211,22 @@ public class NetworkListenerConfig {
                     if (result)
                         result = validateSubjects((PropertyArray) entry.getValue());
                     break;
+                case "queueCapacity":
+                case "queueOfferTimeoutMs":
+                    result = validatePositiveNumber(entry.getValue());
+                    break;
+                case "processingThreads":
+                    result = THREADS_CORES.equals(entry.getValue()) || validatePositiveNumber(entry.getValue());
+                    break;
+                case "processingMode":
+                    result = MODE_SHARED.equals(entry.getValue()) || MODE_SUBJECT.equals(entry.getValue()) ||
+                            MODE_LOCATION.equals(entry.getValue());
+                    break;
+                case "processingExecutor":
+                    result = EXECUTOR_THREADS.equals(entry.getValue()) ||
+                            (EXECUTOR_FORK_JOIN.equals(entry.getValue()) &&
+                             MODE_SHARED.equals(profile.getStringOrDefault("processingMode", MODE_SHARED)));
+                    break;
                 default:
                     result = false;
             }
@@ -227,6 +299,10 @@ public class NetworkListenerConfig {
             }
         return result;
     }
+
+    private boolean validatePositiveNumber(Object value) {
+        return (value instanceof Number) && ((Number)value).longValue() > 0L;
+    }
     //////////////////////////////////////////////////////////////////////////
     // End of Config File Validation section.
     //////////////////////////////////////////////////////////////////////////
@@ -244,4 +320,16 @@ public class NetworkListenerConfig {
     private AdapterInformation adapter_;
 
     private boolean useDebugPrint_; // set to "true" on adapter launch to debug a configuration file.
+
+    public static final String MODE_SHARED = "shared";
+    public static final String MODE_SUBJECT = "subject";
+    public static final String MODE_LOCATION = "location";
+    public static final String EXECUTOR_THREADS = "threads";
+    public static final String EXECUTOR_FORK_JOIN = "forkJoin";
+
+    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors(); // Logical hw threads.
+    private static final int MAX_THREADS = 3; // Maximum default processing threads.
+    private static final String THREADS_CORES = "cores";
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final long DEFAULT_QUEUE_OFFER_TIMEOUT_MS = 30_000L;
 }
@@ -17,6 +17,7 @@ import com.intel.logging.Logger;
 import com.intel.networking.sink.NetworkDataSink;
 import com.intel.networking.sink.NetworkDataSinkEx;
 import com.intel.networking.sink.NetworkDataSinkFactory;
+import com.intel.networking.sink.NetworkDataSinkFlowControl;
 import com.intel.perflogging.BenchmarkHelper;
 import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
@@ -30,15 +31,21 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This is the core code for this component. The adapter functionality and business logic for ALL providers using
  * this component.
  */
 public class NetworkListenerCore {
-    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors(); // Logical hw threads.
-    private static final int MAX_THREADS = 3; // Maximum processing threads.
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000; // Used until a profile is set.
+    private static final long QUEUE_POLL_TIMEOUT_MS = 100L; // Max time a parked thread waits before a shutdown check.
 
     @SuppressWarnings("serial")
     static class Exception extends java.lang.Exception {
@@ -124,6 +131,10 @@ public class NetworkListenerCore {
             config_.setCurrentProfile(profile);
             subjects_ = config_.getProfileSubjects();
             log_.debug("Allowed subjects in this adapter instance: '%s'", String.join(",", subjects_));
+            createQueues(config_.getProfileProcessingThreads(), config_.getProfileProcessingMode(),
+                    config_.getProfileQueueCapacity(), config_.getProfileQueueOfferTimeoutMs());
+            if(NetworkListenerConfig.MODE_SUBJECT.equals(config_.getProfileProcessingMode()))
+                checkSubjectMode(subjects_, config_.getProfileProcessingThreads());
             try {
                 log_.debug("*** Creating providers...");
                 createTransformAndActionProviders();
@@ -160,8 +171,12 @@ public class NetworkListenerCore {
             if (useBenchmarking) {
                 actions_ = new BenchmarkingSystemActions(log_, factory_, adapter_, config_);
                 System.out.println("*** USING BENCHMARKING SYSTEM ACTIONS"); // Intentionally not logged!
-            } else
-                actions_ = new NetworkListenerSystemActions(log_, factory_, adapter_, config_);
+            } else {
+                NetworkListenerSystemActions actions = new NetworkListenerSystemActions(log_, factory_, adapter_,
+                        config_);
+                actions.setBenchmarker(benchmarking_);
+                actions_ = actions;
+            }
         } catch(Exception e) {
             log_.exception(e, "Failed to register the adapter");
             return true;
@@ -175,6 +190,8 @@ public class NetworkListenerCore {
         provider_ = createNetworkListenerProvider(config_.getProviderName());
         if(provider_ instanceof NetworkListenerProviderEx)
             ((NetworkListenerProviderEx)provider_).setFactory(factory_);
+        if(partitions_ != null && provider_ instanceof NetworkListenerProviderPartitioned)
+            ((NetworkListenerProviderPartitioned)provider_).setPartitionCount(partitions_.size());
     }
 
     // Start all connections; SSE, HTTP Callback, RabbitMQ, etc...
@@ -272,48 +289,243 @@ public class NetworkListenerCore {
             sink.stopListening();
     }
 
-    // Receive raw message and queue it up for processing.
+    // Create the bounded hand-off queue(s) between the network sinks and the processing threads. In the "shared" mode
+    // all threads take from one queue. In the "subject" mode each thread owns a queue and a subject is always routed
+    // to the same queue, this only spreads a feed published on several subjects over the threads (most feeds publish
+    // every location on one subject). In the "location" mode the threads take from one queue and each partition thread
+    // owns a queue of transformed data so the data of a location is acted on in order, see dispatchData().
+    void createQueues(int threads, String mode, int capacity, long offerTimeoutMs) {
+        int queueCount = NetworkListenerConfig.MODE_SUBJECT.equals(mode) ? threads : 1;
+        int queueCapacity = Math.max(1, capacity / queueCount);
+        log_.info("*** Using %d processing queue(s) of %d messages with a %d ms offer timeout", queueCount,
+                queueCapacity, offerTimeoutMs);
+        List<BlockingQueue<FullMessage>> queues = new ArrayList<>(queueCount);
+        for(int i = 0; i < queueCount; i++)
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        queues_ = queues;
+        queueResumeDepth_ = queueCapacity / 2;
+        queueOfferTimeoutMs_ = offerTimeoutMs;
+        if(NetworkListenerConfig.MODE_LOCATION.equals(mode)) {
+            int partitionCapacity = Math.max(1, capacity / threads);
+            log_.info("*** Using %d location partition(s) of %d data items", threads, partitionCapacity);
+            List<BlockingQueue<CommonDataFormat>> partitions = new ArrayList<>(threads);
+            for(int i = 0; i < threads; i++)
+                partitions.add(new ArrayBlockingQueue<>(partitionCapacity));
+            partitions_ = partitions;
+        } else
+            partitions_ = null;
+    }
+
+    // The "subject" mode runs a subject on one thread with its share of the queue capacity, so a profile with fewer
+    // subjects than threads (or listening to any subject) leaves threads idle and should use the "location" mode.
+    void checkSubjectMode(List<String> subjects, int threads) {
+        if(subjects.contains("*") || subjects.size() < threads)
+            log_.warn("The \"subject\" processing mode with the subjects '%s' keeps %d thread(s) busy at most, use " +
+                    "the \"location\" mode to spread a feed over the threads in per location order",
+                    String.join(",", subjects), subjects.contains("*") ? 1 : subjects.size());
+    }
+
+    // The partition owning a location, all data for one location is acted on by the same partition thread.
+    int partitionOf(String location) {
+        return Math.floorMod(Objects.hashCode(location), partitions_.size());
+    }
+
+    private boolean queuesDrained() {
+        for(BlockingQueue<FullMessage> queue: queues_)
+            if(queue.size() > queueResumeDepth_)
+                return false;
+        return true;
+    }
+
+    // Total number of messages waiting in all processing queues.
+    int queueDepth() {
+        int depth = 0;
+        for(BlockingQueue<FullMessage> queue: queues_)
+            depth += queue.size();
+        return depth;
+    }
+
+    // Receive raw message and queue it up for processing. When the queue is full the calling sink thread is blocked
+    // (and flow controlled sinks are paused) until there is room or the offer times out and the message is rejected.
+    // Flow controlled sinks keep the messages they have not delivered yet once paused, so they block here for at most
+    // one message (see NetworkListenerConfig.getProfileQueueOfferTimeoutMs()).
     private void processSinkMessage(String subject, String message) {
         log_.debug("Received message for subject: %s", subject);
-        queue_.add(new FullMessage(subject, message));
+        FullMessage full = new FullMessage(subject, message);
+        BlockingQueue<FullMessage> queue = queues_.get(Math.floorMod(subject.hashCode(), queues_.size()));
+        if(queue.offer(full))
+            return;
+        pauseSinks();
+        long start = System.nanoTime();
+        boolean queued = false;
+        try {
+            queued = queue.offer(full, queueOfferTimeoutMs_, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException e) { /* Interrupt is treated as a rejection */ }
+        long waitUs = (System.nanoTime() - start) / 1_000L;
+        benchmarking_.addNamedValue("queue_wait_us", waitUs);
+        benchmarking_.addNamedMaximum("queue_max_wait_us", waitUs);
+        if(!queued) {
+            benchmarking_.addNamedValue("queue_rejects", 1);
+            log_.warn("The processing queue is full, dropping a message for subject '%s'", subject);
+        }
+    }
+
+    // Ask all sinks supporting flow control to stop delivering messages.
+    private void pauseSinks() {
+        if(sinksPaused_.compareAndSet(false, true)) {
+            log_.info("The processing queue is full, pausing delivery from the network sinks");
+            for(NetworkDataSink sink: sinks_)
+                if(sink instanceof NetworkDataSinkFlowControl)
+                    ((NetworkDataSinkFlowControl)sink).pauseDelivery();
+        }
+    }
+
+    // Resume the paused sinks once every queue has drained to the low water mark, in the "subject" mode another
+    // subject's queue may still be full.
+    void resumeSinksIfDrained() {
+        if(sinksPaused_.get() && queuesDrained() && sinksPaused_.compareAndSet(true, false)) {
+            log_.info("The processing queue has drained, resuming delivery from the network sinks");
+            for(NetworkDataSink sink: sinks_)
+                if(sink instanceof NetworkDataSinkFlowControl)
+                    ((NetworkDataSinkFlowControl)sink).resumeDelivery();
+        }
     }
 
     // On a thread, process the incoming queued messages.
     private void processDataQueueThreaded() {
-        int count = Math.min(THREAD_COUNT / 2, MAX_THREADS); // 1-MAX_THREADS threads for processing.
+        int count = config_.getProfileProcessingThreads();
+        baseThreadId_ = Thread.currentThread().getId();
+        if(NetworkListenerConfig.EXECUTOR_FORK_JOIN.equals(config_.getProfileProcessingExecutor())) {
+            processDataQueueForkJoin(count);
+            return;
+        }
+        List<Thread> partitionThreads = startPartitionThreads();
         int extraThreads = count - 1;
         Thread[] threads = new Thread[extraThreads];
         log_.info("*** Using %d threads for monitoring...", count);
         for(int i = 0; i < extraThreads; i++) {
-            threads[i] = new Thread(this::processDataQueue);
+            BlockingQueue<FullMessage> queue = queues_.get((i + 1) % queues_.size());
+            threads[i] = new Thread(() -> processDataQueue(queue));
             threads[i].start();
         }
-        baseThreadId_ = Thread.currentThread().getId();
-        processDataQueue(); // Use this thread (current thread) for one of the processing threads...
+        processDataQueue(queues_.get(0)); // Use this thread (current thread) for one of the processing threads...
         for(int i = 0; i < extraThreads; i++) { // wait for extraThreads...
             try {
                 threads[i].join();
             } catch(InterruptedException e) { /* Interrupt is ignored and treated and joined */ }
         }
+        for(Thread thread: partitionThreads) {
+            try {
+                thread.join();
+            } catch(InterruptedException e) { /* Interrupt is ignored and treated and joined */ }
+        }
     }
 
-    // Called from threaded method above to process messages.
-    private void processDataQueue() {
-        long backOffSleep = 1;
+    // In the "location" mode start one thread per partition acting on the data routed to it.
+    private List<Thread> startPartitionThreads() {
+        List<Thread> threads = new ArrayList<>();
+        if(partitions_ == null)
+            return threads;
+        log_.info("*** Using %d location partition threads for monitoring...", partitions_.size());
+        for(int i = 0; i < partitions_.size(); i++) {
+            int partition = i;
+            Thread thread = new Thread(() -> processPartitionQueue(partition));
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    // Called from a partition thread, acts on the data of all locations owned by the partition.
+    private void processPartitionQueue(int partition) {
+        BlockingQueue<CommonDataFormat> queue = partitions_.get(partition);
         while(!adapter_.isShuttingDown()) {
-            FullMessage full = queue_.poll();
-            if(full != null) {
+            CommonDataFormat data = null;
+            try {
+                data = queue.poll(QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch(InterruptedException e) { /* Interrupt is ignored, the shutdown flag is checked */ }
+            if(data != null)
+                actOnPartitionData(data, partition);
+        }
+        log_.debug("*** Ending partition %d processing loop...", partition);
+    }
+
+    // Aggregation for partitioned providers happens here on the owning thread, so it needs no locking.
+    void actOnPartitionData(CommonDataFormat data, int partition) {
+        if(provider_ instanceof NetworkListenerProviderPartitioned)
+            ((NetworkListenerProviderPartitioned)provider_).aggregateData(data, partition);
+        provider_.actOnData(data, config_, actions_);
+    }
+
+    // Act on the data directly or, in the "location" mode, hand it to the thread owning its location. A full partition
+    // blocks the transforming thread, which in turn fills the message queue and applies backpressure to the sinks.
+    void dispatchData(CommonDataFormat data) {
+        if(partitions_ == null) {
+            provider_.actOnData(data, config_, actions_);
+            return;
+        }
+        BlockingQueue<CommonDataFormat> queue = partitions_.get(partitionOf(data.getLocation()));
+        try {
+            while(!queue.offer(data, QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                if(adapter_.isShuttingDown())
+                    return;
+        } catch(InterruptedException e) {
+            log_.warn("Interrupted while routing data for location '%s', dropping it", data.getLocation());
+        }
+    }
+
+    // Called from threaded method above to process messages. Threads are parked on the queue while it is empty.
+    private void processDataQueue(BlockingQueue<FullMessage> queue) {
+        while(!adapter_.isShuttingDown()) {
+            FullMessage full = takeMessage(queue);
+            if(full != null)
                 processMessage(full.subject, full.message);
-                backOffSleep = 1;
-            } else {
-                safeSleep(backOffSleep);
-                if(backOffSleep < 25L) backOffSleep += 2;
-                if(Thread.currentThread().getId() == baseThreadId_) benchmarking_.tick();
-            }
+            else if(Thread.currentThread().getId() == baseThreadId_)
+                benchmarking_.tick();
         }
         log_.debug("*** Ending processing loop...");
     }
 
+    // The current thread dispatches messages from the shared queue as tasks to a work stealing pool. The tasks in flight
+    // are bounded so the queue stays the only place messages are buffered (and where backpressure is applied).
+    private void processDataQueueForkJoin(int count) {
+        log_.info("*** Using a fork-join pool with a parallelism of %d for monitoring...", count);
+        ForkJoinPool pool = new ForkJoinPool(count, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        Semaphore inFlight = new Semaphore(count * 2);
+        while(!adapter_.isShuttingDown()) {
+            FullMessage full = takeMessage(queues_.get(0));
+            if(full != null) {
+                inFlight.acquireUninterruptibly();
+                pool.execute(() -> {
+                    try {
+                        processMessage(full.subject, full.message);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } else
+                benchmarking_.tick();
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(STABILIZATION_VALUE, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException e) { /* Interrupt is ignored, the pool threads are daemons */ }
+        log_.debug("*** Ending processing loop...");
+    }
+
+    // Wait for the next message on the queue, returns null if none arrived within the poll timeout.
+    private FullMessage takeMessage(BlockingQueue<FullMessage> queue) {
+        FullMessage full = null;
+        try {
+            full = queue.poll(QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException e) { /* Interrupt is ignored, the shutdown flag is checked */ }
+        if(full != null) {
+            benchmarking_.addNamedMaximum("queue_depth", queue.size() + 1L);
+            resumeSinksIfDrained();
+        }
+        return full;
+    }
+
     // process a single message.
     private void processMessage(String subject, String message) {
         if(subjects_.contains(subject) || subjects_.contains("*")) {
@@ -324,7 +536,7 @@ public class NetworkListenerCore {
                 if(dataList != null) {
                     log_.debug("Performing actions...");
                     for (CommonDataFormat data : dataList)
-                        provider_.actOnData(data, config_, actions_);
+                        dispatchData(data);
                     benchmarking_.addNamedValue(subject + "_" + config_.getCurrentProfile(), dataList.size());
                 }
             } catch(NetworkListenerProviderException e) {
@@ -482,7 +694,11 @@ public class NetworkListenerCore {
     private NetworkListenerProvider provider_ = null;
     private SystemActions actions_;
     private List<String> subjects_;
-            ConcurrentLinkedQueue<FullMessage> queue_ = new ConcurrentLinkedQueue<>();
+    private List<BlockingQueue<FullMessage>> queues_ = List.of(new ArrayBlockingQueue<>(DEFAULT_QUEUE_CAPACITY));
+    private List<BlockingQueue<CommonDataFormat>> partitions_ = null;
+    private int queueResumeDepth_ = DEFAULT_QUEUE_CAPACITY / 2;
+    private long queueOfferTimeoutMs_ = 30_000L;
+    private final AtomicBoolean sinksPaused_ = new AtomicBoolean(false);
     private long baseThreadId_;
     private static long STABILIZATION_VALUE = 1500L;
     private final ConfigIO parser_ = ConfigIOFactory.getInstance("json");
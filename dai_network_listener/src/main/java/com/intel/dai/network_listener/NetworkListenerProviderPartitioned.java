@@ -0,0 +1,29 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+
+package com.intel.dai.network_listener;
+
+/**
+ * Optional interface for providers keeping per location state (i.e. telemetry aggregation). With the "location"
+ * processing mode the core routes all data of a location to the same partition thread, so this state can be kept in
+ * partitions owned by those threads without any locking.
+ */
+public interface NetworkListenerProviderPartitioned extends NetworkListenerProvider {
+    /**
+     * Called once before any data is processed when the "location" processing mode is used. From then on the provider
+     * must not aggregate in processRawStringData, the core calls aggregateData instead.
+     *
+     * @param partitions The number of partitions (and partition threads).
+     */
+    void setPartitionCount(int partitions);
+
+    /**
+     * Called on the thread owning the partition before actOnData for every data item routed to this partition.
+     *
+     * @param data The transformed data item to aggregate, any summary is set on this object.
+     * @param partition The partition number owning the location of the data item.
+     */
+    void aggregateData(CommonDataFormat data, int partition);
+}
@@ -12,6 +12,7 @@ import com.intel.dai.exceptions.DataStoreException;
 import com.intel.logging.Logger;
 import com.intel.networking.source.NetworkDataSource;
 import com.intel.networking.source.NetworkDataSourceFactory;
+import com.intel.perflogging.BenchmarkHelper;
 import com.intel.properties.PropertyMap;
 import com.intel.runtime_utils.TimeUtils;
 
@@ -20,6 +21,7 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Description of class PartitionedMonitorSystemActions. See parent interface for details on actions.
@@ -32,8 +34,22 @@ class NetworkListenerSystemActions implements SystemActions, Initializer {
         factory_ = factory;
         adapter_ = info;
         config_ = config.getProviderConfigurationFromClassName(getClass().getCanonicalName());
-        telemetryActions_ = factory_.createStoreTelemetry();
-        eventActions_ = factory_.createRasEventLog(adapter_);
+        int batchSize = DEFAULT_TELEMETRY_BATCH_SIZE;
+        long lingerMs = DEFAULT_TELEMETRY_BATCH_LINGER_MS;
+        int rasBatchSize = DEFAULT_RAS_EVENT_BATCH_SIZE;
+        long rasLingerMs = DEFAULT_RAS_EVENT_BATCH_LINGER_MS;
+        if(config_ != null) {
+            batchSize = config_.getIntOrDefault("telemetryBatchSize", batchSize);
+            lingerMs = config_.getLongOrDefault("telemetryBatchLingerMs", lingerMs);
+            rasBatchSize = config_.getIntOrDefault("rasEventBatchSize", rasBatchSize);
+            rasLingerMs = config_.getLongOrDefault("rasEventBatchLingerMs", rasLingerMs);
+        }
+        log_.info("Storing aggregated telemetry in batches of up to %d rows with a %d ms linger time", batchSize,
+                lingerMs);
+        telemetryActions_ = factory_.createStoreTelemetry(log_, batchSize, lingerMs);
+        log_.info("Storing RAS events in batches of up to %d events with a %d ms linger time", rasBatchSize,
+                rasLingerMs);
+        eventActions_ = factory_.createRasEventLog(adapter_, rasBatchSize, rasLingerMs);
         bootImage_ = factory_.createBootImageApi(adapter_);
         operations_ = factory_.createAdapterOperations(adapter_);
         nodeInformation_ = factory_.createNodeInformation();
@@ -44,6 +60,12 @@ class NetworkListenerSystemActions implements SystemActions, Initializer {
         log_.debug("Initialized NetworkListenerSystemActions");
     }
 
+    // Reports the aggregated telemetry store metrics with the listener's benchmarking.
+    void setBenchmarker(BenchmarkHelper benchmarker) {
+        if(telemetryActions_ != null)
+            telemetryActions_.setBenchmarker(benchmarker);
+    }
+
     @Override
     public void storeNormalizedData(String dataType, String location, long nanoSecondsTimeStamp, double value) {
         // TODO: This method has no behavior currently, the target in the future will be Tier 3 DB.
@@ -65,7 +87,7 @@ class NetworkListenerSystemActions implements SystemActions, Initializer {
         String type = eventActions_.ensureRasDescrNameIsValid(eventName, adapter_.getBaseWorkItemId());
         long usTimestamp = nsTimestamp / 1000L;
         try {
-            if (location == null || location.trim().isEmpty() || nodeInformation_.isServiceNodeLocation(location))
+            if (location == null || location.trim().isEmpty() || isServiceNodeLocation(location))
                 eventActions_.logRasEventNoEffectedJob(type, instanceData, location, usTimestamp,
                         adapter_.getType(), adapter_.getBaseWorkItemId());
             else
@@ -78,6 +100,17 @@ class NetworkListenerSystemActions implements SystemActions, Initializer {
         }
     }
 
+    // The location kinds are looked up once per location, the NodeInformation lookup is synchronized.
+    private boolean isServiceNodeLocation(String location) throws DataStoreException {
+        Boolean isServiceNode = serviceNodeLocations_.get(location);
+        if(isServiceNode == null) {
+            isServiceNode = nodeInformation_.isServiceNodeLocation(location);
+            if(serviceNodeLocations_.size() < MAX_CACHED_LOCATION_KINDS)
+                serviceNodeLocations_.put(location, isServiceNode);
+        }
+        return isServiceNode;
+    }
+
     @Override
     public void publishNormalizedData(String topic, String dataType, String location, long nanoSecondsTimeStamp,
                                       double value) {
@@ -205,6 +238,10 @@ class NetworkListenerSystemActions implements SystemActions, Initializer {
 
     @Override
     public void close() throws IOException {
+        if(telemetryActions_ != null)
+            telemetryActions_.close(); // Stores any buffered aggregated telemetry...
+        if(eventActions_ != null)
+            eventActions_.flush(); // Stores any buffered RAS events...
         if(publisher_ != null)
             publisher_.close();
     }
@@ -285,7 +322,14 @@ class NetworkListenerSystemActions implements SystemActions, Initializer {
     private AdapterOperations operations_;
     private AdapterInformation adapter_;
     private final NodeInformation nodeInformation_;
+    private final Map<String, Boolean> serviceNodeLocations_ = new ConcurrentHashMap<>();
     private PropertyMap config_;
     private NetworkDataSource publisher_ = null;
     private boolean publisherConfigured_ = false;
+
+    private static final int DEFAULT_TELEMETRY_BATCH_SIZE = 500;
+    private static final long DEFAULT_TELEMETRY_BATCH_LINGER_MS = 1_000L;
+    private static final int DEFAULT_RAS_EVENT_BATCH_SIZE = 200;
+    private static final long DEFAULT_RAS_EVENT_BATCH_LINGER_MS = 100L;
+    private static final int MAX_CACHED_LOCATION_KINDS = 100_000;
 }
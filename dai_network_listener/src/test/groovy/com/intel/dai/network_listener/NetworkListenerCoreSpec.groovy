@@ -4,6 +4,7 @@ import com.intel.dai.dsapi.DataStoreFactory
 import com.intel.dai.dsapi.WorkQueue
 import com.intel.logging.Logger
 import com.intel.networking.sink.NetworkDataSink
+import com.intel.networking.sink.kafka.NetworkDataSinkKafka
 import com.intel.perflogging.BenchmarkHelper
 import com.intel.properties.PropertyMap
 import spock.lang.Specification
@@ -37,4 +38,112 @@ class NetworkListenerCoreSpec extends Specification {
         underTest_.streamLocationCallback("location", "/api", null)
         expect: true
     }
+
+    def "Test processSinkMessage with a full queue"() {
+        NetworkDataSinkKafka sink = Mock(NetworkDataSinkKafka)
+        underTest_.sinks_.add(sink)
+        underTest_.createQueues(1, "shared", 1, 10L)
+        when:
+        underTest_.processSinkMessage("subject", "message1")
+        underTest_.processSinkMessage("subject", "message2")
+        then:
+        1 * sink.pauseDelivery()
+        underTest_.queueDepth() == 1
+        underTest_.sinksPaused_.get()
+    }
+
+    def "Test resumeSinksIfDrained"() {
+        NetworkDataSinkKafka sink = Mock(NetworkDataSinkKafka)
+        underTest_.sinks_.add(sink)
+        underTest_.createQueues(1, "shared", 2, 10L)
+        underTest_.sinksPaused_.set(true)
+        when:
+        underTest_.resumeSinksIfDrained()
+        then:
+        1 * sink.resumeDelivery()
+        !underTest_.sinksPaused_.get()
+    }
+
+    def "Test resumeSinksIfDrained waits for every subject queue"() {
+        NetworkDataSinkKafka sink = Mock(NetworkDataSinkKafka)
+        underTest_.sinks_.add(sink)
+        underTest_.createQueues(2, "subject", 4, 10L)
+        underTest_.queues_.get(1).add(new NetworkListenerCore.FullMessage("subject", "message1"))
+        underTest_.queues_.get(1).add(new NetworkListenerCore.FullMessage("subject", "message2"))
+        underTest_.sinksPaused_.set(true)
+        when:
+        underTest_.resumeSinksIfDrained()
+        then:
+        0 * sink.resumeDelivery()
+        underTest_.sinksPaused_.get()
+        when:
+        underTest_.queues_.get(1).poll()
+        underTest_.resumeSinksIfDrained()
+        then:
+        1 * sink.resumeDelivery()
+        !underTest_.sinksPaused_.get()
+    }
+
+    def "Test createQueues subject mode"() {
+        underTest_.createQueues(4, "subject", 100, 10L)
+        underTest_.processSinkMessage("subject1", "message1")
+        underTest_.processSinkMessage("subject1", "message2")
+        def queue = underTest_.queues_.get(Math.floorMod("subject1".hashCode(), 4))
+        expect:
+        underTest_.queues_.size() == 4
+        queue.size() == 2
+        queue.remainingCapacity() == 23
+    }
+
+    def "Test checkSubjectMode warns about fewer subjects than threads"() {
+        when:
+        underTest_.checkSubjectMode(SUBJECTS, 4)
+        then:
+        WARNINGS * underTest_.log_.warn(*_)
+        where:
+        SUBJECTS                                        || WARNINGS
+        ["telemetry"]                                   || 1
+        ["*"]                                           || 1
+        ["subject1", "subject2", "subject3", "subject4"] || 0
+    }
+
+    def "Test dispatchData location mode"() {
+        NetworkListenerProviderPartitioned provider = Mock(NetworkListenerProviderPartitioned)
+        underTest_.provider_ = provider
+        underTest_.createQueues(4, "location", 100, 10L)
+        def data1 = new CommonDataFormat(0L, "location1", DataType.EnvironmentalData)
+        def data2 = new CommonDataFormat(1L, "location1", DataType.EnvironmentalData)
+        when:
+        underTest_.dispatchData(data1)
+        underTest_.dispatchData(data2)
+        then:
+        0 * provider.actOnData(_, _, _)
+        underTest_.partitions_.size() == 4
+        underTest_.partitions_.get(underTest_.partitionOf("location1")).size() == 2
+        underTest_.queues_.size() == 1
+    }
+
+    def "Test actOnPartitionData"() {
+        NetworkListenerProviderPartitioned provider = Mock(NetworkListenerProviderPartitioned)
+        underTest_.provider_ = provider
+        def data = new CommonDataFormat(0L, "location1", DataType.EnvironmentalData)
+        when:
+        underTest_.actOnPartitionData(data, 3)
+        then:
+        1 * provider.aggregateData(data, 3)
+        then:
+        1 * provider.actOnData(data, _, _)
+    }
+
+    def "Test dispatchData shared mode"() {
+        NetworkListenerProvider provider = Mock(NetworkListenerProvider)
+        underTest_.provider_ = provider
+        underTest_.createQueues(4, "shared", 100, 10L)
+        def data = new CommonDataFormat(0L, "location1", DataType.EnvironmentalData)
+        when:
+        underTest_.dispatchData(data)
+        then:
+        1 * provider.actOnData(data, _, _)
+        underTest_.partitions_ == null
+    }
 }
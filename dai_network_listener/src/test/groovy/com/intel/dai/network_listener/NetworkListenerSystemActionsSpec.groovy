@@ -5,6 +5,7 @@ import com.intel.dai.dsapi.*
 import com.intel.logging.Logger
 import com.intel.networking.source.NetworkDataSource
 import com.intel.networking.source.NetworkDataSourceFactory
+import com.intel.perflogging.BenchmarkHelper
 import com.intel.properties.PropertyMap
 import spock.lang.Specification
 
@@ -22,6 +23,7 @@ class NetworkListenerSystemActionsSpec extends Specification {
     def listenerConfig_
     def factory_
     def invApi_
+    def telemetry_
     def underTest_
     void setup() {
         NetworkDataSourceFactory.registerNewImplementation("test", TestSource.class)
@@ -30,8 +32,10 @@ class NetworkListenerSystemActionsSpec extends Specification {
         config_ = Mock(NetworkListenerConfig)
         config_.getProviderConfigurationFromClassName(_ as String) >> listenerConfig_
         factory_ = Mock(DataStoreFactory)
-        factory_.createRasEventLog(_ as AdapterInformation) >> Mock(RasEventLog)
+        factory_.createRasEventLog(_ as AdapterInformation, _ as Integer, _ as Long) >> Mock(RasEventLog)
         factory_.createWorkQueue(_ as AdapterInformation) >> Mock(WorkQueue)
+        telemetry_ = Mock(StoreTelemetry)
+        factory_.createStoreTelemetry(_ as Logger, _ as Integer, _ as Long) >> telemetry_
         invApi_ = Mock(HWInvDbApi)
         factory_.createHWInvApi() >> invApi_
         NodeInformation info = Mock(NodeInformation)
@@ -44,6 +48,12 @@ class NetworkListenerSystemActionsSpec extends Specification {
         NetworkDataSourceFactory.unregisterImplementation("test")
     }
 
+    def "setBenchmarker"() {
+        def benchmarker = Mock(BenchmarkHelper)
+        when: underTest_.setBenchmarker(benchmarker)
+        then: 1 * telemetry_.setBenchmarker(benchmarker)
+    }
+
     def "formatRawMessage"() {
         def json = """{"location":"location","type":"type","value":0.0,"timestamp":"1970-01-01 00:00:00.000000099Z"}"""
         expect: underTest_.formatRawMessage("type", "location", 99L, 0.0) == json
@@ -288,6 +288,86 @@ public class NetworkListenerConfigTest {
         assertEquals("telemetry", subjects.get(0));
     }
 
+    @Test
+    public void getProfileQueueSettingsDefaults() {
+        assertEquals(10_000, config_.getProfileQueueCapacity());
+        assertEquals(30_000L, config_.getProfileQueueOfferTimeoutMs());
+    }
+
+    @Test
+    public void getProfileQueueSettings() throws Exception {
+        PropertyMap map = parser_.fromString(json_).getAsMap();
+        map.getMap("adapterProfiles").getMap("default").put("queueCapacity", 500);
+        map.getMap("adapterProfiles").getMap("default").put("queueOfferTimeoutMs", 250);
+        String json = parser_.toString(map);
+        NetworkListenerConfig config = new NetworkListenerConfig(info_, mock(Logger.class));
+        try (InputStream stream = new ByteArrayInputStream(json.getBytes())) {
+            config.loadFromStream(stream);
+        }
+        config.setCurrentProfile(arguments_[3]);
+        assertEquals(500, config.getProfileQueueCapacity());
+        assertEquals(250L, config.getProfileQueueOfferTimeoutMs());
+    }
+
+    @Test
+    public void getProfileProcessingSettingsDefaults() {
+        assertTrue(config_.getProfileProcessingThreads() >= 1);
+        assertEquals(NetworkListenerConfig.MODE_SHARED, config_.getProfileProcessingMode());
+        assertEquals(NetworkListenerConfig.EXECUTOR_THREADS, config_.getProfileProcessingExecutor());
+    }
+
+    @Test
+    public void getProfileProcessingSettings() throws Exception {
+        PropertyMap map = parser_.fromString(json_).getAsMap();
+        map.getMap("adapterProfiles").getMap("default").put("processingThreads", "cores");
+        map.getMap("adapterProfiles").getMap("default").put("processingMode", "subject");
+        String json = parser_.toString(map);
+        NetworkListenerConfig config = new NetworkListenerConfig(info_, mock(Logger.class));
+        try (InputStream stream = new ByteArrayInputStream(json.getBytes())) {
+            config.loadFromStream(stream);
+        }
+        config.setCurrentProfile(arguments_[3]);
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getProfileProcessingThreads());
+        assertEquals(NetworkListenerConfig.MODE_SUBJECT, config.getProfileProcessingMode());
+    }
+
+    @Test(expected = ConfigIOParseException.class)
+    public void validatingProfileForkJoinWithSubjectMode() throws Exception {
+        PropertyMap map = parser_.fromString(json_).getAsMap();
+        map.getMap("adapterProfiles").getMap("default").put("processingThreads", 8);
+        map.getMap("adapterProfiles").getMap("default").put("processingMode", "subject");
+        map.getMap("adapterProfiles").getMap("default").put("processingExecutor", "forkJoin");
+        String json = parser_.toString(map);
+        NetworkListenerConfig config = new NetworkListenerConfig(info_, mock(Logger.class));
+        try (InputStream stream = new ByteArrayInputStream(json.getBytes())) {
+            config.loadFromStream(stream);
+        }
+    }
+
+    @Test
+    public void getProfileProcessingModeLocation() throws Exception {
+        PropertyMap map = parser_.fromString(json_).getAsMap();
+        map.getMap("adapterProfiles").getMap("default").put("processingMode", "location");
+        String json = parser_.toString(map);
+        NetworkListenerConfig config = new NetworkListenerConfig(info_, mock(Logger.class));
+        try (InputStream stream = new ByteArrayInputStream(json.getBytes())) {
+            config.loadFromStream(stream);
+        }
+        config.setCurrentProfile(arguments_[3]);
+        assertEquals(NetworkListenerConfig.MODE_LOCATION, config.getProfileProcessingMode());
+    }
+
+    @Test(expected = ConfigIOParseException.class)
+    public void validatingProfileQueueCapacity() throws Exception {
+        PropertyMap map = parser_.fromString(json_).getAsMap();
+        map.getMap("adapterProfiles").getMap("default").put("queueCapacity", 0);
+        String json = parser_.toString(map);
+        NetworkListenerConfig config = new NetworkListenerConfig(info_, mock(Logger.class));
+        try (InputStream stream = new ByteArrayInputStream(json.getBytes())) {
+            config.loadFromStream(stream);
+        }
+    }
+
     @Test
     public void getProfileDataTransformerName() {
         assertEquals("com.intel.dai.network_listener.Transformer", config_.getProviderName());
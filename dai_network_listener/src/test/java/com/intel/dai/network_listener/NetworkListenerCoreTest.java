@@ -103,7 +103,7 @@ public class NetworkListenerCoreTest {
         new Thread(()-> {
             while(!messages_.isEmpty()) safeSleep(25);
             safeSleep(250);
-            while(!adapter_.queue_.isEmpty()) safeSleep(25);
+            while(adapter_.queueDepth() > 0) safeSleep(25);
             safeSleep(250);
             adapter_.shutDown();
         }).start();
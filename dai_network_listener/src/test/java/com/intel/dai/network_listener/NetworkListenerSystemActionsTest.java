@@ -67,8 +67,10 @@ public class NetworkListenerSystemActionsTest {
         NodeInformation info = mock(NodeInformation.class);
         when(info.isServiceNodeLocation(anyString())).thenReturn(true);
         when(factory_.createNodeInformation()).thenReturn(info);
-        when(factory_.createStoreTelemetry()).thenReturn(storeTelemetry_);
-        when(factory_.createRasEventLog(any(AdapterInformation.class))).thenReturn(mock(RasEventLog.class));
+        when(factory_.createStoreTelemetry(any(Logger.class), anyInt(), anyLong())).thenReturn(storeTelemetry_);
+        rasEventLog_ = mock(RasEventLog.class);
+        when(factory_.createRasEventLog(any(AdapterInformation.class), anyInt(), anyLong())).thenReturn(rasEventLog_);
+        nodeInformation_ = info;
         when(factory_.createAdapterOperations(any(AdapterInformation.class))).
                 thenReturn(mock(AdapterOperations.class));
         when(factory_.createBootImageApi(any(AdapterInformation.class))).thenReturn(bootImage_);
@@ -143,6 +145,19 @@ public class NetworkListenerSystemActionsTest {
         actions_.storeRasEvent("eventName", "data", "location", 100000000L);
     }
 
+    @Test
+    public void storeRasEventLooksUpTheLocationKindOnce() throws Exception {
+        when(nodeInformation_.isServiceNodeLocation("x0c0s0b0n0")).thenReturn(false);
+        actions_.storeRasEvent("eventName", "data", "x0c0s0b0n0", 100000000L);
+        actions_.storeRasEvent("eventName", "data", "x0c0s0b0n0", 200000000L);
+        actions_.storeRasEvent("eventName", "data", "location", 300000000L);
+        verify(nodeInformation_, times(1)).isServiceNodeLocation("x0c0s0b0n0");
+        verify(rasEventLog_, times(2)).logRasEventCheckForEffectedJob(any(), eq("data"), eq("x0c0s0b0n0"),
+                anyLong(), anyString(), anyLong());
+        verify(rasEventLog_).logRasEventNoEffectedJob(any(), eq("data"), eq("location"), eq(300000L), anyString(),
+                anyLong());
+    }
+
     @Test
     public void publishRasEvent() throws Exception {
         actions_.publishRasEvent("ucs_ras_event", "eventName", "data", "location", 100000000L);
@@ -171,6 +186,24 @@ public class NetworkListenerSystemActionsTest {
     @Test
     public void close() throws Exception {
         actions_.close();
+        verify(storeTelemetry_).close();
+        verify(rasEventLog_).flush();
+    }
+
+    @Test
+    public void telemetryBatchSettings() throws Exception {
+        actionConfig_.put("telemetryBatchSize", 100);
+        actionConfig_.put("telemetryBatchLingerMs", 250L);
+        actions_ = new NetworkListenerSystemActions(mock(Logger.class), factory_, adapter_, config_);
+        verify(factory_).createStoreTelemetry(any(Logger.class), eq(100), eq(250L));
+    }
+
+    @Test
+    public void rasEventBatchSettings() throws Exception {
+        actionConfig_.put("rasEventBatchSize", 50);
+        actionConfig_.put("rasEventBatchLingerMs", 20L);
+        actions_ = new NetworkListenerSystemActions(mock(Logger.class), factory_, adapter_, config_);
+        verify(factory_).createRasEventLog(any(AdapterInformation.class), eq(50), eq(20L));
     }
 
     @Test
@@ -189,4 +222,6 @@ public class NetworkListenerSystemActionsTest {
     private PropertyMap actionConfig_;
     private StoreTelemetry storeTelemetry_;
     private BootImage bootImage_;
+    private RasEventLog rasEventLog_;
+    private NodeInformation nodeInformation_;
 }
\ No newline at end of file
@@ -256,7 +256,7 @@ CREATE TABLE InternalCachedJobs (
 );
 PARTITION TABLE InternalCachedJobs ON COLUMN NodeLctn;
 CREATE UNIQUE INDEX InternalCachedJobsByNodeLctnAndJobId ON InternalCachedJobs(NodeLctn, JobId);
-CREATE INDEX InternalCachedJobsByDbUpdatedTimestamp      ON InternalCachedJobs(DbUpdatedTimestamp) WHERE EndTimestamp IS NOT NULL;
+CREATE INDEX InternalCachedJobsByDbUpdatedTimestamp      ON InternalCachedJobs(DbUpdatedTimestamp);  -- not partial, the changed running jobs (null EndTimestamp) are looked up by it too
 CREATE INDEX InternalCachedJobsByJobId                   ON InternalCachedJobs(JobId);
 CREATE INDEX InternalCachedJobsByNodeLctnStartTsAndEndTs ON InternalCachedJobs(NodeLctn, StartTimestamp, EndTimestamp);
 
@@ -2775,6 +2775,10 @@ CREATE PROCEDURE InternalCachedJobsGetCurrentlyActiveJobidForNodeLctn
 --       we want entries where the job's StartTimestamp <= the specified timestamp <= job's EndTimestamp)
 CREATE PROCEDURE InternalCachedJobsGetListOfActiveInternalCachedJobsUsingTimestamp
    AS SELECT * FROM InternalCachedJobs WHERE ((StartTimestamp<=?) AND ((EndTimestamp IS NULL) OR (? <= EndTimestamp))) ORDER BY NodeLctn, StartTimestamp;
+-- Get the list of InternalCachedJobs entries that were added or changed (job started or ended) at or after the specified timestamp,
+-- used to keep an in-memory copy of this table up to date without re-reading the whole table.
+CREATE PROCEDURE InternalCachedJobsGetListOfChangedInternalCachedJobs
+   AS SELECT * FROM InternalCachedJobs WHERE DbUpdatedTimestamp>=? ORDER BY DbUpdatedTimestamp;
 
 
 -- Handle processing that is necessary in the InternalJobInfo table so the JobInfo reflects that the job has started.
@@ -2999,11 +3003,19 @@ CREATE PROCEDURE
 CREATE PROCEDURE
    PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
    FROM CLASS com.intel.dai.procedures.RasEventStore;
+-- Multi-row flavor of RasEventStore, stores many events of the same DescriptiveName with one block of ids (a single UniqueValues update).
+CREATE PROCEDURE
+   PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
+   FROM CLASS com.intel.dai.procedures.RasEventStoreBatch;
 
 -- Method that updates the specified RAS event's JobId, Done, and DbUpdatedTimestamp columns.
 CREATE PROCEDURE RasEventUpdate
   PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 2
   AS UPDATE RasEvent SET JobId=?, Done=?, DbUpdatedTimestamp=NOW WHERE (DescriptiveName=? AND Id=?);
+-- Multi-row flavor of RasEventUpdate, updates many events of the same DescriptiveName (parallel arrays of ids and job ids) in one call.
+CREATE PROCEDURE
+  PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
+  FROM CLASS com.intel.dai.procedures.RasEventUpdateBatch;
 
 CREATE PROCEDURE RasEventCountNodeResetRecently
    PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
@@ -3051,6 +3063,11 @@ CREATE PROCEDURE
 CREATE PROCEDURE
    FROM CLASS com.intel.dai.procedures.DataMoverGetListOfRecsToMove;
 
+-- Single table flavor of DataMoverGetListOfRecsToMove, returns at most the specified number of the changed records of one of those tables
+-- (used by the streaming DataMover, which pages through the tables rather than getting all of them in one transaction).
+CREATE PROCEDURE
+   FROM CLASS com.intel.dai.procedures.DataMoverGetTableRecsToMove;
+
 -- Temporary method needed when using Volt as Tier2 - this method updates an existing record in the Tier2_WorkItem_History table.
 CREATE PROCEDURE Tier2_UpdateWorkItem
    PARTITION ON TABLE Tier2_WorkItem_History COLUMN WorkingAdapterType PARAMETER 5
@@ -3276,6 +3293,9 @@ CREATE PROCEDURE RawInventoryHistoryLastUpdate  -- Query from postgres instead
 CREATE PROCEDURE FROM
     CLASS com.intel.dai.procedures.RawInventoryInsert;
 
+CREATE PROCEDURE FROM
+    CLASS com.intel.dai.procedures.RawInventoryInsertBatch;
+
 CREATE PROCEDURE FROM
     CLASS com.intel.dai.procedures.RawInventoryDump;
 
@@ -3367,13 +3387,12 @@ CREATE TABLE Raw_Node_Inventory_History
     PRIMARY KEY (DbUpdatedTimestamp)
 );
 
-CREATE PROCEDURE Raw_DIMM_Insert AS
-    UPSERT INTO Raw_DIMM(id, serial, mac, locator, source, doc_timestamp, DbUpdatedTimestamp)
-        VALUES(?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP);
+-- Upsert unless the stored document is newer (doc_timestamp)
+CREATE PROCEDURE FROM
+    CLASS com.intel.dai.procedures.Raw_DIMM_Insert;
 
-CREATE PROCEDURE Raw_FRU_Host_Insert AS
-    UPSERT INTO Raw_FRU_Host(id, boardSerial, mac, source, doc_timestamp, DbUpdatedTimestamp)
-        VALUES(?, ?, ?, ?, ?, CURRENT_TIMESTAMP);
+CREATE PROCEDURE FROM
+    CLASS com.intel.dai.procedures.Raw_FRU_Host_Insert;
 
 -- The parameter is the mac address of the FRU host under consideration
 CREATE PROCEDURE Get_Dimms_on_FRU_Host AS
@@ -3383,6 +3402,11 @@ WHERE mac = ?;
 
 CREATE PROCEDURE Get_FRU_Hosts AS SELECT * FROM Raw_FRU_Host ORDER BY doc_timestamp;
 
+-- Newest DbUpdatedTimestamp, the data mover is done with the table once it moved the row with this timestamp
+CREATE PROCEDURE Raw_DIMM_LastUpdate AS SELECT MAX(DbUpdatedTimestamp) FROM Raw_DIMM;
+
+CREATE PROCEDURE Raw_FRU_Host_LastUpdate AS SELECT MAX(DbUpdatedTimestamp) FROM Raw_FRU_Host;
+
 CREATE PROCEDURE Raw_Node_Inventory_History_insert AS
     INSERT INTO Raw_Node_Inventory_History(source, DbUpdatedTimestamp)
         VALUES(?, CURRENT_TIMESTAMP);
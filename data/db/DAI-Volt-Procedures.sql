@@ -363,6 +363,10 @@ CREATE PROCEDURE InternalCachedJobsGetCurrentlyActiveJobidForNodeLctn
 --       we want entries where the job's StartTimestamp <= the specified timestamp <= job's EndTimestamp)
 CREATE PROCEDURE InternalCachedJobsGetListOfActiveInternalCachedJobsUsingTimestamp
    AS SELECT * FROM InternalCachedJobs WHERE ((StartTimestamp<=?) AND ((EndTimestamp IS NULL) OR (? <= EndTimestamp))) ORDER BY NodeLctn, StartTimestamp;
+-- Get the list of InternalCachedJobs entries that were added or changed (job started or ended) at or after the specified timestamp,
+-- used to keep an in-memory copy of this table up to date without re-reading the whole table.
+CREATE PROCEDURE InternalCachedJobsGetListOfChangedInternalCachedJobs
+   AS SELECT * FROM InternalCachedJobs WHERE DbUpdatedTimestamp>=? ORDER BY DbUpdatedTimestamp;
 
 
 -- Handle processing that is necessary in the InternalJobInfo table so the JobInfo reflects that the job has started.
@@ -587,11 +591,19 @@ CREATE PROCEDURE
 CREATE PROCEDURE
    PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
    FROM CLASS com.intel.dai.procedures.RasEventStore;
+-- Multi-row flavor of RasEventStore, stores many events of the same DescriptiveName with one block of ids (a single UniqueValues update).
+CREATE PROCEDURE
+   PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
+   FROM CLASS com.intel.dai.procedures.RasEventStoreBatch;
 
 -- Method that updates the specified RAS event's JobId, Done, and DbUpdatedTimestamp columns.
 CREATE PROCEDURE RasEventUpdate
   PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 2
   AS UPDATE RasEvent SET JobId=?, Done=?, DbUpdatedTimestamp=NOW WHERE (DescriptiveName=? AND Id=?);
+-- Multi-row flavor of RasEventUpdate, updates many events of the same DescriptiveName (parallel arrays of ids and job ids) in one call.
+CREATE PROCEDURE
+  PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
+  FROM CLASS com.intel.dai.procedures.RasEventUpdateBatch;
 
 CREATE PROCEDURE RasEventCountNodeResetRecently
    PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
@@ -639,6 +651,11 @@ CREATE PROCEDURE
 CREATE PROCEDURE
    FROM CLASS com.intel.dai.procedures.DataMoverGetListOfRecsToMove;
 
+-- Single table flavor of DataMoverGetListOfRecsToMove, returns at most the specified number of the changed records of one of those tables
+-- (used by the streaming DataMover, which pages through the tables rather than getting all of them in one transaction).
+CREATE PROCEDURE
+   FROM CLASS com.intel.dai.procedures.DataMoverGetTableRecsToMove;
+
 -- Temporary method needed when using Volt as Tier2 - this method updates an existing record in the Tier2_WorkItem_History table.
 CREATE PROCEDURE Tier2_UpdateWorkItem
    PARTITION ON TABLE Tier2_WorkItem_History COLUMN WorkingAdapterType PARAMETER 5
@@ -864,6 +881,9 @@ CREATE PROCEDURE RawInventoryHistoryLastUpdate  -- Query from postgres instead
 CREATE PROCEDURE FROM
     CLASS com.intel.dai.procedures.RawInventoryInsert;
 
+CREATE PROCEDURE FROM
+    CLASS com.intel.dai.procedures.RawInventoryInsertBatch;
+
 CREATE PROCEDURE FROM
     CLASS com.intel.dai.procedures.RawInventoryDump;
 
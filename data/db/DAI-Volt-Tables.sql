@@ -281,7 +281,7 @@ CREATE TABLE InternalCachedJobs (
 );
 PARTITION TABLE InternalCachedJobs ON COLUMN NodeLctn;
 CREATE UNIQUE INDEX InternalCachedJobsByNodeLctnAndJobId ON InternalCachedJobs(NodeLctn, JobId);
-CREATE INDEX InternalCachedJobsByDbUpdatedTimestamp      ON InternalCachedJobs(DbUpdatedTimestamp) WHERE EndTimestamp IS NOT NULL;
+CREATE INDEX InternalCachedJobsByDbUpdatedTimestamp      ON InternalCachedJobs(DbUpdatedTimestamp);  -- not partial, the changed running jobs (null EndTimestamp) are looked up by it too
 CREATE INDEX InternalCachedJobsByJobId                   ON InternalCachedJobs(JobId);
 CREATE INDEX InternalCachedJobsByNodeLctnStartTsAndEndTs ON InternalCachedJobs(NodeLctn, StartTimestamp, EndTimestamp);
 
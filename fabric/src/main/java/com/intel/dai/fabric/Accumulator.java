@@ -5,57 +5,37 @@
 package com.intel.dai.fabric;
 
 import com.intel.logging.Logger;
+import com.intel.runtime_utils.WindowedAggregator;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 
 class Accumulator {
-    public Accumulator(Logger logger) {
+    public Accumulator(Logger logger, WindowedAggregator.Settings settings) {
         log_ = logger;
+        window_ = new WindowedAggregator(settings);
     }
 
     synchronized public void addValue(FabricTelemetryItem data) {
-        values_.add(data.getValue());
-        log_.debug("Accumulator: value count now %d compared to %d", values_.size(), count_);
-        timestamps_.add(data.getTimestamp());
-        if(useTime_ && timeExceeded())
-            doAggregation(data);
-        else if(!useTime_ && values_.size() == count_)
-            doAggregation(data);
-    }
-
-    private void doAggregation(FabricTelemetryItem data) {
-        log_.debug("Generating aggregated data...");
-        double sum = 0.0;
-        double min = Double.MAX_VALUE;
-        double max = Double.MIN_VALUE;
-        for(double value: values_) {
-            sum += value;
-            max = Double.max(value, max);
-            min = Double.min(value, min);
-        }
-        double avg = sum / (double)values_.size();
-        data.setStatistics(min, avg, max);
-        if(moving_) { // moving average algorithm with window size = count_;
-            values_.remove(0);
-            timestamps_.remove(0);
-        } else { // window algorithm
-            values_.clear();
-            timestamps_.clear();
+        if(window_.add(data.getTimestamp(), data.getValue())) {
+            log_.debug("Generating aggregated data...");
+            data.setStatistics(window_.getMinimum(), window_.getAverage(), window_.getMaximum());
         }
     }
 
-    private boolean timeExceeded() {
-        return (timestamps_.get(timestamps_.size()-1) - timestamps_.get(0)) >= us_;
+    synchronized int size() { return window_.size(); }
+
+    // Window settings from the provider configuration, fabric timestamps are in microseconds.
+    static WindowedAggregator.Settings settingsFromConfig(Map<String, String> config) {
+        return new WindowedAggregator.Settings(
+                Boolean.parseBoolean(config.getOrDefault("aggregateUseTime", "false")),
+                Integer.parseInt(config.getOrDefault("aggregateCount", "25")),
+                Long.parseLong(config.getOrDefault("aggregateTimeWindowSeconds", "300")) * 1_000_000L,
+                Boolean.parseBoolean(config.getOrDefault("aggregateUseMovingAverage", "false")));
     }
 
-    private List<Double> values_ = new ArrayList<>();
-    private List<Long> timestamps_ = new ArrayList<>();
-    private Logger log_;
+    private final WindowedAggregator window_;
+    private final Logger log_;
 
-    static boolean useTime_ = false;   // time window if true; count window if false.
-    static int     count_   = 25;      // 25 sample count window.
-    static long    us_      = 600_000; // 10 minutes default in microseconds.
-    static boolean moving_  = false;   // true will give a moving average with the count_ window;
-                                       // false is a simple window.
+    static final WindowedAggregator.Settings DEFAULT_SETTINGS = new WindowedAggregator.Settings(false, 25,
+            300_000_000L, false);
 }
@@ -18,6 +18,7 @@ import com.intel.logging.LoggerFactory;
 import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
 import com.intel.properties.PropertyNotExpectedType;
+import com.intel.runtime_utils.WindowedAggregator;
 import com.intel.xdg.XdgConfigFile;
 
 import java.io.File;
@@ -161,10 +162,7 @@ public final class FabricPerfTelemetryProvider extends FabricAdapter {
     @Override
     protected void processConfigItems(Map<String, String> config) {
         super.processConfigItems(config);
-        Accumulator.useTime_ = Boolean.parseBoolean(config.getOrDefault("aggregateUseTime", "false"));
-        Accumulator.count_ = Integer.parseInt(config.getOrDefault("aggregateCount", "25"));
-        Accumulator.moving_ = Boolean.parseBoolean(config.getOrDefault("aggregateUseMovingAverage", "false"));
-        Accumulator.us_ = Long.parseLong(config.getOrDefault("aggregateTimeWindowSeconds", "300")) * 1_000_000L;
+        aggregationSettings_ = Accumulator.settingsFromConfig(config);
         aggregationEnabled_ = Boolean.parseBoolean(config.getOrDefault("aggregateEnabled", "true"));
     }
 
@@ -174,7 +172,7 @@ public final class FabricPerfTelemetryProvider extends FabricAdapter {
             String key = raw.getLocation() + ":" + raw.getName();
             Accumulator accum = accumulators_.getOrDefault(key, null);
             if (accum == null) {
-                accum = new Accumulator(log_);
+                accum = new Accumulator(log_, aggregationSettings_);
                 accumulators_.put(key, accum);
             }
             accum.addValue(raw);
@@ -228,6 +226,7 @@ public final class FabricPerfTelemetryProvider extends FabricAdapter {
     }
 
     private boolean aggregationEnabled_ = true;
+    private WindowedAggregator.Settings aggregationSettings_ = Accumulator.DEFAULT_SETTINGS;
     private Map<String, Accumulator> accumulators_ = new HashMap<>();
     private static final String ADAPTER_TYPE = "FABRICPERF";
 }
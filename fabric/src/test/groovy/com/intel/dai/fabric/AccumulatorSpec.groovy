@@ -1,18 +1,12 @@
 package com.intel.dai.fabric
 
 import com.intel.logging.Logger
+import com.intel.runtime_utils.WindowedAggregator
 import spock.lang.Specification
 
 class AccumulatorSpec extends Specification {
-    def underTest_
-    void setup() {
-        underTest_ = new Accumulator(Mock(Logger))
-        Accumulator.moving_ = false
-        Accumulator.useTime_ = false
-    }
-
     def "Test AddValue Count Window"() {
-        Accumulator.count_ = 3
+        def underTest_ = new Accumulator(Mock(Logger), new WindowedAggregator.Settings(false, 3, 0L, false))
         underTest_.addValue(new FabricTelemetryItem(0L, "test", "location", 1.0))
         underTest_.addValue(new FabricTelemetryItem(0L, "test", "location", 2.0))
         FabricTelemetryItem result = new FabricTelemetryItem(0L, "test", "location", 3.0)
@@ -20,11 +14,11 @@ class AccumulatorSpec extends Specification {
         expect: result.getAverage() == 2.0
         and:    result.getMinimum() == 1.0
         and:    result.getMaximum() == 3.0
+        and:    underTest_.size() == 0
     }
 
     def "Test AddValue Time Window"() {
-        Accumulator.useTime_ = true
-        Accumulator.us_ = 2_000_000
+        def underTest_ = new Accumulator(Mock(Logger), new WindowedAggregator.Settings(true, 25, 2_000_000L, false))
         underTest_.addValue(new FabricTelemetryItem(0L, "test", "location", 1.0))
         underTest_.addValue(new FabricTelemetryItem(1_000_000L, "test", "location", 2.0))
         FabricTelemetryItem result = new FabricTelemetryItem(2_000_000L, "test", "location", 3.0)
@@ -35,8 +29,7 @@ class AccumulatorSpec extends Specification {
     }
 
     def "Test AddValue Moving Count Window"() {
-        Accumulator.count_ = 3
-        Accumulator.moving_ = true;
+        def underTest_ = new Accumulator(Mock(Logger), new WindowedAggregator.Settings(false, 3, 0L, true))
         underTest_.addValue(new FabricTelemetryItem(0L, "test", "location", 1.0))
         underTest_.addValue(new FabricTelemetryItem(0L, "test", "location", 2.0))
         FabricTelemetryItem result = new FabricTelemetryItem(0L, "test", "location", 3.0)
@@ -44,5 +37,16 @@ class AccumulatorSpec extends Specification {
         expect: result.getAverage() == 2.0
         and:    result.getMinimum() == 1.0
         and:    result.getMaximum() == 3.0
+        and:    underTest_.size() == 2
+    }
+
+    def "Test settingsFromConfig"() {
+        def settings = Accumulator.settingsFromConfig(["aggregateUseTime": "true", "aggregateCount": "5",
+                                                       "aggregateTimeWindowSeconds": "2",
+                                                       "aggregateUseMovingAverage": "true"])
+        expect: settings.useTime()
+        and:    settings.count == 5
+        and:    settings.timeWindow == 2_000_000L
+        and:    settings.isMoving()
     }
 }
@@ -0,0 +1,73 @@
+package com.intel.dai.foreign_bus
+
+import com.intel.properties.PropertyMap
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+
+/**
+ * Sensors per second micro-benchmark of the PropertyMap and the streaming foreign telemetry parsers. The payloads are
+ * the recorded telemetry templates of the event simulator (foreign.benchmark.payloads, default
+ * ../eventsim/src/main/resources/resources/templates), each parsed as one stream.
+ */
+class ForeignTelemetryParserBenchmarkITSpec extends Specification {
+    static final String PAYLOADS = System.getProperty("foreign.benchmark.payloads",
+            "../eventsim/src/main/resources/resources/templates")
+    static final int ITERATIONS = Integer.getInteger("foreign.benchmark.iterations", 200)
+
+    static List<String> loadPayloads() {
+        List<String> payloads = []
+        Files.newDirectoryStream(Paths.get(PAYLOADS), "telemetry-*.json").each { Path file ->
+            payloads.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8))
+        }
+        return payloads
+    }
+
+    long leaves
+
+    def propertyMapPath(List<String> payloads) {
+        for(String payload : payloads)
+            for(PropertyMap leaf : CommonFunctions.parseForeignTelemetry(payload))
+                if(leaf.getStringOrDefault("Value", null) != null)
+                    leaves++
+    }
+
+    def streamingPath(List<String> payloads) {
+        ForeignTelemetryLeaf.Handler handler = { ForeignTelemetryLeaf leaf ->
+            if(leaf.getValue() != null)
+                leaves++
+        }
+        for(String payload : payloads)
+            CommonFunctions.parseForeignTelemetry(payload, handler)
+    }
+
+    def measure(String name, Closure path, List<String> payloads) {
+        for(int i = 0; i < ITERATIONS; i++) // Warm up
+            path(payloads)
+        leaves = 0L
+        long start = System.nanoTime()
+        for(int i = 0; i < ITERATIONS; i++)
+            path(payloads)
+        double leavesPerSecond = leaves * 1_000_000_000.0 / (System.nanoTime() - start)
+        println(String.format("%s: %d sensors, %.0f sensors/s", name, leaves, leavesPerSecond))
+        return leavesPerSecond
+    }
+
+    def "The streaming parser produces the same sensors faster"() {
+        given:
+        List<String> payloads = loadPayloads()
+
+        when:
+        double propertyMapLeavesPerSecond = measure("PropertyMap", this.&propertyMapPath, payloads)
+        long propertyMapLeaves = leaves
+        double streamingLeavesPerSecond = measure("Streaming", this.&streamingPath, payloads)
+
+        then:
+        !payloads.isEmpty()
+        leaves == propertyMapLeaves
+        streamingLeavesPerSecond > propertyMapLeavesPerSecond
+    }
+}
@@ -8,6 +8,7 @@ import com.intel.config_io.ConfigIO;
 import com.intel.config_io.ConfigIOFactory;
 import com.intel.config_io.ConfigIOParseException;
 import com.intel.logging.Logger;
+import com.intel.perflogging.BenchmarkHelper;
 import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
 import com.intel.properties.PropertyNotExpectedType;
@@ -19,6 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -47,30 +49,41 @@ final public class CommonFunctions {
      */
     public static String convertForeignToLocation(String foreignLocation, String... otherArgs)
             throws ConversionException {
-        if(nodeMap_ == null) {
+        ConversionMaps maps = maps_;
+        if(maps == null) {
             try {
                 loadCall_.loadMaps();
             } catch(RuntimeException e) { /* Failed, drop to finally */ }
-            if(nodeMap_ == null)
-                nodeMap_ = new PropertyMap();
+            maps = maps_;
+            if(maps == null)
+                maps = setConversionMaps(new PropertyMap(), null, null, null, null);
         }
         if(foreignLocation.equals("all"))
             return foreignLocation;
         String sensorName = (otherArgs.length > 0) ? otherArgs[0] : null;
         String extraLocation = (otherArgs.length > 1) ? otherArgs[1] : null;
+        TranslationKey key = new TranslationKey(foreignLocation, sensorName, extraLocation);
+        String location = maps.translations.get(key);
+        BenchmarkHelper benchmarker = benchmarker_;
+        if(benchmarker != null)
+            benchmarker.addNamedValue((location != null) ? "LocationCacheHits" : "LocationCacheMisses", 1L);
+        if(location != null)
+            return location;
         StringBuilder builder = new StringBuilder();
         try {
-            if(nodeMap_.containsKey(foreignLocation)) {
-                builder.append(nodeMap_.getString(foreignLocation));
-                processName(builder, sensorName, extraLocation);
+            if(maps.nodeMap.containsKey(foreignLocation)) {
+                builder.append(maps.nodeMap.getString(foreignLocation));
+                processName(maps, builder, sensorName, extraLocation);
             } else
                 throw new ConversionException(String.format("The foreign '%s' was not in the conversion map (nodeMap.size()=%d)!",
-                        foreignLocation, nodeMap_.size()));
+                        foreignLocation, maps.nodeMap.size()));
         } catch(PropertyNotExpectedType e) {
             throw new ConversionException("Its possible the resource file for foreign translation has been corrupted",
                     e);
         }
-        return builder.toString();
+        location = builder.toString();
+        maps.translations.put(key, location);
+        return location;
     }
 
     /**
@@ -81,18 +94,19 @@ final public class CommonFunctions {
      * @throws ConversionException If the foreign location is not recognized.
      */
     public static String convertLocationToForeign(String daiLocation) throws ConversionException {
-        if(nodeMap_ == null)
+        if(maps_ == null)
             loadCall_.loadMaps();
+        PropertyMap reverseNodeMap = maps_.reverseNodeMap;
         if(daiLocation.equals("all"))
             return daiLocation;
         daiLocation = reduceDaiLocation(daiLocation);
         try {
-            if (reverseNodeMap_.containsKey(daiLocation))
-                return reverseNodeMap_.getString(daiLocation);
+            if (reverseNodeMap.containsKey(daiLocation))
+                return reverseNodeMap.getString(daiLocation);
             else {
                 throw new ConversionException(String.format("The DAI location string '%s' was not found " +
                         "in the conversion map (reverseNodeMap_.size()=%d)!",
-                        daiLocation, reverseNodeMap_.size()));
+                        daiLocation, reverseNodeMap.size()));
             }
         } catch(PropertyNotExpectedType e) {
             throw new ConversionException("Its possible the resource file for foreign translation has been corrupted",
@@ -105,9 +119,10 @@ final public class CommonFunctions {
      * @return all foreign location information
      */
     public static Set<String> getForeignLocations() {
-        if(nodeMap_ == null)
+        if(maps_ == null)
             loadCall_.loadMaps();
-        return (nodeMap_ != null ? nodeMap_.keySet() : null);
+        ConversionMaps maps = maps_;
+        return (maps != null ? maps.nodeMap.keySet() : null);
     }
 
     /**
@@ -115,9 +130,28 @@ final public class CommonFunctions {
      * @return all dai locations information
      */
     public static Collection<Object> getLocations() {
-        if(nodeMap_ == null)
+        if(maps_ == null)
             loadCall_.loadMaps();
-        return (nodeMap_ != null ? nodeMap_.values() : null);
+        ConversionMaps maps = maps_;
+        return (maps != null ? maps.nodeMap.values() : null);
+    }
+
+    /**
+     * Reload the location translation map (LocationTranslationMap.json). The new maps replace the current ones in a
+     * single step, conversions running during the reload keep using the current maps.
+     */
+    public static void reloadConversionMaps() {
+        loadCall_.loadMaps();
+    }
+
+    /**
+     * Report the location translation cache hits and misses ("LocationCacheHits" and "LocationCacheMisses") to a
+     * benchmarking helper.
+     *
+     * @param benchmarker The helper to report to or null to stop reporting.
+     */
+    public static void setBenchmarker(BenchmarkHelper benchmarker) {
+        benchmarker_ = benchmarker;
     }
 
     /**
@@ -152,6 +186,19 @@ final public class CommonFunctions {
         return allLeafs;
     }
 
+    /**
+     * Streaming flavor of {@link #parseForeignTelemetry(String)}, each sensor (leaf) is handed to the handler as it is
+     * parsed rather than being collected in a PropertyArray of PropertyMaps. Will not parse state changes.
+     *
+     * @param jsonStream The JSON object from the stream of objects...
+     * @param handler Called for each sensor, in stream order. The leaf object is reused after the call returns.
+     * @throws ConfigIOParseException if any unexpected syntax or context is detected.
+     */
+    public static void parseForeignTelemetry(String jsonStream, ForeignTelemetryLeaf.Handler handler)
+            throws ConfigIOParseException {
+        new ForeignTelemetryStreamParser(handler).parse(jsonStream);
+    }
+
     private static void processMessage(PropertyMap message, PropertyArray allLeafs) throws ConfigIOParseException {
         if(message.containsKey("Events"))
             processEvents(message.getArrayOrDefault("Events", new PropertyArray()), allLeafs);
@@ -247,7 +294,7 @@ final public class CommonFunctions {
     }
 
     private static String reduceDaiLocation(String location) {
-        if(Pattern.compile("^R[0-9]+-CH[0-9]+-CN[0-9]+-.*").matcher(location).matches()) {
+        if(NODE_SUB_LOCATION.matcher(location).matches()) {
             String[] parts = location.split("-");
             return String.join("-", Arrays.copyOf(parts, 3));
         }
@@ -278,26 +325,28 @@ final public class CommonFunctions {
             assert parser != null : "Failed to get the JSON parser!";
             PropertyMap root = parser.readConfig(stream).getAsMap();
 
-            sensorCpuPattern_ = root.getString("sensor_embedded_cpu_pattern");
-            sensorDimmPattern_ = root.getString("sensor_embedded_dimm_pattern");
-            sensorChannelPattern_ = root.getString("sensor_embedded_channel_pattern");
+            String sensorCpuPattern = root.getString("sensor_embedded_cpu_pattern");
+            String sensorDimmPattern = root.getString("sensor_embedded_dimm_pattern");
+            String sensorChannelPattern = root.getString("sensor_embedded_channel_pattern");
 
             PropertyMap temp = new PropertyMap();
             temp.putAll(root.getMap("conversion_node_map"));
 
-            nodeMap_ = new PropertyMap();
-            reverseNodeMap_ = new PropertyMap();
+            // Build new maps and swap them in when complete, the current maps are never modified.
+            PropertyMap nodeMap = new PropertyMap();
+            PropertyMap reverseNodeMap = new PropertyMap();
 
             for (String key : temp.keySet()) {          // use a temp or the behavior is undefined
                 if (temp.getString(key) != null) {      // null pointer check or you may get null.toUpperCase()
-                    nodeMap_.put(key, temp.getString(key).toUpperCase());
+                    nodeMap.put(key, temp.getString(key).toUpperCase());
 
-                    // If nodeMap_ is not an one-to-one mapping, reverseNodeMap_ reverse the last put()
-                    reverseNodeMap_.put(nodeMap_.getString(key), key);
+                    // If nodeMap is not an one-to-one mapping, reverseNodeMap reverse the last put()
+                    reverseNodeMap.put(nodeMap.getString(key), key);
                 }
             }
-            // If nodeMap_ is not one-to-one, then reverseNodeMap_.size() < nodeMap_.size()
+            // If nodeMap is not one-to-one, then reverseNodeMap.size() < nodeMap.size()
 
+            setConversionMaps(nodeMap, reverseNodeMap, sensorCpuPattern, sensorDimmPattern, sensorChannelPattern);
             return true;
         } catch (IOException | ConfigIOParseException | PropertyNotExpectedType e) {
             return false;
@@ -305,44 +354,51 @@ final public class CommonFunctions {
         /* Nothing to do if close fails. */
     }
 
-    private static void processName(StringBuilder builder, String sensorName, String extra) {
+    private static void processName(ConversionMaps maps, StringBuilder builder, String sensorName, String extra) {
         if(sensorName == null) return;
-        NodeOrCpuInfo cpuInfo = matchCpu(sensorName);
+        NodeOrCpuInfo cpuInfo = matchCpu(maps, sensorName);
         if(cpuInfo != null) {
-            builder.append(String.format("-CPU%d", cpuInfo.number));
+            builder.append("-CPU").append(cpuInfo.number);
         }
-        DimmInfo dimmInfo = matchDimm(sensorName);
+        DimmInfo dimmInfo = matchDimm(maps, sensorName);
         if(dimmInfo != null) {
-            builder.append(String.format("-CH%d-DIMM%d", dimmInfo.dimmChannel, dimmInfo.dimmNumber));
+            builder.append("-CH").append(dimmInfo.dimmChannel).append("-DIMM").append(dimmInfo.dimmNumber);
         }
         builder.append("-").append(sensorName);
         if(extra != null)
             builder.append("-").append(extra);
     }
 
-    private static NodeOrCpuInfo matchCpu(String str) {
-        Pattern regex = Pattern.compile(sensorCpuPattern_);
-        Matcher matcher = regex.matcher(str);
+    private static NodeOrCpuInfo matchCpu(ConversionMaps maps, String str) {
+        if(maps.cpuPattern == null) return null;
+        Matcher matcher = maps.cpuPattern.matcher(str);
         if(!matcher.find()) return null;
         return new NodeOrCpuInfo(Integer.parseInt(str.substring(matcher.start() + 4, matcher.end())),
                 str.substring(0, matcher.start()) + str.substring(matcher.end()));
     }
 
-    private static DimmInfo matchDimm(String str) {
-        Pattern regex = Pattern.compile(sensorDimmPattern_);
-        Matcher dimmMatcher = regex.matcher(str);
+    private static DimmInfo matchDimm(ConversionMaps maps, String str) {
+        if(maps.dimmPattern == null || maps.channelPattern == null) return null;
+        Matcher dimmMatcher = maps.dimmPattern.matcher(str);
         if(!dimmMatcher.find()) return null;
-        Pattern regex2 = Pattern.compile(sensorChannelPattern_);
-        Matcher channelMatcher = regex2.matcher(str);
+        Matcher channelMatcher = maps.channelPattern.matcher(str);
         if(!channelMatcher.find()) return null;
         return new DimmInfo(Integer.parseInt(str.substring(channelMatcher.start() + 3, channelMatcher.end())),
                 Integer.parseInt(str.substring(dimmMatcher.start() + 5, dimmMatcher.end())),
                 str.substring(0, channelMatcher.start()) + str.substring(dimmMatcher.end()));
     }
 
+    // Publishes a new set of conversion maps, the maps must not be modified afterwards.
+    static ConversionMaps setConversionMaps(PropertyMap nodeMap, PropertyMap reverseNodeMap, String cpuPattern,
+                                            String dimmPattern, String channelPattern) {
+        ConversionMaps maps = new ConversionMaps(nodeMap, reverseNodeMap, cpuPattern, dimmPattern, channelPattern);
+        maps_ = maps;
+        return maps;
+    }
+
     // For testing only....
     static void clearMaps() {
-        nodeMap_ = null;
+        maps_ = null;
     }
 
     public static boolean haveErrorsInConversionMaps(Logger log_) {
@@ -351,8 +407,9 @@ final public class CommonFunctions {
             return true;
         }
 
-        int nodeMapSize = dumpConversionMap(log_, nodeMap_, "nodeMap_");
-        int reverseNodeMapSize = dumpConversionMap(log_, reverseNodeMap_, "reverseNodeMap_");
+        ConversionMaps maps = maps_;
+        int nodeMapSize = dumpConversionMap(log_, maps.nodeMap, "nodeMap_");
+        int reverseNodeMapSize = dumpConversionMap(log_, maps.reverseNodeMap, "reverseNodeMap_");
 
         if (nodeMapSize < 0) {
             log_.error("failed to dump nodeMap_");
@@ -367,7 +424,7 @@ final public class CommonFunctions {
 
     private static boolean haveErrorsInInitializingConversionMaps(Logger log_) {
         try {
-            if (nodeMap_ == null) {
+            if (maps_ == null) {
                 // Need to invoke convertForeignToLocation() once to initialize conversion maps
                 if (!convertForeignToLocation("all").equals("all")) {
                     // idempotent; loads conversion maps if necessary
@@ -379,11 +436,12 @@ final public class CommonFunctions {
             log_.exception(e, "HWI:%n  convertForeignToLocation('all') threw %s", e.getMessage());
             return true;
         }
-        if (nodeMap_ == null) {
+        ConversionMaps maps = maps_;
+        if (maps == null || maps.nodeMap == null) {
             log_.error("nodeMap_ is null");
             return true;
         }
-        if (reverseNodeMap_ == null) {
+        if (maps.reverseNodeMap == null) {
             log_.error("reverseNodeMap_ is null");
             return true;
         }
@@ -404,12 +462,115 @@ final public class CommonFunctions {
 
     private CommonFunctions() {} // Disable creation...
 
-    static PropertyMap nodeMap_ = null;
-    static PropertyMap reverseNodeMap_ = null;
-    static String sensorCpuPattern_ = null;
-    static String sensorDimmPattern_ = null;
-    static String sensorChannelPattern_ = null;
+    static volatile ConversionMaps maps_ = null;
+    private static volatile BenchmarkHelper benchmarker_ = null;
     static ConfigIO parser_ = ConfigIOFactory.getInstance("json");
+    static final int TRANSLATION_CACHE_SIZE = 65_536;
+    private static final Pattern NODE_SUB_LOCATION = Pattern.compile("^R[0-9]+-CH[0-9]+-CN[0-9]+-.*");
+
+    // One immutable set of conversion maps with its precompiled sensor patterns and its own translation cache, a
+    // reload publishes a new instance so readers never lock or see a partially loaded set.
+    static final class ConversionMaps {
+        ConversionMaps(PropertyMap nodeMap, PropertyMap reverseNodeMap, String cpuPattern, String dimmPattern,
+                       String channelPattern) {
+            this.nodeMap = nodeMap;
+            this.reverseNodeMap = reverseNodeMap;
+            this.cpuPattern = (cpuPattern != null) ? Pattern.compile(cpuPattern) : null;
+            this.dimmPattern = (dimmPattern != null) ? Pattern.compile(dimmPattern) : null;
+            this.channelPattern = (channelPattern != null) ? Pattern.compile(channelPattern) : null;
+        }
+
+        final PropertyMap nodeMap;
+        final PropertyMap reverseNodeMap;
+        final Pattern cpuPattern;
+        final Pattern dimmPattern;
+        final Pattern channelPattern;
+        final TranslationCache<TranslationKey,String> translations = new TranslationCache<>(TRANSLATION_CACHE_SIZE);
+    }
+
+    // Bounded translation cache read by every conversion. Lookups are plain ConcurrentHashMap reads that only set the
+    // entry's referenced bit; only a miss storing a new translation takes the eviction lock. Eviction is CLOCK (second
+    // chance): the hand sweeps the entries, clearing referenced bits and removing the first unreferenced entry, so
+    // recently used translations approximate LRU without a global lock on the hit path.
+    static final class TranslationCache<K,V> {
+        TranslationCache(int maxEntries) {
+            maxEntries_ = maxEntries;
+        }
+
+        V get(K key) {
+            Entry<V> entry = entries_.get(key);
+            if(entry == null)
+                return null;
+            if(!entry.referenced)
+                entry.referenced = true;
+            return entry.value;
+        }
+
+        void put(K key, V value) {
+            if(entries_.putIfAbsent(key, new Entry<>(value)) != null)
+                return;
+            if(entries_.size() > maxEntries_) {
+                synchronized (evictionLock_) {
+                    while(entries_.size() > maxEntries_)
+                        evictOne();
+                }
+            }
+        }
+
+        int size() { return entries_.size(); }
+
+        // Must be called while holding evictionLock_.
+        private void evictOne() {
+            while(true) {
+                if(hand_ == null || !hand_.hasNext())
+                    hand_ = entries_.entrySet().iterator();
+                if(!hand_.hasNext())
+                    return;
+                Map.Entry<K,Entry<V>> candidate = hand_.next();
+                if(candidate.getValue().referenced)
+                    candidate.getValue().referenced = false;
+                else if(entries_.remove(candidate.getKey(), candidate.getValue()))
+                    return;
+            }
+        }
+
+        private static final class Entry<V> {
+            Entry(V value) { this.value = value; }
+            final V value;
+            volatile boolean referenced = false;
+        }
+
+        private final int maxEntries_;
+        private final Map<K,Entry<V>> entries_ = new ConcurrentHashMap<>();
+        private final Object evictionLock_ = new Object();
+        private Iterator<Map.Entry<K,Entry<V>>> hand_ = null;
+    }
+
+    private static final class TranslationKey {
+        TranslationKey(String foreignLocation, String sensorName, String extra) {
+            foreignLocation_ = foreignLocation;
+            sensorName_ = sensorName;
+            extra_ = extra;
+            hash_ = (31 * (31 * foreignLocation.hashCode() + Objects.hashCode(sensorName))) + Objects.hashCode(extra);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof TranslationKey))
+                return false;
+            TranslationKey key = (TranslationKey)other;
+            return hash_ == key.hash_ && foreignLocation_.equals(key.foreignLocation_) &&
+                    Objects.equals(sensorName_, key.sensorName_) && Objects.equals(extra_, key.extra_);
+        }
+
+        @Override
+        public int hashCode() { return hash_; }
+
+        private final String foreignLocation_;
+        private final String sensorName_;
+        private final String extra_;
+        private final int hash_;
+    }
 
     @FunctionalInterface
     public interface IndirectCall_ {
@@ -0,0 +1,50 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.foreign_bus;
+
+/**
+ * One sensor (leaf) of a foreign telemetry stream as seen by {@link CommonFunctions#parseForeignTelemetry(String,
+ * Handler)}. The scalar values are kept as the strings found in the stream (numbers and booleans included), missing or
+ * 'null' values are null. Leaf objects are reused by the parser, a handler must copy what it needs to keep.
+ */
+public final class ForeignTelemetryLeaf {
+    /**
+     * Receives each sensor of the stream in stream order.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void handleLeaf(ForeignTelemetryLeaf leaf);
+    }
+
+    /**
+     * @return The same name as the '__FullName__' key of {@link CommonFunctions#parseForeignTelemetry(String)}:
+     * MessageId[.PhysicalContext][.DeviceSpecificContext].
+     */
+    public String getFullName() { return fullName_; }
+    public String getTimestamp() { return timestamp_; }
+    public String getLocation() { return location_; }
+    public String getValue() { return value_; }
+    public String getIndex() { return index_; }
+    public String getPhysicalContext() { return physicalContext_; }
+    public String getDeviceSpecificContext() { return deviceSpecificContext_; }
+
+    void clear() {
+        fullName_ = null;
+        timestamp_ = null;
+        location_ = null;
+        value_ = null;
+        index_ = null;
+        physicalContext_ = null;
+        deviceSpecificContext_ = null;
+    }
+
+    String fullName_;
+    String timestamp_;
+    String location_;
+    String value_;
+    String index_;
+    String physicalContext_;
+    String deviceSpecificContext_;
+}
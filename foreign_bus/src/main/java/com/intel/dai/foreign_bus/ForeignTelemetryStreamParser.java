@@ -0,0 +1,343 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.foreign_bus;
+
+import com.intel.config_io.ConfigIOParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull parser for a stream of foreign telemetry objects. It walks metrics.messages[].Events[].Oem.Sensors[] once, in
+ * place, and hands each sensor to the handler without splitting the stream into strings or building PropertyMaps.
+ * Keys are compared where they are in the stream, only the sensor values become strings. The sensors of an event are
+ * held (in reused leaf objects) until the end of the event, as its MessageId may follow its Oem key. Like the
+ * json-simple parser behind the JSON ConfigIO, a trailing comma in an object or array is accepted.
+ * Not thread safe, use one instance per stream.
+ */
+final class ForeignTelemetryStreamParser {
+    ForeignTelemetryStreamParser(ForeignTelemetryLeaf.Handler handler) {
+        handler_ = handler;
+    }
+
+    void parse(String stream) throws ConfigIOParseException {
+        json_ = stream;
+        pos_ = 0;
+        while(skipWhitespace()) {
+            if(json_.charAt(pos_) != '{')
+                throw error("Expected a stream of JSON objects");
+            parseStreamObject();
+        }
+    }
+
+    private void parseStreamObject() throws ConfigIOParseException {
+        boolean haveMetrics = false;
+        beginObject();
+        while(nextName()) {
+            if(nameIs("metrics")) {
+                haveMetrics = true;
+                if(peekNull())
+                    throw new ConfigIOParseException("The key 'metrics' is set to 'null'");
+                parseMetrics();
+            } else
+                skipValue();
+        }
+        if(!haveMetrics)
+            throw new ConfigIOParseException("Stream object is missing the 'metrics' key");
+    }
+
+    private void parseMetrics() throws ConfigIOParseException {
+        boolean haveMessages = false;
+        beginObject();
+        while(nextName()) {
+            if(nameIs("messages")) {
+                haveMessages = true;
+                parseArrayOfObjects(messageParser_, "Expected only objects under 'messages'");
+            } else
+                skipValue();
+        }
+        if(!haveMessages)
+            throw new ConfigIOParseException("The key 'messages' does not exist in the 'metrics' object");
+    }
+
+    private void parseMessage() throws ConfigIOParseException {
+        boolean haveEvents = false;
+        beginObject();
+        while(nextName()) {
+            if(nameIs("Events")) {
+                haveEvents = true;
+                parseArrayOfObjects(eventParser_, "The event object in the 'Events' array is not a object");
+            } else
+                skipValue();
+        }
+        if(!haveEvents)
+            throw new ConfigIOParseException("Missing key 'Events' in the 'message' object");
+    }
+
+    private void parseEvent() throws ConfigIOParseException {
+        String prefix = null;
+        boolean haveOem = false;
+        sensorCount_ = 0;
+        beginObject();
+        while(nextName()) {
+            if(nameIs("MessageId"))
+                prefix = nextScalar();
+            else if(nameIs("Oem")) {
+                haveOem = true;
+                if(peekNull())
+                    throw new ConfigIOParseException("The 'Oem' key is defined as 'null' in the event");
+                parseOem();
+            } else
+                skipValue();
+        }
+        if(!haveOem)
+            throw new ConfigIOParseException("Missing the 'Oem' key in the event in 'Events'");
+        if(prefix == null)
+            prefix = "Missing.Id";
+        for(int i = 0; i < sensorCount_; i++) {
+            ForeignTelemetryLeaf leaf = sensors_.get(i);
+            fullName_.setLength(0);
+            fullName_.append(prefix);
+            if(leaf.physicalContext_ != null)
+                fullName_.append('.').append(leaf.physicalContext_);
+            if(leaf.deviceSpecificContext_ != null)
+                fullName_.append('.').append(leaf.deviceSpecificContext_);
+            leaf.fullName_ = fullName_.toString();
+            handler_.handleLeaf(leaf);
+        }
+    }
+
+    private void parseOem() throws ConfigIOParseException {
+        boolean haveSensors = false;
+        beginObject();
+        while(nextName()) {
+            if(nameIs("Sensors")) {
+                haveSensors = true;
+                parseArrayOfObjects(sensorParser_, "The actual data under the 'Sensors' array was not an object");
+            } else
+                skipValue();
+        }
+        if(!haveSensors)
+            throw new ConfigIOParseException("Missing the 'Sensors' key in the 'Oem' key");
+    }
+
+    private void parseSensor() throws ConfigIOParseException {
+        if(sensorCount_ == sensors_.size())
+            sensors_.add(new ForeignTelemetryLeaf());
+        ForeignTelemetryLeaf leaf = sensors_.get(sensorCount_++);
+        leaf.clear();
+        beginObject();
+        while(nextName()) {
+            if(nameIs("Timestamp")) leaf.timestamp_ = nextScalar();
+            else if(nameIs("Location")) leaf.location_ = nextScalar();
+            else if(nameIs("Value")) leaf.value_ = nextScalar();
+            else if(nameIs("Index")) leaf.index_ = nextScalar();
+            else if(nameIs("PhysicalContext")) leaf.physicalContext_ = nextScalar();
+            else if(nameIs("DeviceSpecificContext")) leaf.deviceSpecificContext_ = nextScalar();
+            else skipValue();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ObjectParser {
+        void parse() throws ConfigIOParseException;
+    }
+
+    // A 'null' array is treated as an empty array.
+    private void parseArrayOfObjects(ObjectParser parser, String notAnObjectMessage) throws ConfigIOParseException {
+        if(peekNull()) {
+            skipValue();
+            return;
+        }
+        expect('[');
+        first_ = true;
+        while(nextElement(']')) {
+            if(json_.charAt(pos_) != '{')
+                throw new ConfigIOParseException(notAnObjectMessage);
+            parser.parse();
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Tokenizer, pos_ always points at the next character to look at. A single first_ flag is enough for nesting as
+    // every value of an object or array ends with first_ == false, which is also the state of the enclosing object or
+    // array once it has an element.
+    //------------------------------------------------------------------------------------------------------------------
+
+    private void beginObject() throws ConfigIOParseException {
+        expect('{');
+        first_ = true;
+    }
+
+    // Moves to the value of the next member of the current object (see nameIs), false at the end of the object.
+    // Member names with escape sequences never match nameIs.
+    private boolean nextName() throws ConfigIOParseException {
+        if(!nextElement('}'))
+            return false;
+        if(json_.charAt(pos_) != '"')
+            throw error("Expected a member name");
+        nameStart_ = pos_ + 1;
+        nameEnd_ = skipString();
+        expect(':');
+        return true;
+    }
+
+    private boolean nameIs(String name) {
+        int length = nameEnd_ - nameStart_;
+        return length == name.length() && json_.regionMatches(nameStart_, name, 0, length);
+    }
+
+    // Moves to the next element of an object or array, false at the end of it (the close is consumed).
+    private boolean nextElement(char close) throws ConfigIOParseException {
+        if(!skipWhitespace())
+            throw error("Unexpected end of the JSON stream");
+        if(!first_) {
+            if(json_.charAt(pos_) == ',') {
+                pos_++;
+                if(!skipWhitespace())
+                    throw error("Unexpected end of the JSON stream");
+            } else if(json_.charAt(pos_) != close)
+                throw error("Expected ',' or '" + close + "'");
+        }
+        first_ = false;
+        if(json_.charAt(pos_) == close) {
+            pos_++;
+            return false;
+        }
+        return true;
+    }
+
+    private boolean peekNull() throws ConfigIOParseException {
+        if(!skipWhitespace())
+            throw error("Unexpected end of the JSON stream");
+        return json_.startsWith("null", pos_);
+    }
+
+    // Strings and numbers as found in the stream, null for 'null' and for nested objects or arrays.
+    private String nextScalar() throws ConfigIOParseException {
+        if(!skipWhitespace())
+            throw error("Unexpected end of the JSON stream");
+        char chr = json_.charAt(pos_);
+        if(chr == '"') {
+            int start = pos_ + 1;
+            int end = skipString();
+            return haveEscapes_ ? unescape(start, end) : json_.substring(start, end);
+        }
+        if(chr == '{' || chr == '[' || json_.startsWith("null", pos_)) {
+            skipValue();
+            return null;
+        }
+        int start = pos_;
+        skipValue();
+        return json_.substring(start, pos_);
+    }
+
+    private void skipValue() throws ConfigIOParseException {
+        if(!skipWhitespace())
+            throw error("Unexpected end of the JSON stream");
+        char chr = json_.charAt(pos_);
+        if(chr == '"')
+            skipString();
+        else if(chr == '{' || chr == '[') {
+            char close = (chr == '{') ? '}' : ']';
+            pos_++;
+            first_ = true;
+            while(nextElement(close)) {
+                if(close == '}') {
+                    if(json_.charAt(pos_) != '"')
+                        throw error("Expected a member name");
+                    skipString();
+                    expect(':');
+                }
+                skipValue();
+            }
+        } else {
+            int start = pos_;
+            while(pos_ < json_.length() && "{}[],:\" \t\r\n".indexOf(json_.charAt(pos_)) < 0)
+                pos_++;
+            if(pos_ == start)
+                throw error("Expected a value");
+        }
+        first_ = false;
+    }
+
+    // Skips the string at pos_ returning the index of its closing quote.
+    private int skipString() throws ConfigIOParseException {
+        haveEscapes_ = false;
+        for(int index = pos_ + 1; index < json_.length(); index++) {
+            char chr = json_.charAt(index);
+            if(chr == '\\') {
+                haveEscapes_ = true;
+                index++;
+            } else if(chr == '"') {
+                pos_ = index + 1;
+                return index;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private String unescape(int start, int end) throws ConfigIOParseException {
+        StringBuilder builder = new StringBuilder(end - start);
+        for(int index = start; index < end; index++) {
+            char chr = json_.charAt(index);
+            if(chr != '\\') {
+                builder.append(chr);
+                continue;
+            }
+            chr = json_.charAt(++index);
+            switch(chr) {
+                case 'b': builder.append('\b'); break;
+                case 'f': builder.append('\f'); break;
+                case 'n': builder.append('\n'); break;
+                case 'r': builder.append('\r'); break;
+                case 't': builder.append('\t'); break;
+                case 'u':
+                    if(index + 4 >= end)
+                        throw error("Invalid unicode escape");
+                    try {
+                        builder.append((char)Integer.parseInt(json_.substring(index + 1, index + 5), 16));
+                    } catch(NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    index += 4;
+                    break;
+                default: builder.append(chr);
+            }
+        }
+        return builder.toString();
+    }
+
+    // Returns false at the end of the stream.
+    private boolean skipWhitespace() {
+        while(pos_ < json_.length() && Character.isWhitespace(json_.charAt(pos_)))
+            pos_++;
+        return pos_ < json_.length();
+    }
+
+    private void expect(char chr) throws ConfigIOParseException {
+        if(!skipWhitespace() || json_.charAt(pos_) != chr)
+            throw error("Expected '" + chr + "'");
+        pos_++;
+    }
+
+    private ConfigIOParseException error(String message) {
+        return new ConfigIOParseException(String.format("%s at character position %d!", message, pos_));
+    }
+
+    private final ForeignTelemetryLeaf.Handler handler_;
+    private final ObjectParser messageParser_ = this::parseMessage;
+    private final ObjectParser eventParser_ = this::parseEvent;
+    private final ObjectParser sensorParser_ = this::parseSensor;
+    private final List<ForeignTelemetryLeaf> sensors_ = new ArrayList<>();
+    private final StringBuilder fullName_ = new StringBuilder();
+    private int sensorCount_ = 0;
+    private String json_;
+    private int pos_;
+    private boolean first_;        // No element of the current object or array was read yet.
+    private boolean haveEscapes_;  // The last string skipped had escape sequences.
+    private int nameStart_;
+    private int nameEnd_;
+}
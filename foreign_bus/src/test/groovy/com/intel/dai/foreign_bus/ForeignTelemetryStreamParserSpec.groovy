@@ -0,0 +1,100 @@
+package com.intel.dai.foreign_bus
+
+import com.intel.config_io.ConfigIOParseException
+import com.intel.properties.PropertyMap
+import spock.lang.Specification
+
+class ForeignTelemetryStreamParserSpec extends Specification {
+    static final String SAMPLE = """{
+  "metrics": {
+    "messages": [
+      {
+        "Events": [
+          {
+            "EventTimestamp": "2020-06-03T22:35:45Z",
+            "Oem": {
+              "Sensors": [
+                {
+                  "Timestamp": "2020-06-03T22:35:45Z",
+                  "Location": "x3000c0s17b0",
+                  "PhysicalContext": "SystemBoard",
+                  "DeviceSpecificContext": "+3.3V \\"Vbat\\"",
+                  "Index": 0,
+                  "Value": 3.07450008392334,
+                  "Extra": { "Nested": [1, 2, {"Value": "ignored"}] },
+                },
+                {
+                  "Timestamp": "2020-06-03T22:35:45Z",
+                  "Location": "x3000c0s17b0",
+                  "PhysicalContext": "Chassis",
+                  "Index": 1,
+                  "Value": null
+                }
+              ],
+              "TelemetrySource": "River"
+            },
+            "MessageId": "CrayTelemetry.Voltage"
+          },
+          {
+            "Oem": { "Sensors": null }
+          },
+        ]
+      }
+    ]
+  }
+}
+{ "metrics": { "messages": [ { "Events": [ { "Oem": { "Sensors": [ { "Location": "x0", "Value": "7" } ] } } ] } ] } }
+"""
+
+    List<Map<String,String>> leaves = []
+
+    def parse(String stream) {
+        new ForeignTelemetryStreamParser({ leaf -> leaves.add([fullName: leaf.fullName, timestamp: leaf.timestamp,
+                location: leaf.location, value: leaf.value, index: leaf.index]) }).parse(stream)
+    }
+
+    def "Test parse"() {
+        when: parse(SAMPLE)
+        then:
+        leaves.size() == 3
+        leaves[0] == [fullName: 'CrayTelemetry.Voltage.SystemBoard.+3.3V "Vbat"', timestamp: "2020-06-03T22:35:45Z",
+                      location: "x3000c0s17b0", value: "3.07450008392334", index: "0"]
+        leaves[1].fullName == "CrayTelemetry.Voltage.Chassis"
+        leaves[1].value == null
+        leaves[2] == [fullName: "Missing.Id", timestamp: null, location: "x0", value: "7", index: null]
+    }
+
+    def "Test parse matches the PropertyMap path"() {
+        def stream = SAMPLE.replace('"Value": null', '"Value": "0"')
+        when:
+        parse(stream)
+        List<PropertyMap> expected = CommonFunctions.parseForeignTelemetry(stream)
+        then:
+        leaves.size() == expected.size()
+        leaves.eachWithIndex { leaf, i ->
+            assert leaf.fullName == expected[i].getString("__FullName__")
+            assert leaf.location == expected[i].getString("Location")
+            assert leaf.value == expected[i].getString("Value")
+        }
+    }
+
+    def "Test parse Negative"() {
+        when: parse(STREAM)
+        then:
+        def e = thrown(ConfigIOParseException)
+        e.message.startsWith(MESSAGE)
+        where:
+        STREAM                                                           || MESSAGE
+        '[]'                                                             || "Expected a stream of JSON objects"
+        '{"other": 1}'                                                   || "Stream object is missing the 'metrics' key"
+        '{"metrics": null}'                                              || "The key 'metrics' is set to 'null'"
+        '{"metrics": {}}'                                                || "The key 'messages' does not exist"
+        '{"metrics": {"messages": [1]}}'                                 || "Expected only objects under 'messages'"
+        '{"metrics": {"messages": [{}]}}'                                || "Missing key 'Events'"
+        '{"metrics": {"messages": [{"Events": [{}]}]}}'                  || "Missing the 'Oem' key"
+        '{"metrics": {"messages": [{"Events": [{"Oem": {}}]}]}}'         || "Missing the 'Sensors' key"
+        '{"metrics": {"messages": [{"Events": [{"Oem": {"Sensors": ['   || "Unexpected end of the JSON stream"
+        '{"metrics": {"messages": [{"Events": [{"Oem": {"Sensors" 1}}]}' || "Expected ':'"
+        '{"metrics": {"other": "unterminated}'                           || "Unterminated string"
+    }
+}
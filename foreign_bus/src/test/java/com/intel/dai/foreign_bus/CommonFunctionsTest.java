@@ -41,13 +41,12 @@ public class CommonFunctionsTest {
             ConfigIO parser = ConfigIOFactory.getInstance("json");
             assert parser != null: "Failed to get the JSON parser!";
             PropertyMap root = parser.readConfig(stream).getAsMap();
-            CommonFunctions.nodeMap_ = root.getMap("conversion_node_map");
-            CommonFunctions.sensorCpuPattern_ = root.getString("sensor_embedded_cpu_pattern");
-            CommonFunctions.sensorDimmPattern_ = root.getString("sensor_embedded_dimm_pattern");
-            CommonFunctions.sensorChannelPattern_ = root.getString("sensor_embedded_channel_pattern");
-            CommonFunctions.reverseNodeMap_ = new PropertyMap();
-            for(String key: CommonFunctions.nodeMap_.keySet())
-                CommonFunctions.reverseNodeMap_.put(CommonFunctions.nodeMap_.getString(key), key);
+            PropertyMap nodeMap = root.getMap("conversion_node_map");
+            PropertyMap reverseNodeMap = new PropertyMap();
+            for(String key: nodeMap.keySet())
+                reverseNodeMap.put(nodeMap.getString(key), key);
+            CommonFunctions.setConversionMaps(nodeMap, reverseNodeMap, root.getString("sensor_embedded_cpu_pattern"),
+                    root.getString("sensor_embedded_dimm_pattern"), root.getString("sensor_embedded_channel_pattern"));
         } catch(IOException | ConfigIOParseException | PropertyNotExpectedType e) {
             throw new RuntimeException("Something went wrong reading or parsing the location transformer resource " +
                     "'/resources/LocationTranslationMap.json'", e);
@@ -94,13 +93,55 @@ public class CommonFunctionsTest {
         CommonFunctions.convertLocationToForeign("R3-CH0-CN0");
     }
 
+    @Test
+    public void translationCache() throws Exception {
+        String location = CommonFunctions.convertForeignToLocation("x0c0s1b0n0", "BC_I_NODE1_CPU2_CH1_DIMM3_YY");
+        CommonFunctions.ConversionMaps maps = CommonFunctions.maps_;
+        assertEquals(1, maps.translations.size());
+        assertSame(location, CommonFunctions.convertForeignToLocation("x0c0s1b0n0", "BC_I_NODE1_CPU2_CH1_DIMM3_YY"));
+        assertEquals("R0-CH0-CN1-CPU2-CH1-DIMM3-BC_I_NODE1_CPU2_CH1_DIMM3_YY-EXTRA",
+                CommonFunctions.convertForeignToLocation("x0c0s1b0n0", "BC_I_NODE1_CPU2_CH1_DIMM3_YY", "EXTRA"));
+        assertEquals(2, maps.translations.size());
+        try {
+            CommonFunctions.convertForeignToLocation("x0c1s0n0", "SENSOR");
+            fail();
+        } catch(ConversionException e) { /* PASS */ }
+        assertEquals(2, maps.translations.size());
+        for(int i = 0; i < CommonFunctions.TRANSLATION_CACHE_SIZE + 10; i++)
+            CommonFunctions.convertForeignToLocation("x0", "SENSOR" + i);
+        assertEquals(CommonFunctions.TRANSLATION_CACHE_SIZE, maps.translations.size());
+    }
+
+    @Test
+    public void translationCacheKeepsRecentlyReadEntries() {
+        CommonFunctions.TranslationCache<String,String> cache = new CommonFunctions.TranslationCache<>(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C");
+        assertEquals(2, cache.size());
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+    }
+
+    @Test
+    public void reloadReplacesTheMapsAndCache() throws Exception {
+        assertEquals("R0-CH0-CN3", CommonFunctions.convertForeignToLocation("x0c0s3b0n0"));
+        CommonFunctions.ConversionMaps before = CommonFunctions.maps_;
+        CommonFunctions.reloadConversionMaps();
+        assertNotSame(before, CommonFunctions.maps_);
+        assertEquals(0, CommonFunctions.maps_.translations.size());
+        assertEquals("R0-CH0-CN3", CommonFunctions.convertForeignToLocation("x0c0s3b0n0"));
+    }
+
     @Test
     public void testAllForeignNames() {
-       assertTrue(CommonFunctions.getLocations().containsAll(CommonFunctions.nodeMap_ .values()));
+       assertTrue(CommonFunctions.getLocations().containsAll(CommonFunctions.maps_.nodeMap.values()));
     }
 
     @Test
     public void testAllLocations() {
-        assertTrue(CommonFunctions.getForeignLocations().containsAll(CommonFunctions.nodeMap_ .keySet()));
+        assertTrue(CommonFunctions.getForeignLocations().containsAll(CommonFunctions.maps_.nodeMap.keySet()));
     }
 }
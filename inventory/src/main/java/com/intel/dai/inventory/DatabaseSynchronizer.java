@@ -1,5 +1,6 @@
 package com.intel.dai.inventory;
 
+import com.intel.dai.DataMoverHighWaterMarks;
 import com.intel.dai.dsapi.*;
 import com.intel.dai.dsimpl.voltdb.HWInvUtilImpl;
 import com.intel.dai.exceptions.DataStoreException;
@@ -15,6 +16,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.elasticsearch.client.RestHighLevelClient;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,12 +34,19 @@ public class DatabaseSynchronizer {
     ImmutablePair<Long, String> characteristicsOfLastRawDimmIngested;
     ImmutablePair<Long, String> characteristicsOfLastRawFruHostIngested;
 
-    final long dataMoverTimeOutLimit = 60 * 1000;    // wait at most 1 minute
+    long dataMoverTimeOutLimit = 60 * 1000;          // wait at most 1 minute
+    static final String RAW_DIMM_TABLE = "Raw_DIMM";
+    static final String RAW_FRU_HOST_TABLE = "Raw_FRU_Host";
 
     private String hostName_ = "localhost";
     private int port_ = 9200;
     private String userName_ = "";
     private String password_ = "";
+    private int elasticsearchSlices_ = 1;
+    private int elasticsearchPageSize_ = ElasticsearchIndexIngester.DEFAULT_PAGE_SIZE;
+    private int elasticsearchDecodingThreads_ = 1;
+    private int elasticsearchWritingThreads_ = 1;
+    private String rabbitMQHost_ = "localhost";     // DataMover exchange publishing the nearline high-water marks
 
     public DatabaseSynchronizer(Logger log, NetworkListenerConfig config) {
         log_ = log;
@@ -58,6 +67,14 @@ public class DatabaseSynchronizer {
             } catch (PropertyNotExpectedType propertyNotExpectedType) {
                 log_.error(propertyNotExpectedType.getMessage());
             }
+            // Optional tuning of the initial Elasticsearch ingest
+            elasticsearchSlices_ = configMap.getIntOrDefault("elasticsearchSlices", elasticsearchSlices_);
+            elasticsearchPageSize_ = configMap.getIntOrDefault("elasticsearchPageSize", elasticsearchPageSize_);
+            elasticsearchDecodingThreads_ = configMap.getIntOrDefault("elasticsearchDecodingThreads",
+                    elasticsearchDecodingThreads_);
+            elasticsearchWritingThreads_ = configMap.getIntOrDefault("elasticsearchWritingThreads",
+                    elasticsearchWritingThreads_);
+            rabbitMQHost_ = configMap.getStringOrDefault("rabbitMQHost", rabbitMQHost_);
             return;
         }
         log_.error("getProviderConfigurationFromClassName(%s) => null", getClass().getCanonicalName());
@@ -101,17 +118,7 @@ public class DatabaseSynchronizer {
             log_.info("hostName:%s port:%s userName:%s password:%s", hostName_, port_, userName_, password_);
             if (areEmptyInventoryTablesInPostgres()) {
                 log_.info("areEmptyInventoryTablesInPostgres() => true");
-                Elasticsearch es = new Elasticsearch(log_);
-                RestHighLevelClient esClient = es.getRestHighLevelClient(hostName_, port_,
-                        userName_, password_);
-
-                characteristicsOfLastRawDimmIngested = ingest(esClient, "kafka_dimm");
-                characteristicsOfLastRawFruHostIngested = ingest(esClient, "kafka_fru_host");
-
-                es.close();
-
-                sleepForOneSecond();
-                waitForDataMoverToFinish();
+                ingestElasticsearchIndicesAndWaitForDataMover();
 
                 NodeInventoryIngester ni = new NodeInventoryIngester(factory_, log_);
                 ni.ingestInitialNodeInventoryHistory();
@@ -135,12 +142,120 @@ public class DatabaseSynchronizer {
         RawInventoryDataIngester.ingestFruHost(doc);
     }
 
-    private ImmutablePair<Long, String> ingest(RestHighLevelClient esClient, String index) throws DataStoreException {
-        ElasticsearchIndexIngester eii = new ElasticsearchIndexIngester(esClient, index, 0, factory_, log_);
+    /**
+     * Ingests the raw DIMM and raw FRU host indices and waits for the data mover to move them into the nearline tier,
+     * polling the nearline tier when the high-water marks cannot be listened to or do not arrive in time.
+     */
+    void ingestElasticsearchIndicesAndWaitForDataMover() throws DataStoreException {
+        // Subscribe before ingesting so that no high-water mark is missed
+        DataMoverHighWaterMarks highWaterMarks = createDataMoverHighWaterMarks();
+        boolean listening = highWaterMarks.startListening(rabbitMQHost_,
+                Arrays.asList(RAW_DIMM_TABLE, RAW_FRU_HOST_TABLE));
+        try {
+            ingestElasticsearchIndices();
+
+            if (!listening || !waitForHighWaterMarks(highWaterMarks)) {
+                sleepForOneSecond();
+                waitForDataMoverToFinish();
+            }
+        } finally {
+            highWaterMarks.close();
+        }
+    }
+
+    /**
+     * Ingests the raw DIMM and raw FRU host indices concurrently.
+     */
+    void ingestElasticsearchIndices() throws DataStoreException {
+        Elasticsearch es = new Elasticsearch(log_);
+        RestHighLevelClient esClient = es.getRestHighLevelClient(hostName_, port_, userName_, password_);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ElasticsearchIndexIngester> dimms = executor.submit(() -> ingest(esClient, "kafka_dimm"));
+            Future<ElasticsearchIndexIngester> fruHosts = executor.submit(() -> ingest(esClient, "kafka_fru_host"));
+            characteristicsOfLastRawDimmIngested = getIngested(dimms).getCharacteristicsOfLastDocIngested();
+            characteristicsOfLastRawFruHostIngested = getIngested(fruHosts).getCharacteristicsOfLastDocIngested();
+        } finally {
+            executor.shutdownNow();
+        }
+        es.close();
+    }
+
+    private ElasticsearchIndexIngester getIngested(Future<ElasticsearchIndexIngester> ingesting)
+            throws DataStoreException {
+        try {
+            ElasticsearchIndexIngester eii = ingesting.get();
+            totalNumberOfInjectedDocuments += eii.getNumberOfDocumentsEnumerated();
+            return eii;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataStoreException) {
+                throw (DataStoreException) e.getCause();
+            }
+            throw new DataStoreException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataStoreException(e.getMessage());
+        }
+    }
+
+    private ElasticsearchIndexIngester ingest(RestHighLevelClient esClient, String index) throws DataStoreException {
+        ElasticsearchIndexIngester eii = new ElasticsearchIndexIngester(esClient, index, 0, factory_, log_,
+                elasticsearchSlices_, elasticsearchPageSize_, elasticsearchDecodingThreads_,
+                elasticsearchWritingThreads_);
         eii.ingestIndexIntoVoltdb();
-        totalNumberOfInjectedDocuments += eii.getNumberOfDocumentsEnumerated();
         log_.info("Number of %s documents = %d", index, eii.getNumberOfDocumentsEnumerated());
-        return eii.getCharacteristicsOfLastDocIngested();
+        return eii;
+    }
+
+    DataMoverHighWaterMarks createDataMoverHighWaterMarks() {
+        return new DataMoverHighWaterMarks(log_);
+    }
+
+    /**
+     * Waits (concurrently) for the data mover to move the newest raw DIMM and raw FRU host into the nearline tier,
+     * as published by the DataReceiver's high-water marks.  A table nothing was ingested into, or that is empty in the
+     * online tier, has nothing to move and is not waited for.
+     * @return false if the wait failed or timed out, the caller can fall back to polling the nearline tier
+     */
+    boolean waitForHighWaterMarks(DataMoverHighWaterMarks highWaterMarks) {
+        long startMs = System.currentTimeMillis();
+        try {
+            List<CompletableFuture<Long>> moved = new ArrayList<>();
+            if (wasIngested(characteristicsOfLastRawDimmIngested)) {
+                long lastRawDimmUpdate = onlineInventoryDatabaseClient_.getLastRawDimmUpdateTimestamp();
+                log_.info("Waiting for data mover - Raw DIMMs through %d", lastRawDimmUpdate);
+                if (lastRawDimmUpdate > 0)
+                    moved.add(highWaterMarks.whenMoved(RAW_DIMM_TABLE, lastRawDimmUpdate));
+            }
+            if (wasIngested(characteristicsOfLastRawFruHostIngested)) {
+                long lastRawFruHostUpdate = onlineInventoryDatabaseClient_.getLastRawFruHostUpdateTimestamp();
+                log_.info("Waiting for data mover - Raw FRU Hosts through %d", lastRawFruHostUpdate);
+                if (lastRawFruHostUpdate > 0)
+                    moved.add(highWaterMarks.whenMoved(RAW_FRU_HOST_TABLE, lastRawFruHostUpdate));
+            }
+            if (moved.isEmpty()) {
+                log_.info("No Raw DIMMs or Raw FRU Hosts to wait for");
+                return true;
+            }
+            CompletableFuture.allOf(moved.toArray(new CompletableFuture<?>[0])).
+                    get(dataMoverTimeOutLimit, TimeUnit.MILLISECONDS);
+            log_.info("Raw DIMMs and Raw FRU Hosts transfer completed at %dms", System.currentTimeMillis() - startMs);
+            return true;
+        } catch (DataStoreException | ExecutionException | CancellationException e) {
+            log_.error("Cannot wait for the data mover high-water marks: %s", e.getMessage());
+        } catch (TimeoutException e) {
+            log_.error("Timed out waiting for the data mover high-water marks (Raw DIMMs at %d, Raw FRU Hosts at %d)",
+                    highWaterMarks.getHighWaterMark(RAW_DIMM_TABLE),
+                    highWaterMarks.getHighWaterMark(RAW_FRU_HOST_TABLE));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log_.error("Interrupted while waiting for the data mover high-water marks");
+        }
+        return false;
+    }
+
+    private static boolean wasIngested(ImmutablePair<Long, String> characteristicsOfLastDocIngested) {
+        return characteristicsOfLastDocIngested != null && characteristicsOfLastDocIngested.right != null;
     }
 
     private void waitForDataMoverToFinish() {
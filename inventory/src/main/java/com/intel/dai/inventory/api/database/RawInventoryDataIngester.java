@@ -32,15 +32,12 @@ public class RawInventoryDataIngester {
 
     public static void ingestDimm(ImmutablePair<String, String> doc) {
         String id = doc.left;
-        Dimm dimm = gson.fromJson(doc.right, Dimm.class);
-        dimm.ib_dimm = gson.fromJson(dimm.rawIbDimm, IbDimmPojo.class);
-        dimm.rawIbDimm = null;
-        dimm.locator = dimm.ib_dimm.Locator;
+        Dimm dimm = decodeDimm(doc.right);
 
         try {
             int numRawDimmIngested = onlineInventoryDatabaseClient_.ingest(id, dimm);
             if (numRawDimmIngested != 1) {
-                log_.error("Failed to ingest raw DIMM");
+                log_.debug("Did not ingest raw DIMM %s, the stored document is newer", id);
                 return;
             }
             totalNumberOfDocumentsIngested += numRawDimmIngested;
@@ -55,22 +52,12 @@ public class RawInventoryDataIngester {
 
     public static void ingestFruHost(ImmutablePair<String, String> doc) {
         String id = doc.left;
-        FruHost fruHost = gson.fromJson(doc.right, FruHost.class);
-
-        fruHost.oob_fru = gson.fromJson(fruHost.rawOobFru, OobFruPojo.class);
-        fruHost.rawOobFru = null;
-        fruHost.oob_rev_info = gson.fromJson(fruHost.rawOobRevInfo, OobRevInfoPojo.class);
-        fruHost.rawOobRevInfo = null;
-
-        fruHost.ib_bios = gson.fromJson(fruHost.rawIbBios, IbBiosPojo.class);
-        fruHost.rawIbBios = null;
-
-        fruHost.boardSerial = fruHost.oob_fru.Board_Serial;
+        FruHost fruHost = decodeFruHost(doc.right);
 
         try {
             int numRawFruHostIngested = onlineInventoryDatabaseClient_.ingest(id, fruHost);
             if (numRawFruHostIngested != 1) {
-                log_.error("Failed to ingest raw FRU host");
+                log_.debug("Did not ingest raw FRU host %s, the stored document is newer", id);
                 return;
             }
             totalNumberOfDocumentsIngested += numRawFruHostIngested;
@@ -82,4 +69,33 @@ public class RawInventoryDataIngester {
             log_.error("DataStoreException: %s", e.getMessage());
         }
     }
+
+    /**
+     * Decodes a raw DIMM json document (kafka_dimm index) including its embedded in-band json.
+     */
+    public static Dimm decodeDimm(String json) {
+        Dimm dimm = gson.fromJson(json, Dimm.class);
+        dimm.ib_dimm = gson.fromJson(dimm.rawIbDimm, IbDimmPojo.class);
+        dimm.rawIbDimm = null;
+        dimm.locator = dimm.ib_dimm.Locator;
+        return dimm;
+    }
+
+    /**
+     * Decodes a raw FRU host json document (kafka_fru_host index) including its embedded json.
+     */
+    public static FruHost decodeFruHost(String json) {
+        FruHost fruHost = gson.fromJson(json, FruHost.class);
+
+        fruHost.oob_fru = gson.fromJson(fruHost.rawOobFru, OobFruPojo.class);
+        fruHost.rawOobFru = null;
+        fruHost.oob_rev_info = gson.fromJson(fruHost.rawOobRevInfo, OobRevInfoPojo.class);
+        fruHost.rawOobRevInfo = null;
+
+        fruHost.ib_bios = gson.fromJson(fruHost.rawIbBios, IbBiosPojo.class);
+        fruHost.rawIbBios = null;
+
+        fruHost.boardSerial = fruHost.oob_fru.Board_Serial;
+        return fruHost;
+    }
 }
@@ -5,10 +5,10 @@
 
 package com.intel.dai.inventory.api.es;
 
-import com.google.gson.Gson;
 import com.intel.dai.dsapi.DataStoreFactory;
 import com.intel.dai.dsapi.HWInvDbApi;
-import com.intel.dai.dsapi.pojo.*;
+import com.intel.dai.dsapi.pojo.Dimm;
+import com.intel.dai.dsapi.pojo.FruHost;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.dai.inventory.api.database.RawInventoryDataIngester;
 import com.intel.logging.Logger;
@@ -22,32 +22,54 @@ import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.Scroll;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
 import org.elasticsearch.search.sort.SortOrder;
 
 import java.io.IOException;
-import java.util.function.Consumer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Scrolls an Elasticsearch raw inventory index (kafka_dimm or kafka_fru_host) into voltdb.  The index can be
+ * scrolled as several slices in parallel.  Each page of hits is decoded on the decoding pool and the decoded
+ * documents are handed to the writers by key (DIMM serial or FRU host mac), each writer is one thread writing its
+ * documents in the order it got them, so the documents of one key are never written concurrently.  The decoding pool
+ * and the writers have bounded queues, a full queue blocks the submitting thread so memory stays bounded.  The slices
+ * and decoders do not keep the scroll order across pages, so a document is only written if it is newer than the
+ * stored one (see HWInvDbApi.ingest).
+ */
 public class ElasticsearchIndexIngester {
-    private final static Gson gson = new Gson();
     private final Logger log_;
     private final String index;   // Elasticsearch index being ingested into voltdb
     private final Scroll scroll;  // defines scroll characteristics, such as minutes to keep scroll control structure alive
     private final RestHighLevelClient esClient;
-    private final Consumer<ImmutablePair<String, String>> ingestMethodReference;
+    private final Decoder decoder;
     protected HWInvDbApi onlineInventoryDatabaseClient_;                // voltdb
-    private SearchRequest searchRequest;
-    private SearchResponse searchResponse;
-    private SearchHit[] searchHits;
-    private String scrollId;    // think of this as a cursor marking the lower edge of iterated json documents
-    private long totalNumberOfDocumentsEnumerated = 0;
-    private long totalNumberOfDocumentsIngested = 0;
     private final long startEpochSecond;
+    private final int numberOfSlices;
+    private final int pageSize;
+    private final int numberOfDecodingThreads;
+    private final int numberOfWritingThreads;
+
+    private final AtomicLong totalNumberOfDocumentsEnumerated = new AtomicLong(0);
+    private final AtomicLong totalNumberOfDocumentsIngested = new AtomicLong(0);
+    private final AtomicLong totalNumberOfDocumentsFailed = new AtomicLong(0);
+    private final AtomicLong totalNumberOfDocumentsStale = new AtomicLong(0);
+    private final AtomicLong nextProgressReport = new AtomicLong(PROGRESS_REPORT_INTERVAL);
+    private long startNanos;
 
     public ImmutablePair<Long, String> getCharacteristicsOfLastDocIngested() {
-        log_.debug("Last ingested index: %s", LastIdIngested);
-        return new ImmutablePair<>(lastDocTimestampIngested, lastKeyIngested);
+        synchronized (lastIngestedLock) {
+            log_.debug("Last ingested index: %s", LastIdIngested);
+            return new ImmutablePair<>(lastDocTimestampIngested, lastKeyIngested);
+        }
     }
 
+    // Characteristics of the document whose write completed last (what the data mover moves last).
+    private final Object lastIngestedLock = new Object();
     private String LastIdIngested = null;
     private String lastKeyIngested = null;
     private long lastDocTimestampIngested = 0;
@@ -55,20 +77,38 @@ public class ElasticsearchIndexIngester {
     public ElasticsearchIndexIngester(RestHighLevelClient elasticsearchHighLevelClient, String elasticsearchIndex,
                                       long startEpochSec,
                                       DataStoreFactory factory, Logger log) {
+        this(elasticsearchHighLevelClient, elasticsearchIndex, startEpochSec, factory, log, 1, DEFAULT_PAGE_SIZE,
+                1, 1);
+    }
+
+    /**
+     * @param numSlices number of scroll slices scrolled in parallel (1 is a plain scroll)
+     * @param resultSetSize number of hits per scroll page (per slice)
+     * @param numDecodingThreads number of threads decoding the json documents
+     * @param numWritingThreads number of threads writing the decoded documents into voltdb, each one writes the
+     *                          documents of its share of the keys
+     */
+    public ElasticsearchIndexIngester(RestHighLevelClient elasticsearchHighLevelClient, String elasticsearchIndex,
+                                      long startEpochSec, DataStoreFactory factory, Logger log, int numSlices,
+                                      int resultSetSize, int numDecodingThreads, int numWritingThreads) {
         log_ = log;
         index = elasticsearchIndex;
         startEpochSecond = startEpochSec;
         esClient = elasticsearchHighLevelClient;
         scroll = getScroll();
+        numberOfSlices = Math.max(1, numSlices);
+        pageSize = Math.max(1, resultSetSize);
+        numberOfDecodingThreads = Math.max(1, numDecodingThreads);
+        numberOfWritingThreads = Math.max(1, numWritingThreads);
         switch (index) {
             case "kafka_dimm":
-                ingestMethodReference = RawInventoryDataIngester::ingestDimm;
+                decoder = ElasticsearchIndexIngester::decodeDimm;
                 break;
             case "kafka_fru_host":
-                ingestMethodReference = RawInventoryDataIngester::ingestFruHost;
+                decoder = ElasticsearchIndexIngester::decodeFruHost;
                 break;
             default:
-                ingestMethodReference = null;
+                decoder = null;
         }
 
         onlineInventoryDatabaseClient_ = factory.createHWInvApi();
@@ -76,110 +116,214 @@ public class ElasticsearchIndexIngester {
     }
 
     public boolean ingestIndexIntoVoltdb() throws DataStoreException {
+        if (decoder == null) {
+            log_.error("Unsupported index: %s", index);
+            throw new DataStoreException("Unsupported index: " + index);
+        }
 
-        log_.info("Starting getChronologicalSearchRequest %s ...", index);
+        log_.info("Starting getChronologicalSearchRequest %s (%d slices of %d hits, %d decoding and %d writing " +
+                "threads) ...", index, numberOfSlices, pageSize, numberOfDecodingThreads, numberOfWritingThreads);
+        startNanos = System.nanoTime();
+        ExecutorService decodingPool = createBoundedPool(numberOfDecodingThreads, index + "-decode");
+        List<ExecutorService> writers = new ArrayList<>(numberOfWritingThreads);
+        for (int writer = 0; writer < numberOfWritingThreads; writer++) {
+            writers.add(createBoundedPool(1, index + "-write-" + writer));
+        }
+        ExecutorService slicePool = (numberOfSlices > 1) ?
+                Executors.newFixedThreadPool(numberOfSlices, namedThreads(index + "-slice")) : null;
         try {
-            getChronologicalSearchRequest();
-            getFirstScrollSearchResponse();
-
-            while (isAnyHitInScrollSearchResponse()) {
-                ingestScrollSearchResponseIntoVoltdb();
-                getNextScrollWindow();
+            boolean cleared = true;
+            if (slicePool == null) {
+                cleared = scrollSlice(null, decodingPool, writers);
+            } else {
+                List<Future<Boolean>> slices = new ArrayList<>();
+                for (int slice = 0; slice < numberOfSlices; slice++) {
+                    SliceBuilder sliceBuilder = new SliceBuilder(slice, numberOfSlices);
+                    slices.add(slicePool.submit(() -> scrollSlice(sliceBuilder, decodingPool, writers)));
+                }
+                for (Future<Boolean> slice : slices) {
+                    cleared &= slice.get();
+                }
+            }
+            awaitTermination(decodingPool);   // all of the pages are decoded and handed to the writers
+            for (ExecutorService writer : writers) {
+                awaitTermination(writer);
             }
 
             log_.info("Finished getChronologicalSearchRequest %s", index);
-            return clearScroll();
-        } catch (IOException e) {
-            log_.error("IOException: %s", e.getMessage());
-            throw new DataStoreException(e.getMessage());
-        } catch (ElasticsearchStatusException e) {
-            log_.error("ElasticsearchStatusException: %s", e.getMessage());
+            reportProgress("ingested");
+            return cleared;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DataStoreException) {
+                throw (DataStoreException) cause;
+            }
+            throw toDataStoreException(cause);
+        } catch (IOException | ElasticsearchStatusException e) {
+            throw toDataStoreException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log_.error("Interrupted while ingesting %s", index);
             throw new DataStoreException(e.getMessage());
+        } finally {
+            if (slicePool != null) {
+                slicePool.shutdownNow();
+            }
+            decodingPool.shutdownNow();
+            for (ExecutorService writer : writers) {
+                writer.shutdownNow();
+            }
         }
     }
 
-//    private void ingestFruHost(ImmutablePair<String, String> doc) {
-//        String id = doc.left;
-//        FruHost fruHost = gson.fromJson(doc.right, FruHost.class);
-//
-//        fruHost.oob_fru = gson.fromJson(fruHost.rawOobFru, OobFruPojo.class);
-//        fruHost.rawOobFru = null;
-//        fruHost.oob_rev_info = gson.fromJson(fruHost.rawOobRevInfo, OobRevInfoPojo.class);
-//        fruHost.rawOobRevInfo = null;
-//
-//        fruHost.ib_bios = gson.fromJson(fruHost.rawIbBios, IbBiosPojo.class);
-//        fruHost.rawIbBios = null;
-//
-//        fruHost.boardSerial = fruHost.oob_fru.Board_Serial;
-//
-//        try {
-//            totalNumberOfDocumentsIngested += onlineInventoryDatabaseClient_.ingest(id, fruHost);
-//            LastIdIngested = doc.left;
-//            lastKeyIngested = fruHost.mac;
-//            lastDocTimestampIngested = fruHost.timestamp;
-//            log_.debug("ES ingested %s: %d, %s", doc.left, fruHost.timestamp, fruHost.mac);
-//        } catch (DataStoreException e) {
-//            log_.error("DataStoreException: %s", e.getMessage());
-//        }
-//    }
-//
-//    private void ingestDimm(ImmutablePair<String, String> doc) {
-//        String id = doc.left;
-//        Dimm dimm = gson.fromJson(doc.right, Dimm.class);
-//        dimm.ib_dimm = gson.fromJson(dimm.rawIbDimm, IbDimmPojo.class);
-//        dimm.rawIbDimm = null;
-//        dimm.locator = dimm.ib_dimm.Locator;
-//
-//        try {
-//            totalNumberOfDocumentsIngested += onlineInventoryDatabaseClient_.ingest(id, dimm);
-//            LastIdIngested = doc.left;
-//            lastKeyIngested = dimm.serial;
-//            lastDocTimestampIngested = dimm.timestamp;
-//            log_.debug("ES ingested %s: %d, %s", doc.left, dimm.timestamp, dimm.serial);
-//        } catch (DataStoreException e) {
-//            log_.error("DataStoreException: %s", e.getMessage());
-//        }
-//    }
-
     public long getNumberOfDocumentsEnumerated() {
-        return totalNumberOfDocumentsEnumerated;
+        return totalNumberOfDocumentsEnumerated.get();
     }
 
     public long getTotalNumberOfDocumentsIngested() {
-        return totalNumberOfDocumentsIngested;
+        return totalNumberOfDocumentsIngested.get();
     }
 
-    private Scroll getScroll() {
-        long numberOfMinutesToKeepScrollAlive = 1L;
-        return new Scroll(TimeValue.timeValueMinutes(numberOfMinutesToKeepScrollAlive));
+    /**
+     * @return number of documents that could not be decoded or written into voltdb
+     */
+    public long getNumberOfDocumentsFailed() {
+        return totalNumberOfDocumentsFailed.get();
     }
 
-    private boolean clearScroll() throws IOException {
+    /**
+     * @return number of documents not written because the stored document of the same key is newer
+     */
+    public long getNumberOfDocumentsStale() {
+        return totalNumberOfDocumentsStale.get();
+    }
+
+    /**
+     * @return number of documents enumerated but not (yet) ingested, stale or failed
+     */
+    public long getNumberOfDocumentsPending() {
+        return totalNumberOfDocumentsEnumerated.get() - totalNumberOfDocumentsIngested.get() -
+                totalNumberOfDocumentsStale.get() - totalNumberOfDocumentsFailed.get();
+    }
+
+    protected SearchResponse search(SearchRequest request) throws IOException {
+        return esClient.search(request, RequestOptions.DEFAULT);
+    }
+
+    protected SearchResponse scroll(SearchScrollRequest request) throws IOException {
+        return esClient.scroll(request, RequestOptions.DEFAULT);
+    }
+
+    protected boolean clearScroll(String scrollId) throws IOException {
         ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
         clearScrollRequest.addScrollId(scrollId);
         ClearScrollResponse clearScrollResponse = esClient.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
         return clearScrollResponse.isSucceeded();
     }
 
-    private void ingestScrollSearchResponseIntoVoltdb() {
-        for (SearchHit hit : searchHits) {
-            ImmutablePair<String, String> doc = new ImmutablePair<>(hit.getId(), hit.getSourceAsString());
-            totalNumberOfDocumentsEnumerated += 1;
-            ingestMethodReference.accept(doc);
+    private Scroll getScroll() {
+        long numberOfMinutesToKeepScrollAlive = 1L;
+        return new Scroll(TimeValue.timeValueMinutes(numberOfMinutesToKeepScrollAlive));
+    }
+
+    /**
+     * Scrolls one slice (or the whole index when slice is null), handing each page to the decoding pool.
+     * @return whether the scroll was cleared
+     */
+    private boolean scrollSlice(SliceBuilder slice, ExecutorService decodingPool, List<ExecutorService> writers)
+            throws IOException {
+        SearchResponse searchResponse = search(getChronologicalSearchRequest(slice));
+        String scrollId = searchResponse.getScrollId();
+        SearchHit[] searchHits = searchResponse.getHits().getHits();
+        while (searchHits != null && searchHits.length > 0) {
+            SearchHit[] page = searchHits;
+            totalNumberOfDocumentsEnumerated.addAndGet(page.length);
+            decodingPool.execute(() -> decodePage(page, writers));
+            searchResponse = scroll(new SearchScrollRequest(scrollId).scroll(scroll));
+            scrollId = searchResponse.getScrollId();
+            searchHits = searchResponse.getHits().getHits();
+        }
+        return clearScroll(scrollId);
+    }
+
+    // Hands the documents of each key to the same writer, in page order.
+    private void decodePage(SearchHit[] page, List<ExecutorService> writers) {
+        List<List<RawDocument>> documentsByWriter = new ArrayList<>(writers.size());
+        for (int writer = 0; writer < writers.size(); writer++) {
+            documentsByWriter.add(new ArrayList<>());
+        }
+        for (SearchHit hit : page) {
+            try {
+                RawDocument document = decoder.decode(hit.getId(), hit.getSourceAsString());
+                documentsByWriter.get(writerOf(document, writers.size())).add(document);
+            } catch (RuntimeException e) {
+                totalNumberOfDocumentsFailed.incrementAndGet();
+                log_.error("Failed to decode %s document %s: %s", index, hit.getId(), e.getMessage());
+            }
+        }
+        for (int writer = 0; writer < writers.size(); writer++) {
+            List<RawDocument> documents = documentsByWriter.get(writer);
+            if (!documents.isEmpty()) {
+                writers.get(writer).execute(() -> writeDocuments(documents));
+            }
         }
     }
 
-    private boolean isAnyHitInScrollSearchResponse() {
-        return searchHits != null && searchHits.length > 0;
+    private static int writerOf(RawDocument document, int numWriters) {
+        String key = (document.key != null) ? document.key : document.id;
+        return Math.floorMod(key.hashCode(), numWriters);
+    }
+
+    private void writeDocuments(List<RawDocument> documents) {
+        for (RawDocument document : documents) {
+            try {
+                if (document.writer.write(onlineInventoryDatabaseClient_) != 1) {
+                    totalNumberOfDocumentsStale.incrementAndGet();
+                    log_.debug("Did not ingest %s document %s, the stored document of %s is newer", index,
+                            document.id, document.key);
+                    continue;
+                }
+                synchronized (lastIngestedLock) {
+                    LastIdIngested = document.id;
+                    lastKeyIngested = document.key;
+                    lastDocTimestampIngested = document.timestamp;
+                }
+                totalNumberOfDocumentsIngested.incrementAndGet();
+                log_.debug("ES ingested %s: %d, %s", document.id, document.timestamp, document.key);
+            } catch (DataStoreException e) {
+                totalNumberOfDocumentsFailed.incrementAndGet();
+                log_.error("DataStoreException: %s", e.getMessage());
+            }
+        }
+        long enumerated = totalNumberOfDocumentsEnumerated.get();
+        long next = nextProgressReport.get();
+        if (enumerated >= next && nextProgressReport.compareAndSet(next, next + PROGRESS_REPORT_INTERVAL)) {
+            reportProgress("progress");
+        }
+    }
+
+    // Throughput since the start and lag: documents still pending and the age of the last ingested document.
+    private void reportProgress(String what) {
+        long elapsedMs = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        long ingested = totalNumberOfDocumentsIngested.get();
+        long lastTimestamp;
+        synchronized (lastIngestedLock) {
+            lastTimestamp = lastDocTimestampIngested;
+        }
+        long lagSeconds = (lastTimestamp == 0) ? 0 : Instant.now().getEpochSecond() - lastTimestamp;
+        log_.info("%s %s: %d enumerated, %d ingested, %d stale, %d failed, %d pending in %d ms " +
+                        "(%.1f documents/s), last ingested document is %d s old", index, what,
+                totalNumberOfDocumentsEnumerated.get(), ingested, totalNumberOfDocumentsStale.get(),
+                totalNumberOfDocumentsFailed.get(), getNumberOfDocumentsPending(), elapsedMs,
+                ingested * 1000.0 / elapsedMs, lagSeconds);
     }
 
     /**
      * The search request corresponds to the search DSL json.  It is useful to think of this method as
      * construct this query json.
      */
-    private void getChronologicalSearchRequest() {
+    private SearchRequest getChronologicalSearchRequest(SliceBuilder slice) {
         SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
-        int resultSetSize = 100;
         String primarySortOrder = "timestamp";
         String secondarySortOrder = "id";
         searchSourceBuilder.query(QueryBuilders.
@@ -187,23 +331,89 @@ public class ElasticsearchIndexIngester {
                 sort(primarySortOrder, SortOrder.ASC).
                 sort(secondarySortOrder, SortOrder.ASC).
                 postFilter(QueryBuilders.rangeQuery("timestamp").from(startEpochSecond).to(9999999999L)).  // Saturday, November 20, 2286 17:46:39
-                size(resultSetSize);
-        searchRequest = new SearchRequest(index).source(searchSourceBuilder).scroll(scroll);
+                size(pageSize);
+        if (slice != null) {
+            searchSourceBuilder.slice(slice);
+        }
+        return new SearchRequest(index).source(searchSourceBuilder).scroll(scroll);
     }
 
-    private void getFirstScrollSearchResponse() throws IOException {
-        searchResponse = esClient.search(searchRequest, RequestOptions.DEFAULT);
-        updateScrollWindow();
+    private DataStoreException toDataStoreException(Throwable e) {
+        log_.error("%s: %s", e.getClass().getSimpleName(), e.getMessage());
+        return new DataStoreException(e.getMessage());
     }
 
-    private void updateScrollWindow() {
-        scrollId = searchResponse.getScrollId();
-        searchHits = searchResponse.getHits().getHits();
+    private static void awaitTermination(ExecutorService pool) throws InterruptedException {
+        pool.shutdown();
+        while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+            Thread.onSpinWait();
+        }
     }
 
-    private void getNextScrollWindow() throws IOException {
-        SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId).scroll(scroll);
-        searchResponse = esClient.scroll(scrollRequest, RequestOptions.DEFAULT);
-        updateScrollWindow();
+    // A full queue blocks the submitting thread, which slows down the scroll (or the decoding).  The work is never
+    // run on the submitting thread, that would reorder the work of a single threaded writer.
+    private static ExecutorService createBoundedPool(int numThreads, String name) {
+        return new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(numThreads * QUEUED_PAGES_PER_THREAD), namedThreads(name),
+                ElasticsearchIndexIngester::putWhenFull);
     }
+
+    private static void putWhenFull(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("The " + pool + " pool is shut down");
+        }
+        try {
+            pool.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String name) {
+        AtomicLong count = new AtomicLong(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static RawDocument decodeDimm(String id, String json) {
+        Dimm dimm = RawInventoryDataIngester.decodeDimm(json);
+        return new RawDocument(id, dimm.timestamp, dimm.serial, api -> api.ingest(id, dimm));
+    }
+
+    private static RawDocument decodeFruHost(String id, String json) {
+        FruHost fruHost = RawInventoryDataIngester.decodeFruHost(json);
+        return new RawDocument(id, fruHost.timestamp, fruHost.mac, api -> api.ingest(id, fruHost));
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        RawDocument decode(String id, String json);
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        int write(HWInvDbApi api) throws DataStoreException;
+    }
+
+    private static final class RawDocument {
+        RawDocument(String id, long timestamp, String key, Writer writer) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.key = key;
+            this.writer = writer;
+        }
+
+        final String id;
+        final long timestamp;
+        final String key;
+        final Writer writer;
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int QUEUED_PAGES_PER_THREAD = 4;
+    private static final long PROGRESS_REPORT_INTERVAL = 10_000;
 }
@@ -4,6 +4,7 @@
 //
 package com.intel.dai.inventory
 
+import com.intel.dai.DataMoverHighWaterMarks
 import com.intel.dai.dsapi.DataStoreFactory
 import com.intel.dai.dsapi.HWInvDbApi
 import com.intel.dai.dsapi.HWInvHistoryEvent
@@ -12,8 +13,11 @@ import com.intel.dai.dsapi.InventorySnapshot
 import com.intel.dai.dsimpl.voltdb.HWInvUtilImpl
 import com.intel.dai.network_listener.NetworkListenerConfig
 import com.intel.logging.Logger
+import org.apache.commons.lang3.tuple.ImmutablePair
 import spock.lang.Specification
 
+import java.util.concurrent.CompletableFuture
+
 class DatabaseSynchronizerSpec extends Specification {
     def ts = new DatabaseSynchronizer(Mock(Logger),
 //            Mock(DataStoreFactory),
@@ -127,6 +131,82 @@ class DatabaseSynchronizerSpec extends Specification {
         ts.ingestRawInventorySnapshot("", []) == 0
     }
 
+    def "waitForHighWaterMarks -- completes"() {
+        def highWaterMarks = Mock(DataMoverHighWaterMarks)
+        ts.characteristicsOfLastRawDimmIngested = new ImmutablePair<>(1L, 'dimm')
+        ts.characteristicsOfLastRawFruHostIngested = new ImmutablePair<>(2L, 'fruHost')
+        ts.onlineInventoryDatabaseClient_ = Mock(HWInvDbApi)
+        ts.onlineInventoryDatabaseClient_.getLastRawDimmUpdateTimestamp() >> 10L
+        ts.onlineInventoryDatabaseClient_.getLastRawFruHostUpdateTimestamp() >> 20L
+
+        when: def completed = ts.waitForHighWaterMarks(highWaterMarks)
+        then:
+        1 * highWaterMarks.whenMoved(DatabaseSynchronizer.RAW_DIMM_TABLE, 10L) >> CompletableFuture.completedFuture(10L)
+        1 * highWaterMarks.whenMoved(DatabaseSynchronizer.RAW_FRU_HOST_TABLE, 20L) >>
+                CompletableFuture.completedFuture(20L)
+        completed
+    }
+
+    def "waitForHighWaterMarks -- times out"() {
+        def highWaterMarks = Mock(DataMoverHighWaterMarks)
+        ts.dataMoverTimeOutLimit = 10L
+        ts.characteristicsOfLastRawDimmIngested = new ImmutablePair<>(1L, 'dimm')
+        ts.onlineInventoryDatabaseClient_ = Mock(HWInvDbApi)
+        ts.onlineInventoryDatabaseClient_.getLastRawDimmUpdateTimestamp() >> 10L
+        highWaterMarks.whenMoved(*_) >> new CompletableFuture<Long>()
+
+        expect: !ts.waitForHighWaterMarks(highWaterMarks)
+    }
+
+    def "waitForHighWaterMarks -- nothing to wait for"() {
+        def highWaterMarks = Mock(DataMoverHighWaterMarks)
+        ts.characteristicsOfLastRawDimmIngested = lastRawDimm
+        ts.characteristicsOfLastRawFruHostIngested = lastRawFruHost
+        ts.onlineInventoryDatabaseClient_ = Mock(HWInvDbApi)
+        ts.onlineInventoryDatabaseClient_.getLastRawDimmUpdateTimestamp() >> 0L
+        ts.onlineInventoryDatabaseClient_.getLastRawFruHostUpdateTimestamp() >> 0L
+
+        when: def completed = ts.waitForHighWaterMarks(highWaterMarks)
+        then:
+        0 * highWaterMarks.whenMoved(*_)
+        completed
+
+        where:
+        lastRawDimm                         | lastRawFruHost
+        null                                | null
+        ImmutablePair.nullPair()            | ImmutablePair.nullPair()
+        new ImmutablePair<>(1L, 'dimm')     | new ImmutablePair<>(2L, 'fruHost')
+    }
+
+    def "ingestElasticsearchIndicesAndWaitForDataMover -- high-water marks"() {
+        def highWaterMarks = Mock(DataMoverHighWaterMarks)
+        def sync = Spy(DatabaseSynchronizer, constructorArgs: [Mock(Logger), Mock(NetworkListenerConfig)])
+        sync.dataMoverTimeOutLimit = 10L
+        sync.onlineInventoryDatabaseClient_ = Mock(HWInvDbApi)
+        sync.onlineInventoryDatabaseClient_.getLastRawDimmUpdateTimestamp() >> 10L
+        sync.onlineInventoryDatabaseClient_.getLastRawFruHostUpdateTimestamp() >> 20L
+        sync.createDataMoverHighWaterMarks() >> highWaterMarks
+        highWaterMarks.startListening(*_) >> listening
+        highWaterMarks.whenMoved(*_) >> { table, ts -> moved ? CompletableFuture.completedFuture(ts) :
+                new CompletableFuture<Long>() }
+        sync.ingestElasticsearchIndices() >> {
+            sync.characteristicsOfLastRawDimmIngested = new ImmutablePair<>(1L, 'dimm')
+            sync.characteristicsOfLastRawFruHostIngested = new ImmutablePair<>(2L, 'fruHost')
+        }
+
+        when: sync.ingestElasticsearchIndicesAndWaitForDataMover()
+        then:
+        polls * sync.getCharacteristicsOfLastRawDimmIngestedIntoNearLine() >> new ImmutablePair<>(1L, 'dimm')
+        polls * sync.getCharacteristicsOfLastRawFruHostIngestedIntoNearLine() >> new ImmutablePair<>(2L, 'fruHost')
+        1 * highWaterMarks.close()
+
+        where:
+        listening | moved || polls
+        true      | true  || 0
+        true      | false || 1
+        false     | true  || 1
+    }
+
 //    def "updateDaiInventoryTables"() {
 //        ts.util_ = new HWInvUtilImpl(Mock(Logger))
 //        ts.foreignInventoryDatabaseClient_ = Mock(ForeignInventoryClient)
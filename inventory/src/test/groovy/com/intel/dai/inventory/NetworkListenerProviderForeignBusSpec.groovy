@@ -18,17 +18,17 @@ class NetworkListenerProviderForeignBusSpec extends Specification {
     }
 
     def setupSpec() {
-        CommonFunctions.nodeMap_ = new PropertyMap()
-        CommonFunctions.reverseNodeMap_ = new PropertyMap()
-        CommonFunctions.nodeMap_.put("x3000c0s34b4n0", "R0-CB3-CN0")
-        CommonFunctions.nodeMap_.put("x3000c0s34b3n0", "R0-CB2-CN0")
-        CommonFunctions.reverseNodeMap_.put("R0-CB3-CN0", "x3000c0s34b4n0")
-        CommonFunctions.reverseNodeMap_.put("R0-CB2-CN0", "x3000c0s34b3n0")
+        def nodeMap = new PropertyMap()
+        def reverseNodeMap = new PropertyMap()
+        nodeMap.put("x3000c0s34b4n0", "R0-CB3-CN0")
+        nodeMap.put("x3000c0s34b3n0", "R0-CB2-CN0")
+        reverseNodeMap.put("R0-CB3-CN0", "x3000c0s34b4n0")
+        reverseNodeMap.put("R0-CB2-CN0", "x3000c0s34b3n0")
+        CommonFunctions.setConversionMaps(nodeMap, reverseNodeMap, null, null, null)
     }
 
     def cleanupSpec() {
-        CommonFunctions.nodeMap_ = null
-        CommonFunctions.reverseNodeMap_ = null
+        CommonFunctions.clearMaps()
     }
 
     def "initialize"() {
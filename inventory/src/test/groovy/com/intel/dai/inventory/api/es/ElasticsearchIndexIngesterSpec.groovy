@@ -0,0 +1,166 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.inventory.api.es
+
+import com.intel.dai.dsapi.DataStoreFactory
+import com.intel.dai.dsapi.HWInvDbApi
+import com.intel.dai.dsapi.pojo.Dimm
+import com.intel.dai.exceptions.DataStoreException
+import com.intel.logging.Logger
+import org.apache.lucene.search.TotalHits
+import org.elasticsearch.action.search.SearchRequest
+import org.elasticsearch.action.search.SearchResponse
+import org.elasticsearch.action.search.SearchResponseSections
+import org.elasticsearch.action.search.SearchScrollRequest
+import org.elasticsearch.action.search.ShardSearchFailure
+import org.elasticsearch.common.bytes.BytesArray
+import org.elasticsearch.search.SearchHit
+import org.elasticsearch.search.SearchHits
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+
+class ElasticsearchIndexIngesterSpec extends Specification {
+    HWInvDbApi api = Mock(HWInvDbApi)
+    DataStoreFactory factory = Mock(DataStoreFactory)
+    Map<String, Dimm> ingested = new ConcurrentHashMap<>()
+    Map<String, Set<String>> writingThreads = new ConcurrentHashMap<>()
+    Set<String> rejected = []
+    Set<String> stale = []
+
+    def setup() {
+        factory.createHWInvApi() >> api
+        api.ingest(_ as String, _ as Dimm) >> { String id, Dimm dimm ->
+            writingThreads.computeIfAbsent(dimm.serial, { ConcurrentHashMap.newKeySet() }).
+                    add(Thread.currentThread().getName())
+            if (rejected.contains(id)) {
+                throw new DataStoreException("rejected")
+            }
+            if (stale.contains(id)) {
+                return 0
+            }
+            ingested.put(id, dimm)
+            return 1
+        }
+    }
+
+    /**
+     * Serves numPages pages of pageSize raw DIMM documents for each slice.
+     */
+    static class ScrollingIngester extends ElasticsearchIndexIngester {
+        ScrollingIngester(DataStoreFactory factory, Logger log, String index, int numSlices, int numPages, int pageSize) {
+            super(null, index, 0, factory, log, numSlices, pageSize, 2, 2)
+            this.numPages = numPages
+            this.pageSize = pageSize
+        }
+
+        @Override
+        protected SearchResponse search(SearchRequest request) {
+            def slice = request.source().slice()
+            return page(slice == null ? 0 : slice.id, 0)
+        }
+
+        @Override
+        protected SearchResponse scroll(SearchScrollRequest request) {
+            def (slice, pageNumber) = request.scrollId().tokenize('-')*.toInteger()
+            return page(slice, pageNumber + 1)
+        }
+
+        @Override
+        protected boolean clearScroll(String scrollId) {
+            cleared.add(scrollId)
+            return true
+        }
+
+        private SearchResponse page(int slice, int pageNumber) {
+            SearchHit[] hits = (pageNumber < numPages) ?
+                    (0..<pageSize).collect { hit(slice, pageNumber, it) } : []
+            def searchHits = new SearchHits(hits, new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), 1.0f)
+            def sections = new SearchResponseSections(searchHits, null, null, false, null, null, 1)
+            return new SearchResponse(sections, "$slice-$pageNumber", 1, 1, 0, 1L, ShardSearchFailure.EMPTY_ARRAY,
+                    SearchResponse.Clusters.EMPTY)
+        }
+
+        private SearchHit hit(int slice, int pageNumber, int index) {
+            def id = "$slice-$pageNumber-$index"
+            def serial = sharedSerials ? "S$index" : "S$id"
+            def json = (index == badDocument) ? '{"serial": ' :
+                    """{"serial": "$serial", "timestamp": ${pageNumber + 1}, "IB_DIMM": "{\\"Locator\\": \\"A1\\"}"}"""
+            return new SearchHit(0, id, null, [:], [:]).sourceRef(new BytesArray(json))
+        }
+
+        int numPages
+        int pageSize
+        int badDocument = -1
+        boolean sharedSerials = false
+        List<String> cleared = Collections.synchronizedList([])
+    }
+
+    def "ingests every page of a plain scroll"() {
+        def ingester = new ScrollingIngester(factory, Mock(Logger), "kafka_dimm", 1, 3, 4)
+
+        when: def cleared = ingester.ingestIndexIntoVoltdb()
+
+        then:
+        cleared
+        ingester.getNumberOfDocumentsEnumerated() == 12
+        ingester.getTotalNumberOfDocumentsIngested() == 12
+        ingester.getNumberOfDocumentsPending() == 0
+        ingested.size() == 12
+        ingested["0-2-3"].serial == "S0-2-3"
+        ingested["0-2-3"].locator == "A1"
+        ingester.cleared == ["0-3"]
+        ingested[ingester.getCharacteristicsOfLastDocIngested().right.substring(1)] != null
+    }
+
+    def "ingests the slices in parallel"() {
+        def ingester = new ScrollingIngester(factory, Mock(Logger), "kafka_dimm", 3, 5, 10)
+
+        when: ingester.ingestIndexIntoVoltdb()
+
+        then:
+        ingester.getTotalNumberOfDocumentsIngested() == 150
+        ingested.keySet().collect { it.tokenize('-')[0] }.toSet() == ["0", "1", "2"].toSet()
+        ingester.cleared.toSet() == ["0-5", "1-5", "2-5"].toSet()
+        ingester.getCharacteristicsOfLastDocIngested().right != null
+    }
+
+    def "counts documents that cannot be decoded or written"() {
+        def ingester = new ScrollingIngester(factory, Mock(Logger), "kafka_dimm", 1, 2, 5)
+        ingester.badDocument = 1
+        rejected.add("0-0-2")
+        stale.add("0-1-3")
+
+        when: ingester.ingestIndexIntoVoltdb()
+
+        then:
+        ingester.getNumberOfDocumentsEnumerated() == 10
+        ingester.getNumberOfDocumentsFailed() == 3
+        ingester.getNumberOfDocumentsStale() == 1
+        ingester.getTotalNumberOfDocumentsIngested() == 6
+        ingester.getNumberOfDocumentsPending() == 0
+    }
+
+    def "writes the documents of a key on one writer"() {
+        def ingester = new ScrollingIngester(factory, Mock(Logger), "kafka_dimm", 3, 4, 8)
+        ingester.sharedSerials = true
+
+        when: ingester.ingestIndexIntoVoltdb()
+
+        then:
+        ingester.getTotalNumberOfDocumentsIngested() == 96
+        writingThreads.size() == 8
+        writingThreads.values().every { it.size() == 1 }
+        writingThreads.values().collect { it.first() }.toSet().size() == 2
+    }
+
+    def "rejects unsupported indices"() {
+        def ingester = new ScrollingIngester(factory, Mock(Logger), "kafka_unknown", 1, 1, 1)
+
+        when: ingester.ingestIndexIntoVoltdb()
+
+        then: thrown(DataStoreException)
+    }
+}
@@ -6,53 +6,35 @@ package com.intel.dai.monitoring;
 
 import com.intel.dai.network_listener.CommonDataFormat;
 import com.intel.logging.Logger;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.intel.properties.PropertyMap;
+import com.intel.runtime_utils.WindowedAggregator;
 
 class Accumulator {
-    Accumulator(Logger logger) { log_ = logger; }
-    void addValue(CommonDataFormat data) {
-        values_.add(data.getValue());
-        timestamps_.add(data.getNanoSecondTimestamp());
-        if(useTime_ && timeExceeded())
-            doAggregation(data);
-        else if(!useTime_ && values_.size() == count_)
-            doAggregation(data);
+    Accumulator(Logger logger, WindowedAggregator.Settings settings) {
+        log_ = logger;
+        window_ = new WindowedAggregator(settings);
     }
 
-    void doAggregation(CommonDataFormat data) {
-        log_.debug("Generating aggregated data...");
-        double sum = 0.0;
-        double min = Double.MAX_VALUE;
-        double max = -Double.MAX_VALUE;
-        for(double value: values_) {
-            sum += value;
-            max = Double.max(value, max);
-            min = Double.min(value, min);
-        }
-        double avg = sum / (double)values_.size();
-        data.setMinMaxAvg(min, max, avg);
-        if(moving_) { // moving average algorithm with window size = count_;
-            values_.remove(0);
-            timestamps_.remove(0);
-        } else { // window algorithm
-            values_.clear();
-            timestamps_.clear();
+    void addValue(CommonDataFormat data) {
+        if(window_.add(data.getNanoSecondTimestamp(), data.getValue())) {
+            log_.debug("Generating aggregated data...");
+            data.setMinMaxAvg(window_.getMinimum(), window_.getMaximum(), window_.getAverage());
         }
     }
 
-    boolean timeExceeded() {
-        return (timestamps_.get(timestamps_.size()-1) - timestamps_.get(0)) >= ns_;
+    int size() { return window_.size(); }
+
+    // Window settings from a provider configuration, monitoring timestamps are in nanoseconds.
+    static WindowedAggregator.Settings settingsFromConfig(PropertyMap config) {
+        return new WindowedAggregator.Settings(config.getBooleanOrDefault("useTimeWindow", false),
+                config.getIntOrDefault("windowSize", 25),
+                config.getLongOrDefault("timeWindowSeconds", 600) * 1_000_000_000L,
+                config.getBooleanOrDefault("useMovingAverage", false));
     }
 
-    List<Double> values_ = new ArrayList<>();
-    List<Long> timestamps_ = new ArrayList<>();
-    Logger log_;
+    private final WindowedAggregator window_;
+    private final Logger log_;
 
-    static boolean useTime_ = false;    // time window if true; count window if false.
-    static int count_ = 25;             // 25 sample count window.
-    static long ns_ = 600_000_000_000L; // 10 minutes default in nanoseconds.
-    static boolean moving_ = false;     // true will give a moving average with the count_ window;
-                                        // false is a simple window.
+    static final WindowedAggregator.Settings DEFAULT_SETTINGS = new WindowedAggregator.Settings(false, 25,
+            600_000_000_000L, false);
 }
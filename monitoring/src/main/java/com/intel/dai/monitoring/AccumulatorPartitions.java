@@ -0,0 +1,44 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.monitoring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Accumulators keyed by location and telemetry name. Until partitions are set all accumulators live in one concurrent
+ * map and callers lock each accumulator while adding a value. With partitions each partition is a plain map only ever
+ * used by the network listener thread owning it, so no locking is needed.
+ */
+class AccumulatorPartitions<T> {
+    AccumulatorPartitions(Supplier<T> factory) { factory_ = factory; }
+
+    void setPartitionCount(int count) {
+        List<Map<String, T>> partitions = new ArrayList<>(count);
+        for(int i = 0; i < count; i++)
+            partitions.add(new HashMap<>());
+        partitions_ = partitions;
+    }
+
+    boolean isPartitioned() { return partitions_ != null; }
+
+    // Shared accumulator, the caller must synchronize on it.
+    T get(String key) {
+        return shared_.computeIfAbsent(key, (k) -> factory_.get());
+    }
+
+    // Accumulator owned by the partition, must only be called from the thread owning the partition.
+    T get(String key, int partition) {
+        return partitions_.get(partition).computeIfAbsent(key, (k) -> factory_.get());
+    }
+
+    private final Supplier<T> factory_;
+    private final Map<String, T> shared_ = new ConcurrentHashMap<>();
+    private volatile List<Map<String, T>> partitions_ = null;
+}
@@ -7,6 +7,7 @@ package com.intel.dai.monitoring;
 import com.intel.config_io.ConfigIOParseException;
 import com.intel.dai.AdapterInformation;
 import com.intel.dai.dsapi.DataStoreFactory;
+import com.intel.dai.foreign_bus.CommonFunctions;
 import com.intel.dai.network_listener.NetworkListenerConfig;
 import com.intel.dai.network_listener.NetworkListenerCore;
 import com.intel.logging.Logger;
@@ -46,6 +47,7 @@ abstract class AdapterMonitoringNetworkBase {
         NetworkListenerConfig config = new NetworkListenerConfig(adapter_, log_);
         config.loadFromStream(configStream);
         NetworkListenerCore adapterCore = new NetworkListenerCore(log_, config, factory_, benchmarking_);
+        CommonFunctions.setBenchmarker(benchmarking_);
         return execute(adapterCore);
     }
 
@@ -11,9 +11,8 @@ import com.intel.dai.foreign_bus.CommonFunctions;
 import com.intel.dai.foreign_bus.ConversionException;
 import com.intel.dai.network_listener.*;
 import com.intel.logging.Logger;
-import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
-import com.intel.properties.PropertyNotExpectedType;
+import com.intel.runtime_utils.WindowedAggregator;
 
 import java.text.ParseException;
 import java.util.*;
@@ -21,7 +20,7 @@ import java.util.*;
 /**
  * Specific provider for environmental data from foreign bus.
  */
-public class EnvironmentalProviderForeignBus implements NetworkListenerProvider, Initializer {
+public class EnvironmentalProviderForeignBus implements NetworkListenerProviderPartitioned, Initializer {
     public EnvironmentalProviderForeignBus(Logger logger) {
         log_ = logger;
         parser_ = ConfigIOFactory.getInstance("json");
@@ -41,32 +40,25 @@ public class EnvironmentalProviderForeignBus implements NetworkListenerProvider,
         List<CommonDataFormat> results = new ArrayList<>();
         try {
             log_.debug("*** Message: %s", data);
-            PropertyArray items = CommonFunctions.parseForeignTelemetry(data);
-            items.iterator().forEachRemaining((o) -> {
-                PropertyMap item = (PropertyMap)o;
-                if(!item.keySet().containsAll(requiredInMessage_))
+            CommonFunctions.parseForeignTelemetry(data, (item) -> {
+                if(item.getFullName() == null || item.getValue() == null || item.getTimestamp() == null ||
+                        item.getLocation() == null)
                     log_.warn("Not all expected keys were found in one of the payload object!");
                 else {
                     try {
-                        long ts = CommonFunctions.convertISOToLongTimestamp(item.getString("Timestamp"));
-                        String location = CommonFunctions.convertForeignToLocation(item.getString("Location"));
-                        String name = item.getString("__FullName__");
+                        long ts = CommonFunctions.convertISOToLongTimestamp(item.getTimestamp());
+                        String location = CommonFunctions.convertForeignToLocation(item.getLocation());
+                        String name = item.getFullName();
                         CommonDataFormat common = new CommonDataFormat(ts, location, DataType.EnvironmentalData);
                         common.setDescription(name);
-                        common.setValueAndUnits(Double.parseDouble(item.getString("Value")), "", name);
-                        aggregateData(common);
+                        common.setValueAndUnits(Double.parseDouble(item.getValue()), "", name);
                         results.add(common);
-                    } catch(PropertyNotExpectedType e) {
-                        log_.warn("One or more of the expected keys was not the right type or malformed!");
                     } catch(ParseException e) {
-                        log_.warn("The incoming Timestamp was not valid: %s",
-                                item.getStringOrDefault("Timestamp", "<MISSING>"));
+                        log_.warn("The incoming Timestamp was not valid: %s", item.getTimestamp());
                     } catch(NumberFormatException e) {
-                        log_.warn("The incoming Value was not valid: '%s'",
-                                item.getStringOrDefault("Value", "<MISSING>"));
+                        log_.warn("The incoming Value was not valid: '%s'", item.getValue());
                     } catch(ConversionException e) {
-                        log_.warn("The incoming Location was not valid: %s",
-                                item.getStringOrDefault("Location", "<MISSING>"));
+                        log_.warn("The incoming Location was not valid: %s", item.getLocation());
                     }
                 }
             });
@@ -74,6 +66,11 @@ public class EnvironmentalProviderForeignBus implements NetworkListenerProvider,
             log_.warn("Failed to parse telemetry string: '%s'", data);
             throw new NetworkListenerProviderException("Failed to parse incoming data", e);
         }
+        // Aggregate only once the whole message parsed, a parse failure part way through must not leave the
+        // accumulators holding the values of a message that was rejected.
+        if(!accumulators_.isPartitioned())
+            for(CommonDataFormat common: results)
+                aggregateData(common);
         return results;
     }
 
@@ -121,91 +118,50 @@ public class EnvironmentalProviderForeignBus implements NetworkListenerProvider,
         configDone_ = true;
         PropertyMap myConfig = config.getProviderConfigurationFromClassName(getClass().getCanonicalName());
         if(myConfig != null) {
-            Accumulator.useTime_ = myConfig.getBooleanOrDefault("useTimeWindow", false);
-            Accumulator.count_ = myConfig.getIntOrDefault("windowSize", 25);
-            Accumulator.moving_ = myConfig.getBooleanOrDefault("useMovingAverage", false);
-            Accumulator.ns_ = myConfig.getLongOrDefault("timeWindowSeconds", 600) * 1_000_000_000;
+            settings_ = Accumulator.settingsFromConfig(myConfig);
             doAggregation_ = myConfig.getBooleanOrDefault("useAggregation", true);
         }
     }
 
-    private synchronized CommonDataFormat aggregateData(CommonDataFormat raw) {
+    @Override
+    public void setPartitionCount(int partitions) {
+        accumulators_.setPartitionCount(partitions);
+    }
+
+    @Override
+    public void aggregateData(CommonDataFormat data, int partition) {
+        if(doAggregation_ && data.getDataType() == DataType.EnvironmentalData) {
+            log_.debug("Aggregating data in partition %d...", partition);
+            accumulators_.get(accumulatorKey(data), partition).addValue(data);
+        }
+    }
+
+    // Only the accumulator for this location and type is locked, different locations aggregate in parallel.
+    private CommonDataFormat aggregateData(CommonDataFormat raw) {
         if(doAggregation_) {
             log_.debug("Aggregating data...");
-            String key = raw.getLocation() + ":" + raw.getTelemetryDataType();
-            Accumulator accum = accumulators_.getOrDefault(key, null);
-            if (accum == null) {
-                accum = new Accumulator(log_);
-                accumulators_.put(key, accum);
-            }
+            Accumulator accum = accumulators_.get(accumulatorKey(raw));
             //log_.debug("===RAW_DATA_VALUE: %s = %f", key, raw.getValue()); // Leave for debugging for developers.
-            accum.addValue(raw);
+            synchronized (accum) {
+                accum.addValue(raw);
+            }
         }
         return raw;
     }
 
+    private static String accumulatorKey(CommonDataFormat raw) {
+        return raw.getLocation() + ":" + raw.getTelemetryDataType();
+    }
+
     private Logger log_;
     private boolean configured_ = false;
     private boolean publish_ = false;
     private String rawTopic_ = "ucs_raw_data";
     private String aggregatedTopic_ = "ucs_aggregate_data";
     private ConfigIO parser_;
-    private Map<String, Accumulator> accumulators_ = new HashMap<>();
+    private WindowedAggregator.Settings settings_ = Accumulator.DEFAULT_SETTINGS;
+    private final AccumulatorPartitions<Accumulator> accumulators_ =
+            new AccumulatorPartitions<>(() -> new Accumulator(log_, settings_));
             boolean configDone_ = false;
     private boolean doAggregation_ = true;
-    @SuppressWarnings("serial")
-    private static final List<String> requiredInMessage_ = new ArrayList<String>() {{
-        add("__FullName__");
-        add("Value");
-        add("Timestamp");
-        add("Location");
-    }};
-
-    static class Accumulator {
-        Accumulator(Logger logger) { log_ = logger; }
-        void addValue(CommonDataFormat data) {
-            values_.add(data.getValue());
-            log_.debug("Accumulator: value count now %d compared to %d", values_.size(), count_);
-            timestamps_.add(data.getNanoSecondTimestamp());
-            if(useTime_ && timeExceeded())
-                doAggregation(data);
-            else if(!useTime_ && values_.size() == count_)
-                doAggregation(data);
-        }
-
-        void doAggregation(CommonDataFormat data) {
-            log_.debug("Generating aggregated data...");
-            double sum = 0.0;
-            double min = Double.MAX_VALUE;
-            double max = Double.MIN_VALUE;
-            for(double value: values_) {
-                sum += value;
-                max = Double.max(value, max);
-                min = Double.min(value, min);
-            }
-            double avg = sum / (double)values_.size();
-            data.setMinMaxAvg(min, max, avg);
-            if(moving_) { // moving average algorithm with window size = count_;
-                values_.remove(0);
-                timestamps_.remove(0);
-            } else { // window algorithm
-                values_.clear();
-                timestamps_.clear();
-            }
-        }
-
-        boolean timeExceeded() {
-            return (timestamps_.get(timestamps_.size()-1) - timestamps_.get(0)) >= ns_;
-        }
-
-        List<Double> values_ = new ArrayList<>();
-        List<Long> timestamps_ = new ArrayList<>();
-        Logger log_;
-
-        static boolean useTime_ = false; // time window if true; count window if false.
-        static int count_ = 25;          // 25 sample count window.
-        static long ns_ = 600000000;     // 10 minutes default in nanoseconds.
-        static boolean moving_ = false;  // true will give a moving average with the count_ window;
-                                         // false is a simple window.
-    }
 }
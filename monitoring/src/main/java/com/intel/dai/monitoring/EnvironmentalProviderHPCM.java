@@ -14,6 +14,7 @@ import com.intel.dai.network_listener.*;
 import com.intel.logging.Logger;
 import com.intel.properties.PropertyMap;
 import com.intel.properties.PropertyNotExpectedType;
+import com.intel.runtime_utils.WindowedAggregator;
 
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -24,9 +25,11 @@ import java.util.Map;
 /**
  * Specific provider for environmental data from HPCM.
  */
-public class EnvironmentalProviderHPCM implements NetworkListenerProviderEx, Initializer {
+public class EnvironmentalProviderHPCM implements NetworkListenerProviderEx, NetworkListenerProviderPartitioned,
+        Initializer {
     public EnvironmentalProviderHPCM(Logger logger) {
         log_ = logger;
+        accumulators_ = new AccumulatorPartitions<>(() -> new Accumulator(log_, settings_));
         parser_ = ConfigIOFactory.getInstance("json");
         if(parser_ == null) throw new RuntimeException("Failed to create a JSON parser instantiating class " +
                 EnvironmentalProviderHPCM.class.getCanonicalName());
@@ -40,6 +43,19 @@ public class EnvironmentalProviderHPCM implements NetworkListenerProviderEx, Ini
         envelopeProcessor_ = new HPCMEnvelopeProcessing(log_, factory);
     }
 
+    @Override
+    public void setPartitionCount(int partitions) {
+        accumulators_.setPartitionCount(partitions);
+    }
+
+    @Override
+    public void aggregateData(CommonDataFormat data, int partition) {
+        if(doAggregation_ && data.getDataType() == DataType.EnvironmentalData) {
+            log_.debug("Aggregating data in partition %d...", partition);
+            accumulators_.get(TopicBaseProcessor.accumulatorKey(data), partition).addValue(data);
+        }
+    }
+
     ////////////////////////
     // Parse Data Section //
     ////////////////////////
@@ -118,31 +134,29 @@ public class EnvironmentalProviderHPCM implements NetworkListenerProviderEx, Ini
     }
 
     private void setUpConfig(NetworkListenerConfig config) {
-        boolean doAggregation = true;
         if(!configDone_) {
             configDone_ = true;
             PropertyMap myConfig = config.getProviderConfigurationFromClassName(getClass().getCanonicalName());
             if (myConfig != null) {
-                Accumulator.useTime_ = myConfig.getBooleanOrDefault("useTimeWindow", false);
-                Accumulator.count_ = myConfig.getIntOrDefault("windowSize", 25);
-                Accumulator.moving_ = myConfig.getBooleanOrDefault("useMovingAverage", false);
-                Accumulator.ns_ = myConfig.getLongOrDefault("timeWindowSeconds", 600) * 1_000_000_000L;
-                doAggregation = myConfig.getBooleanOrDefault("useAggregation", true);
+                settings_ = Accumulator.settingsFromConfig(myConfig);
+                doAggregation_ = myConfig.getBooleanOrDefault("useAggregation", true);
                 publish_ = myConfig.getBooleanOrDefault("publish", publish_);
                 rawTopic_ = myConfig.getStringOrDefault("publishRawTopic", rawTopic_);
                 aggregatedTopic_ = myConfig.getStringOrDefault("publishAggregatedTopic", aggregatedTopic_);
             }
 
             // Setup supported topic JSON handler instances.
-            processorMap_.put("metric_network_fabric", new TopicMetricNetworkFabric(log_, doAggregation));
-            processorMap_.put("metric_network_fabricport", new TopicMetricNetworkFabricPort(log_, doAggregation));
-            processorMap_.put("pdu_energy", new TopicMetricPduEnergy(log_, doAggregation));
-            processorMap_.put("pdu_power", new TopicMetricPduPower(log_, doAggregation));
-            processorMap_.put("sensors_node", new TopicMetricSensorNode(log_, doAggregation));
-            processorMap_.put("metric_cooldev", new TopicMetricCoolDev(log_, doAggregation));
-            processorMap_.put("pcm-monitoring", new TopicMetricPcmMonitoring(log_, doAggregation));
-            processorMap_.put("slingshot_CrayFabricPerfTelemetry", new TopicMetricFabricPerfTelemetry(log_, doAggregation));
-            processorMap_.put("slingshot_CrayFabricCritTelemetry", new TopicMetricFabricCritTelemetry(log_, doAggregation));
+            processorMap_.put("metric_network_fabric", new TopicMetricNetworkFabric(log_, doAggregation_));
+            processorMap_.put("metric_network_fabricport", new TopicMetricNetworkFabricPort(log_, doAggregation_));
+            processorMap_.put("pdu_energy", new TopicMetricPduEnergy(log_, doAggregation_));
+            processorMap_.put("pdu_power", new TopicMetricPduPower(log_, doAggregation_));
+            processorMap_.put("sensors_node", new TopicMetricSensorNode(log_, doAggregation_));
+            processorMap_.put("metric_cooldev", new TopicMetricCoolDev(log_, doAggregation_));
+            processorMap_.put("pcm-monitoring", new TopicMetricPcmMonitoring(log_, doAggregation_));
+            processorMap_.put("slingshot_CrayFabricPerfTelemetry", new TopicMetricFabricPerfTelemetry(log_, doAggregation_));
+            processorMap_.put("slingshot_CrayFabricCritTelemetry", new TopicMetricFabricCritTelemetry(log_, doAggregation_));
+            for(TopicBaseProcessor processor: processorMap_.values())
+                processor.setAccumulators(accumulators_);
         }
     }
 
@@ -153,5 +167,8 @@ public class EnvironmentalProviderHPCM implements NetworkListenerProviderEx, Ini
     private String aggregatedTopic_ = "ucs_aggregate_data";
     private final ConfigIO parser_;
     private boolean configDone_ = false;
+    private boolean doAggregation_ = true;
+    private WindowedAggregator.Settings settings_ = Accumulator.DEFAULT_SETTINGS;
+    private final AccumulatorPartitions<Accumulator> accumulators_;
     private HPCMEnvelopeProcessing envelopeProcessor_ = null;
 }
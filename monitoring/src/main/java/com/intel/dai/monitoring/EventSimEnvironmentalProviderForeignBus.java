@@ -13,6 +13,7 @@ import com.intel.dai.network_listener.*;
 import com.intel.logging.Logger;
 import com.intel.properties.PropertyMap;
 import com.intel.properties.PropertyNotExpectedType;
+import com.intel.runtime_utils.WindowedAggregator;
 
 import java.io.InputStream;
 import java.text.ParseException;
@@ -120,10 +121,7 @@ public class EventSimEnvironmentalProviderForeignBus implements NetworkListenerP
         configDone_ = true;
         PropertyMap myConfig = config.getProviderConfigurationFromClassName(getClass().getCanonicalName());
         if(myConfig != null) {
-            Accumulator.useTime_ = myConfig.getBooleanOrDefault("useTimeWindow", false);
-            Accumulator.count_ = myConfig.getIntOrDefault("windowSize", 25);
-            Accumulator.moving_ = myConfig.getBooleanOrDefault("useMovingAverage", false);
-            Accumulator.ns_ = myConfig.getLongOrDefault("timeWindowSeconds", 600) * 1000000;
+            settings_ = Accumulator.settingsFromConfig(myConfig);
             doAggregation_ = myConfig.getBooleanOrDefault("useAggregation", true);
         }
     }
@@ -134,7 +132,7 @@ public class EventSimEnvironmentalProviderForeignBus implements NetworkListenerP
             String key = raw.getLocation() + ":" + raw.getTelemetryDataType();
             Accumulator accum = accumulators_.getOrDefault(key, null);
             if (accum == null) {
-                accum = new Accumulator(log_);
+                accum = new Accumulator(log_, settings_);
                 accumulators_.put(key, accum);
             }
             accum.addValue(raw);
@@ -169,53 +167,6 @@ public class EventSimEnvironmentalProviderForeignBus implements NetworkListenerP
     private Map<String, Accumulator> accumulators_ = new HashMap<>();
             boolean configDone_ = false;
     private boolean doAggregation_ = true;
+    private WindowedAggregator.Settings settings_ = Accumulator.DEFAULT_SETTINGS;
     private static final String[] requiredInMessage_ = new String[] {"sensor", "value", "timestamp", "location"};
-
-    static class Accumulator {
-        Accumulator(Logger logger) { log_ = logger; }
-        void addValue(CommonDataFormat data) {
-            values_.add(data.getValue());
-            log_.debug("Accumulator: value count now %d compared to %d", values_.size(), count_);
-            timestamps_.add(data.getNanoSecondTimestamp());
-            if(useTime_ && timeExceeded())
-                doAggregation(data);
-            else if(!useTime_ && values_.size() == count_)
-                doAggregation(data);
-        }
-
-        void doAggregation(CommonDataFormat data) {
-            log_.debug("Generating aggregated data...");
-            double sum = 0.0;
-            double min = Double.MAX_VALUE;
-            double max = -Double.MAX_VALUE;
-            for(double value: values_) {
-                sum += value;
-                max = Double.max(value, max);
-                min = Double.min(value, min);
-            }
-            double avg = sum / (double)values_.size();
-            data.setMinMaxAvg(min, max, avg);
-            if(moving_) { // moving average algorithm with window size = count_;
-                values_.remove(0);
-                timestamps_.remove(0);
-            } else { // window algorithm
-                values_.clear();
-                timestamps_.clear();
-            }
-        }
-
-        boolean timeExceeded() {
-            return (timestamps_.get(timestamps_.size()-1) - timestamps_.get(0)) >= ns_;
-        }
-
-        List<Double> values_ = new ArrayList<>();
-        List<Long> timestamps_ = new ArrayList<>();
-        Logger log_;
-
-        static boolean useTime_ = false; // time window if true; count window if false.
-        static int count_ = 25;          // 25 sample count window.
-        static long ns_ = 600000000;     // 10 minutes default in nanoseconds.
-        static boolean moving_ = false;  // true will give a moving average with the count_ window;
-                                         // false is a simple window.
-    }
 }
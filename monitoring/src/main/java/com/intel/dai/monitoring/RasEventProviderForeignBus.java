@@ -11,9 +11,7 @@ import com.intel.dai.foreign_bus.CommonFunctions;
 import com.intel.dai.foreign_bus.ConversionException;
 import com.intel.dai.network_listener.*;
 import com.intel.logging.Logger;
-import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
-import com.intel.properties.PropertyNotExpectedType;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -51,30 +49,25 @@ public class RasEventProviderForeignBus implements NetworkListenerProvider, Init
         List<CommonDataFormat> results = new ArrayList<>();
         try {
             log_.debug("*** Message: %s", data);
-            PropertyArray items = CommonFunctions.parseForeignTelemetry(data);
-            items.iterator().forEachRemaining((o) -> {
-                PropertyMap item = (PropertyMap)o;
-                if(!item.keySet().containsAll(requiredInMessage_))
+            CommonFunctions.parseForeignTelemetry(data, (item) -> {
+                if(item.getFullName() == null || item.getValue() == null || item.getTimestamp() == null ||
+                        item.getLocation() == null)
                     log_.warn("Not all expected keys were found in one of the payload object!");
                 else {
                     try {
-                        long ts = CommonFunctions.convertISOToLongTimestamp(item.getString("Timestamp"));
-                        String location = CommonFunctions.convertForeignToLocation(item.getString("Location"));
-                        String name = item.getString("__FullName__");
-                        String value = item.getStringOrDefault("Value", "<EMPTY>");
+                        long ts = CommonFunctions.convertISOToLongTimestamp(item.getTimestamp());
+                        String location = CommonFunctions.convertForeignToLocation(item.getLocation());
+                        String name = item.getFullName();
+                        String value = item.getValue();
                         String event = lookupForeignEvent(name);
                         CommonDataFormat common = new CommonDataFormat(ts, location, DataType.RasEvent);
                         common.setDescription(name);
                         common.setRasEvent(event, name + " ==>> " + value);
                         results.add(common);
-                    } catch(PropertyNotExpectedType e) {
-                        log_.warn("One or more of the expected keys was not the right type or malformed!");
                     } catch(ParseException e) {
-                        log_.warn("The incoming Timestamp was not valid: %s",
-                                item.getStringOrDefault("Timestamp", "<MISSING>"));
+                        log_.warn("The incoming Timestamp was not valid: %s", item.getTimestamp());
                     } catch(ConversionException e) {
-                        log_.warn("The incoming Location was not valid: %s",
-                                item.getStringOrDefault("Location", "<MISSING>"));
+                        log_.warn("The incoming Location was not valid: %s", item.getLocation());
                     }
                 }
             });
@@ -120,11 +113,4 @@ public class RasEventProviderForeignBus implements NetworkListenerProvider, Init
     private boolean useBenchmarking_;
     private ConfigIO parser_;
     private PropertyMap eventMetaData_;
-    @SuppressWarnings("serial")
-    private static final List<String> requiredInMessage_ = new ArrayList<String>() {{
-        add("__FullName__");
-        add("Value");
-        add("Timestamp");
-        add("Location");
-    }};
 }
@@ -9,14 +9,13 @@ import com.intel.dai.network_listener.DataType;
 import com.intel.logging.Logger;
 import com.intel.properties.PropertyMap;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 abstract class TopicBaseProcessor {
     TopicBaseProcessor(Logger log, boolean doAggregation) {
         log_ = log;
         doAggregation_ = doAggregation;
+        accumulators_ = new AccumulatorPartitions<>(() -> new Accumulator(log_, Accumulator.DEFAULT_SETTINGS));
     }
 
     abstract void processTopic(EnvelopeData data, PropertyMap map, List<CommonDataFormat> results);
@@ -26,7 +25,7 @@ abstract class TopicBaseProcessor {
         CommonDataFormat common = new CommonDataFormat(nsTimestamp, location, DataType.EnvironmentalData);
         common.setValueAndUnits(value, units, type);
         common.setDescription(name);
-        results.add(aggregateData(common));
+        results.add(accumulators_.isPartitioned() ? common : aggregateData(common));
     }
 
     void addToResults(String topic, String rasEventName, String payload, String location, long nsTimestamp,
@@ -51,25 +50,32 @@ abstract class TopicBaseProcessor {
         }
     }
 
-    private synchronized CommonDataFormat aggregateData(CommonDataFormat raw) {
+    // Use accumulators shared with the other topic processors of a provider (needed for partitioned aggregation).
+    void setAccumulators(AccumulatorPartitions<Accumulator> accumulators) {
+        accumulators_ = accumulators;
+    }
+
+    // Only the accumulator for this location and name is locked, different keys aggregate in parallel.
+    private CommonDataFormat aggregateData(CommonDataFormat raw) {
         if(doAggregation_) {
             log_.debug("Aggregating data...");
-            String type = raw.getTelemetryDataType();
-            String name = raw.getDescription();
-            if(type != null && !type.trim().isEmpty())
-                name = name + " (" + type + ")";
-            String key = raw.getLocation() + ":" + name;
-            Accumulator accum = accumulators_.getOrDefault(key, null);
-            if (accum == null) {
-                accum = new Accumulator(log_);
-                accumulators_.put(key, accum);
+            Accumulator accum = accumulators_.get(accumulatorKey(raw));
+            synchronized (accum) {
+                accum.addValue(raw);
             }
-            accum.addValue(raw);
         }
         return raw;
     }
 
+    static String accumulatorKey(CommonDataFormat raw) {
+        String type = raw.getTelemetryDataType();
+        String name = raw.getDescription();
+        if(type != null && !type.trim().isEmpty())
+            name = name + " (" + type + ")";
+        return raw.getLocation() + ":" + name;
+    }
+
     protected final Logger log_;
-    private final Map<String, Accumulator> accumulators_ = new HashMap<>();
+    private AccumulatorPartitions<Accumulator> accumulators_;
     private final boolean doAggregation_;
 }
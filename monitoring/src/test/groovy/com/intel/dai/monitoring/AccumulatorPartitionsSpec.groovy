@@ -0,0 +1,31 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.monitoring
+
+import com.intel.logging.Logger
+import spock.lang.Specification
+
+class AccumulatorPartitionsSpec extends Specification {
+    def underTest_
+
+    void setup() {
+        underTest_ = new AccumulatorPartitions<Accumulator>({ new Accumulator(Mock(Logger), Accumulator.DEFAULT_SETTINGS) })
+    }
+
+    def "Test shared accumulators"() {
+        def first = underTest_.get("location:name")
+        expect: !underTest_.isPartitioned()
+        and:    underTest_.get("location:name").is(first)
+        and:    !underTest_.get("location:other").is(first)
+    }
+
+    def "Test partitioned accumulators"() {
+        underTest_.setPartitionCount(2)
+        def first = underTest_.get("location:name", 0)
+        expect: underTest_.isPartitioned()
+        and:    underTest_.get("location:name", 0).is(first)
+        and:    !underTest_.get("location:name", 1).is(first)
+    }
+}
@@ -4,6 +4,7 @@
 //
 package com.intel.dai.monitoring
 
+import com.intel.dai.foreign_bus.CommonFunctions
 import com.intel.dai.network_listener.CommonDataFormat
 import com.intel.dai.network_listener.DataType
 import com.intel.dai.network_listener.NetworkListenerConfig
@@ -11,6 +12,7 @@ import com.intel.dai.network_listener.NetworkListenerProviderException
 import com.intel.dai.network_listener.SystemActions
 import com.intel.logging.Logger
 import com.intel.properties.PropertyMap
+import com.intel.runtime_utils.WindowedAggregator
 import spock.lang.Ignore
 import spock.lang.Specification
 
@@ -46,15 +48,22 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         then: thrown(NetworkListenerProviderException)
     }
 
+    def "Test processRawStringData does not aggregate a rejected message"() {
+        def nodeMap = new PropertyMap()
+        nodeMap.put("x3000c0s34b4n0", "R0-CH0-N0")
+        CommonFunctions.setConversionMaps(nodeMap, new PropertyMap(), null, null, null)
+        def message = payload_.substring(0, payload_.indexOf("}\n{") + 2) + badJson_
+        when: underTest_.processRawStringData("topic", message, config_)
+        then: thrown(NetworkListenerProviderException)
+        and:  underTest_.accumulators_.shared_.isEmpty()
+        cleanup: CommonFunctions.clearMaps()
+    }
+
     def "Test actOnData"() {
-        underTest_.accumulators_ = new HashMap<>()
         underTest_.configDone_ = true
         underTest_.doAggregation_ = true
         underTest_.publish_ = true
-        EnvironmentalProviderForeignBus.Accumulator.useTime_ = USETIME
-        EnvironmentalProviderForeignBus.Accumulator.moving_ = MOVING
-        EnvironmentalProviderForeignBus.Accumulator.count_ = 3
-        EnvironmentalProviderForeignBus.Accumulator.ns_ = 10
+        underTest_.settings_ = new WindowedAggregator.Settings(USETIME, 3, 10L, MOVING)
 
         def data = new CommonDataFormat(timestamp_, "location", DataType.EnvironmentalData)
         data.setDescription("name")
@@ -91,16 +100,29 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         true    | true   || true
     }
 
+    def "Test partitioned aggregateData"() {
+        underTest_.configDone_ = true
+        underTest_.setPartitionCount(2)
+        underTest_.settings_ = new WindowedAggregator.Settings(false, 2, 0L, false)
+        def results = []
+        for(double value: [84.0, 92.0]) {
+            def data = new CommonDataFormat(timestamp_, "location", DataType.EnvironmentalData)
+            data.setValueAndUnits(value, "", "name")
+            underTest_.aggregateData(data, 1)
+            results.add(data)
+        }
+        expect: !results[0].haveSummary()
+        and:    results[1].haveSummary()
+        and:    doubleEquals(results[1].average, 88.0)
+        and:    underTest_.accumulators_.get("location:name", 1).size() == 0
+    }
+
     boolean doubleEquals(double value, double expected) {
         return (value >= (expected - 0.0001) && value <= (expected + 0.0001))
     }
 
     def "Test windows count accumulation"() {
-        EnvironmentalProviderForeignBus.Accumulator accumulator =
-                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger))
-        EnvironmentalProviderForeignBus.Accumulator.count_ = 10
-        EnvironmentalProviderForeignBus.Accumulator.useTime_ = false
-        EnvironmentalProviderForeignBus.Accumulator.moving_ = false
+        Accumulator accumulator = new Accumulator(Mock(Logger), new WindowedAggregator.Settings(false, 10, 0L, false))
         CommonDataFormat data
         for(int v = 1; v <= 10; v++) {
             data = new CommonDataFormat(1_000_000_000L * v, "loc", DataType.EnvironmentalData)
@@ -111,15 +133,12 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         and:    doubleEquals(data.average, 5.5)
         and:    doubleEquals(data.maximum, 10.0)
         and:    doubleEquals(data.minimum, 1.0)
-        and:    accumulator.values_.size() == 0
+        and:    accumulator.size() == 0
     }
 
     def "Test time window accumulation"() {
-        EnvironmentalProviderForeignBus.Accumulator accumulator =
-                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger))
-        EnvironmentalProviderForeignBus.Accumulator.ns_ = 10_000_000_000L
-        EnvironmentalProviderForeignBus.Accumulator.useTime_ = true
-        EnvironmentalProviderForeignBus.Accumulator.moving_ = false
+        Accumulator accumulator = new Accumulator(Mock(Logger),
+                new WindowedAggregator.Settings(true, 25, 10_000_000_000L, false))
         CommonDataFormat data
         for(int v = 1; v <= 11; v++) {
             data = new CommonDataFormat(1_000_000_000L * v, "loc", DataType.EnvironmentalData)
@@ -130,15 +149,11 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         and:    doubleEquals(data.average, 6)
         and:    doubleEquals(data.maximum, 11.0)
         and:    doubleEquals(data.minimum, 1.0)
-        and:    accumulator.values_.size() == 0
+        and:    accumulator.size() == 0
     }
 
     def "Test count moving average accumulation"() {
-        EnvironmentalProviderForeignBus.Accumulator accumulator =
-                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger))
-        EnvironmentalProviderForeignBus.Accumulator.count_ = 5
-        EnvironmentalProviderForeignBus.Accumulator.useTime_ = false
-        EnvironmentalProviderForeignBus.Accumulator.moving_ = true
+        Accumulator accumulator = new Accumulator(Mock(Logger), new WindowedAggregator.Settings(false, 5, 0L, true))
         CommonDataFormat data
         for(int v = 1; v <= 10; v++) {
             data = new CommonDataFormat(1_000_000_000L * v, "loc", DataType.EnvironmentalData)
@@ -149,7 +164,7 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         and:    doubleEquals(data.average, 8)
         and:    doubleEquals(data.maximum, 10.0)
         and:    doubleEquals(data.minimum, 6.0)
-        and:    accumulator.values_.size() == 4
+        and:    accumulator.size() == 4
     }
 
     def payload_ = """
@@ -8,6 +8,7 @@ import com.intel.dai.AdapterSingletonFactory;
 import com.intel.dai.network_listener.*;
 import com.intel.logging.Logger;
 import com.intel.properties.PropertyMap;
+import com.intel.runtime_utils.WindowedAggregator;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -44,10 +45,6 @@ public class EventSimEnvironmentalProviderForeignBusTest {
     @Before
     public void setUp() {
         MockEventSimEnvironmentalProviderForeignBus.returnNull_ = false;
-        EventSimEnvironmentalProviderForeignBus.Accumulator.useTime_ = false;
-        EventSimEnvironmentalProviderForeignBus.Accumulator.count_ = 3;
-        EventSimEnvironmentalProviderForeignBus.Accumulator.ns_ = 10L;
-        EventSimEnvironmentalProviderForeignBus.Accumulator.moving_ = false;
         transformer_ = new MockEventSimEnvironmentalProviderForeignBus(mock(Logger.class));
         config_ = mock(NetworkListenerConfig.class);
         classConfig_.clear();
@@ -67,7 +64,7 @@ public class EventSimEnvironmentalProviderForeignBusTest {
 
     @Test
     public void accumulatorCount() {
-        EventSimEnvironmentalProviderForeignBus.Accumulator accum = new EventSimEnvironmentalProviderForeignBus.Accumulator(mock(Logger.class));
+        Accumulator accum = new Accumulator(mock(Logger.class), new WindowedAggregator.Settings(false, 3, 10L, false));
         CommonDataFormat data = new CommonDataFormat(1000L, "Location", DataType.EnvironmentalData);
         data.setValueAndUnits(1.0, "W", "Power");
         accum.addValue(data);
@@ -83,8 +80,7 @@ public class EventSimEnvironmentalProviderForeignBusTest {
 
     @Test
     public void accumulatorMoving() {
-        EventSimEnvironmentalProviderForeignBus.Accumulator.moving_ = true;
-        EventSimEnvironmentalProviderForeignBus.Accumulator accum = new EventSimEnvironmentalProviderForeignBus.Accumulator(mock(Logger.class));
+        Accumulator accum = new Accumulator(mock(Logger.class), new WindowedAggregator.Settings(false, 3, 10L, true));
         CommonDataFormat data = new CommonDataFormat(1000L, "Location", DataType.EnvironmentalData);
         data.setValueAndUnits(1.0, "W", "Power");
         accum.addValue(data);
@@ -102,8 +98,7 @@ public class EventSimEnvironmentalProviderForeignBusTest {
 
     @Test
     public void accumulatorTime() {
-        EventSimEnvironmentalProviderForeignBus.Accumulator.useTime_ = true;
-        EventSimEnvironmentalProviderForeignBus.Accumulator accum = new EventSimEnvironmentalProviderForeignBus.Accumulator(mock(Logger.class));
+        Accumulator accum = new Accumulator(mock(Logger.class), new WindowedAggregator.Settings(true, 3, 10L, false));
         CommonDataFormat data = new CommonDataFormat(1000L, "Location", DataType.EnvironmentalData);
         data.setValueAndUnits(1.0, "W", "Power");
         accum.addValue(data);
@@ -0,0 +1,29 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.networking.sink;
+
+/**
+ * Optional interface for {@link NetworkDataSink} implementations that can stop delivering messages to the callback
+ * delegate without dropping them (i.e. the messages remain on the bus until delivery is resumed). Implementations
+ * not supporting this interface get backpressure only by the callback delegate blocking.
+ */
+public interface NetworkDataSinkFlowControl {
+    /**
+     * Request that the implementation stop delivering new messages to the callback delegate. Must be safe to call
+     * from any thread and may be called multiple times.
+     */
+    void pauseDelivery();
+
+    /**
+     * Request that the implementation resume delivering messages to the callback delegate. Must be safe to call from
+     * any thread and may be called multiple times.
+     */
+    void resumeDelivery();
+
+    /**
+     * @return true if delivery was paused by {@link #pauseDelivery()} and not yet resumed.
+     */
+    boolean isDeliveryPaused();
+}
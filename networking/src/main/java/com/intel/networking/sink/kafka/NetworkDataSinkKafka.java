@@ -4,6 +4,7 @@ import com.intel.logging.Logger;
 import com.intel.networking.NetworkException;
 import com.intel.networking.sink.NetworkDataSinkDelegate;
 import com.intel.networking.sink.NetworkDataSinkEx;
+import com.intel.networking.sink.NetworkDataSinkFlowControl;
 import com.intel.networking.sink.StreamLocationHandler;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -20,8 +21,11 @@ import java.util.regex.Pattern;
 
 /**
  * A Kafka client implementation of a {@link NetworkDataSinkEx} providers. Subject refers to the Kafka client consuming topics.
+ * Flow control pauses and resumes the assigned partitions so the consumer stays in its group while delivery is paused.
+ * Records of a poll not yet delivered when a pause is requested are kept on the bus (the partition is rewound to them)
+ * and delivered after the resume, so the polling thread only blocks in the callback delegate for a single record.
  */
-public class NetworkDataSinkKafka implements NetworkDataSinkEx, Runnable {
+public class NetworkDataSinkKafka implements NetworkDataSinkEx, NetworkDataSinkFlowControl, Runnable {
 
     /**
      * Create a network sink object for Kafka client.
@@ -180,6 +184,28 @@ public class NetworkDataSinkKafka implements NetworkDataSinkEx, Runnable {
     public void setLocationId(String id) {
     }
 
+    /**
+     * Pause all assigned partitions at the next poll. Records already returned by the current poll are still
+     * delivered.
+     */
+    @Override
+    public void pauseDelivery() {
+        pauseRequested_.set(true);
+    }
+
+    /**
+     * Resume all paused partitions at the next poll.
+     */
+    @Override
+    public void resumeDelivery() {
+        pauseRequested_.set(false);
+    }
+
+    @Override
+    public boolean isDeliveryPaused() {
+        return pauseRequested_.get();
+    }
+
     @Override
     public void run() {
         Duration duration = Duration.ofSeconds(Long.parseLong(timeout_));
@@ -196,15 +222,10 @@ public class NetworkDataSinkKafka implements NetworkDataSinkEx, Runnable {
                 }
                 logger_.info("KafkaClient connected.");
                 while (!signalStop_.get()) {
-                    ConsumerRecords<String, Object> receivedRecords = kafkaClient.poll(duration);
-                    for (ConsumerRecord<String, Object> receivedRecord : receivedRecords) {
-                        String topic = receivedRecord.topic();
-                        Object receivedData = receivedRecord.value();
-                        logger_.debug("\n\n*** TOPIC='%s'; MESSAGE='%s'\n", receivedRecord.topic(),
-                                receivedData.toString());
-                        if (callback_ != null)
-                            callback_.processIncomingData(topic, receivedData.toString());
-                    }
+                    applyFlowControl(kafkaClient);
+                    ConsumerRecords<String, Object> receivedRecords = kafkaClient.poll(pauseRequested_.get() ?
+                            PAUSED_POLL_DURATION : duration);
+                    deliverRecords(kafkaClient, receivedRecords);
                     kafkaClient.commitAsync(this::commitCallback);
                 }
             } catch (SerializationException e) {
@@ -224,6 +245,35 @@ public class NetworkDataSinkKafka implements NetworkDataSinkEx, Runnable {
         running_.set(false);
     }
 
+    // Must be called on the polling thread. Once a pause is requested the remaining records are not delivered, each
+    // partition with undelivered records is rewound to the first of them so it is fetched again after the resume.
+    void deliverRecords(KafkaConsumer<String, Object> client, ConsumerRecords<String, Object> records) {
+        Map<TopicPartition, Long> rewind = new HashMap<>();
+        for (ConsumerRecord<String, Object> receivedRecord : records) {
+            TopicPartition partition = new TopicPartition(receivedRecord.topic(), receivedRecord.partition());
+            if (pauseRequested_.get() || rewind.containsKey(partition)) {
+                rewind.putIfAbsent(partition, receivedRecord.offset());
+                continue;
+            }
+            String topic = receivedRecord.topic();
+            Object receivedData = receivedRecord.value();
+            logger_.debug("\n\n*** TOPIC='%s'; MESSAGE='%s'\n", receivedRecord.topic(), receivedData.toString());
+            if (callback_ != null)
+                callback_.processIncomingData(topic, receivedData.toString());
+        }
+        for (Map.Entry<TopicPartition, Long> entry : rewind.entrySet())
+            client.seek(entry.getKey(), entry.getValue());
+    }
+
+    // Must be called on the polling thread, KafkaConsumer is not thread safe. Pausing is re-applied every loop so
+    // partitions assigned by a rebalance while paused are also paused.
+    void applyFlowControl(KafkaConsumer<String, Object> client) {
+        if(pauseRequested_.get())
+            client.pause(client.assignment());
+        else if(!client.paused().isEmpty())
+            client.resume(client.paused());
+    }
+
     private void commitCallback(Map<TopicPartition, OffsetAndMetadata> var1, Exception var2) {
         if(var2 != null)
             logger_.exception(var2);
@@ -259,6 +309,9 @@ public class NetworkDataSinkKafka implements NetworkDataSinkEx, Runnable {
     private final Properties kafkaProperties = new Properties();
     final AtomicBoolean running_ = new AtomicBoolean(false);
     private final AtomicBoolean signalStop_ = new AtomicBoolean(false);
+    private final AtomicBoolean pauseRequested_ = new AtomicBoolean(false);
+
+    private static final Duration PAUSED_POLL_DURATION = Duration.ofMillis(100);
 
     private static final String KAFKA_BOOTSTRAP_SERVER = "bootstrap.servers";
     private static final String KAFKA_GROUP_ID = "group.id";
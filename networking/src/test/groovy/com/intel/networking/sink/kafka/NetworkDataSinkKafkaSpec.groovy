@@ -3,7 +3,10 @@ package com.intel.networking.sink.kafka
 import com.intel.logging.Logger
 import com.intel.networking.NetworkException
 import com.intel.networking.sink.NetworkDataSinkDelegate
+import org.apache.kafka.clients.consumer.ConsumerRecord
+import org.apache.kafka.clients.consumer.ConsumerRecords
 import org.apache.kafka.clients.consumer.KafkaConsumer
+import org.apache.kafka.common.TopicPartition
 import spock.lang.Specification
 
 class NetworkDataSinkKafkaSpec extends Specification {
@@ -101,6 +104,51 @@ class NetworkDataSinkKafkaSpec extends Specification {
         expect: true
     }
 
+    def "Test pause and resume delivery"() {
+        when: underTest_.pauseDelivery()
+        then: underTest_.isDeliveryPaused()
+        when: underTest_.resumeDelivery()
+        then: !underTest_.isDeliveryPaused()
+    }
+
+    def "Test applyFlowControl"() {
+        KafkaConsumer<String, Object> client = Mock(KafkaConsumer)
+        def partitions = [new TopicPartition("test", 0)] as Set
+        client.assignment() >> partitions
+        client.paused() >> partitions
+        when:
+        underTest_.pauseDelivery()
+        underTest_.applyFlowControl(client)
+        then:
+        1 * client.pause(partitions)
+        when:
+        underTest_.resumeDelivery()
+        underTest_.applyFlowControl(client)
+        then:
+        1 * client.resume(partitions)
+    }
+
+    def "Test deliverRecords keeps the records after a pause on the bus"() {
+        KafkaConsumer<String, Object> client = Mock(KafkaConsumer)
+        def partition0 = new TopicPartition("test", 0)
+        def partition1 = new TopicPartition("test", 1)
+        def records = new ConsumerRecords<String, Object>([
+                (partition0): [new ConsumerRecord("test", 0, 10L, "k", "a"),
+                               new ConsumerRecord("test", 0, 11L, "k", "b"),
+                               new ConsumerRecord("test", 0, 12L, "k", "c")],
+                (partition1): [new ConsumerRecord("test", 1, 20L, "k", "d")]])
+        def delivered = []
+        underTest_.setCallbackDelegate({ String subject, String payload ->
+            delivered.add(payload)
+            underTest_.pauseDelivery() // The queue filled up while delivering
+        } as NetworkDataSinkDelegate)
+        when: underTest_.deliverRecords(client, records)
+        then:
+        delivered == ["a"]
+        1 * client.seek(partition0, 11L)
+        1 * client.seek(partition1, 20L)
+    }
+
     def "Test empty kafka topics to start client"() {
         underTest_.initialize()
         underTest_.clearSubjects()
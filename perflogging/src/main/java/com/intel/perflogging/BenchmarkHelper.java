@@ -101,11 +101,25 @@ public class BenchmarkHelper {
         }
     }
 
+    /**
+     * Record a sample for a named high-water mark (i.e. queue depth or a wait time). Only the largest sample in a
+     * burst is kept.
+     *
+     * @param name The name of the high-water mark to track.
+     * @param value The sampled value.
+     */
+    public void addNamedMaximum(String name, long value) {
+        if(doBenchmarking_) {
+            commonAdd();
+            maximums_.computeIfAbsent(name, k -> new AtomicLong(0L)).accumulateAndGet(value, Math::max);
+        }
+    }
+
     /**
      * Called when the loop in the process does not do any work (i.e. no add methods are called).
      */
     public void tick() {
-        if(doBenchmarking_ && (defaultValue_.get() > 0L || values_.size() > 0)) {
+        if(doBenchmarking_ && (defaultValue_.get() > 0L || values_.size() > 0 || maximums_.size() > 0)) {
             long target = lastTs_.get() + maxBurstMicroSeconds_;
             if (getMicroSecondTimestamp() > target)
                 recordAndReset();
@@ -141,7 +155,20 @@ public class BenchmarkHelper {
                             builder.append(",");
                         builder.append("\"").append(entry.getKey()).append("\":").append(entry.getValue().get());
                     }
-                    builder.append("}}\n");
+                    builder.append("}");
+                    if(!maximums_.isEmpty()) {
+                        builder.append(",\"maximums\":{");
+                        first = true;
+                        for (Map.Entry<String, AtomicLong> entry : maximums_.entrySet()) {
+                            if (first)
+                                first = false;
+                            else
+                                builder.append(",");
+                            builder.append("\"").append(entry.getKey()).append("\":").append(entry.getValue().get());
+                        }
+                        builder.append("}");
+                    }
+                    builder.append("}\n");
                     out.write(builder.toString());
                 }
             } catch (IOException e) {
@@ -153,6 +180,7 @@ public class BenchmarkHelper {
         lastTs_.set(0L);
         defaultValue_.set(0L);
         values_.clear();
+        maximums_.clear();
     }
 
     private boolean aboveThreshold() {
@@ -175,6 +203,7 @@ public class BenchmarkHelper {
     private final long maxBurstMicroSeconds_;
     private String dataSetName_;
     private final Map<String, AtomicLong> values_ = new ConcurrentHashMap<>(32);
+    private final Map<String, AtomicLong> maximums_ = new ConcurrentHashMap<>(8);
     private AtomicLong defaultValue_ = new AtomicLong(0L);
     private AtomicLong firstTs_ = new AtomicLong(0L);
     private AtomicLong lastTs_ = new AtomicLong(0L);
@@ -78,6 +78,31 @@ class BenchmarkHelperSpec extends Specification {
         underTest_.values_.size() == 0
     }
 
+    def "Test AddNamedMaximum No Benchmarking"() {
+        underTest_.addNamedMaximum("TestName", 10)
+        expect:
+        underTest_.maximums_.size() == 0
+    }
+
+    def "Test AddNamedMaximum Benchmarking"() {
+        underTest_.doBenchmarking_ = true
+        underTest_.addNamedMaximum("TestName", 10)
+        underTest_.addNamedMaximum("TestName", 30)
+        underTest_.addNamedMaximum("TestName", 20)
+        expect:
+        underTest_.maximums_.get("TestName").get() == 30L
+    }
+
+    def "Test Recording Data With Maximums"() {
+        underTest_.doBenchmarking_ = true
+        underTest_.addNamedValue("Testing", 20)
+        underTest_.addNamedMaximum("Depth", 5)
+        underTest_.lastTs_.set(0L)
+        underTest_.recordAndReset()
+        expect:
+        underTest_.maximums_.size() == 0
+    }
+
     def "Test replaceFilenameVariable"() {
         underTest_.replaceFilenameVariable("TEST", "Red")
         expect: underTest_.file_.toString() == "./build/tmp/benchmarking-Red.json"
@@ -15,6 +15,7 @@ import com.intel.properties.PropertyNotExpectedType;
 import com.intel.dai.transforms.DefaultLocations;
 import org.voltdb.VoltTable;
 import org.voltdb.client.*;
+import org.voltdb.client.VoltBulkLoader.VoltBulkLoader;
 import org.voltdb.types.TimestampType;
 
 import java.lang.*;
@@ -22,7 +23,13 @@ import java.util.*;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.text.SimpleDateFormat;
 
 /**
@@ -43,15 +50,29 @@ public class DefaultOnlineTierDataLoader {
 
     // Constructor
     protected DefaultOnlineTierDataLoader(Logger log) {
+        this(log, Integer.getInteger("com.intel.dai.populate.DefaultOnlineTierDataLoader.bulkThreads",
+                        DEFAULT_BULK_THREADS),
+                Integer.getInteger("com.intel.dai.populate.DefaultOnlineTierDataLoader.bulkBatchSize",
+                        DEFAULT_BULK_BATCH_SIZE));
+    }   // ctor
+
+    // With bulkThreads > 0 (the default) the hardware found in the system manifest is collected into per-table rows in
+    // one pass and then loaded with a VoltBulkLoader per table, bulkThreads tables at a time, rather than with a
+    // procedure call per row.  bulkThreads = 0 inserts every row through its own procedure call.
+    protected DefaultOnlineTierDataLoader(Logger log, int bulkThreads, int bulkBatchSize) {
         log_ = log;
         jsonParser_ = ConfigIOFactory.getInstance("json");
         if (jsonParser_ == null)  throw new RuntimeException("Failed to create a JSON parser!");
+        bulkThreads_ = bulkThreads;
+        bulkBatchSize_ = Math.max(1, bulkBatchSize);
+        if (bulkThreads_ > 0)
+            bulkRows_ = new LinkedHashMap<>();
     }   // ctor
 
     private Integer iNextComputeNodeSeqNum = 0;
     private Integer iNextServiceNodeSeqNum = 0;
     private Integer iNextNonNodeHwSeqNum   = 0;
-    private Integer mNumberOfErrors = 0;
+    private final AtomicInteger mNumberOfErrors = new AtomicInteger(0);  // counted by this thread and by callbacks
 
 
 
@@ -141,6 +162,68 @@ public class DefaultOnlineTierDataLoader {
     }
 
 
+    // Inserts the row through the table's default insert procedure, or in bulk mode queues it to be loaded with the rest
+    // of the table's rows (the default insert procedures take every column of the table in order, as does the bulk
+    // loader).
+    void insertRow(String sStoredProcedure, String sPertinentInfo, Object... args) throws IOException {
+        if (bulkRows_ != null) {
+            String sTableName = sStoredProcedure.substring(0, sStoredProcedure.lastIndexOf(".insert"));
+            bulkRows_.computeIfAbsent(sTableName, (table) -> new ArrayList<>()).add(args);
+            return;
+        }
+        client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sStoredProcedure, sPertinentInfo),
+                              sStoredProcedure, args);
+    }
+
+
+    // Loads the rows queued for each table, bulkThreads_ tables at a time. Each table's VoltBulkLoader batches the rows
+    // per partition and insertRow blocks while the client is backpressured.
+    void loadTablesInBulk() throws InterruptedException, ExecutionException {
+        if (bulkRows_.isEmpty())
+            return;
+        final long lStartMs = System.currentTimeMillis();
+        long lNumRows = 0L;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(bulkThreads_, bulkRows_.size()));
+        try {
+            List<Future<Long>> failures = new ArrayList<>();
+            for (Map.Entry<String, List<Object[]>> table : bulkRows_.entrySet()) {
+                failures.add(executor.submit(() -> bulkLoadTable(table.getKey(), table.getValue())));
+                lNumRows += table.getValue().size();
+            }
+            for (Future<Long> failed : failures)
+                mNumberOfErrors.addAndGet(failed.get().intValue());
+        } finally {
+            executor.shutdownNow();
+        }
+        long lElapsedMs = Math.max(1L, System.currentTimeMillis() - lStartMs);
+        log_.info("Bulk loaded %d rows into %d tables in %d ms (%d rows/s)", lNumRows, bulkRows_.size(), lElapsedMs,
+                  lNumRows * 1000L / lElapsedMs);
+        bulkRows_.clear();
+    }
+
+
+    private long bulkLoadTable(String sTableName, List<Object[]> rows) throws Exception {
+        final long lStartMs = System.currentTimeMillis();
+        AtomicLong failed = new AtomicLong(0L);
+        VoltBulkLoader loader = client_.getNewBulkLoader(sTableName, bulkBatchSize_, (rowHandle, fields, response) -> {
+            failed.incrementAndGet();
+            log_.error("Bulk loading a row into %s FAILED - Status=%d, StatusString='%s', Row=%s!!!", sTableName,
+                       response.getStatus(), response.getStatusString(), Arrays.toString(fields));
+        });
+        try {
+            for (int iRow = 0; iRow < rows.size(); ++iRow)
+                loader.insertRow(iRow, rows.get(iRow));
+            loader.drain();
+        } finally {
+            loader.close();
+        }
+        long lElapsedMs = Math.max(1L, System.currentTimeMillis() - lStartMs);
+        log_.info("Bulk loaded %d rows into %s in %d ms (%d rows/s), %d failed", rows.size(), sTableName, lElapsedMs,
+                  rows.size() * 1000L / lElapsedMs, failed.get());
+        return failed.get();
+    }
+
+
     private void traverseToJsonDefinitionAndProcessItsContents(PropertyMap jsonDefinitionsObj, String sPrevLctn, String sLctnSuffix, String sDef) throws IOException
     {
         log_.debug("traverseToJsonDefinitionAndProcessItsContents - sPrevLctn=%s, sLctnSuffix=%s, sDef=%s",
@@ -176,8 +259,7 @@ public class DefaultOnlineTierDataLoader {
                 // Insert this object into the table.
                 sTempStoredProcedure = "RACK.insert";
                 sPertinentInfo = "Inserting Rack value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
+                insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                      ,sTempLctn
                                      ,"M"
                                      ,null
@@ -189,8 +271,7 @@ public class DefaultOnlineTierDataLoader {
                                      );
                 sTempStoredProcedure = "RACK_HISTORY.insert";
                 sPertinentInfo = "Inserting Rack_History value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
+                insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                      ,sTempLctn
                                      ,"M"
                                      ,null
@@ -206,8 +287,7 @@ public class DefaultOnlineTierDataLoader {
                 // Insert this object into the table.
                 sTempStoredProcedure = "CHASSIS.insert";
                 sPertinentInfo = "Inserting Chassis value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
+                insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                      ,sTempLctn
                                      ,"M"
                                      ,null
@@ -219,8 +299,7 @@ public class DefaultOnlineTierDataLoader {
                                      );
                 sTempStoredProcedure = "CHASSIS_HISTORY.insert";
                 sPertinentInfo = "Inserting Chassis_History value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
+                insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                      ,sTempLctn
                                      ,"M"
                                      ,null
@@ -236,8 +315,7 @@ public class DefaultOnlineTierDataLoader {
                 // Insert this object into the table.
                 sTempStoredProcedure = "SWITCH.insert";
                 sPertinentInfo = "Inserting Switch value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
+                insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                      ,sTempLctn
                                      ,"A"
                                      ,null
@@ -248,8 +326,7 @@ public class DefaultOnlineTierDataLoader {
                                      );
                 sTempStoredProcedure = "SWITCH_HISTORY.insert";
                 sPertinentInfo = "Inserting Switch_History value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
+                insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                      ,sTempLctn
                                      ,"A"
                                      ,null
@@ -286,27 +363,27 @@ public class DefaultOnlineTierDataLoader {
                     // Insert this object into the table.
                     sTempStoredProcedure = "SERVICENODE.insert";
                     sPertinentInfo = "Inserting ServiceNode - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sTempLctn, iNextServiceNodeSeqNum, sHostName, "M", sBootImageId, sIpAddr, sMacAddr.toLowerCase(),
+                    insertRow(sTempStoredProcedure, sPertinentInfo,  // asynchronously invoke the procedure (or queue the row for the bulk load)
+                                          sTempLctn, iNextServiceNodeSeqNum, sHostName, "M", sBootImageId, sIpAddr, sMacAddr.toLowerCase(),
                                           sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
                                           "G", sAggregator, null, sConstraintId, lProofOfLifeTimestamp);
                     sTempStoredProcedure = "SERVICENODE_HISTORY.insert";
                     sPertinentInfo = "Inserting ServiceNode_History - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sTempLctn, iNextServiceNodeSeqNum, sHostName, "M", sBootImageId, sIpAddr, sMacAddr.toLowerCase(),
+                    insertRow(sTempStoredProcedure, sPertinentInfo,  // asynchronously invoke the procedure (or queue the row for the bulk load)
+                                          sTempLctn, iNextServiceNodeSeqNum, sHostName, "M", sBootImageId, sIpAddr, sMacAddr.toLowerCase(),
                                           sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
                                           "G", sAggregator, null, sConstraintId, lProofOfLifeTimestamp);
                     ++iNextServiceNodeSeqNum;
                     // Insert the cache info into the CacheMacAddrToLctn table.
                     sTempStoredProcedure = "CACHEMACADDRTOLCTN.insert";
                     sPertinentInfo = "Inserting CachedMacaddrToLctn - Lctn=" + sTempLctn + ",MacAddr=" + sMacAddr.toLowerCase();
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sMacAddr.toLowerCase(), sTempLctn);
+                    insertRow(sTempStoredProcedure, sPertinentInfo,  // asynchronously invoke the procedure (or queue the row for the bulk load)
+                                          sMacAddr.toLowerCase(), sTempLctn);
                     // Insert the cache info into the CacheIpAddrToLctn table.
                     sTempStoredProcedure = "CACHEIPADDRTOLCTN.insert";
                     sPertinentInfo = "Inserting CachedIpaddrToLctn - Lctn=" + sTempLctn + ",IpAddr=" + sIpAddr;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sIpAddr, sTempLctn);
+                    insertRow(sTempStoredProcedure, sPertinentInfo,  // asynchronously invoke the procedure (or queue the row for the bulk load)
+                                          sIpAddr, sTempLctn);
                 }
                 break;
             case "ComputeNode":
@@ -338,27 +415,27 @@ public class DefaultOnlineTierDataLoader {
                     // Insert this object into the ComputeNode table.
                     sTempStoredProcedure = "COMPUTENODE.insert";
                     sPertinentInfo = "Inserting ComputeNode - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sTempLctn, iNextComputeNodeSeqNum, "M", sHostName, sBootImageId, environment, sIpAddr, sMacAddr.toLowerCase(),
+                    insertRow(sTempStoredProcedure, sPertinentInfo,  // asynchronously invoke the procedure (or queue the row for the bulk load)
+                                          sTempLctn, iNextComputeNodeSeqNum, "M", sHostName, sBootImageId, environment, sIpAddr, sMacAddr.toLowerCase(),
                                           sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
                                           "W", sAggregator, null, "U", sConstraintId, lProofOfLifeTimestamp);
                     sTempStoredProcedure = "COMPUTENODE_HISTORY.insert";
                     sPertinentInfo = "Inserting ComputeNode_History - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sTempLctn, iNextComputeNodeSeqNum, "M", sHostName, sBootImageId, environment, sIpAddr, sMacAddr.toLowerCase(),
+                    insertRow(sTempStoredProcedure, sPertinentInfo,  // asynchronously invoke the procedure (or queue the row for the bulk load)
+                                          sTempLctn, iNextComputeNodeSeqNum, "M", sHostName, sBootImageId, environment, sIpAddr, sMacAddr.toLowerCase(),
                                           sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
                                           "W", sAggregator, null, "U", sConstraintId, lProofOfLifeTimestamp);
                     ++iNextComputeNodeSeqNum;
                     // Insert the cache info into the CacheMacAddrToLctn table.
                     sTempStoredProcedure = "CACHEMACADDRTOLCTN.insert";
                     sPertinentInfo = "Inserting CachedMacaddrToLctn - Lctn=" + sTempLctn + ",MacAddr=" + sMacAddr.toLowerCase();
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sMacAddr.toLowerCase(), sTempLctn);
+                    insertRow(sTempStoredProcedure, sPertinentInfo,  // asynchronously invoke the procedure (or queue the row for the bulk load)
+                                          sMacAddr.toLowerCase(), sTempLctn);
                     // Insert the cache info into the CacheIpAddrToLctn table.
                     sTempStoredProcedure = "CACHEIPADDRTOLCTN.insert";
                     sPertinentInfo = "Inserting CachedIpaddrToLctn - Lctn=" + sTempLctn + ",IpAddr=" + sIpAddr;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sIpAddr, sTempLctn);
+                    insertRow(sTempStoredProcedure, sPertinentInfo,  // asynchronously invoke the procedure (or queue the row for the bulk load)
+                                          sIpAddr, sTempLctn);
                 }
                 break;
             case "SuperNode":
@@ -387,8 +464,7 @@ public class DefaultOnlineTierDataLoader {
                     // Insert this object into the table.
                     sTempStoredProcedure = "NONNODEHW.insert";
                     sPertinentInfo = "Inserting " + sTypeOfHw + " value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
+                    insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                          ,sTempLctn
                                          ,iNextNonNodeHwSeqNum                  // sequence number
                                          ,sTypeOfHw                             // type of hardware
@@ -406,8 +482,7 @@ public class DefaultOnlineTierDataLoader {
                                          );
                     sTempStoredProcedure = "NONNODEHW_HISTORY.insert";
                     sPertinentInfo = "Inserting " + sTypeOfHw + "_History value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
+                    insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                          ,sTempLctn
                                          ,iNextNonNodeHwSeqNum                  // sequence number
                                          ,sTypeOfHw                             // type of hardware
@@ -444,8 +519,7 @@ public class DefaultOnlineTierDataLoader {
                     // Insert this object into the table.
                     sTempStoredProcedure = "DIMM.insert";
                     sPertinentInfo = "Inserting " + sTypeOfHw + " value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
+                    insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                          ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
                                          ,sTempLctn
                                          ,"U"                                   // State - unknown
@@ -459,8 +533,7 @@ public class DefaultOnlineTierDataLoader {
                                          );
                     sTempStoredProcedure = "DIMM_HISTORY.insert";
                     sPertinentInfo = "Inserting " + sTypeOfHw + "_History value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
+                    insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                          ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
                                          ,sTempLctn
                                          ,"U"                                   // State - unknown
@@ -490,8 +563,7 @@ public class DefaultOnlineTierDataLoader {
                     // Insert this object into the table.
                     sTempStoredProcedure = "PROCESSOR.insert";
                     sPertinentInfo = "Inserting " + sTypeOfHw + " value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
+                    insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                          ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
                                          ,sTempLctn
                                          ,"U"                                   // State - unknown
@@ -503,8 +575,7 @@ public class DefaultOnlineTierDataLoader {
                                          );
                     sTempStoredProcedure = "PROCESSOR_HISTORY.insert";
                     sPertinentInfo = "Inserting " + sTypeOfHw + "_History value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
+                    insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                          ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
                                          ,sTempLctn
                                          ,"U"                                   // State - unknown
@@ -543,8 +614,7 @@ public class DefaultOnlineTierDataLoader {
                         sTempHistoryStoredProcedure = "HFI_HISTORY.insert";
                     }
                     sPertinentInfo = "Inserting " + sTypeOfHw + " value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
+                    insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                          ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
                                          ,sTempLctn
                                          ,"U"                                   // State - unknown
@@ -557,8 +627,7 @@ public class DefaultOnlineTierDataLoader {
                                          );
                     sTempStoredProcedure = sTempHistoryStoredProcedure;
                     sPertinentInfo = "Inserting " + sTypeOfHw + "_History value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
+                    insertRow(sTempStoredProcedure, sPertinentInfo  // asynchronously invoke the procedure (or queue the row for the bulk load)
                                          ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
                                          ,sTempLctn
                                          ,"U"                                   // State - unknown
@@ -714,7 +783,7 @@ public class DefaultOnlineTierDataLoader {
             // Ensure that the stored procedure was successful.
             if (response.getStatus() != ClientResponse.SUCCESS) {
                 // stored procedure failed.
-                ++mNumberOfErrors;
+                mNumberOfErrors.incrementAndGet();
                 log_.error("MyCallbackForHouseKeepingNoRtrnValue - %s callback FAILED - Status=%s, StatusString='%s', PertinentInfo=%s!!!",
                            mSpThisIsCallbackFor, statusByteAsString(response.getStatus()), response.getStatusString(), mPertinentInfo);
             }
@@ -880,8 +949,12 @@ public class DefaultOnlineTierDataLoader {
                                  );
 
             log_.info("Put a value of %d millisecs into %s - corresponds to %s", TimeDbPopulateStartedMilliSecs, sTempKey, sdfSqlDateFormat.format(new Date(TimeDbPopulateStartedMilliSecs)));
-            // Sleep for a little bit to ensure that the UCS configuration values are all up to date.
-            Thread.sleep(500);  // half a second.
+            // Sleep for a little bit to ensure that the UCS configuration values are all up to date (in bulk mode wait
+            // for the inserts to actually complete instead).
+            if (bulkRows_ != null)
+                client_.drain();
+            else
+                Thread.sleep(500);  // half a second.
             // Grab the UCS log file directory out of this machine's configuration table (that was just populated above).
             String sUcsLogfileDir = client_.callProcedure("UCSCONFIGVALUE.select", "UcsLogfileDirectory").getResults()[0].fetchRow(0).getString("Value");
             if (sUcsLogfileDir == null)  throw new RuntimeException("Unable to get the UcsLogFileDirectory!");
@@ -1017,6 +1090,8 @@ public class DefaultOnlineTierDataLoader {
                 // Note: this method will also recurse to handle any children of this child!
                 traverseToJsonDefinitionAndProcessItsContents(jsonDefinitionsObj, "", sName, sDef);
             }
+            if (bulkRows_ != null)
+                loadTablesInBulk();
 
 
             //----------------------------------------------------------------------
@@ -1176,8 +1251,9 @@ public class DefaultOnlineTierDataLoader {
             //------------------------------------------------------------------
             // Check & see if too many errors occurred during this populate.
             //------------------------------------------------------------------
-            if (mNumberOfErrors != 0) {
-                String sTempMsg = "Unexpected number of ERRORS occurred during the populate (" + mNumberOfErrors + ")!!!";
+            client_.drain();  // so that the errors of the remaining asynchronous inserts are counted too
+            if (mNumberOfErrors.get() != 0) {
+                String sTempMsg = "Unexpected number of ERRORS occurred during the populate (" + mNumberOfErrors.get() + ")!!!";
                 log_.fatal(sTempMsg);
                 throw new Exception(sTempMsg);
             }
@@ -1298,7 +1374,13 @@ public class DefaultOnlineTierDataLoader {
         System.exit(obj.doPopulate(args[0], args[1], args[2], args[3]));
     }   // End main(String[] args)
 
+    static final int DEFAULT_BULK_THREADS = 4;
+    static final int DEFAULT_BULK_BATCH_SIZE = 1000;
+
     private AtomicBoolean shuttingDown_ = new AtomicBoolean(false);
+    private final int bulkThreads_;
+    private final int bulkBatchSize_;
+    private Map<String, List<Object[]>> bulkRows_ = null;  // Rows to bulk load per table, null unless in bulk mode.
     private Client client_;
     private Logger log_;
     private ConfigIO jsonParser_;
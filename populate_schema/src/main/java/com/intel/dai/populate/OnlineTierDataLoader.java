@@ -57,7 +57,11 @@ public class OnlineTierDataLoader {
         }
         if(USE_COHERENCY) {
             try {
-                dataLoader = dsFactory.createDataLoaderApi();
+                int threads = Integer.parseInt(System.getProperty(
+                        "com.intel.dai.populate.OnlineTierDataLoader.threads", "4"));
+                int batchSize = Integer.parseInt(System.getProperty(
+                        "com.intel.dai.populate.OnlineTierDataLoader.batchSize", "1000"));
+                dataLoader = dsFactory.createDataLoaderApi(threads, batchSize);
             } catch (DataStoreException ex) {
                 log.exception(ex, "Unable to initialize Data Store API");
                 returnCode = 1;
@@ -9,6 +9,9 @@ import org.voltdb.VoltTable
 import org.voltdb.VoltType
 import org.voltdb.client.Client
 import org.voltdb.client.ClientResponse
+import org.voltdb.client.ProcedureCallback
+import org.voltdb.client.VoltBulkLoader.BulkLoaderFailureCallBack
+import org.voltdb.client.VoltBulkLoader.VoltBulkLoader
 import spock.lang.Ignore
 import spock.lang.Specification
 
@@ -191,4 +194,43 @@ class DefaultOnlineTierDataLoaderSpec extends Specification {
         0     || 0
         1     || 1
     }
+
+    def "Test insertRow calls the table's insert procedure without bulk mode"() {
+        def client = Mock(Client)
+        def underTest = new DefaultOnlineTierDataLoader(Mock(Logger), 0, 10)
+        underTest.client_ = client
+
+        when: underTest.insertRow("RACK.insert", "Inserting Rack value - Lctn=R0", "R0", "M", null)
+
+        then: 1 * client.callProcedure(_ as ProcedureCallback, "RACK.insert", "R0", "M", null)
+    }
+
+    def "Test loadTablesInBulk loads the queued rows of each table and counts the failed ones"() {
+        def client = Mock(Client)
+        def underTest = new DefaultOnlineTierDataLoader(Mock(Logger), 2, 10)
+        underTest.client_ = client
+        def rackLoader = Mock(VoltBulkLoader)
+        def historyLoader = Mock(VoltBulkLoader)
+        BulkLoaderFailureCallBack callback = null
+        underTest.insertRow("RACK.insert", "", "R0", "M")
+        underTest.insertRow("RACK_HISTORY.insert", "", "R0", "M")
+        underTest.insertRow("RACK.insert", "", "R1", "M")
+
+        when: underTest.loadTablesInBulk()
+
+        then:
+        0 * client.callProcedure(*_)
+        1 * client.getNewBulkLoader("RACK", 10, _ as BulkLoaderFailureCallBack) >> { args ->
+            callback = args[2]
+            return rackLoader
+        }
+        1 * client.getNewBulkLoader("RACK_HISTORY", 10, _ as BulkLoaderFailureCallBack) >> historyLoader
+        1 * rackLoader.insertRow(0, ["R0", "M"] as Object[])
+        1 * rackLoader.insertRow(1, ["R1", "M"] as Object[])
+        1 * rackLoader.drain() >> { callback.failureCallback(1, ["R1", "M"] as Object[], Mock(ClientResponse)) }
+        1 * historyLoader.insertRow(0, ["R0", "M"] as Object[])
+        1 * rackLoader.close()
+        1 * historyLoader.close()
+        underTest.mNumberOfErrors.get() == 1
+    }
 }
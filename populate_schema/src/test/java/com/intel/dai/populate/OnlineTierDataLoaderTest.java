@@ -50,7 +50,7 @@ public class OnlineTierDataLoaderTest {
 //    @Test
 //    public void populatesFromNearlineTierWhenValid() throws Exception {
 //        dataLoader.client = Mockito.mock(Client.class);
-//        Mockito.when(mockDsFactory.createDataLoaderApi()).thenReturn(mockApi);
+//        Mockito.when(mockDsFactory.createDataLoaderApi(Mockito.anyInt(), Mockito.anyInt())).thenReturn(mockApi);
 //        Mockito.when(mockApi.isNearlineTierValid()).thenReturn(true); // Load from Nearline tier
 //        Mockito.when(mockLoader
 //                .doPopulate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
@@ -69,7 +69,7 @@ public class OnlineTierDataLoaderTest {
     @Test
     public void populatesFromConfigWhenNearlineTierNotValid() throws Exception {
         dataLoader.client = Mockito.mock(Client.class);
-        Mockito.when(mockDsFactory.createDataLoaderApi()).thenReturn(mockApi);
+        Mockito.when(mockDsFactory.createDataLoaderApi(Mockito.anyInt(), Mockito.anyInt())).thenReturn(mockApi);
         Mockito.when(mockApi.isNearlineTierValid()).thenReturn(false); // Load from config
         Mockito.when(mockLoader
                 .doPopulate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
@@ -87,7 +87,7 @@ public class OnlineTierDataLoaderTest {
 
     @Test
     public void handlesDataLoaderPopulateException() throws Exception {
-        Mockito.when(mockDsFactory.createDataLoaderApi()).thenReturn(mockApi);
+        Mockito.when(mockDsFactory.createDataLoaderApi(Mockito.anyInt(), Mockito.anyInt())).thenReturn(mockApi);
         Mockito.when(mockApi.isNearlineTierValid()).thenReturn(true); // Load from Nearline tier
         Mockito.when(mockLoader
                 .doPopulate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
@@ -101,7 +101,7 @@ public class OnlineTierDataLoaderTest {
 
     @Test
     public void handlesDataLoaderNearlineCheckException() throws Exception {
-        Mockito.when(mockDsFactory.createDataLoaderApi()).thenReturn(mockApi);
+        Mockito.when(mockDsFactory.createDataLoaderApi(Mockito.anyInt(), Mockito.anyInt())).thenReturn(mockApi);
         Mockito.when(mockApi.isNearlineTierValid()).thenThrow(new DataStoreException("Ooops!"));
         Mockito.when(mockLoader
                 .doPopulate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
@@ -114,7 +114,7 @@ public class OnlineTierDataLoaderTest {
 
     @Test
     public void handlesDefaultDataLoaderError() throws Exception {
-        Mockito.when(mockDsFactory.createDataLoaderApi()).thenReturn(mockApi);
+        Mockito.when(mockDsFactory.createDataLoaderApi(Mockito.anyInt(), Mockito.anyInt())).thenReturn(mockApi);
         Mockito.when(mockApi.isNearlineTierValid()).thenReturn(false); // Load from config
         Mockito.when(mockLoader
                 .doPopulate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
@@ -195,13 +195,13 @@ public class OnlineTierDataLoaderTest {
 
     @Test
     public void populateOnlineTierNegativeTest3() throws Exception {
-        Mockito.when(mockDsFactory.createDataLoaderApi()).thenThrow(DataStoreException.class);
+        Mockito.when(mockDsFactory.createDataLoaderApi(Mockito.anyInt(), Mockito.anyInt())).thenThrow(DataStoreException.class);
         Assert.assertEquals(1, dataLoader.populateOnlineTier());
     }
 
     @Test
     public void populateOnlineTierNegativeTest4() throws Exception {
-        Mockito.when(mockDsFactory.createDataLoaderApi()).thenReturn(mockApi);
+        Mockito.when(mockDsFactory.createDataLoaderApi(Mockito.anyInt(), Mockito.anyInt())).thenReturn(mockApi);
         Mockito.doThrow(DataStoreException.class).when(mockStatusApi).setDataPopulationStarting();
         Mockito.doThrow(DataStoreException.class).when(mockStatusApi).setDataPopulationFailed(Mockito.anyString());
         Assert.assertEquals(1, dataLoader.populateOnlineTier());
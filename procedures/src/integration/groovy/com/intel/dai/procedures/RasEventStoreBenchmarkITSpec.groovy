@@ -0,0 +1,80 @@
+package com.intel.dai.procedures
+
+import org.voltdb.client.Client
+import org.voltdb.client.ClientFactory
+import org.voltdb.client.ClientResponse
+import org.voltdb.client.ProcedureCallback
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * RAS events per second stored by RasEventStore (one call per event) and by RasEventStoreBatch, against a VoltDB
+ * loaded with the DAI schema and procedures. Set ras.benchmark.voltdb to the VoltDB servers (e.g. localhost),
+ * ras.benchmark.events and ras.benchmark.batch to size the run. The events are spread over a few descriptive names,
+ * the hot UniqueValues rows of a syslog storm.
+ */
+@IgnoreIf({ System.getProperty("ras.benchmark.voltdb") == null })
+class RasEventStoreBenchmarkITSpec extends Specification {
+    static final String SERVERS = System.getProperty("ras.benchmark.voltdb")
+    static final int EVENTS = Integer.getInteger("ras.benchmark.events", 200_000)
+    static final int BATCH = Integer.getInteger("ras.benchmark.batch", 100)
+    static final String[] NAMES = ["RasBenchmarkEvent0", "RasBenchmarkEvent1", "RasBenchmarkEvent2",
+                                   "RasBenchmarkEvent3"]
+
+    Client client
+
+    def setup() {
+        client = ClientFactory.createClient()
+        SERVERS.split(",").each { client.createConnection(it.trim()) }
+    }
+
+    def cleanup() {
+        NAMES.each { client.callProcedure("@AdHoc", "DELETE FROM RasEvent WHERE DescriptiveName='" + it + "';") }
+        client.close()
+    }
+
+    ProcedureCallback callback(AtomicLong failures) {
+        return { ClientResponse response ->
+            if(response.status != ClientResponse.SUCCESS)
+                failures.incrementAndGet()
+        } as ProcedureCallback
+    }
+
+    double measure(String name, Closure store) {
+        AtomicLong failures = new AtomicLong()
+        long start = System.nanoTime()
+        store(callback(failures))
+        client.drain()
+        long elapsed = System.nanoTime() - start
+        assert failures.get() == 0L
+        double perSecond = EVENTS * 1_000_000_000.0 / elapsed
+        println(String.format("%s: %.0f RAS events/s", name, perSecond))
+        return perSecond
+    }
+
+    def "RasEventStoreBatch stores more events per second than RasEventStore"() {
+        when:
+        double single = measure("RasEventStore") { ProcedureCallback cb ->
+            for(int i = 0; i < EVENTS; i++)
+                client.callProcedure(cb, "RasEventStore", NAMES[i % NAMES.length], "Instance " + i,
+                        "R0-CH0-CN" + (i % 1024), null, System.currentTimeMillis() * 1000L, "RAS", 1L)
+        }
+        double batched = measure("RasEventStoreBatch of " + BATCH) { ProcedureCallback cb ->
+            for(int first = 0; first < EVENTS; first += BATCH * NAMES.length) {
+                NAMES.each { String descriptiveName ->
+                    int count = Math.max(0, Math.min(BATCH, (EVENTS - first).intdiv(NAMES.length)))
+                    String[] instanceData = (0..<count).collect { "Instance " + (first + it) } as String[]
+                    String[] lctns = (0..<count).collect { "R0-CH0-CN" + ((first + it) % 1024) } as String[]
+                    long now = System.currentTimeMillis() * 1000L
+                    client.callProcedure(cb, "RasEventStoreBatch", descriptiveName, instanceData, lctns,
+                            new String[count], (0..<count).collect { now } as long[], "RAS", 1L)
+                }
+            }
+        }
+
+        then:
+        batched > single
+    }
+}
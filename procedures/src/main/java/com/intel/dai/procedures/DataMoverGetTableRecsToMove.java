@@ -0,0 +1,110 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai.procedures;
+
+import org.voltdb.*;
+
+
+/**
+ * Single table flavor of DataMoverGetListOfRecsToMove, used by the streaming DataMover.
+ * Returns (at most lMaxRows of) the records of ONE of the DataMover tables that changed during the specified interval,
+ * ordered by DbUpdatedTimestamp, so the DataMover can page through the tables one short transaction at a time rather
+ * than holding a single transaction across all of the tables.
+ *
+ * The table is identified by its index in the results of DataMoverGetListOfRecsToMove (see the list in that class)!!!
+ */
+
+public class DataMoverGetTableRecsToMove extends VoltProcedure {
+
+    public final SQLStmt selectMachinesToBeMovedSql                   = new SQLStmt("SELECT * FROM Machine_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Sernum LIMIT ?;");
+    public final SQLStmt selectJobsToBeMovedSql                       = new SQLStmt("SELECT * FROM Job_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, JobId LIMIT ?;");
+    public final SQLStmt selectJobStepsToBeMovedSql                   = new SQLStmt("SELECT * FROM JobStep_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, JobId, JobStepId LIMIT ?;");
+    public final SQLStmt selectRacksToBeMovedSql                      = new SQLStmt("SELECT * FROM Rack_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectChassisToBeMovedSql                    = new SQLStmt("SELECT * FROM Chassis_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectComputeNodesToBeMovedSql               = new SQLStmt("SELECT * FROM ComputeNode_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectServiceNodesToBeMovedSql               = new SQLStmt("SELECT * FROM ServiceNode_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectServiceOperationsToBeMovedSql          = new SQLStmt("SELECT * FROM ServiceOperation_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectReplacement_HistoryToBeMovedSql        = new SQLStmt("SELECT * FROM Replacement_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectNonNodeHw_HistoryToBeMovedSql          = new SQLStmt("SELECT * FROM NonNodeHw_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+
+    // Note: we are intentionally "ignoring" RAS events that have a JobId = "?", as that ras event will be updated with the appropriate JobId value and we will move it to Tier2 at that time.
+    public final SQLStmt selectRasEventsToBeMovedSql                  = new SQLStmt("SELECT * FROM RasEvent WHERE (DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?)) AND (JobId IS DISTINCT FROM '?') ORDER BY DbUpdatedTimestamp ASC, DescriptiveName, Id LIMIT ?;");
+
+    public final SQLStmt selectWorkItemsToBeMovedSql                  = new SQLStmt("SELECT * FROM WorkItem_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, WorkingAdapterType, Id LIMIT ?;");
+    public final SQLStmt selectAdaptersToBeMovedSql                   = new SQLStmt("SELECT * FROM Adapter_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, AdapterType, Id LIMIT ?;");
+    public final SQLStmt selectBootImagesToBeMovedSql                 = new SQLStmt("SELECT * FROM BootImage_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Id LIMIT ?;");
+    public final SQLStmt selectSwitchesToBeMovedSql                   = new SQLStmt("SELECT * FROM Switch_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectFabricTopologyToBeMovedSql             = new SQLStmt("SELECT * FROM FabricTopology_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectLustreToBeMovedSql                     = new SQLStmt("SELECT * FROM Lustre_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectRasMetaDataToBeMovedSql                = new SQLStmt("SELECT * FROM RasMetaData WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectWlmReservationsToBeMovedSql            = new SQLStmt("SELECT * FROM WlmReservation_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectDiagsToBeMovedSql                      = new SQLStmt("SELECT * FROM Diag_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectMachineAdapterInstancesToBeMovedSql    = new SQLStmt("SELECT * FROM MachineAdapterInstance_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectUcsConfigValuesToBeMovedSql            = new SQLStmt("SELECT * FROM UcsConfigValue WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectUniqueValuesToBeMovedSql               = new SQLStmt("SELECT * FROM UniqueValues WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectDiagToolsToBeMovedSql                  = new SQLStmt("SELECT * FROM Diag_Tools WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectDiagListsToBeMovedSql                  = new SQLStmt("SELECT * FROM Diag_List WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectDiagResultsToBeMovedSql                = new SQLStmt("SELECT * FROM DiagResults WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectNodeInventory_HistoryToBeMovedSql      = new SQLStmt("SELECT * FROM NodeInventory_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectNonNodeHwInventory_HistoryToBeMovedSql = new SQLStmt("SELECT * FROM NonNodeHwInventory_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC, Lctn LIMIT ?;");
+    public final SQLStmt selectConstraintToBeMovedSql                 = new SQLStmt("SELECT * FROM Constraint WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectDimmToBeMovedSql                       = new SQLStmt("SELECT * FROM Dimm WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectProcessorToBeMovedSql                  = new SQLStmt("SELECT * FROM Processor WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectAcceleratorToBeMovedSql                = new SQLStmt("SELECT * FROM Accelerator WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectHfiToBeMovedSql                        = new SQLStmt("SELECT * FROM Hfi WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectRawHWInventory_HistoryToBeMovedSql     = new SQLStmt("SELECT * FROM RawHWInventory_History WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectRawDIMMToBeMovedSql                    = new SQLStmt("SELECT * FROM Raw_DIMM WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+    public final SQLStmt selectRawFRUHostToBeMovedSql                 = new SQLStmt("SELECT * FROM Raw_FRU_Host WHERE DbUpdatedTimestamp BETWEEN TO_TIMESTAMP(MICROSECOND, ?) AND TO_TIMESTAMP(MICROSECOND, ?) ORDER BY DbUpdatedTimestamp ASC LIMIT ?;");
+
+
+    // Indexed the same way as the results of DataMoverGetListOfRecsToMove.
+    private final SQLStmt[] aTableStmts = {
+         selectMachinesToBeMovedSql
+        ,selectJobsToBeMovedSql
+        ,selectJobStepsToBeMovedSql
+        ,selectRacksToBeMovedSql
+        ,selectChassisToBeMovedSql
+        ,selectComputeNodesToBeMovedSql
+        ,selectServiceNodesToBeMovedSql
+        ,selectServiceOperationsToBeMovedSql
+        ,selectReplacement_HistoryToBeMovedSql
+        ,selectNonNodeHw_HistoryToBeMovedSql
+        ,selectRasEventsToBeMovedSql
+        ,selectWorkItemsToBeMovedSql
+        ,selectAdaptersToBeMovedSql
+        ,selectBootImagesToBeMovedSql
+        ,selectSwitchesToBeMovedSql
+        ,selectFabricTopologyToBeMovedSql
+        ,selectLustreToBeMovedSql
+        ,selectRasMetaDataToBeMovedSql
+        ,selectWlmReservationsToBeMovedSql
+        ,selectDiagsToBeMovedSql
+        ,selectMachineAdapterInstancesToBeMovedSql
+        ,selectUcsConfigValuesToBeMovedSql
+        ,selectUniqueValuesToBeMovedSql
+        ,selectDiagToolsToBeMovedSql
+        ,selectDiagListsToBeMovedSql
+        ,selectDiagResultsToBeMovedSql
+        ,selectNodeInventory_HistoryToBeMovedSql
+        ,selectNonNodeHwInventory_HistoryToBeMovedSql
+        ,selectConstraintToBeMovedSql
+        ,selectDimmToBeMovedSql
+        ,selectProcessorToBeMovedSql
+        ,selectAcceleratorToBeMovedSql
+        ,selectHfiToBeMovedSql
+        ,selectRawHWInventory_HistoryToBeMovedSql
+        ,selectRawDIMMToBeMovedSql
+        ,selectRawFRUHostToBeMovedSql
+    };
+
+
+    public VoltTable[] run(long lTableIndx, long lEndTsInMicroSecs, long lStartTsInMicroSecs, long lMaxRows) throws VoltAbortException {
+        if (lTableIndx < 0 || lTableIndx >= aTableStmts.length)
+            throw new VoltAbortException("DataMoverGetTableRecsToMove - invalid table index " + lTableIndx + "!");
+        // Get the appropriate data out of this history table that needs to be moved to Tier2.
+        voltQueueSQL(aTableStmts[(int)lTableIndx], lStartTsInMicroSecs, lEndTsInMicroSecs, lMaxRows);
+        return voltExecuteSQL(true);
+    }
+}
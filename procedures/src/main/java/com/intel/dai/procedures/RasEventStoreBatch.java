@@ -0,0 +1,141 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai.procedures;
+
+import java.lang.*;
+import org.voltdb.*;
+
+/**
+ * Multi-row flavor of RasEventStore, stores many instances of one type of RAS event in a single (single partition)
+ * transaction.  The ids of the events are allocated as one block (a single update of the UniqueValues row) and the
+ * event type's control operation is read once, in the same round trip as the current "next unique id".
+ * NOTE: the RasMetaData is read in every transaction rather than cached in this class, Volt requires the procedures
+ *       to be deterministic and a cache refreshed at different times on different sites could make replicas differ.
+ *
+ *  Returns: long lFirstUniqueId = The id generated for the first of the RAS events, the others get the following ids (in array order).
+ *                                 NOTE: it will be a negative number (-1 * lFirstUniqueId) if there IS a Control Operation associated with these ras events!
+ *                                 Zero if there were no events to store.
+ *
+ *  Input parameter:
+ *      String   sDescriptiveName = Identifies which type of events occurred, e.g., "RasGenAdapterAbend", "RasWorkItemFindAndOwnFailed" (the partitioning column)
+ *      String[] aInstanceData    = Data specific to each instance of the event
+ *      String[] aLctns           = Location of the hardware that each event occurred on.  Note: string of "" indicates Lctn should be set to NULL in db
+ *      String[] aJobIds          = Job Id of each event - Note: value of null, indicates that JobId in data store record should be set to null.
+ *      long[]   aTsInMicroSecs   = Time that the event that triggered each RAS Event occurred
+ *      String   sReqAdapterType  = Type of adapter that requested this stored procedure
+ *      long     lReqWorkItemId   = Work Item Id that the requesting adapter was performing when it requested this stored procedure
+ */
+
+public class RasEventStoreBatch extends VoltProcedure {
+
+    public final SQLStmt selectUniqueIdSql = new SQLStmt("SELECT NextValue FROM UniqueValues WHERE Entity = ? Order By Entity;");
+    public final SQLStmt updateUniqueIdSql = new SQLStmt("UPDATE UniqueValues SET NextValue = NextValue + ?, DbUpdatedTimestamp = ? WHERE Entity = ?;");
+    public final SQLStmt insertUniqueIdSql = new SQLStmt("INSERT INTO UniqueValues (Entity, NextValue, DbUpdatedTimestamp) VALUES (?, ?, ?);");
+
+    public final SQLStmt selectRasEventControlOperationSql = new SQLStmt("SELECT ControlOperation FROM RasMetaData WHERE DescriptiveName = ?;");
+    public final SQLStmt insertRasEventSql = new SQLStmt("INSERT INTO RasEvent (Id, DescriptiveName, Lctn, JobId, ControlOperation, Done, InstanceData, DbUpdatedTimestamp, LastChgTimestamp, LastChgAdapterType, LastChgWorkItemId) " +
+                                                         "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);");
+
+    // The number of statements queued before they are executed (Volt limits the size of a batch).
+    static final int MaxStmtsPerBatch = 200;
+
+
+
+    public long run(String sDescriptiveName, String[] aInstanceData, String[] aLctns, String[] aJobIds, long[] aTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId) throws VoltAbortException {
+        int iNumEvents = aInstanceData.length;
+        if ((aLctns.length != iNumEvents) || (aJobIds.length != iNumEvents) || (aTsInMicroSecs.length != iNumEvents))
+            throw new VoltAbortException("RasEventStoreBatch - the instance data, lctn, job id and timestamp arrays must have the same length!");
+        if (iNumEvents == 0)
+            return 0L;
+
+        //--------------------------------------------------
+        // Get the current "next unique id" for the specified entity and this RAS event's Control Operation from its meta data.
+        //--------------------------------------------------
+        voltQueueSQL(selectUniqueIdSql, EXPECT_ZERO_OR_ONE_ROW, sDescriptiveName);
+        voltQueueSQL(selectRasEventControlOperationSql, EXPECT_ZERO_OR_ONE_ROW, sDescriptiveName);
+        VoltTable[] aResults = voltExecuteSQL();
+
+        //--------------------------------------------------
+        // Allocate a block of unique ids for these new RAS events.
+        //--------------------------------------------------
+        long lFirstUniqueId;
+        if (aResults[0].getRowCount() == 0) {
+            // No matching record for the specified entity - add a new row for the specified entity (that already accounts for this block of ids).
+            lFirstUniqueId = 1L;
+            voltQueueSQL(insertUniqueIdSql, sDescriptiveName, lFirstUniqueId + iNumEvents, this.getTransactionTime());
+        }
+        else {
+            lFirstUniqueId = aResults[0].asScalarLong();
+            voltQueueSQL(updateUniqueIdSql, EXPECT_ONE_ROW, iNumEvents, this.getTransactionTime(), sDescriptiveName);
+        }
+
+        boolean bCntrlActnPrsnt = false;
+        String sEventsControlOperation = null;
+        if (aResults[1].getRowCount() == 0) {
+            // There is NO meta data for this RAS DescriptiveName
+            sEventsControlOperation = "@@@Unknown-NoMetaData@@@";  // there is no meta data, so don't know what the Control Operations are for this RAS Event
+        } else {
+            aResults[1].advanceRow();
+            sEventsControlOperation = aResults[1].getString("ControlOperation");
+            if (aResults[1].wasNull())
+                sEventsControlOperation = null;
+            else {
+                // there was a control operation for these ras events
+                bCntrlActnPrsnt = true;
+                if (sEventsControlOperation.length() == 0)
+                    sEventsControlOperation = null;
+            }
+        }
+
+        //---------------------------------------------------------------------
+        // Insert the new rows into the RasEvent table
+        //---------------------------------------------------------------------
+        int iNumQueuedStmts = 1;  // the UniqueValues insert / update is queued in the first batch.
+        for (int i = 0; i < iNumEvents; ++i) {
+            String sLctn = aLctns[i];
+            if ((sLctn != null) && (sLctn.length() == 0))
+                sLctn  = null;
+            String sJobId = aJobIds[i];
+            if ((sJobId != null) && ((sJobId.length() == 0) || (sJobId.equals("null"))))
+                sJobId = null;
+            String sInstanceData = aInstanceData[i];
+            if (sInstanceData != null)
+                sInstanceData = sInstanceData.substring(0, Math.min(sInstanceData.length(), 500));
+            // Determine if there is anything more that the RAS adapter has to do with this event (or is this event done).
+            String sDone;
+            if ((sEventsControlOperation != null) ||        // Need to run a ControlOperation.
+                ((sJobId != null) && (sJobId.equals("?")))) // Need to fill-in job id.
+                // the event is not yet done (there is more for the RAS adapter to do with this event).
+                sDone = "N";
+            else
+                // the event is done (there is nothing more for the RAS adapter to do with this event)
+                sDone = "Y";
+            voltQueueSQL(insertRasEventSql
+                        ,lFirstUniqueId + i         // Ras Event Id
+                        ,sDescriptiveName           // DescriptiveName
+                        ,sLctn                      // Lctn
+                        ,sJobId                     // JobId
+                        ,sEventsControlOperation    // ControlOperation
+                        ,sDone                      // Done
+                        ,sInstanceData              // InstanceData
+                        ,this.getTransactionTime()  // Time that this record was inserted into data store (DbUpdatedTimestamp)
+                        ,aTsInMicroSecs[i]          // Time that this RAS Event was triggered (LastChgTimestamp)
+                        ,sReqAdapterType            // LastChgAdapterType
+                        ,lReqWorkItemId             // LastChgWorkItemId
+                        );
+            if ((++iNumQueuedStmts == MaxStmtsPerBatch) && (i < iNumEvents - 1)) {
+                voltExecuteSQL();
+                iNumQueuedStmts = 0;
+            }
+        }
+        voltExecuteSQL(true);
+
+        // Return the first new RAS event's id to the caller.
+        if (bCntrlActnPrsnt)
+            return (-lFirstUniqueId);  // Since there was a control operation associated with these ras events, send back negative form of the unique id (to indicate that there was a control operation)
+        else
+            return lFirstUniqueId;
+    }
+}
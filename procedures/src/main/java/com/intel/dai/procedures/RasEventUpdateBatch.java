@@ -0,0 +1,52 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai.procedures;
+
+import java.lang.*;
+import org.voltdb.*;
+
+/**
+ * Multi-row flavor of RasEventUpdate, fills in the JobId and Done flag of many instances of one type of RAS event in
+ * a single (single partition) transaction.
+ *
+ *  Returns: long lNumRasEventsUpdated = The number of RasEvent rows that were updated.
+ *
+ *  Input parameter:
+ *      String   sDescriptiveName = Identifies which type of events are being updated, e.g., "RasGenAdapterAbend" (the partitioning column)
+ *      long[]   aIds             = Ids of the events to update
+ *      String[] aJobIds          = JobId of each of the above events (parallel to aIds)
+ *      String   sDone            = Value of the Done flag for all of these events
+ */
+
+public class RasEventUpdateBatch extends VoltProcedure {
+
+    public final SQLStmt updateRasEventSql = new SQLStmt("UPDATE RasEvent SET JobId=?, Done=?, DbUpdatedTimestamp=? WHERE (DescriptiveName=? AND Id=?);");
+
+    // The number of statements queued before they are executed (Volt limits the size of a batch).
+    static final int MaxStmtsPerBatch = 200;
+
+
+    public long run(String sDescriptiveName, long[] aIds, String[] aJobIds, String sDone) throws VoltAbortException {
+        if (aIds.length != aJobIds.length)
+            throw new VoltAbortException("RasEventUpdateBatch - the number of ids (" + aIds.length + ") and job ids (" + aJobIds.length + ") differ!");
+        long lNumRasEventsUpdated = 0L;
+        for (int iBatchStart = 0; iBatchStart < aIds.length; iBatchStart += MaxStmtsPerBatch) {
+            int iBatchEnd = Math.min(aIds.length, iBatchStart + MaxStmtsPerBatch);
+            for (int i = iBatchStart; i < iBatchEnd; ++i) {
+                voltQueueSQL(updateRasEventSql
+                            ,aJobIds[i]                 // this event's JobId
+                            ,sDone                      // flag indicating whether we are finished with this ras event
+                            ,this.getTransactionTime()  // DbUpdatedTimestamp
+                            ,sDescriptiveName           // this event's descriptive name
+                            ,aIds[i]                    // this event's event id
+                            );
+            }
+            VoltTable[] aUpdated = voltExecuteSQL(iBatchEnd == aIds.length);
+            for (VoltTable vt : aUpdated)
+                lNumRasEventsUpdated += vt.asScalarLong();
+        }
+        return lNumRasEventsUpdated;
+    }
+}
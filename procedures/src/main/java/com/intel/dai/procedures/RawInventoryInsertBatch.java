@@ -0,0 +1,61 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.procedures;
+
+import org.voltdb.SQLStmt;
+import org.voltdb.VoltProcedure;
+
+/**
+ * Multi-row flavor of RawInventoryInsert, upserts many HW inventory locations (and the FRUs occupying them) in one
+ * transaction.  The arrays are parallel, one entry per location.
+ */
+public class RawInventoryInsertBatch extends VoltProcedure {
+    private static final String upsertFruSqlCmd =
+            "UPSERT INTO HW_Inventory_FRU (FRUID, FRUType, FRUSubType, FRUInfo)" +
+                    " VALUES (?, ?, ?, ?);";
+    private static final String upsertLocSqlCmd =
+            "UPSERT INTO HW_Inventory_Location (ID, Type, Ordinal, FRUID, Info)" +
+                    " VALUES (?, ?, ?, ?, ?);";
+
+    // The number of statements queued before they are executed (Volt limits the size of a batch).
+    static final int MaxStmtsPerBatch = 200;
+
+    public static final SQLStmt upsertIntoHWInvFruStmt = new SQLStmt(upsertFruSqlCmd);
+    public static final SQLStmt upsertIntoHWInvLocStmt = new SQLStmt(upsertLocSqlCmd);
+
+    /**
+     * @return The number of locations upserted.
+     */
+    public long run(String[] ids, String[] types, int[] ordinals, String[] infos,
+                    String[] fruIds, String[] fruTypes, String[] fruSubTypes, String[] fruInfos)
+            throws VoltAbortException {
+        int numLocs = ids.length;
+        if (types.length != numLocs || ordinals.length != numLocs || infos.length != numLocs ||
+                fruIds.length != numLocs || fruTypes.length != numLocs || fruSubTypes.length != numLocs ||
+                fruInfos.length != numLocs) {
+            throw new VoltAbortException("RawInventoryInsertBatch - all of the location arrays must have the same length!");
+        }
+
+        int numQueuedStmts = 0;
+        for (int i = 0; i < numLocs; i++) {
+            // If fruid is null, only the loc can be captured (the loc is most likely EMPTY).
+            if (fruIds[i] != null) {
+                voltQueueSQL(upsertIntoHWInvFruStmt, fruIds[i], fruTypes[i], fruSubTypes[i], fruInfos[i]);
+                numQueuedStmts++;
+            }
+            voltQueueSQL(upsertIntoHWInvLocStmt, ids[i], types[i], ordinals[i], fruIds[i], infos[i]);
+            numQueuedStmts++;
+            // Leave room for the two statements of the next location.
+            if (numQueuedStmts >= MaxStmtsPerBatch - 1 && i < numLocs - 1) {
+                voltExecuteSQL();
+                numQueuedStmts = 0;
+            }
+        }
+        if (numQueuedStmts > 0) {
+            voltExecuteSQL(true);
+        }
+        return numLocs;
+    }
+}
@@ -0,0 +1,36 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.procedures;
+
+import org.voltdb.SQLStmt;
+import org.voltdb.VoltProcedure;
+import org.voltdb.VoltTable;
+
+/**
+ * Upserts a raw DIMM document unless the stored document of the same DIMM (serial) is newer, so documents ingested
+ * out of order never replace a newer one.
+ */
+public class Raw_DIMM_Insert extends VoltProcedure {
+    public static final SQLStmt selectDocTimestampStmt = new SQLStmt(
+            "SELECT doc_timestamp FROM Raw_DIMM WHERE serial = ?;");
+    public static final SQLStmt upsertStmt = new SQLStmt(
+            "UPSERT INTO Raw_DIMM(id, serial, mac, locator, source, doc_timestamp, DbUpdatedTimestamp)" +
+                    " VALUES(?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP);");
+
+    /**
+     * @return 1 if the document was written, 0 if the stored document is newer.
+     */
+    public long run(String id, String serial, String mac, String locator, String source, long docTimestamp)
+            throws VoltAbortException {
+        voltQueueSQL(selectDocTimestampStmt, serial);
+        VoltTable stored = voltExecuteSQL()[0];
+        if (stored.advanceRow() && stored.getLong(0) > docTimestamp) {
+            return 0;
+        }
+        voltQueueSQL(upsertStmt, id, serial, mac, locator, source, docTimestamp);
+        voltExecuteSQL(true);
+        return 1;
+    }
+}
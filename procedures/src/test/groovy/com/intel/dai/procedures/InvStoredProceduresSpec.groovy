@@ -4,7 +4,9 @@
 //
 package com.intel.dai.procedures
 
+import org.voltdb.VoltProcedure
 import org.voltdb.VoltTable
+import org.voltdb.VoltType
 
 class InvStoredProceduresSpec extends spock.lang.Specification {
     def "UpsertLocationIntoHWInv"() {
@@ -30,6 +32,84 @@ class InvStoredProceduresSpec extends spock.lang.Specification {
 //        null       | null       | null         || RawInventoryInsert.FAILED
     }
 
+    def "RawInventoryInsertBatch"() {
+        given:
+        def upserter = Spy(RawInventoryInsertBatch)
+        def queued = []
+        upserter.voltQueueSQL(*_) >> { args -> queued.add(args[0]) }
+        int numLocs = 150
+        String[] ids = (0..<numLocs).collect { "x0c0s" + it } as String[]
+        String[] fruIds = (0..<numLocs).collect { it % 2 == 0 ? "fru" + it : null } as String[]
+        String[] other = new String[numLocs]
+
+        when:
+        def res = upserter.run(ids, other, new int[numLocs], other, fruIds, other, other, other)
+
+        then:
+        res == numLocs
+        queued.size() == numLocs + numLocs.intdiv(2)
+        1 * upserter.voltExecuteSQL() >> []
+        1 * upserter.voltExecuteSQL(true) >> []
+    }
+
+    def "RawInventoryInsertBatch with mismatched arrays"() {
+        given:
+        def upserter = Spy(RawInventoryInsertBatch)
+
+        when:
+        upserter.run(new String[2], new String[2], new int[1], new String[2], new String[2], new String[2],
+                new String[2], new String[2])
+
+        then:
+        thrown VoltProcedure.VoltAbortException
+    }
+
+    def "Raw_DIMM_Insert keeps a newer stored document"() {
+        given:
+        def upserter = Spy(Raw_DIMM_Insert)
+        def stored = new VoltTable(new VoltTable.ColumnInfo("doc_timestamp", VoltType.BIGINT))
+        if (storedTimestamp != null)
+            stored.addRow(storedTimestamp)
+        upserter.voltQueueSQL(*_) >> {}
+        upserter.voltExecuteSQL() >> ([stored] as VoltTable[])
+
+        when:
+        def res = upserter.run("id", "serial", "mac", "locator", "{}", 10L)
+
+        then:
+        res == expectedResult
+        writes * upserter.voltExecuteSQL(true) >> new VoltTable[1]
+
+        where:
+        storedTimestamp || expectedResult | writes
+        null            || 1              | 1
+        9L              || 1              | 1
+        10L             || 1              | 1
+        11L             || 0              | 0
+    }
+
+    def "Raw_FRU_Host_Insert keeps a newer stored document"() {
+        given:
+        def upserter = Spy(Raw_FRU_Host_Insert)
+        def stored = new VoltTable(new VoltTable.ColumnInfo("doc_timestamp", VoltType.BIGINT))
+        if (storedTimestamp != null)
+            stored.addRow(storedTimestamp)
+        upserter.voltQueueSQL(*_) >> {}
+        upserter.voltExecuteSQL() >> ([stored] as VoltTable[])
+
+        when:
+        def res = upserter.run("id", "boardSerial", "mac", "{}", 10L)
+
+        then:
+        res == expectedResult
+        writes * upserter.voltExecuteSQL(true) >> new VoltTable[1]
+
+        where:
+        storedTimestamp || expectedResult | writes
+        null            || 1              | 1
+        11L             || 0              | 0
+    }
+
     def "RawInventoryDump"() {
         given:
         def testSubject = Spy(RawInventoryDump)
@@ -0,0 +1,53 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai.procedures;
+
+import org.junit.Test;
+import org.voltdb.Expectation;
+import org.voltdb.SQLStmt;
+import org.voltdb.VoltProcedure;
+import org.voltdb.VoltTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DataMoverGetTableRecsToMoveTest {
+    class MockDataMoverGetTableRecsToMove extends DataMoverGetTableRecsToMove {
+        @Override
+        public void voltQueueSQL(final SQLStmt stmt, Expectation expectation, Object... args) { }
+
+        @Override
+        public void voltQueueSQL(final SQLStmt stmt, Object... args) {
+            queued.add(stmt);
+            lastArgs = args;
+        }
+
+        @Override
+        public VoltTable[] voltExecuteSQL(boolean value) {
+            return new VoltTable[0];
+        }
+
+        List<SQLStmt> queued = new ArrayList<>();
+        Object[] lastArgs;
+    }
+
+    @Test
+    public void run() {
+        MockDataMoverGetTableRecsToMove proc = new MockDataMoverGetTableRecsToMove();
+        proc.run(10L, 2000L, 1000L, 500L);
+        assertEquals(1, proc.queued.size());
+        assertSame(proc.selectRasEventsToBeMovedSql, proc.queued.get(0));
+        assertArrayEquals(new Object[] {1000L, 2000L, 500L}, proc.lastArgs);
+        proc.run(35L, 2000L, 1000L, 500L);
+        assertSame(proc.selectRawFRUHostToBeMovedSql, proc.queued.get(1));
+    }
+
+    @Test(expected = VoltProcedure.VoltAbortException.class)
+    public void runBadTableIndex() {
+        new MockDataMoverGetTableRecsToMove().run(36L, 2000L, 1000L, 500L);
+    }
+}
@@ -0,0 +1,134 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai.procedures;
+
+import org.junit.Test;
+import org.voltdb.Expectation;
+import org.voltdb.SQLStmt;
+import org.voltdb.VoltProcedure;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RasEventStoreBatchTest {
+    class MockRasEventStoreBatch extends RasEventStoreBatch {
+        @Override
+        public void voltQueueSQL(final SQLStmt stmt, Expectation expectation, Object... args) {
+            voltQueueSQL(stmt, args);
+        }
+
+        @Override
+        public void voltQueueSQL(final SQLStmt stmt, Object... args) {
+            statements.add(stmt);
+            arguments.add(args);
+        }
+
+        @Override
+        public VoltTable[] voltExecuteSQL(boolean value) {
+            executions++;
+            if(executions == 1)
+                return new VoltTable[] {uniqueId_, control_};
+            return new VoltTable[0];
+        }
+
+        @Override
+        public Date getTransactionTime() {
+            return Date.from(Instant.now());
+        }
+
+        MockRasEventStoreBatch(Long nextValue, boolean hasMetaData, String controlOperation) {
+            uniqueId_ = new VoltTable(new VoltTable.ColumnInfo("NextValue", VoltType.BIGINT));
+            if(nextValue != null)
+                uniqueId_.addRow(nextValue);
+            control_ = new VoltTable(new VoltTable.ColumnInfo("ControlOperation", VoltType.STRING));
+            if(hasMetaData)
+                control_.addRow(controlOperation);
+        }
+
+        List<SQLStmt> statements = new ArrayList<>();
+        List<Object[]> arguments = new ArrayList<>();
+        int executions = 0;
+        private final VoltTable uniqueId_;
+        private final VoltTable control_;
+    }
+
+    private static long run(RasEventStoreBatch proc, int count) {
+        String[] instanceData = new String[count];
+        String[] lctns = new String[count];
+        String[] jobIds = new String[count];
+        long[] timestamps = new long[count];
+        for(int i = 0; i < count; i++) {
+            instanceData[i] = "Data" + i;
+            lctns[i] = (i % 2 == 0) ? "" : "R0-CH0-CN" + i;
+            jobIds[i] = (i % 3 == 0) ? "?" : "null";
+            timestamps[i] = 1000L + i;
+        }
+        return proc.run("RasGenAdapterAbend", instanceData, lctns, jobIds, timestamps, "RAS", 9999L);
+    }
+
+    @Test
+    public void runAllocatesABlockOfIds() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch(12L, true, null);
+        assertEquals(12L, run(proc, 3));
+        assertSame(proc.updateUniqueIdSql, proc.statements.get(2));
+        assertEquals(3, proc.arguments.get(2)[0]);
+        assertEquals(6, proc.statements.size());
+        Object[] first = proc.arguments.get(3);
+        assertEquals(12L, first[0]);
+        assertNull(first[2]);
+        assertEquals("?", first[3]);
+        assertEquals("N", first[5]);
+        Object[] second = proc.arguments.get(4);
+        assertEquals(13L, second[0]);
+        assertEquals("R0-CH0-CN1", second[2]);
+        assertNull(second[3]);
+        assertEquals("Y", second[5]);
+        assertEquals(14L, proc.arguments.get(5)[0]);
+        assertEquals(2, proc.executions);
+    }
+
+    @Test
+    public void runForANewEntity() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch(null, true, "ErrorOnComputeNode");
+        assertEquals(-1L, run(proc, 2));
+        assertSame(proc.insertUniqueIdSql, proc.statements.get(2));
+        assertEquals(3L, proc.arguments.get(2)[1]);
+        assertEquals("ErrorOnComputeNode", proc.arguments.get(3)[4]);
+        assertEquals("N", proc.arguments.get(4)[5]);
+    }
+
+    @Test
+    public void runWithoutMetaData() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch(5L, false, null);
+        assertEquals(5L, run(proc, 1));
+        assertEquals("@@@Unknown-NoMetaData@@@", proc.arguments.get(3)[4]);
+    }
+
+    @Test
+    public void runInSeveralBatches() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch(1L, true, null);
+        run(proc, RasEventStoreBatch.MaxStmtsPerBatch * 2);
+        assertEquals(4, proc.executions);
+        assertEquals(RasEventStoreBatch.MaxStmtsPerBatch * 2 + 3, proc.statements.size());
+    }
+
+    @Test
+    public void runNothing() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch(1L, true, null);
+        assertEquals(0L, proc.run("RasGenAdapterAbend", new String[0], new String[0], new String[0], new long[0], "RAS", 1L));
+        assertEquals(0, proc.executions);
+    }
+
+    @Test(expected = VoltProcedure.VoltAbortException.class)
+    public void runMismatchedArrays() {
+        new MockRasEventStoreBatch(1L, true, null).run("RasGenAdapterAbend", new String[2], new String[1], new String[2], new long[2], "RAS", 1L);
+    }
+}
@@ -0,0 +1,79 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai.procedures;
+
+import org.junit.Test;
+import org.voltdb.Expectation;
+import org.voltdb.SQLStmt;
+import org.voltdb.VoltProcedure;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RasEventUpdateBatchTest {
+    class MockRasEventUpdateBatch extends RasEventUpdateBatch {
+        @Override
+        public void voltQueueSQL(final SQLStmt stmt, Expectation expectation, Object... args) { }
+
+        @Override
+        public void voltQueueSQL(final SQLStmt stmt, Object... args) {
+            queued.add(args);
+        }
+
+        @Override
+        public VoltTable[] voltExecuteSQL(boolean value) {
+            VoltTable[] result = new VoltTable[queued.size() - executed];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = new VoltTable(new VoltTable.ColumnInfo("modified_tuples", VoltType.BIGINT));
+                result[i].addRow(1L);
+            }
+            executed = queued.size();
+            batches.add(value);
+            return result;
+        }
+
+        @Override
+        public Date getTransactionTime() {
+            return Date.from(Instant.now());
+        }
+
+        List<Object[]> queued = new ArrayList<>();
+        List<Boolean> batches = new ArrayList<>();
+        int executed = 0;
+    }
+
+    @Test
+    public void run() {
+        MockRasEventUpdateBatch proc = new MockRasEventUpdateBatch();
+        assertEquals(2L, proc.run("RasGenAdapterAbend", new long[] {5L, 6L}, new String[] {"1.head", null}, "Y"));
+        assertEquals(2, proc.queued.size());
+        assertEquals("1.head", proc.queued.get(0)[0]);
+        assertEquals("Y", proc.queued.get(0)[1]);
+        assertEquals("RasGenAdapterAbend", proc.queued.get(0)[3]);
+        assertEquals(6L, proc.queued.get(1)[4]);
+        assertNull(proc.queued.get(1)[0]);
+    }
+
+    @Test
+    public void runInSeveralBatches() {
+        MockRasEventUpdateBatch proc = new MockRasEventUpdateBatch();
+        int count = RasEventUpdateBatch.MaxStmtsPerBatch * 2 + 1;
+        assertEquals(count, proc.run("RasGenAdapterAbend", new long[count], new String[count], "Y"));
+        assertEquals(3, proc.batches.size());
+        assertFalse(proc.batches.get(0));
+        assertTrue(proc.batches.get(2));
+    }
+
+    @Test(expected = VoltProcedure.VoltAbortException.class)
+    public void runMismatchedArrays() {
+        new MockRasEventUpdateBatch().run("RasGenAdapterAbend", new long[2], new String[1], "Y");
+    }
+}
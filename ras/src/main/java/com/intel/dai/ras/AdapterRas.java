@@ -11,7 +11,6 @@ import com.intel.dai.control.*;
 import com.intel.dai.exceptions.AdapterException;
 import org.voltdb.client.*;
 import org.voltdb.VoltTable;
-import org.voltdb.VoltTableRow;
 import com.intel.dai.Adapter;
 import java.util.regex.Pattern;
 import java.io.*;
@@ -40,7 +39,10 @@ public class AdapterRas {
         log_ = logger;
         adapter_ = adapter;
         lastTimeInMsDidChkForExpiredJobs_ = System.currentTimeMillis();
-        mCachedJobInfoMap = null;
+        lastTimeInMsDidFullJobIndexRefresh_ = 0L;
+        lJobIndexLastChangeTs_ = 0L;
+        mJobIntervalIndex = null;
+        mReportedUnexpectedJobLctns = new HashSet<String>();
         mNodesInServiceArraylist = new ArrayList<String>();
     }   // ctor
 
@@ -50,7 +52,10 @@ public class AdapterRas {
     private ControlApi  controlHandler_;
     private Logger      log_;
     private long        lastTimeInMsDidChkForExpiredJobs_;  // the last time (in milliseconds) that we checked for expired jobs.
-    private HashMap<String, ArrayList<VoltTableRow>> mCachedJobInfoMap = null;
+    private long        lastTimeInMsDidFullJobIndexRefresh_;  // the last time (in milliseconds) that we rebuilt the job interval index from the whole InternalCachedJobs table.
+    private long        lJobIndexLastChangeTs_;  // the latest InternalCachedJobs DbUpdatedTimestamp (in microseconds) applied to the job interval index.
+    private JobIntervalIndex mJobIntervalIndex = null;
+    private HashSet<String> mReportedUnexpectedJobLctns;  // unexpected lctn/jobid cached job entries that were already reported.
     private ArrayList<String> mNodesInServiceArraylist;
 
 
@@ -88,6 +93,19 @@ public class AdapterRas {
     }   // End class RasEventData
 
 
+    // The RasEvent updates (parallel lists of event ids and job ids) for one DescriptiveName, see RasEventUpdateBatch.
+    private static class RasEventUpdates {
+        void add(long lRasEventId, String sRasEventJobid) {
+            alRasEventIds.add(lRasEventId);
+            alRasEventJobids.add(sRasEventJobid);
+        }
+
+        // Member Data
+        ArrayList<Long>   alRasEventIds    = new ArrayList<Long>();
+        ArrayList<String> alRasEventJobids = new ArrayList<String>();
+    }   // End class RasEventUpdates
+
+
     //     // Perform an iterative binary search through the cached job info looking for first row with specified Lctn.
     //     // Returns:
     //     //      -1 = Lctn was not found
@@ -137,50 +155,27 @@ public class AdapterRas {
     //     }   // End binarySearchCachedJobInfo(HashMap<String, VoltTableRow> mCachedJobInfoMap, String sLctn)
 
 
-    // Use a stored procedure to get this RAS events associated job id (if any).
-    private String getThisEventsJobIdFromCachedJobInfo(String sRasEventDescrName, String sRasEventLctn, long lRasEventId, long lRasEventTsInMicroSecs, HashMap<String, ArrayList<VoltTableRow>> mCachedJobInfoMap) {
-        String sFndJobId = null;
-        // Get the ArrayList of volt table rows for this lctn's cached job information.
-        ArrayList<VoltTableRow> alVoltTableRow = mCachedJobInfoMap.get(sRasEventLctn);
-        if ((alVoltTableRow == null) || (alVoltTableRow.isEmpty())) {
-            // there wasn't any cached job information for this lctn.
+    // Get this RAS event's associated job id (if any) from the cached job info.
+    private String getThisEventsJobIdFromCachedJobInfo(String sRasEventDescrName, String sRasEventLctn, long lRasEventId, long lRasEventTsInMicroSecs) {
+        String sFndJobId = mJobIntervalIndex.findJobId(sRasEventLctn, lRasEventTsInMicroSecs, (sFirstJobId, sSecondJobId) -> {
+            // Problem occurred there should not be 2 jobs active on the same node at same time.
+            String sInstanceData = "OrigRasEventDescrName=" + sRasEventDescrName + ", OrigRasEventId=" + lRasEventId + ", Lctn=" + sRasEventLctn +
+                                   ", 1stJobId=" + sFirstJobId + ", 2ndJobId=" + sSecondJobId;
+            log_.error("Detected that there were multiple jobs using the same ComputeNode - " + sInstanceData);
+            adapter_.logRasEventNoEffectedJob("RasMultipleJobsUsingSameNode"
+                                             ,sInstanceData
+                                             ,sRasEventLctn
+                                             ,System.currentTimeMillis() * 1000L
+                                             ,adapter_.adapterType()
+                                             ,workQueue_.baseWorkItemId()
+                                             );
+        });
+        if (sFndJobId == null) {
+            // there wasn't any cached job information for this lctn at this time.
             log_.debug("Did NOT find %s in the cached job info, so there is no JobId for this event", sRasEventLctn);
         }
-        else {
-            // we have the array list of entries for this lctn - loop through checking for the associated job id.
-            // Step through the entries for this lctn, in the cached job info, looking for a matching job id.
-            for (VoltTableRow vtRow : alVoltTableRow) {
-                // Check & see if this job was started before this ras event occurred.
-                if (vtRow.getTimestampAsLong("StartTimestamp") <= lRasEventTsInMicroSecs) {
-                    // this job's start timestamp was before this ras event occurred.
-                    // Check & see if this job was still active when this ras event occurred.
-                    long lCachedJobsEndTs = vtRow.getTimestampAsLong("EndTimestamp");
-                    if ((vtRow.wasNull()) || (lCachedJobsEndTs >= lRasEventTsInMicroSecs)) {
-                        // found the job - this job was still active when this ras event occurred.
-                        if (sFndJobId != null) {
-                            // we already found a job id for this RAS event
-                            // Problem occurred there should not be 2 jobs active on the same node at same time.
-                            String sInstanceData = "OrigRasEventDescrName=" + sRasEventDescrName + ", OrigRasEventId=" + lRasEventId + ", Lctn=" + sRasEventLctn +
-                                                   ", 1stJobId=" + sFndJobId + ", 2ndJobId=" + vtRow.getString("JobId");
-                            log_.error("Detected that there were multiple jobs using the same ComputeNode - " + sInstanceData);
-                            adapter_.logRasEventNoEffectedJob("RasMultipleJobsUsingSameNode"
-                                                             ,sInstanceData
-                                                             ,sRasEventLctn
-                                                             ,System.currentTimeMillis() * 1000L
-                                                             ,adapter_.adapterType()
-                                                             ,workQueue_.baseWorkItemId()
-                                                             );
-                        }
-                        else {
-                            // Found the job id, save it away.
-                            sFndJobId = vtRow.getString("JobId");
-                        }
-                    }
-                }
-            }
-        }
         return sFndJobId;
-    }   // End getThisEventsJobIdFromCachedJobInfo(String sRasEventDescrName, String sRasEventLctn, long lRasEventId, long lRasEventTsInMicroSecs, HashMap<String, ArrayList<VoltTableRow>> mCachedJobInfoMap)
+    }   // End getThisEventsJobIdFromCachedJobInfo(String sRasEventDescrName, String sRasEventLctn, long lRasEventId, long lRasEventTsInMicroSecs)
 
 
     //--------------------------------------------------------------------------
@@ -276,61 +271,93 @@ public class AdapterRas {
     }   // End handleFillingInJobIdsAndControlOps()
 
 
-    private HashMap<String, ArrayList<VoltTableRow>> createCachedJobInfoMap() throws IOException, ProcCallException {
-        // Create an entry in the hash map for each compute node lctn defined in this machine.
-        log_.debug("Creating HashMap of ArrayList<VoltTableRow> ");
+    //--------------------------------------------------------------------------
+    // Update the JobId, Done, and DbUpdatedTimestamp columns of the finished RAS events, one RasEventUpdateBatch call per DescriptiveName
+    // (the partitioning column of the RasEvent table).
+    //--------------------------------------------------------------------------
+    private void updateRasEventsInBatches(Map<String, RasEventUpdates> mapRasEventUpdates, String sRasEventDone) throws IOException {
+        String sTempStoredProcedure = "RasEventUpdateBatch";
+        for (Map.Entry<String, RasEventUpdates> entry : mapRasEventUpdates.entrySet()) {
+            RasEventUpdates updates = entry.getValue();
+            long[] aRasEventIds = new long[updates.alRasEventIds.size()];
+            for (int i = 0; i < aRasEventIds.length; ++i)
+                aRasEventIds[i] = updates.alRasEventIds.get(i);
+            String sPertinentInfo = "DescrName=" + entry.getKey() + ",NumEvents=" + aRasEventIds.length + ",Done=" + sRasEventDone;
+            adapter_.client().callProcedure(adapter_.createHouseKeepingCallbackNoRtrnValue(adapter_.adapterType(), adapter_.adapterName(), sTempStoredProcedure, sPertinentInfo, workQueue_.workItemId()) // asynchronously invoke the procedure
+                                           ,sTempStoredProcedure    // stored procedure name
+                                           ,entry.getKey()          // these events' descriptive name
+                                           ,aRasEventIds            // these events' event ids
+                                           ,updates.alRasEventJobids.toArray(new String[0])  // these events' JobIds
+                                           ,sRasEventDone           // flag indicating whether we are finished with these ras events
+                                           );
+            log_.info("Called stored procedure %s - EventDescrName=%s, NumEvents=%d, Done=%s",
+                      sTempStoredProcedure, entry.getKey(), aRasEventIds.length, sRasEventDone);
+        }
+    }   // End updateRasEventsInBatches(Map<String, RasEventUpdates> mapRasEventUpdates, String sRasEventDone)
+
+
+    private JobIntervalIndex createJobIntervalIndex() throws IOException, ProcCallException {
+        // Create the index for the compute node lctns defined in this machine.
+        log_.debug("Creating the JobIntervalIndex");
         // Get the list of ComputeNodes defined in the system.
         ClientResponse response = adapter_.client().callProcedure("ComputeNodeListLctnAndSeqNum");
         VoltTable vt = response.getResults()[0];
-        // Create the Map object (of the size equal to number of compute nodes).
-        HashMap<String, ArrayList<VoltTableRow>> tempCachedJobInfoMap = new HashMap<String, ArrayList<VoltTableRow>>(vt.getRowCount());
-        // Loop through each of the ComputeNodes defined in the ComputeNode table
-        // (initializing the hashmap entries).
-        for (int iCnCntr = 0; iCnCntr < vt.getRowCount(); ++iCnCntr) {
-            vt.advanceRow();
-            // Create the array list for this lctn w/ room for 3 entries.
-            ArrayList<VoltTableRow> alVt = new ArrayList<VoltTableRow>(3);
-            // Create the HashMap entry for this lctn and associating it with its ArrayList.
-            tempCachedJobInfoMap.put(vt.getString("Lctn"), alVt);
-        }
-        log_.debug("Created  HashMap of ArrayList<VoltTableRow> - CachedJobInfoMap.size() = %d", tempCachedJobInfoMap.size());
-        return tempCachedJobInfoMap;
-    }   // End createCachedJobInfoMap()
+        ArrayList<String> alNodeLctns = new ArrayList<String>(vt.getRowCount());
+        while (vt.advanceRow())
+            alNodeLctns.add(vt.getString("Lctn"));
+        log_.debug("Created  the JobIntervalIndex - NumComputeNodes = %d", alNodeLctns.size());
+        return new JobIntervalIndex(alNodeLctns);
+    }   // End createJobIntervalIndex()
 
 
-    private int fillInCachedJobInfoMap(VoltTable vtListRasEventsThatNeedWorkDoneMaxTs, ClientResponse response) throws IOException, ProcCallException {
-        // There are RAS events that need work done - fill in the cached job info (because we don't want to have to call volt for each individual RAS event).
-        int tempNumEntriesInCachedJobInfoMap = 0;
-        vtListRasEventsThatNeedWorkDoneMaxTs.advanceRow();  // advance to the VoltTable row that has the maximum LastChgTimestamp value within this list of RAS events.
-        // Get the list of cached job info entries.
-        response = adapter_.client().callProcedure("InternalCachedJobsGetListOfActiveInternalCachedJobsUsingTimestamp", vtListRasEventsThatNeedWorkDoneMaxTs.getTimestampAsTimestamp(0), vtListRasEventsThatNeedWorkDoneMaxTs.getTimestampAsTimestamp(0));
+    //--------------------------------------------------------------------------
+    // Bring the cached job info up to date by applying the InternalCachedJobs rows that changed since the last refresh
+    // (job starts and job ends) rather than re-querying the active jobs for every batch of RAS events.
+    // The changes are re-read from a while before the last change seen, the job end timestamps are set with the WLM
+    // adapter's clock and a change can commit after a later one, applying a change twice does no harm.
+    // Periodically the index is rebuilt from the whole table, this drops the entries that were deleted from the table
+    // by something other than InternalCachedJobsRemoveExpiredJobs.
+    // Returns:
+    //      Number of entries in the cached job info.
+    //--------------------------------------------------------------------------
+    private int refreshJobIntervalIndex() throws IOException, ProcCallException {
+        final long NumSecsBetweenFullJobIndexRefreshes = 300L;
+        final long NumSecsOfJobChangesToReread = 60L;
+        long lChangedSinceTs = Math.max(0L, lJobIndexLastChangeTs_ - (NumSecsOfJobChangesToReread * 1000L * 1000L));
+        if ((mJobIntervalIndex == null) || (System.currentTimeMillis() > (lastTimeInMsDidFullJobIndexRefresh_ + (NumSecsBetweenFullJobIndexRefreshes * 1000L)))) {
+            mJobIntervalIndex = createJobIntervalIndex();
+            mReportedUnexpectedJobLctns.clear();
+            lastTimeInMsDidFullJobIndexRefresh_ = System.currentTimeMillis();
+            lChangedSinceTs = 0L;
+        }
+        // Get the changed cached job info entries.
+        ClientResponse response = adapter_.client().callProcedure("InternalCachedJobsGetListOfChangedInternalCachedJobs", lChangedSinceTs);
         VoltTable vtCachedJobInfo = response.getResults()[0];
-        // Spin through putting this cached job info into our map.
-        for (int i=0; i < vtCachedJobInfo.getRowCount(); ++i) {
-            vtCachedJobInfo.advanceRow();
-            // Get this node's array list object out of the map of cached job info.
-            ArrayList<VoltTableRow> alVoltTableRow = mCachedJobInfoMap.get(vtCachedJobInfo.getString("NodeLctn"));
-            if (alVoltTableRow != null) {
-                // Add this cached job info entry into the array list.
-                alVoltTableRow.add( vtCachedJobInfo.cloneRow() );
-                ++tempNumEntriesInCachedJobInfoMap; // bump the number of entries in the cached map.
-            }
-            else {
-                // Could not add this cached job lctn into the CachedJobInfo map because it is an unexpected lctn.
-                log_.error("While filling in the CachedJobInfo map we found an unexpected lctn (%s), this lctn does not have an entry in the pre-built CachedJobInfoMap object - skipping this entry!",
-                           vtCachedJobInfo.getString("NodeLctn"));
+        // Spin through applying this cached job info to our index.
+        while (vtCachedJobInfo.advanceRow()) {
+            String sNodeLctn = vtCachedJobInfo.getString("NodeLctn");
+            String sJobId    = vtCachedJobInfo.getString("JobId");
+            long lEndTs = vtCachedJobInfo.getTimestampAsLong("EndTimestamp");
+            Long lTempEndTs = (vtCachedJobInfo.wasNull()) ? null : lEndTs;
+            long lDbUpdatedTs = vtCachedJobInfo.getTimestampAsLong("DbUpdatedTimestamp");
+            lJobIndexLastChangeTs_ = Math.max(lJobIndexLastChangeTs_, lDbUpdatedTs);
+            if (!mJobIntervalIndex.update(sNodeLctn, sJobId, vtCachedJobInfo.getTimestampAsLong("StartTimestamp"), lTempEndTs, lDbUpdatedTs)
+                    && mReportedUnexpectedJobLctns.add(sNodeLctn + "/" + sJobId)) {
+                // Could not add this cached job lctn into the CachedJobInfo index because it is an unexpected lctn.
+                log_.error("While filling in the CachedJobInfo index we found an unexpected lctn (%s), this lctn is not a ComputeNode known to the JobIntervalIndex - skipping this entry!",
+                           sNodeLctn);
                 adapter_.logRasEventNoEffectedJob("RasUnableToAddLctnToCachedjobinfomap"
                                                  ,null
-                                                 ,vtCachedJobInfo.getString("NodeLctn") // Lctn associated with this ras event
-                                                 ,System.currentTimeMillis() * 1000L    // Current time, in micro-seconds since epoch
-                                                 ,adapter_.adapterType()                // type of adapter_ that is generating this ras event
-                                                 ,workQueue_.workItemId()               // work item that is being worked on that resulted in the generation of this ras event
+                                                 ,sNodeLctn                          // Lctn associated with this ras event
+                                                 ,System.currentTimeMillis() * 1000L // Current time, in micro-seconds since epoch
+                                                 ,adapter_.adapterType()             // type of adapter_ that is generating this ras event
+                                                 ,workQueue_.workItemId()            // work item that is being worked on that resulted in the generation of this ras event
                                                  );
             }
         }
-        log_.info("Put %d entries into the cached job information map", tempNumEntriesInCachedJobInfoMap);
-        return tempNumEntriesInCachedJobInfoMap;
-    }   // End fillInCachedJobInfoMap(VoltTable vtListRasEventsThatNeedWorkDoneMaxTs, ClientResponse response)
+        log_.info("Applied %d changed entries to the cached job information, it has %d entries", vtCachedJobInfo.getRowCount(), mJobIntervalIndex.size());
+        return mJobIntervalIndex.size();
+    }   // End refreshJobIntervalIndex()
 
 
     //----------------------------------------------------------------------
@@ -587,7 +614,7 @@ public class AdapterRas {
             // this is a fully qualified ComputeNode location - it IS capable of having a job associated with it.
             // Get the JobId (if any) that was running on this event's lctn at the specified time.
             sFndJobId = getThisEventsJobIdFromCachedJobInfo(event.sRasEventDescrName, event.sRasEventLctn, event.lRasEventId,
-                                                            event.lRasEventLastChgTsInMicroSecs, mCachedJobInfoMap);
+                                                            event.lRasEventLastChgTsInMicroSecs);
         }
 
         // See if this is a fully qualified ServiceNode location - service nodes can't have an associated job id.
@@ -626,11 +653,6 @@ public class AdapterRas {
     private long fillInJobIdAndRunControlOps(SimpleDateFormat sqlDateFormat) throws IOException, ProcCallException, InterruptedException, AdapterException
     {
         ClientResponse response = null;
-        //----------------------------------------------------------------------
-        // Ensure that the CachedJobInfo map (w/ entry for each possible ComputeNode Lctn) has already been setup.
-        //----------------------------------------------------------------------
-        if (mCachedJobInfoMap == null)
-            mCachedJobInfoMap = createCachedJobInfoMap();
 
         //----------------------------------------------------------------------
         // Get a list of RAS events that still need work to be done (by the RAS adapter), for instance
@@ -652,7 +674,6 @@ public class AdapterRas {
             throw new RuntimeException(response.getStatusString());
         }
         VoltTable vtListRasEventsThatNeedWorkDone      = response.getResults()[0];  // List of RasEvents which need to be finished.
-        VoltTable vtListRasEventsThatNeedWorkDoneMaxTs = response.getResults()[1];  // Maximum LastChgTimestamp column value within the list returned above.
 
         //----------------------------------------------------------------------
         // Check & see if there are any RAS events that need any work done for them.
@@ -660,62 +681,45 @@ public class AdapterRas {
         if (vtListRasEventsThatNeedWorkDone.getRowCount() > 0)
         {   // at least 1 ras event needs work done.
             log_.info("Found %d RAS events that need to be finished", vtListRasEventsThatNeedWorkDone.getRowCount());
-            // Fill in the CachedJobInfo map.
-            int iNumEntriesInCachedJobInfoMap = fillInCachedJobInfoMap(vtListRasEventsThatNeedWorkDoneMaxTs, response);
+            // Bring the CachedJobInfo index up to date.
+            int iNumEntriesInCachedJobInfoMap = refreshJobIntervalIndex();
             // Fill in the list of nodes that are currently being serviced.
             fillInCachedNodesBeingServicedList(response);
 
             //----------------------------------------------------------------------
             // Loop through each of the RAS events in the list and handle any work they need done.
+            // The RasEvent updates are collected per DescriptiveName and made in batches once the loop is done
+            // (or fails part way, so the control operations that did run are not run again).
             //----------------------------------------------------------------------
-            for (int iRasEventCntr = 0; iRasEventCntr < vtListRasEventsThatNeedWorkDone.getRowCount(); ++iRasEventCntr) {
-                vtListRasEventsThatNeedWorkDone.advanceRow();
-                RasEventData event = new RasEventData(vtListRasEventsThatNeedWorkDone);
-
-                //------------------------------------------------------------------
-                // Find the appropriate job id for this RAS event.
-                //------------------------------------------------------------------
-                if ((event.sRasEventJobid != null) && event.sRasEventJobid.equals("?"))
-                    event.sRasEventJobid = findJobidForThisEvent(event, iNumEntriesInCachedJobInfoMap);
-
-                //------------------------------------------------------------------
-                // Handle the specified ControlOperation for this RAS event.
-                //------------------------------------------------------------------
-                if (event.sRasEventControlOperation != null)
-                    handleControlOperationForThisEvent(event);
-
-                //------------------------------------------------------------------
-                // Update the RAS event's JobId, Done, and DbUpdatedTimestamp columns.
-                //------------------------------------------------------------------
-                String sTempStoredProcedure = "RasEventUpdate";
-                final String RasEventDone = "Y";  // indicate that we have finished everything for this ras event.
-                String sPertinentInfo = "DescrName=" + event.sRasEventDescrName + ",EventId=" + event.sRasEventId + ",Lctn=" + event.sRasEventLctn + "," +
-                                        "JobId=" + event.sRasEventJobid + ",ControlOperation=" + event.sRasEventControlOperation + ",Done=" + RasEventDone;
-                adapter_.client().callProcedure(adapter_.createHouseKeepingCallbackNoRtrnValue(adapter_.adapterType(), adapter_.adapterName(), sTempStoredProcedure, sPertinentInfo, workQueue_.workItemId()) // asynchronously invoke the procedure
-                                               ,sTempStoredProcedure     // stored procedure name
-                                               ,event.sRasEventJobid     // this event's JobId
-                                               ,RasEventDone             // flag indicating whether we are finished with this ras event
-                                               ,event.sRasEventDescrName // this event's descriptive name
-                                               ,event.lRasEventId        // this event's event id
-                                               );
-                log_.info("Called stored procedure %s - EventDescrName=%s, EventId=%d, JobId=%s, Done=%s",
-                          sTempStoredProcedure, event.sRasEventDescrName, event.lRasEventId, event.sRasEventJobid, RasEventDone);
-            }   // Loop through each of these RAS events and handle any work they need done.
-            log_.info("Finished %d RAS events that needed work done", vtListRasEventsThatNeedWorkDone.getRowCount());
-
-            //----------------------------------------------------------------------
-            // Clean up the CachedJobInfo map (map of cached job info) since we are done processing this invocation's data.
-            //----------------------------------------------------------------------
-            if (iNumEntriesInCachedJobInfoMap > 0) {
-                // we did put some entries into the map this iteration - so we need to clean up the map.
-                log_.debug("Cleaning up the HashMap of ArrayList<VoltTableRow> ");
-                // Remove any entries from each of this map's ArrayLists.
-                mCachedJobInfoMap.forEach((key,value)->{
-                    //log_.info("Clearing %s ArrayList in the Cached Job Info map", key);
-                    value.clear();
-                });
-                log_.debug("Cleaned  up the HashMap of ArrayList<VoltTableRow> ");
+            final String RasEventDone = "Y";  // indicate that we have finished everything for this ras event.
+            LinkedHashMap<String, RasEventUpdates> mapRasEventUpdates = new LinkedHashMap<String, RasEventUpdates>();
+            try {
+                for (int iRasEventCntr = 0; iRasEventCntr < vtListRasEventsThatNeedWorkDone.getRowCount(); ++iRasEventCntr) {
+                    vtListRasEventsThatNeedWorkDone.advanceRow();
+                    RasEventData event = new RasEventData(vtListRasEventsThatNeedWorkDone);
+
+                    //------------------------------------------------------------------
+                    // Find the appropriate job id for this RAS event.
+                    //------------------------------------------------------------------
+                    if ((event.sRasEventJobid != null) && event.sRasEventJobid.equals("?"))
+                        event.sRasEventJobid = findJobidForThisEvent(event, iNumEntriesInCachedJobInfoMap);
+
+                    //------------------------------------------------------------------
+                    // Handle the specified ControlOperation for this RAS event.
+                    //------------------------------------------------------------------
+                    if (event.sRasEventControlOperation != null)
+                        handleControlOperationForThisEvent(event);
+
+                    //------------------------------------------------------------------
+                    // Queue the update of the RAS event's JobId, Done, and DbUpdatedTimestamp columns.
+                    //------------------------------------------------------------------
+                    mapRasEventUpdates.computeIfAbsent(event.sRasEventDescrName, k -> new RasEventUpdates()).add(event.lRasEventId, event.sRasEventJobid);
+                }   // Loop through each of these RAS events and handle any work they need done.
             }
+            finally {
+                updateRasEventsInBatches(mapRasEventUpdates, RasEventDone);
+            }
+            log_.info("Finished %d RAS events that needed work done", vtListRasEventsThatNeedWorkDone.getRowCount());
 
             //----------------------------------------------------------------------
             // Clean up the list of nodes that are currently being serviced since we are done with this iteration's data.
@@ -744,6 +748,8 @@ public class AdapterRas {
                                                ,lExpirationTs * 1000L // Expiration time in micro-seconds since epoch
                                                );
                 log_.info("Called stored procedure %s - ExpirationTs=%s", sTempStoredProcedure, sExpirationTs);
+                // Remove the same entries from the cached job info.
+                mJobIntervalIndex.removeExpired(lExpirationTs * 1000L);
                 // Update the timestamp value since we just finished checking.
                 lastTimeInMsDidChkForExpiredJobs_ = System.currentTimeMillis();
             }   // periodically cleanup/delete expired entries in the InternalCachedJobs table once they are no longer needed.
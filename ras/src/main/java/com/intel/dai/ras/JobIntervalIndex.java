@@ -0,0 +1,280 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ras;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * In memory copy of the InternalCachedJobs table, indexed per compute node by an interval tree of the node's jobs so
+ * the job running on a node at a given time is found in O(log n). It is kept up to date by applying the changed rows
+ * of the table (job starts and ends) rather than reloading it.
+ */
+class JobIntervalIndex {
+    /**
+     * Called when more than one job was running on a node at the time of a lookup.
+     */
+    @FunctionalInterface
+    interface ConflictHandler {
+        void multipleJobs(String firstJobId, String secondJobId);
+    }
+
+    /**
+     * @param nodeLctns The compute node locations, jobs on other locations are rejected.
+     */
+    JobIntervalIndex(Collection<String> nodeLctns) {
+        nodeLctns_ = new HashSet<>(nodeLctns);
+    }
+
+    /**
+     * Add a job's node entry or apply a change to it (the InternalCachedJobs row of the job on that node).
+     *
+     * @param nodeLctn The node location.
+     * @param jobId The job id.
+     * @param startTs The job start time in microseconds.
+     * @param endTs The job end time in microseconds, null while the job is running.
+     * @param dbUpdatedTs The time of the last change to the row in microseconds.
+     * @return false if the location is not a compute node of this machine, the entry is not added.
+     */
+    boolean update(String nodeLctn, String jobId, long startTs, Long endTs, long dbUpdatedTs) {
+        if(!nodeLctns_.contains(nodeLctn))
+            return false;
+        NodeJobs node = nodes_.computeIfAbsent(nodeLctn, lctn -> new NodeJobs());
+        Job job = node.byJobId.get(jobId);
+        if(job != null && job.startTs != startTs) {
+            node.remove(job);
+            job = null;
+        }
+        if(job == null) {
+            job = new Job(jobId, startTs, (endTs == null) ? Long.MAX_VALUE : endTs, nextSeq_++);
+            node.add(job);
+        }
+        else
+            node.setEndTs(job, (endTs == null) ? Long.MAX_VALUE : endTs);
+        job.dbUpdatedTs = dbUpdatedTs;
+        return true;
+    }
+
+    /**
+     * Find the job that was running on a node at a given time (started at or before it and not ended before it).
+     * The lookup only descends into the parts of the node's interval tree holding a job that ends at or after that
+     * time, so it takes O(log n) plus O(log n) per job found running.
+     *
+     * @param nodeLctn The node location.
+     * @param ts The time in microseconds.
+     * @param conflicts Told about a second job running at the same time, the earlier started job is returned.
+     * @return The job id or null if no job was running.
+     */
+    String findJobId(String nodeLctn, long ts, ConflictHandler conflicts) {
+        NodeJobs node = nodes_.get(nodeLctn);
+        if(node == null)
+            return null;
+        String[] found = new String[1];
+        node.byInterval.forEachRunningAt(ts, job -> {
+            if(found[0] == null)
+                found[0] = job.jobId;
+            else
+                conflicts.multipleJobs(found[0], job.jobId);
+        });
+        return found[0];
+    }
+
+    /**
+     * Remove the jobs that ended and were last changed before the expiration time, the entries
+     * InternalCachedJobsRemoveExpiredJobs deletes from the table.
+     *
+     * @param expirationTs The expiration time in microseconds.
+     */
+    void removeExpired(long expirationTs) {
+        for(NodeJobs node: nodes_.values()) {
+            Iterator<Job> jobs = node.byJobId.values().iterator();
+            while(jobs.hasNext()) {
+                Job job = jobs.next();
+                if(job.endTs != Long.MAX_VALUE && job.dbUpdatedTs < expirationTs) {
+                    jobs.remove();
+                    node.byInterval.remove(job);
+                    size_--;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of node entries (job and node pairs).
+     */
+    int size() {
+        return size_;
+    }
+
+    private final class NodeJobs {
+        void add(Job job) {
+            byJobId.put(job.jobId, job);
+            byInterval.insert(job);
+            size_++;
+        }
+
+        void setEndTs(Job job, long endTs) {
+            if(job.endTs == endTs)
+                return;
+            byInterval.remove(job);
+            job.endTs = endTs;
+            byInterval.insert(job);
+        }
+
+        void remove(Job job) {
+            byJobId.remove(job.jobId);
+            byInterval.remove(job);
+            size_--;
+        }
+
+        final Map<String, Job> byJobId = new HashMap<>();
+        final IntervalTree byInterval = new IntervalTree();
+    }
+
+    /**
+     * Treap of a node's jobs ordered by start time (then by when they were added), each tree node also holding the
+     * latest end time of its subtree so the subtrees without a job running at a given time are skipped.
+     */
+    private static final class IntervalTree {
+        void insert(Job job) {
+            root_ = insert(root_, new TreeNode(job));
+        }
+
+        void remove(Job job) {
+            root_ = remove(root_, job);
+        }
+
+        /**
+         * Visit the jobs running at the given time in start time order.
+         */
+        void forEachRunningAt(long ts, Consumer<Job> visitor) {
+            forEachRunningAt(root_, ts, visitor);
+        }
+
+        private static void forEachRunningAt(TreeNode node, long ts, Consumer<Job> visitor) {
+            if(node == null || node.maxEndTs < ts)
+                return;
+            forEachRunningAt(node.left, ts, visitor);
+            if(node.job.startTs > ts)
+                return;  // neither this job nor the ones on its right started yet
+            if(node.job.endTs >= ts)
+                visitor.accept(node.job);
+            forEachRunningAt(node.right, ts, visitor);
+        }
+
+        private static TreeNode insert(TreeNode node, TreeNode added) {
+            if(node == null)
+                return added;
+            if(compare(added.job, node.job) < 0) {
+                node.left = insert(node.left, added);
+                if(node.left.priority > node.priority)
+                    return rotateRight(node);
+            } else {
+                node.right = insert(node.right, added);
+                if(node.right.priority > node.priority)
+                    return rotateLeft(node);
+            }
+            node.updateMaxEndTs();
+            return node;
+        }
+
+        private static TreeNode remove(TreeNode node, Job job) {
+            if(node == null)
+                return null;
+            int order = compare(job, node.job);
+            if(order == 0)
+                return merge(node.left, node.right);
+            if(order < 0)
+                node.left = remove(node.left, job);
+            else
+                node.right = remove(node.right, job);
+            node.updateMaxEndTs();
+            return node;
+        }
+
+        // Every job of left is ordered before every job of right.
+        private static TreeNode merge(TreeNode left, TreeNode right) {
+            if(left == null)
+                return right;
+            if(right == null)
+                return left;
+            if(left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                left.updateMaxEndTs();
+                return left;
+            }
+            right.left = merge(left, right.left);
+            right.updateMaxEndTs();
+            return right;
+        }
+
+        private static TreeNode rotateRight(TreeNode node) {
+            TreeNode top = node.left;
+            node.left = top.right;
+            top.right = node;
+            node.updateMaxEndTs();
+            top.updateMaxEndTs();
+            return top;
+        }
+
+        private static TreeNode rotateLeft(TreeNode node) {
+            TreeNode top = node.right;
+            node.right = top.left;
+            top.left = node;
+            node.updateMaxEndTs();
+            top.updateMaxEndTs();
+            return top;
+        }
+
+        private static int compare(Job a, Job b) {
+            int order = Long.compare(a.startTs, b.startTs);
+            return (order != 0) ? order : Long.compare(a.seq, b.seq);
+        }
+
+        private TreeNode root_ = null;
+    }
+
+    private static final class TreeNode {
+        TreeNode(Job job) {
+            this.job = job;
+            this.maxEndTs = job.endTs;
+        }
+
+        void updateMaxEndTs() {
+            maxEndTs = job.endTs;
+            if(left != null)
+                maxEndTs = Math.max(maxEndTs, left.maxEndTs);
+            if(right != null)
+                maxEndTs = Math.max(maxEndTs, right.maxEndTs);
+        }
+
+        final Job job;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEndTs;
+        TreeNode left;
+        TreeNode right;
+    }
+
+    private static final class Job {
+        Job(String jobId, long startTs, long endTs, long seq) {
+            this.jobId = jobId;
+            this.startTs = startTs;
+            this.endTs = endTs;
+            this.seq = seq;
+        }
+
+        final String jobId;
+        final long startTs;
+        final long seq;  // orders the jobs that started at the same time by when they were added
+        long endTs;
+        long dbUpdatedTs;
+    }
+
+    private final Set<String> nodeLctns_;
+    private final Map<String, NodeJobs> nodes_ = new HashMap<>();
+    private long nextSeq_ = 0L;
+    private int size_ = 0;
+}
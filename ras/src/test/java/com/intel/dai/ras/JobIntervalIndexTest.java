@@ -0,0 +1,160 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.intel.dai.ras;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class JobIntervalIndexTest {
+    @Before
+    public void setUp() {
+        index_ = new JobIntervalIndex(Arrays.asList("x0c0s0b0n0", "x0c0s0b0n1"));
+        conflicts_ = new ArrayList<>();
+    }
+
+    private String find(String lctn, long ts) {
+        return index_.findJobId(lctn, ts, (first, second) -> conflicts_.add(first + "," + second));
+    }
+
+    @Test
+    public void findsTheJobRunningAtATime() {
+        assertTrue(index_.update("x0c0s0b0n0", "job1", 100L, 200L, 200L));
+        assertTrue(index_.update("x0c0s0b0n0", "job2", 300L, null, 300L));
+        assertTrue(index_.update("x0c0s0b0n1", "job3", 50L, null, 50L));
+        assertNull(find("x0c0s0b0n0", 99L));
+        assertEquals("job1", find("x0c0s0b0n0", 100L));
+        assertEquals("job1", find("x0c0s0b0n0", 200L));
+        assertNull(find("x0c0s0b0n0", 250L));
+        assertEquals("job2", find("x0c0s0b0n0", 1_000_000L));
+        assertEquals("job3", find("x0c0s0b0n1", 100L));
+        assertNull(find("x0c0s0b0n2", 100L));
+        assertTrue(conflicts_.isEmpty());
+        assertEquals(3, index_.size());
+    }
+
+    @Test
+    public void appliesJobEnds() {
+        index_.update("x0c0s0b0n0", "job1", 100L, null, 100L);
+        index_.update("x0c0s0b0n0", "job1", 100L, null, 100L);
+        assertEquals("job1", find("x0c0s0b0n0", 500L));
+        index_.update("x0c0s0b0n0", "job1", 100L, 400L, 410L);
+        assertNull(find("x0c0s0b0n0", 500L));
+        assertEquals("job1", find("x0c0s0b0n0", 400L));
+        assertEquals(1, index_.size());
+    }
+
+    @Test
+    public void reportsOverlappingJobs() {
+        index_.update("x0c0s0b0n0", "job1", 100L, null, 100L);
+        index_.update("x0c0s0b0n0", "job2", 200L, null, 200L);
+        index_.update("x0c0s0b0n0", "job3", 200L, 250L, 250L);
+        assertEquals("job1", find("x0c0s0b0n0", 150L));
+        assertTrue(conflicts_.isEmpty());
+        assertEquals("job1", find("x0c0s0b0n0", 220L));
+        assertEquals(Arrays.asList("job1,job2", "job1,job3"), conflicts_);
+    }
+
+    @Test
+    public void findsAnEarlierJobStillRunningBehindOthers() {
+        index_.update("x0c0s0b0n0", "job1", 100L, 1_000L, 1_000L);
+        index_.update("x0c0s0b0n0", "job2", 200L, 300L, 300L);
+        index_.update("x0c0s0b0n0", "job3", 400L, 500L, 500L);
+        assertEquals("job1", find("x0c0s0b0n0", 600L));
+        assertTrue(conflicts_.isEmpty());
+        assertEquals("job1", find("x0c0s0b0n0", 450L));
+        assertEquals(Arrays.asList("job1,job3"), conflicts_);
+    }
+
+    @Test
+    public void reportsThreeOverlappingJobs() {
+        index_.update("x0c0s0b0n0", "job1", 100L, null, 100L);
+        index_.update("x0c0s0b0n0", "job2", 200L, null, 200L);
+        index_.update("x0c0s0b0n0", "job3", 300L, null, 300L);
+        assertEquals("job1", find("x0c0s0b0n0", 350L));
+        assertEquals(Arrays.asList("job1,job2", "job1,job3"), conflicts_);
+        index_.update("x0c0s0b0n0", "job1", 100L, 150L, 150L);
+        conflicts_.clear();
+        assertEquals("job2", find("x0c0s0b0n0", 350L));
+        assertEquals(Arrays.asList("job2,job3"), conflicts_);
+    }
+
+    @Test
+    public void matchesAScanOfEveryJob() {
+        Random random = new Random(17L);
+        List<long[]> jobs = new ArrayList<>();  // start, end (Long.MAX_VALUE while running)
+        for(int i = 0; i < 500; i++) {
+            long start = random.nextInt(100_000);
+            long length = random.nextInt(random.nextBoolean() ? 50 : 5_000);
+            long end = random.nextInt(10) == 0 ? Long.MAX_VALUE : start + length;
+            jobs.add(new long[] {start, end});
+            index_.update("x0c0s0b0n0", "job" + i, start, end == Long.MAX_VALUE ? null : end, start);
+        }
+        for(int i = 0; i < 100; i++) {  // end some of the running jobs and reopen some of the ended ones
+            int j = random.nextInt(jobs.size());
+            long[] job = jobs.get(j);
+            job[1] = (job[1] == Long.MAX_VALUE) ? job[0] + random.nextInt(1_000) : Long.MAX_VALUE;
+            index_.update("x0c0s0b0n0", "job" + j, job[0], job[1] == Long.MAX_VALUE ? null : job[1], job[0]);
+        }
+        for(int ts = 0; ts < 110_000; ts += 97) {
+            String expected = null;
+            long expectedStart = Long.MAX_VALUE;
+            int running = 0;
+            for(int i = 0; i < jobs.size(); i++) {
+                long[] job = jobs.get(i);
+                if(job[0] <= ts && ts <= job[1]) {
+                    running++;
+                    if(job[0] < expectedStart) {
+                        expected = "job" + i;
+                        expectedStart = job[0];
+                    }
+                }
+            }
+            conflicts_.clear();
+            String found = find("x0c0s0b0n0", ts);
+            assertEquals(expected == null, found == null);
+            if(found != null)
+                assertEquals(expectedStart, jobs.get(Integer.parseInt(found.substring(3)))[0]);
+            assertEquals(Math.max(0, running - 1), conflicts_.size());
+        }
+        assertEquals(500, index_.size());
+    }
+
+    @Test
+    public void rejectsUnknownLctns() {
+        assertFalse(index_.update("x0c0s0b0n9", "job1", 100L, null, 100L));
+        assertEquals(0, index_.size());
+    }
+
+    @Test
+    public void removesExpiredJobs() {
+        index_.update("x0c0s0b0n0", "job1", 100L, 200L, 200L);
+        index_.update("x0c0s0b0n0", "job2", 300L, 400L, 450L);
+        index_.update("x0c0s0b0n1", "job3", 50L, null, 50L);
+        index_.removeExpired(450L);
+        assertEquals(2, index_.size());
+        assertNull(find("x0c0s0b0n0", 150L));
+        assertEquals("job2", find("x0c0s0b0n0", 350L));
+        assertEquals("job3", find("x0c0s0b0n1", 1_000L));
+    }
+
+    @Test
+    public void movesAJobWhoseStartChanged() {
+        index_.update("x0c0s0b0n0", "job1", 100L, null, 100L);
+        index_.update("x0c0s0b0n0", "job1", 150L, null, 160L);
+        assertNull(find("x0c0s0b0n0", 120L));
+        assertEquals("job1", find("x0c0s0b0n0", 150L));
+        assertEquals(1, index_.size());
+    }
+
+    private JobIntervalIndex index_;
+    private List<String> conflicts_;
+}
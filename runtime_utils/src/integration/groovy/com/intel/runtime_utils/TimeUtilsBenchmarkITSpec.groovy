@@ -0,0 +1,49 @@
+package com.intel.runtime_utils
+
+import spock.lang.Specification
+
+import java.lang.management.ManagementFactory
+
+/**
+ * Timestamps per second and allocated bytes per timestamp of TimeUtils.nSFromIso8601 compared to the
+ * SimpleDateFormat based conversion it replaced for RFC 3339 timestamps. Allocation is measured per thread with
+ * com.sun.management.ThreadMXBean.
+ */
+class TimeUtilsBenchmarkITSpec extends Specification {
+    static final int ITERATIONS = Integer.getInteger("time_utils.benchmark.iterations", 200_000)
+    static final String[] TIMESTAMPS = ["2020-06-03T22:35:45Z", "2020-06-03 22:35:45.123Z",
+                                        "2020-06-03T22:35:45.123456789-07:00", "2020-06-03T22:35:45.000001+0530"]
+
+    static long parseAll(boolean formats) {
+        long sum = 0L
+        for(int i = 0; i < ITERATIONS; i++) {
+            String ts = TIMESTAMPS[i % TIMESTAMPS.length]
+            sum += formats ? TimeUtils.nSFromIso8601WithFormats(ts) : TimeUtils.nSFromIso8601(ts)
+        }
+        return sum
+    }
+
+    def measure(String name, boolean formats) {
+        def threads = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+        long threadId = Thread.currentThread().getId()
+        parseAll(formats) // Warm up
+        long startBytes = threads.getThreadAllocatedBytes(threadId)
+        long start = System.nanoTime()
+        parseAll(formats)
+        long elapsed = System.nanoTime() - start
+        long bytes = threads.getThreadAllocatedBytes(threadId) - startBytes
+        double perSecond = ITERATIONS * 1_000_000_000.0 / elapsed
+        println(String.format("%s: %.0f timestamps/s, %d bytes/timestamp", name, perSecond, bytes.intdiv(ITERATIONS)))
+        return [perSecond: perSecond, bytes: bytes]
+    }
+
+    def "nSFromIso8601 is faster and allocates less than the SimpleDateFormat conversion"() {
+        when:
+        def formats = measure("SimpleDateFormat", true)
+        def rfc3339 = measure("nSFromIso8601", false)
+
+        then:
+        rfc3339.perSecond > formats.perSecond
+        rfc3339.bytes < formats.bytes
+    }
+}
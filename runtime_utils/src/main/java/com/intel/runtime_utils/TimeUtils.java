@@ -33,6 +33,96 @@ public final class TimeUtils {
      * @throws ParseException When the string cannot be converted to a long.
      */
     public static long nSFromIso8601(String isoFormat) throws ParseException {
+        long result = parseRfc3339(isoFormat);
+        if(result != NOT_RFC3339)
+            return result;
+        return nSFromIso8601WithFormats(isoFormat);
+    }
+
+    // Parses yyyy-MM-dd('T'|' ')HH:mm:ss[.f{1,9}](Z|+HH|+HHmm|+HH:mm) (years 1583-9999) without allocating. Returns
+    // NOT_RFC3339 for anything else (named zones, out of range fields, bad syntax, ...), those strings are left to
+    // nSFromIso8601WithFormats so they are accepted or rejected exactly as before.
+    static long parseRfc3339(String ts) {
+        if(ts == null || ts.length() < 20)
+            return NOT_RFC3339;
+        int year = digits(ts, 0, 4);
+        int month = digits(ts, 5, 2);
+        int day = digits(ts, 8, 2);
+        int hour = digits(ts, 11, 2);
+        int minute = digits(ts, 14, 2);
+        int second = digits(ts, 17, 2);
+        char separator = ts.charAt(10);
+        if(year < 1583 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month) || hour > 23 ||
+                minute > 59 || second > 59 || ts.charAt(4) != '-' || ts.charAt(7) != '-' ||
+                (separator != 'T' && separator != ' ') || ts.charAt(13) != ':' || ts.charAt(16) != ':')
+            return NOT_RFC3339;
+        int pos = 19;
+        long fraction = 0L;
+        if(ts.charAt(pos) == '.') {
+            int start = ++pos;
+            while(pos < ts.length() && ts.charAt(pos) >= '0' && ts.charAt(pos) <= '9')
+                fraction = fraction * 10 + (ts.charAt(pos++) - '0');
+            int length = pos - start;
+            if(length < 1 || length > 9 || pos == ts.length())
+                return NOT_RFC3339;
+            fraction *= POWERS_OF_TEN[9 - length];
+        }
+        int offsetSeconds;
+        char zone = ts.charAt(pos);
+        if(zone == 'Z' && pos + 1 == ts.length())
+            offsetSeconds = 0;
+        else if(zone == '+' || zone == '-') {
+            int offsetMinutes;
+            int remaining = ts.length() - pos - 1;
+            if(remaining == 2)
+                offsetMinutes = 0;
+            else if(remaining == 4)
+                offsetMinutes = digits(ts, pos + 3, 2);
+            else if(remaining == 5 && ts.charAt(pos + 3) == ':')
+                offsetMinutes = digits(ts, pos + 4, 2);
+            else
+                return NOT_RFC3339;
+            int offsetHours = digits(ts, pos + 1, 2);
+            if(offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0 || offsetMinutes > 59)
+                return NOT_RFC3339;
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (zone == '-' ? -1 : 1);
+        } else
+            return NOT_RFC3339;
+        long seconds = daysFromCivil(year, month, day) * 86_400L + hour * 3600L + minute * 60L + second -
+                offsetSeconds;
+        return seconds * NANO_FACTOR + fraction;
+    }
+
+    // The non-negative value of count decimal digits at offset, -1 if any is not a digit.
+    private static int digits(String ts, int offset, int count) {
+        int value = 0;
+        for(int i = offset; i < offset + count; i++) {
+            char chr = ts.charAt(i);
+            if(chr < '0' || chr > '9')
+                return -1;
+            value = value * 10 + (chr - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if(month == 2)
+            return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    // Days since 1970-01-01 of a proleptic Gregorian date (H. Hinnant's days_from_civil).
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = (month <= 2) ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    // The SimpleDateFormat based conversion, also used for the zone names ("PDT", "GMT", ...) parseRfc3339 leaves out.
+    static long nSFromIso8601WithFormats(String isoFormat) throws ParseException {
         SimpleDateFormat[] df = new SimpleDateFormat[] {
                 new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssX"),
                 new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssz"),
@@ -137,4 +227,7 @@ public final class TimeUtils {
     private static final long NANO_FACTOR = 1_000_000_000L;
     private static final long MICRO_FACTOR = 1_000_000L;
     private static final long MILLI_FACTOR = 1_000L;
+    static final long NOT_RFC3339 = Long.MIN_VALUE;
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+            100_000_000L, 1_000_000_000L };
 }
@@ -0,0 +1,215 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.runtime_utils;
+
+import java.util.Arrays;
+
+/**
+ * Minimum, maximum and average over a window of telemetry samples. A window is either a number of samples or a span
+ * of time (in the unit of the timestamps added) and is either cleared after it is reported (tumbling) or drops only
+ * the oldest sample (moving). Samples are kept in primitive ring buffers with a running sum and monotonic deques for
+ * the minimum and maximum, so adding a sample is O(1) amortized.
+ *
+ * Instances are not thread safe.
+ */
+public final class WindowedAggregator {
+    /**
+     * Per aggregator configuration, typically one instance shared by all aggregators of a provider.
+     */
+    public static final class Settings {
+        /**
+         * @param useTime Use a time window instead of a sample count window.
+         * @param count The number of samples in a count window (must be positive).
+         * @param timeWindow The span of a time window in the unit of the timestamps added.
+         * @param moving Drop only the oldest sample after reporting instead of clearing the window.
+         */
+        public Settings(boolean useTime, int count, long timeWindow, boolean moving) {
+            if(count < 1)
+                throw new IllegalArgumentException("The window sample count must be positive");
+            useTime_ = useTime;
+            count_ = count;
+            timeWindow_ = timeWindow;
+            moving_ = moving;
+        }
+
+        public boolean useTime() { return useTime_; }
+        public int getCount() { return count_; }
+        public long getTimeWindow() { return timeWindow_; }
+        public boolean isMoving() { return moving_; }
+
+        private final boolean useTime_;
+        private final int count_;
+        private final long timeWindow_;
+        private final boolean moving_;
+    }
+
+    /**
+     * Create an empty aggregator.
+     *
+     * @param settings The window configuration for this aggregator.
+     */
+    public WindowedAggregator(Settings settings) {
+        assert settings != null:"Passed a null Settings object to WindowedAggregator.ctor()!";
+        settings_ = settings;
+        int capacity = settings.useTime() ? INITIAL_TIME_CAPACITY : settings.getCount();
+        values_ = new double[capacity];
+        timestamps_ = new long[capacity];
+        minimums_ = new long[capacity];
+        maximums_ = new long[capacity];
+    }
+
+    /**
+     * Add a sample to the window.
+     *
+     * @param timestamp The sample timestamp, only used for time windows.
+     * @param value The sample value.
+     * @return true when the window is complete; getMinimum(), getMaximum() and getAverage() then return the summary.
+     */
+    public boolean add(long timestamp, double value) {
+        if(size_ == values_.length)
+            grow();
+        long seq = headSeq_ + size_;
+        values_[index(seq)] = value;
+        timestamps_[index(seq)] = timestamp;
+        size_++;
+        sum_ += value;
+        pushMinimum(seq, value);
+        pushMaximum(seq, value);
+        if(!windowComplete())
+            return false;
+        minimum_ = values_[index(minimums_[minHead_])];
+        maximum_ = values_[index(maximums_[maxHead_])];
+        average_ = sum_ / size_;
+        if(settings_.isMoving())
+            removeOldest();
+        else
+            clear();
+        return true;
+    }
+
+    /**
+     * @return The number of samples currently in the window.
+     */
+    public int size() { return size_; }
+
+    /**
+     * @return The minimum of the last completed window.
+     */
+    public double getMinimum() { return minimum_; }
+
+    /**
+     * @return The maximum of the last completed window.
+     */
+    public double getMaximum() { return maximum_; }
+
+    /**
+     * @return The average of the last completed window.
+     */
+    public double getAverage() { return average_; }
+
+    private boolean windowComplete() {
+        if(settings_.useTime())
+            return timestamps_[index(headSeq_ + size_ - 1)] - timestamps_[index(headSeq_)] >=
+                    settings_.getTimeWindow();
+        return size_ >= settings_.getCount();
+    }
+
+    // Drop the oldest sample, the running sum is recomputed once every window length of removals to bound the
+    // floating point error of the subtractions.
+    private void removeOldest() {
+        sum_ -= values_[index(headSeq_)];
+        if(minSize_ > 0 && minimums_[minHead_] == headSeq_) {
+            minHead_ = (minHead_ + 1) % minimums_.length;
+            minSize_--;
+        }
+        if(maxSize_ > 0 && maximums_[maxHead_] == headSeq_) {
+            maxHead_ = (maxHead_ + 1) % maximums_.length;
+            maxSize_--;
+        }
+        head_ = (head_ + 1) % values_.length;
+        headSeq_++;
+        size_--;
+        if(++removals_ >= size_) {
+            removals_ = 0;
+            sum_ = 0.0;
+            for(int i = 0; i < size_; i++)
+                sum_ += values_[index(headSeq_ + i)];
+        }
+    }
+
+    private void clear() {
+        head_ = 0;
+        size_ = 0;
+        sum_ = 0.0;
+        removals_ = 0;
+        minSize_ = 0;
+        maxSize_ = 0;
+        headSeq_ = 0L;
+    }
+
+    // Keep the minimum deque increasing so its head is the window minimum.
+    private void pushMinimum(long seq, double value) {
+        while(minSize_ > 0 && values_[index(minimums_[(minHead_ + minSize_ - 1) % minimums_.length])] >= value)
+            minSize_--;
+        minimums_[(minHead_ + minSize_) % minimums_.length] = seq;
+        minSize_++;
+    }
+
+    // Keep the maximum deque decreasing so its head is the window maximum.
+    private void pushMaximum(long seq, double value) {
+        while(maxSize_ > 0 && values_[index(maximums_[(maxHead_ + maxSize_ - 1) % maximums_.length])] <= value)
+            maxSize_--;
+        maximums_[(maxHead_ + maxSize_) % maximums_.length] = seq;
+        maxSize_++;
+    }
+
+    // Only time windows grow, count windows are allocated at their full size.
+    private void grow() {
+        int capacity = values_.length * 2;
+        values_ = unwrap(values_, head_, capacity);
+        timestamps_ = unwrap(timestamps_, head_, capacity);
+        minimums_ = unwrap(minimums_, minHead_, capacity);
+        maximums_ = unwrap(maximums_, maxHead_, capacity);
+        head_ = 0;
+        minHead_ = 0;
+        maxHead_ = 0;
+    }
+
+    private static double[] unwrap(double[] ring, int head, int capacity) {
+        double[] result = Arrays.copyOfRange(ring, head, head + capacity);
+        System.arraycopy(ring, 0, result, ring.length - head, head);
+        return result;
+    }
+
+    private static long[] unwrap(long[] ring, int head, int capacity) {
+        long[] result = Arrays.copyOfRange(ring, head, head + capacity);
+        System.arraycopy(ring, 0, result, ring.length - head, head);
+        return result;
+    }
+
+    private int index(long seq) {
+        return (int)((head_ + (seq - headSeq_)) % values_.length);
+    }
+
+    private final Settings settings_;
+    private double[] values_;
+    private long[] timestamps_;
+    private long[] minimums_; // Sequence numbers of the samples in the minimum deque.
+    private long[] maximums_; // Sequence numbers of the samples in the maximum deque.
+    private int head_ = 0;
+    private long headSeq_ = 0L; // Sequence number of the oldest sample in the window.
+    private int size_ = 0;
+    private int minHead_ = 0;
+    private int minSize_ = 0;
+    private int maxHead_ = 0;
+    private int maxSize_ = 0;
+    private double sum_ = 0.0;
+    private int removals_ = 0;
+    private double minimum_ = 0.0;
+    private double maximum_ = 0.0;
+    private double average_ = 0.0;
+
+    private static final int INITIAL_TIME_CAPACITY = 16;
+}
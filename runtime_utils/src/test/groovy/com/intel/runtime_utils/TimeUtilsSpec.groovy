@@ -8,6 +8,8 @@ import spock.lang.Specification
 
 import java.text.ParseException
 import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneOffset
 
 class TimeUtilsSpec extends Specification {
     def "Test getNsTimestamp"() {
@@ -66,4 +68,80 @@ class TimeUtilsSpec extends Specification {
         "2020-03-27 12:00:00.Z"           || false // missing fraction but included decimal with TZ
         "2020-03-27 12:00:00.0000000000Z" || false // too many digits for a nano second fraction
     }
+
+    def "Test NSFromIso8601 offset minutes"() {
+        expect: TimeUtils.nSFromIso8601(TS) == RESULT
+        where:
+        TS                               || RESULT
+        "2020-03-27T17:30:00+05:30"      || 1585310400000000000L
+        "2020-03-27T06:15:00.5-0545"     || 1585310400500000000L
+    }
+
+    // Random timestamps in every layout parseRfc3339 supports, built with java.time so they do not depend on either
+    // parser. Returns [timestamp, expected nanoseconds].
+    static List randomTimestamp(Random random, String[] zones) {
+        long seconds = (long)(random.nextDouble() * 7_000_000_000L) - 1_000_000_000L // 1938 - 2191
+        int digits = random.nextInt(10)
+        String zone = zones[random.nextInt(zones.length)]
+        ZoneOffset offset = zone == "Z" ? ZoneOffset.UTC : ZoneOffset.of(zone.length() == 5 ?
+                zone.substring(0, 3) + ":" + zone.substring(3) : zone)
+        LocalDateTime local = LocalDateTime.ofEpochSecond(seconds, 0, offset)
+        StringBuilder ts = new StringBuilder(String.format("%04d-%02d-%02d%s%02d:%02d:%02d", local.getYear(),
+                local.getMonthValue(), local.getDayOfMonth(), random.nextBoolean() ? "T" : " ", local.getHour(),
+                local.getMinute(), local.getSecond()))
+        long fraction = 0L
+        if(digits > 0) {
+            ts.append('.')
+            for(int i = 0; i < digits; i++) {
+                int digit = random.nextInt(10)
+                ts.append(digit)
+                fraction = fraction * 10 + digit
+            }
+            fraction *= (long)Math.pow(10, 9 - digits)
+        }
+        return [ts.append(zone).toString(), seconds * 1_000_000_000L + fraction]
+    }
+
+    def "Test parseRfc3339 agrees with the SimpleDateFormat conversion"() {
+        given: Random random = new Random(SEED)
+        expect:
+        for(int i = 0; i < 2000; i++) {
+            def (String ts, long expected) = randomTimestamp(random, ["Z", "+00", "-07", "+0500", "-1100", "+05:00",
+                                                                     "-11:00", "+14:00"] as String[])
+            assert TimeUtils.parseRfc3339(ts) == expected : ts
+            assert TimeUtils.nSFromIso8601WithFormats(ts) == expected : ts
+        }
+        where:
+        SEED << [1L, 2L, 3L, 4L, 5L]
+    }
+
+    def "Test parseRfc3339 offset minutes"() {
+        // The SimpleDateFormat conversion ignores the minutes of an offset, parseRfc3339 does not.
+        given: Random random = new Random(SEED)
+        expect:
+        for(int i = 0; i < 2000; i++) {
+            def (String ts, long expected) = randomTimestamp(random, ["+0530", "-0945", "+05:30", "-03:30",
+                                                                     "+13:45"] as String[])
+            assert TimeUtils.parseRfc3339(ts) == expected : ts
+        }
+        where:
+        SEED << [6L, 7L]
+    }
+
+    def "Test parseRfc3339 leaves other strings to the SimpleDateFormat conversion"() {
+        expect: TimeUtils.parseRfc3339(VALUE) == TimeUtils.NOT_RFC3339
+        where:
+        VALUE << [null, "", "2020-03-27 12:00:00", "2020-03-27 12:00:00.Z", "2020-03-27 12:00:00.0000000000Z",
+                  "2020-03-27T05:00:00.001PDT", "2020-03-27 12:00:00.001GMT", "2020-02-30T12:00:00Z",
+                  "2019-02-29T12:00:00Z", "2020-13-01T12:00:00Z", "2020-03-27T24:00:00Z", "2020-03-27T12:00:60Z",
+                  "1582-10-15T12:00:00Z", "2020-03-27X12:00:00Z", "2020-03-27T12:00:00+5", "2020-03-27T12:00:00+05:3",
+                  "2020-03-27T12:00:00+24", "2020-03-27T12:00:00Zjunk", "2020-03-27T12:00:00z", "+2020-03-27T12:00:0Z"]
+    }
+
+    def "Test parseRfc3339 leap days"() {
+        expect: TimeUtils.parseRfc3339(VALUE) == TimeUtils.nSFromIso8601WithFormats(VALUE)
+        where:
+        VALUE << ["2020-02-29T23:59:59.999999999Z", "2000-02-29T00:00:00Z", "1600-03-01T00:00:00+01:00",
+                  "1970-01-01T00:00:00Z", "1969-12-31T23:59:59.5-01"]
+    }
 }
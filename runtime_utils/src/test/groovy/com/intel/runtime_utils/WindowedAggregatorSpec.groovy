@@ -0,0 +1,75 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.runtime_utils
+
+import spock.lang.Specification
+
+class WindowedAggregatorSpec extends Specification {
+    def "Test Settings Negative"() {
+        when: new WindowedAggregator.Settings(false, 0, 10L, false)
+        then: thrown(IllegalArgumentException)
+    }
+
+    def "Test count window"() {
+        def underTest = new WindowedAggregator(new WindowedAggregator.Settings(false, 3, 0L, false))
+        expect: !underTest.add(0L, 1.0)
+        and:    !underTest.add(0L, -2.0)
+        and:    underTest.add(0L, 4.0)
+        and:    underTest.minimum == -2.0
+        and:    underTest.maximum == 4.0
+        and:    underTest.average == 1.0
+        and:    underTest.size() == 0
+    }
+
+    def "Test moving count window"() {
+        def underTest = new WindowedAggregator(new WindowedAggregator.Settings(false, 3, 0L, true))
+        underTest.add(0L, 5.0)
+        underTest.add(0L, 1.0)
+        underTest.add(0L, 3.0)
+        expect: underTest.add(0L, 2.0)
+        and:    underTest.minimum == 1.0
+        and:    underTest.maximum == 3.0
+        and:    underTest.average == 2.0
+        and:    underTest.add(0L, 2.5)
+        and:    underTest.minimum == 2.0
+        and:    underTest.maximum == 3.0
+        and:    underTest.size() == 2
+    }
+
+    def "Test time window"() {
+        def underTest = new WindowedAggregator(new WindowedAggregator.Settings(true, 1, 10L, false))
+        for(int i = 0; i < 40; i++)
+            assert !underTest.add(i.intdiv(4) as long, (double)i)
+        expect: underTest.add(10L, 100.0)
+        and:    underTest.minimum == 0.0
+        and:    underTest.maximum == 100.0
+        and:    Math.abs(underTest.average - 880.0d / 41.0d) < 0.000001
+        and:    underTest.size() == 0
+    }
+
+    def "Test moving window matches a full rescan"() {
+        def settings = new WindowedAggregator.Settings(USE_TIME, 7, 5L, true)
+        def underTest = new WindowedAggregator(settings)
+        def random = new Random(42L)
+        def window = []
+        boolean matched = true
+        for(long ts = 0L; ts < 500L; ts++) {
+            double value = random.nextGaussian() * 100.0
+            window.add([ts, value])
+            boolean complete = USE_TIME ? (ts - window[0][0] >= 5L) : window.size() == 7
+            matched &= underTest.add(ts, value) == complete
+            if(complete) {
+                def values = window.collect { it[1] as double }
+                matched &= underTest.minimum == values.min()
+                matched &= underTest.maximum == values.max()
+                matched &= Math.abs(underTest.average - values.sum() / values.size()) < 0.000001
+                window.remove(0)
+            }
+        }
+        expect: matched
+        where:
+        USE_TIME << [false, true]
+    }
+}
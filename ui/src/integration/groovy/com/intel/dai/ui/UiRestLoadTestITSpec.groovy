@@ -0,0 +1,74 @@
+package com.intel.dai.ui
+
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+/**
+ * Concurrent load test of a running UI REST adapter backed by a Nearline tier database. Set ui.loadtest.url to the
+ * adapter (e.g. http://localhost:4567), ui.loadtest.threads and ui.loadtest.requests to size the run and
+ * ui.loadtest.stream=true to request streamed responses. Reports the throughput and the p50/p99 latencies of the
+ * /query and /cli routes.
+ */
+@IgnoreIf({ System.getProperty("ui.loadtest.url") == null })
+class UiRestLoadTestITSpec extends Specification {
+    static final String BASE_URL = System.getProperty("ui.loadtest.url")
+    static final int THREADS = Integer.getInteger("ui.loadtest.threads", 32)
+    static final int REQUESTS = Integer.getInteger("ui.loadtest.requests", 2_000)
+    static final String TIMES = "StartTime=null&EndTime=null" +
+            (Boolean.getBoolean("ui.loadtest.stream") ? "&Stream=true" : "")
+
+    static final List<String> ROUTES = [
+            "/query/changets?" + TIMES,
+            "/query/rasevent?" + TIMES,
+            "/query/jobsact?" + TIMES,
+            "/query/computeinv?" + TIMES,
+            "/cli/getraswithfilters?" + TIMES + "&Limit=100",
+            "/cli/getjobinfo?" + TIMES + "&Limit=100",
+            "/cli/getinvspecificlctn?" + TIMES + "&Lctn=%25&Limit=100"
+    ]
+
+    static long timedRequest(String route) {
+        long start = System.nanoTime()
+        HttpURLConnection connection = (HttpURLConnection)new URL(BASE_URL + route).openConnection()
+        try {
+            assert connection.responseCode == 200
+            String body = connection.inputStream.getText(StandardCharsets.UTF_8.name())
+            assert !body.contains('"Status":"FE"')
+        } finally {
+            connection.disconnect()
+        }
+        return System.nanoTime() - start
+    }
+
+    static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int)Math.ceil(fraction * sorted.length) - 1)]
+    }
+
+    def "The adapter serves concurrent requests"() {
+        given:
+        ROUTES.each { timedRequest(it) } // Warm up the adapter and its connection pool
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS)
+
+        when:
+        long start = System.nanoTime()
+        List<Future<Long>> futures = (0..<REQUESTS).collect { int i ->
+            executor.submit({ timedRequest(ROUTES[i % ROUTES.size()]) } as Callable<Long>)
+        }
+        long[] latencies = futures.collect { it.get() } as long[]
+        long elapsed = System.nanoTime() - start
+        executor.shutdown()
+        Arrays.sort(latencies)
+        println(String.format("%d requests on %d threads: %.1f requests/s, p50 %.2f ms, p99 %.2f ms", REQUESTS,
+                THREADS, REQUESTS * 1_000_000_000.0 / elapsed, percentile(latencies, 0.50) / 1_000_000.0,
+                percentile(latencies, 0.99) / 1_000_000.0))
+
+        then:
+        latencies.length == REQUESTS
+    }
+}
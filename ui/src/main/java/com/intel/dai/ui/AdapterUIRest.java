@@ -9,19 +9,28 @@ import java.nio.charset.Charset;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URLEncodedUtils;
 import java.util.*;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeoutException;
 
 import com.intel.properties.*;
 import com.intel.config_io.*;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.dai.exceptions.BadInputException;
+import com.intel.dai.Adapter;
 import com.intel.dai.AdapterSingletonFactory;
+import com.intel.dai.DataMoverHighWaterMarks;
+import com.intel.dai.dsimpl.jdbc.DbConnectionPool;
 import com.intel.dai.exceptions.ProviderException;
 import com.intel.logging.Logger;
 import com.intel.logging.LoggerFactory;
+import com.intel.networking.sink.NetworkDataSink;
+import com.intel.networking.sink.NetworkDataSinkFactory;
 
 import spark.Request;
+import spark.Response;
 import static spark.Spark.*;
 
 public class AdapterUIRest extends AdapterUI {
@@ -36,11 +45,32 @@ public class AdapterUIRest extends AdapterUI {
      */
     private String rabbitMQHost;
     ResponseCreator responseCreator;
+    QueryResultCache resultCache;
+    private NetworkDataSink cacheInvalidationSink_ = null;
+    private static final String STREAM_PARAMETER = "Stream";
+    private static final int CACHE_MAX_ENTRIES = 1024;
+
+    // The dashboard polled endpoints that are cached, with the Nearline tables (DataMover routing keys) they read.
+    static final Map<String, QueryResultCache.Policy> CACHE_POLICIES;
+    static {
+        Map<String, QueryResultCache.Policy> policies = new HashMap<>();
+        policies.put("cli/system_summary", new QueryResultCache.Policy(5_000L, "ComputeNode", "ServiceNode"));
+        policies.put("cli/getnodeinvinfo", new QueryResultCache.Policy(30_000L, "NodeInventory_History"));
+        policies.put("cli/getinvchanges", new QueryResultCache.Policy(30_000L, "Replacement_History"));
+        policies.put("query/changets", new QueryResultCache.Policy(5_000L, "ComputeNode", "Job", "RasEvent",
+                "NodeInventory_History", "WlmReservation_History"));
+        policies.put("query/computeinv", new QueryResultCache.Policy(30_000L, "ComputeNode"));
+        policies.put("query/serviceinv", new QueryResultCache.Policy(30_000L, "ServiceNode"));
+        policies.put("query/computehistoldestts", new QueryResultCache.Policy(60_000L, "ComputeNode"));
+        CACHE_POLICIES = Collections.unmodifiableMap(policies);
+    }
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
 
     AdapterUIRest(String[] args, Logger logger) throws ProviderException, IOException, TimeoutException {
         super(args, logger);
         responseCreator = new ResponseCreator();
         rabbitMQHost = (args.length >= 4) ? args[3] : "localhost";
+        resultCache = new QueryResultCache(CACHE_POLICIES, CACHE_MAX_ENTRIES);
     }
 
     public static void main(String[] cmd_args) throws ProviderException, IOException, TimeoutException {
@@ -54,12 +84,45 @@ public class AdapterUIRest extends AdapterUI {
     @Override
     public void receiveDataFromUsers() {
         staticFiles.location("/demo-v2/");
+        startCacheInvalidation();
         execute_routes(this);
     }
 
     @Override
     public void stopImplementation() {
         stop();
+        if(cacheInvalidationSink_ != null)
+            cacheInvalidationSink_.stopListening();
+        DbConnectionPool.closeDefaultPool();
+    }
+
+    // Drops cached responses once the DataReceiver has written a table update to the Nearline tier. The plain table
+    // name routing keys are published before the update is written, so a reload could cache the old rows again; the
+    // DataMover high-water marks are only published after the write. Without the subscription the cached responses
+    // still expire with their time bucket.
+    void startCacheInvalidation() {
+        List<String> subjects = new ArrayList<>();
+        for(String table: resultCache.tables())
+            subjects.add(DataMoverHighWaterMarks.routingKey(table));
+        Map<String, String> args = new HashMap<>();
+        args.put("exchangeName", Adapter.DataMoverExchangeName);
+        args.put("subjects", String.join(",", subjects));
+        args.put("uri", "amqp://" + rabbitMQHost);
+        try {
+            NetworkDataSink sink = NetworkDataSinkFactory.createInstance(log_, "rabbitmq", args);
+            sink.setLogger(log_);
+            sink.setCallbackDelegate((subject, payload) -> invalidateMovedTable(subject));
+            sink.startListening();
+            cacheInvalidationSink_ = sink;
+        } catch(NetworkDataSinkFactory.FactoryException e) {
+            log_.warn("Unable to listen for DataMover table updates, cached UI responses only expire with time: %s",
+                    e.getMessage());
+        }
+    }
+
+    void invalidateMovedTable(String subject) {
+        if(subject.startsWith(DataMoverHighWaterMarks.ROUTING_KEY_PREFIX))
+            resultCache.invalidateTable(subject.substring(DataMoverHighWaterMarks.ROUTING_KEY_PREFIX.length()));
     }
 
     static void execute_routes(AdapterUIRest uiRest) {
@@ -81,12 +144,22 @@ public class AdapterUIRest extends AdapterUI {
             for(String pm : params){
                 param_map.put(pm, req.queryParams(pm));
             }
+            if(isStreamingRequest(param_map)) {
+                String response = uiRest.stream_query_cmds(sub_cmd, param_map, () -> openStreamedResponse(res));
+                if(response != null)
+                    return response;
+            }
             return uiRest.query_cmds(sub_cmd, param_map);
         });
         get("/cli/:sub_cmd", (req, res) -> {
             uiRest.log_.debug("Received Request " + req.url());
             String sub_cmd = req.params(":sub_cmd");
             Map<String, String> parameters = convertHttpRequestToMap(req);
+            if(isStreamingRequest(parameters)) {
+                String response = uiRest.stream_canned_cmds(sub_cmd, parameters, () -> openStreamedResponse(res));
+                if(response != null)
+                    return response;
+            }
             return uiRest.canned_cmds(sub_cmd, parameters);
         });
         get("/groups", (req, res) -> {
@@ -136,6 +209,20 @@ public class AdapterUIRest extends AdapterUI {
         return map;
     }
 
+    // A request with Stream=true has its result written while it is read from the database.
+    private static boolean isStreamingRequest(Map<String, String> parameters) {
+        return Boolean.parseBoolean(parameters.get(STREAM_PARAMETER));
+    }
+
+    // No content length is set, so Jetty sends the response with the chunked transfer encoding as the buffered
+    // output fills up.
+    private static JsonResultSetWriter openStreamedResponse(Response res) throws IOException {
+        res.status(200);
+        res.type("application/json");
+        return JsonResultSetWriter.inResponseEnvelope(new BufferedWriter(new OutputStreamWriter(
+                res.raw().getOutputStream(), StandardCharsets.UTF_8), STREAM_BUFFER_SIZE));
+    }
+
     private static Map<String, String> convertHttpRequestToMap(Request req) {
         /* Convert request header parameters to a Map
          * */
@@ -234,7 +321,7 @@ public class AdapterUIRest extends AdapterUI {
         String[] results_array = new String[2];
         QueryAPI mGUI_Updater = new QueryAPI();
         try {
-            String return_result = mGUI_Updater.getData(cmd, params);
+            String return_result = resultCache.get("query/" + cmd, params, () -> mGUI_Updater.getData(cmd, params));
             results_array[0] = "F";
             results_array[1] = return_result;
         } catch (Exception e) {
@@ -246,28 +333,131 @@ public class AdapterUIRest extends AdapterUI {
         return responseCreator.createJsonResult(results_array);
     }
 
+    /**
+     * Stream the result of a query command, see JsonResultSetWriter.
+     *
+     * @param cmd The query command.
+     * @param params The command parameters.
+     * @param output Opens the response output.
+     * @return null if the command cannot be streamed (use query_cmds), "" when the result was written to the output
+     * or the error response if the command failed before anything was written.
+     */
+    String stream_query_cmds(String cmd, HashMap<String, String> params, JsonResultSetWriter.Output output) {
+        QueryAPI mGUI_Updater = new QueryAPI();
+        StreamedOutput streamedOutput = new StreamedOutput(output);
+        try {
+            return mGUI_Updater.streamData(cmd, params, streamedOutput) ? "" : null;
+        } catch (Exception e) {
+            log_.exception(e, "[QueryAPI]");
+            return streamingError(streamedOutput, e);
+        }
+    }
+
+    /**
+     * Stream the result of a canned command, see JsonResultSetWriter. Location columns get their hostname column as
+     * they do in canned_cmds.
+     *
+     * @param cmd The canned command.
+     * @param params The command parameters.
+     * @param output Opens the response output.
+     * @return null if the command cannot be streamed (use canned_cmds), "" when the result was written to the output
+     * or the error response if the command failed before anything was written.
+     */
+    String stream_canned_cmds(String cmd, Map<String, String> params, JsonResultSetWriter.Output output) {
+        CannedAPI mCLI_Updater = new CannedAPI(log_, locationApi);
+        StreamedOutput streamedOutput = new StreamedOutput(output);
+        try {
+            convertLocationParameter(params);
+            return mCLI_Updater.streamData(cmd, params, streamedOutput,
+                    Collections.singletonList(new HostnameColumn())) ? "" : null;
+        } catch (SQLException | DataStoreException | IOException e) {
+            log_.exception(e, "[CannedAPI]");
+            return streamingError(streamedOutput, e);
+        }
+    }
+
+    // Once the output was opened the response is committed and a failure can only cut it short.
+    private String streamingError(StreamedOutput output, Exception e) {
+        if (output.opened)
+            return "";
+        ErrorCreation errorObj = new ErrorCreation(e.getMessage());
+        return responseCreator.createJsonResult(new String[] {"FE",
+                responseCreator.toString(errorObj.constructErrorResult())});
+    }
+
+    private static final class StreamedOutput implements JsonResultSetWriter.Output {
+        StreamedOutput(JsonResultSetWriter.Output output) {
+            output_ = output;
+        }
+
+        @Override
+        public JsonResultSetWriter open() throws IOException {
+            opened = true;
+            return output_.open();
+        }
+
+        private final JsonResultSetWriter.Output output_;
+        boolean opened = false;
+    }
+
+    // The row by row version of mapLocationstoHostnames.
+    private final class HostnameColumn implements JsonResultSetWriter.RowTransform {
+        @Override
+        public void prepare(List<String> columns) {
+            lctnPos_ = Math.max(columns.indexOf("lctn"), columns.indexOf("location"));
+            if (lctnPos_ >= 0 && !columns.contains("hostname"))
+                columns.add("hostname");
+            else
+                lctnPos_ = -1;
+        }
+
+        @Override
+        public boolean apply(List<Object> row) {
+            if (lctnPos_ < 0)
+                return true;
+            Object lctn = row.get(lctnPos_);
+            if (lctn == null || lctn.toString().isEmpty()) {
+                row.add("");
+                return true;
+            }
+            try {
+                row.add(String.join(" ", locationApi.convertLocationsToHostnames(lctn.toString())));
+            } catch (BadInputException e) {
+                row.add("");
+            }
+            return true;
+        }
+
+        private int lctnPos_ = -1;
+    }
+
+    // Translates the hostnames of the Lctn parameter to locations.
+    private void convertLocationParameter(Map<String, String> params) {
+        String lctn_param = params.getOrDefault("Lctn", "");
+        if (!lctn_param.equals("")){
+            try {
+                Set<String> nodeLocations = locationApi.convertHostnamesToLocations(lctn_param);
+                String lctn = String.join(",", nodeLocations);
+                params.put("Lctn", lctn);
+            } catch (BadInputException e){
+                // If the list contains items that are not compute nodes, default to using a simple list
+                // NOTE: This may be temporary until a better solution is available
+                log_.info(e.getMessage() + " : Falling back to comma separated list.");
+                params.put("Lctn", lctn_param);
+            }
+        }
+    }
+
     @Override
     public String canned_cmds(String cmd, Map<String, String> params) {
         CannedAPI mCLI_Updater = new CannedAPI(log_, locationApi);
         String[] results_array = new String[2];
         try {
-            String lctn_param = params.getOrDefault("Lctn", "");
-            if (!lctn_param.equals("")){
-                try {
-                    Set<String> nodeLocations = locationApi.convertHostnamesToLocations(lctn_param);
-                    String lctn = String.join(",", nodeLocations);
-                    params.put("Lctn", lctn);
-                } catch (BadInputException e){
-                    // If the list contains items that are not compute nodes, default to using a simple list
-                    // NOTE: This may be temporary until a better solution is available
-                    log_.info(e.getMessage() + " : Falling back to comma separated list.");
-                    params.put("Lctn", lctn_param);
-                }
-            }
-            PropertyMap return_result = mCLI_Updater.getData(cmd, params);
+            convertLocationParameter(params);
+            results_array[1] = resultCache.get("cli/" + cmd, params,
+                    () -> responseCreator.toString(mapLocationstoHostnames(mCLI_Updater.getData(cmd, params))));
             results_array[0] = "F";
-            results_array[1] = responseCreator.toString(mapLocationstoHostnames(return_result));
-        } catch (SQLException | DataStoreException | ProviderException e) {
+        } catch (Exception e) {
             log_.exception(e, "[CannedAPI]");
             results_array[0] = "FE";
             ErrorCreation errorObj = new ErrorCreation(e.getMessage());
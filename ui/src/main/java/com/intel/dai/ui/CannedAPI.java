@@ -6,7 +6,7 @@ package com.intel.dai.ui;
 
 import com.intel.config_io.ConfigIO;
 import com.intel.config_io.ConfigIOFactory;
-import com.intel.dai.dsimpl.jdbc.DbConnectionFactory;
+import com.intel.dai.dsimpl.jdbc.DbConnectionPool;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.dai.exceptions.ProviderException;
 import com.intel.logging.Logger;
@@ -14,9 +14,12 @@ import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
 import com.intel.properties.PropertyNotExpectedType;
 import com.intel.dai.exceptions.BadInputException;
+import com.intel.dai.ui.JsonResultSetWriter.RowTransform;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 @SuppressWarnings("serial")
 public class CannedAPI {
@@ -65,6 +68,15 @@ public class CannedAPI {
                 put("S", "Started");
             }});
 
+    private static final Map<String, Map<String, String>> state_columns = Collections.unmodifiableMap(
+            new HashMap<String, Map<String, String>>() {{
+                put("owner", owner_map);
+                put("state", state_map);
+                put("wlmnodestate", wlmstate_map);
+            }});
+
+    private static final Map<String, Map<String, String>> job_columns = Collections.singletonMap("state", jobstate_map);
+
     CannedAPI(Logger logger, LocationApi locationApi) {
         assert jsonParser != null: "Failed to get a JSON parser!";
         assert logger != null: "Passed a null logger to the ctor!";
@@ -72,15 +84,24 @@ public class CannedAPI {
         locationApi_ = locationApi;
     }
 
+    // Borrowed from the shared pool, closing the connection returns it to the pool.
     public Connection get_connection() throws DataStoreException {
-        return DbConnectionFactory.createDefaultConnection();
+        try {
+            return DbConnectionPool.getDefaultPool().getConnection();
+        } catch(SQLException e) {
+            throw new DataStoreException("Unable to get a pooled Nearline tier DB connection", e);
+        }
     }
 
-    public synchronized PropertyMap getData(String requestKey, Map<String, String> params_map)
+    public PropertyMap getData(String requestKey, Map<String, String> params_map)
             throws SQLException, DataStoreException, ProviderException {
         assert params_map != null : "Input parameters should be provided";
         conn = get_connection();
         try {
+            CannedQuery query = singleQuery(requestKey, params_map);
+            if (query != null)
+                return query.postProcess.apply(executeProcedure(query.procedure, query.times, query.vars, query.limit));
+
             Timestamp[] times = new Timestamp[2];
             times[0] = getTimestamp(getStartEndTime(params_map, "StartTime"));
             times[1] = getTimestamp(getStartEndTime(params_map, "EndTime"));
@@ -89,79 +110,18 @@ public class CannedAPI {
 
             PropertyMap jsonResult;
             switch (requestKey) {
-                case "getraswithfilters": {
-                    vars = new String[5];
-                    vars[0] = params_map.getOrDefault("Lctn", null);
-                    vars[1] = params_map.getOrDefault("EventType", "%");
-                    vars[2] = params_map.getOrDefault("Severity", "%");
-                    vars[3] = params_map.getOrDefault("JobId", null);
-                    vars[4] = params_map.getOrDefault("Exclude", "%");
-                    jsonResult = executeProcedure("{call GetRasEventsWithFilters(?, ?, ?, ?, ?, ?, ?, ?)}", times, vars, limit);
-                    break;
-                }
-                case "getenvwithfilters": {
-                    vars = new String[1];
-                    vars[0] = params_map.getOrDefault("Lctn", "%");
-                    jsonResult = executeProcedure("{call GetAggregatedEvnDataWithFilters(?, ?, ?, ?)}", times, vars, limit);
-                    break;
-                }
-                case "getnodeinvinfo": {
-                    times = new Timestamp[0];
-                    vars = new String[2];
-                    vars[0] = params_map.getOrDefault("Lctn", "%");
-                    vars[1] = params_map.getOrDefault("Sernum", "%");
-                    jsonResult = executeProcedure("{call GetNodeInventoryInfoForLctn(?, ?, ?)}", times, vars, limit);
-                    break;
-                }
-                case "getinvchanges": {
-                    vars = new String[1];
-                    vars[0] = params_map.getOrDefault("Lctn", "%");
-                    jsonResult = executeProcedure("{call GetInventoryChange(?, ?, ?, ?)}", times, vars, limit);
-                    break;
-                }
                 case "getinvspecificlctn": {
                     jsonResult = new PropertyMap();
                     vars = new String[1];
                     vars[0] = params_map.getOrDefault("Lctn", "%");
-                    if (params_map.getOrDefault("subfru", null) == null) {
-                        jsonResult = executeProcedure("{call GetInventoryDataForLctn(?, ?, ?, ?)}", times, vars, limit);
-                        jsonResult = map_state_values(jsonResult);
-                    }
-                    else {
-                        jsonResult.put("state", map_state_values(executeProcedure("{call GetInventoryDataForLctn(?, ?, ?, ?)}", times, vars, limit)));
-                        times = new Timestamp[0];
-                        vars = new String[2];
-                        vars[0] = params_map.getOrDefault("Lctn", "%");
-                        vars[1] = params_map.getOrDefault("subfru", null);
-                        limit = "";
-                        log_.info("GetSubfruState procedure called with Lctn = %s and subfru = %s", vars[0], vars[1]);
-                        jsonResult.put("subfru_state", map_state_values(executeProcedure("{call GetSubfruState(?, ?)}", times, vars, limit)));
-                    }
-                    break;
-                }
-                case "getjobinfo": {
-                    vars = new String[4];
-                    vars[0] = params_map.getOrDefault("Jobid", "%");
-                    vars[1] = params_map.getOrDefault("Username", "%");
-                    vars[2] = params_map.getOrDefault("State", "%");
-                    vars[3] = params_map.getOrDefault("Lctn", "%");
-                    times = new Timestamp[3];
-                    times[0] = getTimestamp(getStartEndTime(params_map, "StartTime"));
-                    times[1] = getTimestamp(getStartEndTime(params_map, "EndTime"));
-                    times[2] = getTimestamp(getStartEndTime(params_map, "AtTime"));
-                    log_.info("GetJobInfo procedure called with Jobid = %s and Username = %s", vars[0], vars[1]);
-                    jsonResult = executeProcedure("{call GetJobInfo(?, ?, ?, ?, ?, ?, ?, ?)}", times, vars, limit);
-                    jsonResult = map_job_values(jsonResult);
-                    break;
-                }
-                case "getreservationinfo": {
+                    jsonResult.put("state", map_state_values(executeProcedure("{call GetInventoryDataForLctn(?, ?, ?, ?)}", times, vars, limit)));
+                    times = new Timestamp[0];
                     vars = new String[2];
-                    vars[0] = params_map.getOrDefault("Name", null);
-                    vars[1] = params_map.getOrDefault("Username", null);
-                    log_.info("GetReservationInfo procedure called with Reservation Name = %s and Username = %s", vars[0], vars[1]);
-                    jsonResult = executeProcedure("{call GetReservationInfo(?, ?, ?, ?, ?)}", times, vars, limit);
-                    String lctn = params_map.getOrDefault("Lctn", null);
-                    jsonResult = filterLocations(jsonResult, lctn);
+                    vars[0] = params_map.getOrDefault("Lctn", "%");
+                    vars[1] = params_map.getOrDefault("subfru", null);
+                    limit = "";
+                    log_.info("GetSubfruState procedure called with Lctn = %s and subfru = %s", vars[0], vars[1]);
+                    jsonResult.put("subfru_state", map_state_values(executeProcedure("{call GetSubfruState(?, ?)}", times, vars, limit)));
                     break;
                 }
                 case "system_summary": {
@@ -185,6 +145,168 @@ public class CannedAPI {
         }
     }
 
+    /**
+     * Write the result of a request straight from the database cursor to the output, see JsonResultSetWriter. Only
+     * the requests answered by a single stored procedure call can be streamed.
+     *
+     * @param requestKey The request, as for getData.
+     * @param params_map The request parameters, as for getData.
+     * @param output Opened once the stored procedure was executed.
+     * @param transforms Row transforms applied after the ones of the request itself.
+     * @return false if the request cannot be streamed (use getData), true when the result was written.
+     * @throws SQLException If the stored procedure or reading its result fails.
+     * @throws DataStoreException If no DB connection is available.
+     * @throws IOException If writing the output fails.
+     */
+    public boolean streamData(String requestKey, Map<String, String> params_map, JsonResultSetWriter.Output output,
+                              List<RowTransform> transforms)
+            throws SQLException, DataStoreException, IOException {
+        assert params_map != null : "Input parameters should be provided";
+        CannedQuery query = singleQuery(requestKey, params_map);
+        if (query == null)
+            return false;
+        conn = get_connection();
+        try (CallableStatement stmt = prepareProcedure(query.procedure, query.times, query.vars, query.limit);
+             ResultSet rs = stmt.executeQuery()) {
+            List<RowTransform> allTransforms = new ArrayList<>(query.rowTransforms);
+            allTransforms.addAll(transforms);
+            try (JsonResultSetWriter writer = output.open()) {
+                writer.writeCannedResult(rs, allTransforms);
+            }
+        } finally {
+            conn.close();
+        }
+        return true;
+    }
+
+    // The stored procedure call answering a request on its own with the post processing of its result, as a
+    // PropertyMap for getData and as row transforms for streamData. Null for the other requests.
+    private CannedQuery singleQuery(String requestKey, Map<String, String> params_map) {
+        Timestamp[] times = new Timestamp[2];
+        times[0] = getTimestamp(getStartEndTime(params_map, "StartTime"));
+        times[1] = getTimestamp(getStartEndTime(params_map, "EndTime"));
+        String[] vars;
+        String limit = params_map.getOrDefault("Limit", null);
+
+        switch (requestKey) {
+            case "getraswithfilters": {
+                vars = new String[5];
+                vars[0] = params_map.getOrDefault("Lctn", null);
+                vars[1] = params_map.getOrDefault("EventType", "%");
+                vars[2] = params_map.getOrDefault("Severity", "%");
+                vars[3] = params_map.getOrDefault("JobId", null);
+                vars[4] = params_map.getOrDefault("Exclude", "%");
+                return new CannedQuery("{call GetRasEventsWithFilters(?, ?, ?, ?, ?, ?, ?, ?)}", times, vars, limit);
+            }
+            case "getenvwithfilters": {
+                vars = new String[1];
+                vars[0] = params_map.getOrDefault("Lctn", "%");
+                return new CannedQuery("{call GetAggregatedEvnDataWithFilters(?, ?, ?, ?)}", times, vars, limit);
+            }
+            case "getnodeinvinfo": {
+                times = new Timestamp[0];
+                vars = new String[2];
+                vars[0] = params_map.getOrDefault("Lctn", "%");
+                vars[1] = params_map.getOrDefault("Sernum", "%");
+                return new CannedQuery("{call GetNodeInventoryInfoForLctn(?, ?, ?)}", times, vars, limit);
+            }
+            case "getinvchanges": {
+                vars = new String[1];
+                vars[0] = params_map.getOrDefault("Lctn", "%");
+                return new CannedQuery("{call GetInventoryChange(?, ?, ?, ?)}", times, vars, limit);
+            }
+            case "getinvspecificlctn": {
+                if (params_map.getOrDefault("subfru", null) != null)
+                    return null;
+                vars = new String[1];
+                vars[0] = params_map.getOrDefault("Lctn", "%");
+                CannedQuery query = new CannedQuery("{call GetInventoryDataForLctn(?, ?, ?, ?)}", times, vars, limit);
+                query.postProcess = this::map_state_values;
+                query.rowTransforms.add(JsonResultSetWriter.valueMapping(state_columns));
+                return query;
+            }
+            case "getjobinfo": {
+                vars = new String[4];
+                vars[0] = params_map.getOrDefault("Jobid", "%");
+                vars[1] = params_map.getOrDefault("Username", "%");
+                vars[2] = params_map.getOrDefault("State", "%");
+                vars[3] = params_map.getOrDefault("Lctn", "%");
+                times = new Timestamp[3];
+                times[0] = getTimestamp(getStartEndTime(params_map, "StartTime"));
+                times[1] = getTimestamp(getStartEndTime(params_map, "EndTime"));
+                times[2] = getTimestamp(getStartEndTime(params_map, "AtTime"));
+                log_.info("GetJobInfo procedure called with Jobid = %s and Username = %s", vars[0], vars[1]);
+                CannedQuery query = new CannedQuery("{call GetJobInfo(?, ?, ?, ?, ?, ?, ?, ?)}", times, vars, limit);
+                query.postProcess = this::map_job_values;
+                query.rowTransforms.add(JsonResultSetWriter.valueMapping(job_columns));
+                return query;
+            }
+            case "getreservationinfo": {
+                vars = new String[2];
+                vars[0] = params_map.getOrDefault("Name", null);
+                vars[1] = params_map.getOrDefault("Username", null);
+                log_.info("GetReservationInfo procedure called with Reservation Name = %s and Username = %s", vars[0], vars[1]);
+                CannedQuery query = new CannedQuery("{call GetReservationInfo(?, ?, ?, ?, ?)}", times, vars, limit);
+                String lctn = params_map.getOrDefault("Lctn", null);
+                query.postProcess = jsonResult -> filterLocations(jsonResult, lctn);
+                if (lctn != null)
+                    query.rowTransforms.add(new LocationFilter(lctn));
+                return query;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static final class CannedQuery {
+        CannedQuery(String procedure, Timestamp[] times, String[] vars, String limit) {
+            this.procedure = procedure;
+            this.times = times;
+            this.vars = vars;
+            this.limit = limit;
+        }
+
+        final String procedure;
+        final Timestamp[] times;
+        final String[] vars;
+        final String limit;
+        UnaryOperator<PropertyMap> postProcess = UnaryOperator.identity();
+        final List<RowTransform> rowTransforms = new ArrayList<>();
+    }
+
+    // The row by row version of filterLocations.
+    private final class LocationFilter implements RowTransform {
+        LocationFilter(String lctn) {
+            lctn_ = lctn;
+        }
+
+        @Override
+        public void prepare(List<String> columns) {
+            nodePos_ = columns.indexOf("nodes");
+        }
+
+        @Override
+        public boolean apply(List<Object> row) {
+            if (nodePos_ < 0 || !(row.get(nodePos_) instanceof String))
+                return true;
+            String nodes = rangeToLocations((String) row.get(nodePos_));
+            try {
+                Set<String> locations = locationApi_.convertHostnamesToLocations(new HashSet<String>(Arrays.asList(nodes.split(" "))));
+                for (String location : locations)
+                    if (lctn_.contains(location))
+                        return true;
+                return false;
+            }
+            catch (BadInputException e) {
+                log_.info("Skipping filter for nodes: " + nodes);
+                return true;
+            }
+        }
+
+        private final String lctn_;
+        private int nodePos_ = -1;
+    }
+
     private PropertyMap map_state_values(PropertyMap jsonResult)
     {
         try {
@@ -340,7 +462,16 @@ private PropertyMap filterLocations(PropertyMap jsonResult, String lctn)
 
     private PropertyMap executeProcedure(String prepProcedure, Timestamp[] times, String[] vars, String Limit) throws SQLException {
 
-        try (CallableStatement stmt = conn.prepareCall(prepProcedure)) {
+        try (CallableStatement stmt = prepareProcedure(prepProcedure, times, vars, Limit)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                return jsonConverter.convertToJsonResultSet(rs);
+            }
+        }
+    }
+
+    private CallableStatement prepareProcedure(String prepProcedure, Timestamp[] times, String[] vars, String Limit) throws SQLException {
+        CallableStatement stmt = conn.prepareCall(prepProcedure);
+        try {
             int pos = 1;
             for(int i = 0; i < times.length; i++) {
                 stmt.setTimestamp(pos, times[i]);
@@ -355,10 +486,10 @@ private PropertyMap filterLocations(PropertyMap jsonResult, String lctn)
             if (!"".equals(Limit)) {
                 handleLimit(Limit, stmt, pos);
             }
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                return jsonConverter.convertToJsonResultSet(rs);
-            }
+            return stmt;
+        } catch (SQLException | RuntimeException e) {
+            stmt.close();
+            throw e;
         }
     }
 
@@ -10,6 +10,7 @@ import com.intel.properties.PropertyMap;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -26,63 +27,8 @@ public class JsonConverter {
         while(resultsetinp.next()) {
             numOfRows++;
             PropertyArray rowData = new PropertyArray();
-            for (int i=1; i<numofcolumns+1; i++) {
-                String column_name = rasmetadata.getColumnName(i);
-                if(rasmetadata.getColumnType(i)== Types.ARRAY){
-                    rowData.add( resultsetinp.getArray(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.BIGINT){
-                    rowData.add( resultsetinp.getLong(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.TINYINT){
-                    rowData.add( resultsetinp.getInt(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.SMALLINT){
-                    rowData.add( resultsetinp.getInt(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.DOUBLE){
-                    BigDecimal bd = new BigDecimal(Double.toString(resultsetinp.getDouble(i)));
-                    bd = bd.setScale(4, RoundingMode.HALF_UP);
-                    rowData.add( bd.toPlainString());
-                }
-                else if(rasmetadata.getColumnType(i)== Types.FLOAT){
-                    BigDecimal bd = new BigDecimal(Float.toString(resultsetinp.getFloat(i)));
-                    bd = bd.setScale(4, RoundingMode.HALF_UP);
-                    rowData.add( bd.toPlainString());
-                }
-                else if(rasmetadata.getColumnType(i)== Types.INTEGER){
-                    rowData.add( resultsetinp.getInt(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.NVARCHAR){
-                    rowData.add( resultsetinp.getNString(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.VARCHAR){
-                    if(rasmetadata.getColumnName(i).compareToIgnoreCase("manifestcontent") == 0) {
-                        rowData.add( resultsetinp.getString(i).toString());
-                    }
-                    else
-                        rowData.add( resultsetinp.getString(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.DATE){
-                    rowData.add( resultsetinp.getDate(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.TIMESTAMP){
-                    if (resultsetinp.getTimestamp(column_name) == null)
-                        rowData.add( null);
-                    else
-                        rowData.add( resultsetinp.getTimestamp(i).toString());
-
-                }
-                else if(rasmetadata.getColumnType(i)== Types.BOOLEAN){
-                    rowData.add( resultsetinp.getBoolean(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.BLOB){
-                    rowData.add( resultsetinp.getBlob(i));
-                }
-                else{
-                    rowData.add( resultsetinp.getObject(i));
-                }
-            }
+            for (int i=1; i<numofcolumns+1; i++)
+                rowData.add(columnValue(resultsetinp, rasmetadata, i));
             allRowsData.add(rowData);
         }
         topLevel.put("result-data-columns" ,numofcolumns);
@@ -93,6 +39,45 @@ public class JsonConverter {
         return topLevel;
     }
 
+    // The JSON value of one column of the current row, shared by the buffered converters and JsonResultSetWriter.
+    static Object columnValue(ResultSet resultsetinp, ResultSetMetaData rasmetadata, int i) throws SQLException
+    {
+        switch(rasmetadata.getColumnType(i)) {
+            case Types.ARRAY:
+                return resultsetinp.getArray(i);
+            case Types.BIGINT:
+                return resultsetinp.getLong(i);
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return resultsetinp.getInt(i);
+            case Types.DOUBLE: {
+                BigDecimal bd = new BigDecimal(Double.toString(resultsetinp.getDouble(i)));
+                return bd.setScale(4, RoundingMode.HALF_UP).toPlainString();
+            }
+            case Types.FLOAT: {
+                BigDecimal bd = new BigDecimal(Float.toString(resultsetinp.getFloat(i)));
+                return bd.setScale(4, RoundingMode.HALF_UP).toPlainString();
+            }
+            case Types.NVARCHAR:
+                return resultsetinp.getNString(i);
+            case Types.VARCHAR:
+                return resultsetinp.getString(i);
+            case Types.DATE:
+                return resultsetinp.getDate(i);
+            case Types.TIMESTAMP: {
+                Timestamp timestamp = resultsetinp.getTimestamp(i);
+                return (timestamp == null) ? null : timestamp.toString();
+            }
+            case Types.BOOLEAN:
+                return resultsetinp.getBoolean(i);
+            case Types.BLOB:
+                return resultsetinp.getBlob(i);
+            default:
+                return resultsetinp.getObject(i);
+        }
+    }
+
     private PropertyArray extractSchemaFromResultSet(ResultSetMetaData rasMetaData) throws SQLException {
 
         PropertyArray schema = new PropertyArray();
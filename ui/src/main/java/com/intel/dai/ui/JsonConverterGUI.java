@@ -10,9 +10,6 @@ import com.intel.properties.PropertyMap;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Types;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 public class JsonConverterGUI {
 
@@ -23,63 +20,8 @@ public class JsonConverterGUI {
         int numofcolumns = rasmetadata.getColumnCount();
         while(resultsetinp.next()) {
             PropertyMap obj_json = new PropertyMap();
-            for (int i=1; i<numofcolumns+1; i++) {
-                String column_name = rasmetadata.getColumnName(i);
-                if(rasmetadata.getColumnType(i)== Types.ARRAY){
-                    obj_json.put(column_name, resultsetinp.getArray(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.BIGINT){
-                    obj_json.put(column_name, resultsetinp.getLong(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.TINYINT){
-                    obj_json.put(column_name, resultsetinp.getInt(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.SMALLINT){
-                    obj_json.put(column_name, resultsetinp.getInt(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.DOUBLE){
-                    BigDecimal bd = new BigDecimal(Double.toString(resultsetinp.getDouble(i)));
-                    bd = bd.setScale(4, RoundingMode.HALF_UP);
-                    obj_json.put(column_name, bd.toPlainString());
-                }
-                else if(rasmetadata.getColumnType(i)== Types.FLOAT){
-                    BigDecimal bd = new BigDecimal(Float.toString(resultsetinp.getFloat(i)));
-                    bd = bd.setScale(4, RoundingMode.HALF_UP);
-                    obj_json.put(column_name, bd.toPlainString());
-                }
-                else if(rasmetadata.getColumnType(i)== Types.INTEGER){
-                    obj_json.put(column_name, resultsetinp.getInt(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.NVARCHAR){
-                    obj_json.put(column_name, resultsetinp.getNString(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.VARCHAR){
-                    if(rasmetadata.getColumnName(i).compareToIgnoreCase("manifestcontent") == 0) {
-                        obj_json.put(column_name, resultsetinp.getString(i).toString());
-                    }
-                    else
-                        obj_json.put(column_name, resultsetinp.getString(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.DATE){
-                    obj_json.put(column_name, resultsetinp.getDate(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.TIMESTAMP){
-                    if (resultsetinp.getTimestamp(column_name) == null)
-                        obj_json.put(column_name, null);
-                    else
-                        obj_json.put(column_name, resultsetinp.getTimestamp(i).toString());
-
-                }
-                else if(rasmetadata.getColumnType(i)== Types.BOOLEAN){
-                    obj_json.put(column_name, resultsetinp.getBoolean(i));
-                }
-                else if(rasmetadata.getColumnType(i)== Types.BLOB){
-                    obj_json.put(column_name, resultsetinp.getBlob(i));
-                }
-                else{
-                    obj_json.put(column_name, resultsetinp.getObject(i));
-                }
-            }
+            for (int i=1; i<numofcolumns+1; i++)
+                obj_json.put(rasmetadata.getColumnName(i), JsonConverter.columnValue(resultsetinp, rasmetadata, i));
             jsonarray.add(obj_json);
         }
         return jsonarray;
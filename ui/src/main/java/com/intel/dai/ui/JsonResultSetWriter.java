@@ -0,0 +1,319 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ui;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a query result as JSON while reading it from the cursor, one row at a time, instead of building the whole
+ * document with JsonConverter or JsonConverterGUI before serializing it. The documents are the ones of those
+ * converters, with the row transforms applied to each row as it is written. Memory use does not depend on the number
+ * of rows.
+ */
+public class JsonResultSetWriter implements Closeable {
+    /**
+     * A transformation applied to each row of a streamed canned (CLI) result.
+     */
+    public interface RowTransform {
+        /**
+         * Called once before the first row.
+         *
+         * @param columns The result column names, a transform that adds a column appends its name.
+         */
+        void prepare(List<String> columns);
+
+        /**
+         * Transform the row in place.
+         *
+         * @param row The values of the row, one per column in prepare() order.
+         * @return false to drop the row from the result.
+         */
+        boolean apply(List<Object> row);
+    }
+
+    /**
+     * Opens the destination of a streamed result, called only once the query has been executed so a failing query can
+     * still be answered with an ordinary error response.
+     */
+    @FunctionalInterface
+    public interface Output {
+        JsonResultSetWriter open() throws IOException;
+    }
+
+    /**
+     * Create a writer for a bare JSON document.
+     *
+     * @param out The destination, closed by close().
+     */
+    public JsonResultSetWriter(Writer out) {
+        this(out, out, "");
+    }
+
+    /**
+     * Create a writer that produces the {"Status":"F","Result":"..."} response of ResponseCreator.createJsonResult,
+     * with the result document written into the escaped "Result" string.
+     *
+     * @param out The destination, closed by close().
+     * @return The writer.
+     * @throws IOException If the destination cannot be written.
+     */
+    public static JsonResultSetWriter inResponseEnvelope(Writer out) throws IOException {
+        out.write("{\"Status\":\"F\",\"Result\":\"");
+        return new JsonResultSetWriter(new EscapingWriter(out), out, "\"}");
+    }
+
+    private JsonResultSetWriter(Writer out, Writer destination, String suffix) {
+        out_ = out;
+        destination_ = destination;
+        suffix_ = suffix;
+    }
+
+    /**
+     * Write a result in the JsonConverter (CLI) format, the "data" rows are written before the counts.
+     *
+     * @param resultSet The query result, read to the end.
+     * @param transforms The row transforms, applied in order.
+     * @return The number of rows written.
+     * @throws SQLException If reading the result fails.
+     * @throws IOException If writing fails.
+     */
+    public long writeCannedResult(ResultSet resultSet, List<RowTransform> transforms)
+            throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount + 1);
+        for(int i = 1; i <= columnCount; i++)
+            columns.add(metaData.getColumnName(i));
+        for(RowTransform transform: transforms)
+            transform.prepare(columns);
+
+        out_.write("{\"schema\":[");
+        for(int i = 0; i < columns.size(); i++) {
+            if(i > 0)
+                out_.write(',');
+            out_.write("{\"heading\":");
+            writeString(columns.get(i));
+            out_.write(",\"data\":");
+            writeString(columns.get(i));
+            out_.write(",\"unit\":\"string\"}");
+        }
+        out_.write("],\"data\":[");
+        long rows = 0;
+        List<Object> row = new ArrayList<>(columns.size());
+        while(resultSet.next()) {
+            row.clear();
+            for(int i = 1; i <= columnCount; i++)
+                row.add(JsonConverter.columnValue(resultSet, metaData, i));
+            if(!applyTransforms(transforms, row))
+                continue;
+            out_.write(rows == 0 ? "[" : ",[");
+            for(int i = 0; i < row.size(); i++) {
+                if(i > 0)
+                    out_.write(',');
+                writeValue(row.get(i));
+            }
+            out_.write(']');
+            rows++;
+        }
+        out_.write("],\"result-data-columns\":");
+        out_.write(Integer.toString(columns.size()));
+        out_.write(",\"result-data-lines\":");
+        out_.write(Long.toString(rows));
+        out_.write(",\"result-status-code\":0}");
+        complete_ = true;
+        return rows;
+    }
+
+    /**
+     * Write a result in the JsonConverterGUI format, an array with one object per row.
+     *
+     * @param resultSet The query result, read to the end.
+     * @return The number of rows written.
+     * @throws SQLException If reading the result fails.
+     * @throws IOException If writing fails.
+     */
+    public long writeGuiResult(ResultSet resultSet) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        long rows = 0;
+        out_.write('[');
+        while(resultSet.next()) {
+            out_.write(rows == 0 ? "{" : ",{");
+            for(int i = 1; i <= columnCount; i++) {
+                if(i > 1)
+                    out_.write(',');
+                writeString(metaData.getColumnName(i));
+                out_.write(':');
+                writeValue(JsonConverter.columnValue(resultSet, metaData, i));
+            }
+            out_.write('}');
+            rows++;
+        }
+        out_.write(']');
+        complete_ = true;
+        return rows;
+    }
+
+    /**
+     * Close the destination. The response envelope is completed only when a result was written entirely, a result
+     * cut short by an error is left as invalid JSON so the client does not take it for a complete one.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            out_.flush();
+            if(complete_)
+                destination_.write(suffix_);
+        } finally {
+            destination_.close();
+        }
+    }
+
+    /**
+     * A row transform that replaces the values of columns using per column value maps, values not in the map become
+     * null (the CannedAPI owner/state mappings).
+     *
+     * @param columnValues The value map for each column name to transform.
+     * @return The transform.
+     */
+    public static RowTransform valueMapping(Map<String, Map<String, String>> columnValues) {
+        return new RowTransform() {
+            @Override
+            public void prepare(List<String> columns) {
+                positions_ = new int[columns.size()];
+                maps_ = new ArrayList<>();
+                int count = 0;
+                for(int i = 0; i < columns.size(); i++) {
+                    Map<String, String> values = columnValues.get(columns.get(i));
+                    if(values != null) {
+                        positions_[count++] = i;
+                        maps_.add(values);
+                    }
+                }
+            }
+
+            @Override
+            public boolean apply(List<Object> row) {
+                for(int i = 0; i < maps_.size(); i++) {
+                    Object value = row.get(positions_[i]);
+                    if(value == null || value instanceof String)
+                        row.set(positions_[i], maps_.get(i).get(value));
+                }
+                return true;
+            }
+
+            private int[] positions_;
+            private List<Map<String, String>> maps_;
+        };
+    }
+
+    private static boolean applyTransforms(List<RowTransform> transforms, List<Object> row) {
+        for(RowTransform transform: transforms)
+            if(!transform.apply(row))
+                return false;
+        return true;
+    }
+
+    // Values are written the way the ConfigIO JSON provider writes them, types it cannot write (dates, arrays, ...)
+    // are written as strings.
+    private void writeValue(Object value) throws IOException {
+        if(value == null)
+            out_.write("null");
+        else if(value instanceof Boolean)
+            out_.write(value.toString());
+        else if(value instanceof Double || value instanceof Float) {
+            double number = ((Number)value).doubleValue();
+            out_.write((Double.isNaN(number) || Double.isInfinite(number)) ? "null" : value.toString());
+        } else if(value instanceof Number)
+            out_.write(value.toString());
+        else
+            writeString(value.toString());
+    }
+
+    private void writeString(String value) throws IOException {
+        out_.write('"');
+        writeEscaped(out_, value, 0, value.length());
+        out_.write('"');
+    }
+
+    // The escapes of Jsoner.escape, used for the string values and again by EscapingWriter for the envelope.
+    private static void writeEscaped(Writer out, CharSequence value, int start, int end) throws IOException {
+        for(int index = start; index < end; index++)
+            writeEscaped(out, value.charAt(index));
+    }
+
+    private static void writeEscaped(Writer out, char chr) throws IOException {
+        switch(chr) {
+            case '"': out.write("\\\""); break;
+            case '\\': out.write("\\\\"); break;
+            case '/': out.write("\\/"); break;
+            case '\b': out.write("\\b"); break;
+            case '\f': out.write("\\f"); break;
+            case '\n': out.write("\\n"); break;
+            case '\r': out.write("\\r"); break;
+            case '\t': out.write("\\t"); break;
+            default:
+                if(chr <= '\u001F' || (chr >= '\u007F' && chr <= '\u009F') || (chr >= '\u2000' && chr <= '\u20FF')) {
+                    String hex = Integer.toHexString(chr).toUpperCase();
+                    out.write("\\u");
+                    for(int i = hex.length(); i < 4; i++)
+                        out.write('0');
+                    out.write(hex);
+                } else
+                    out.write(chr);
+                break;
+        }
+    }
+
+    // Escapes everything written to it as the content of a JSON string.
+    private static final class EscapingWriter extends Writer {
+        EscapingWriter(Writer out) {
+            out_ = out;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            writeEscaped(out_, CharBuffer.wrap(buffer), offset, offset + length);
+        }
+
+        @Override
+        public void write(int chr) throws IOException {
+            writeEscaped(out_, (char)chr);
+        }
+
+        @Override
+        public void write(String value, int offset, int length) throws IOException {
+            writeEscaped(out_, value, offset, offset + length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out_.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out_.close();
+        }
+
+        private final Writer out_;
+    }
+
+    private final Writer out_;
+    private final Writer destination_;
+    private final String suffix_;
+    private boolean complete_ = false;
+}
@@ -4,9 +4,10 @@
 
 package com.intel.dai.ui;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.HashMap;
-import com.intel.dai.dsimpl.jdbc.DbConnectionFactory;
+import com.intel.dai.dsimpl.jdbc.DbConnectionPool;
 import com.intel.config_io.*;
 import com.intel.logging.Logger;
 import com.intel.logging.LoggerFactory;
@@ -22,82 +23,102 @@ public class QueryAPI {
         assert jsonParser != null: "Failed to get a JSON parser!";
     }
 
+    // Borrowed from the shared pool, closing the connection returns it to the pool.
     public Connection get_connection() throws DataStoreException {
-        return DbConnectionFactory.createDefaultConnection();
+        try {
+            return DbConnectionPool.getDefaultPool().getConnection();
+        } catch(SQLException e) {
+            throw new DataStoreException("Unable to get a pooled Nearline tier DB connection", e);
+        }
     }
 
-    public synchronized String getData(String requestKey, HashMap<String, String> params_map)
+    public String getData(String requestKey, HashMap<String, String> params_map)
             throws SQLException, DataStoreException {
         conn = get_connection();
-        try {
-            Timestamp endtime = getTimestamp(getStartEndTime(params_map, "EndTime"));
-            Timestamp starttime = getTimestamp(getStartEndTime(params_map, "StartTime"));
-            int seq_num = Integer.parseInt(params_map.getOrDefault("SeqNum", "-1"));
-            PropertyArray jsonResult;
-            switch (requestKey) {
-                case "filedata":
-                    jsonResult = executeProcedureNoParams("{call GetManifestContent()}");
-                    break;
-                case "diagsact":
-                    jsonResult = executeProcedureEndTime("{call DiagListOfActiveDiagsAtTime(?)}", endtime);
-                    break;
-                case "diagsnonact":
-                    jsonResult = executeProcedureEndTime("{call DiagListOfNonActiveDiagsAtTime(?)}", endtime);
-                    break;
-                case "computenodestatehistory":
-                    jsonResult = executeProcedureStartEndTime("{call ComputeNodeHistoryListOfStateAtTime(?, ?)}", starttime, endtime);
-                    break;
-                case "servicenodestatehistory":
-                    jsonResult = executeProcedureStartEndTime("{call ServiceNodeHistoryListOfStateAtTime(?, ?)}", starttime, endtime);
-                    break;
-                case "rasevent":
-                    jsonResult = executeProcedureStartEndTime("{call RasEventListAtTime(?, ?)}", starttime, endtime);
-                    break;
-                case "aggenv":
-                    jsonResult = executeProcedureStartEndTime("{call AggregatedEnvDataListAtTime(?, ?)}", starttime, endtime);
-                    break;
-                case "jobsact":
-                    jsonResult = executeProcedureEndTime("{call JobHistoryListOfActiveJobsatTime(?)}", endtime);
-                    break;
-                case "jobsnonact":
-                    jsonResult = executeProcedureStartEndTime("{call JobHistoryListOfNonActiveJobsAtTime(?, ?)}", starttime, endtime);
-                    break;
-                case "changets":
-                    jsonResult = executeProcedureNoParams("{call DbChgTimestamps()}");
-                    break;
-                case "serviceinv":
-                    jsonResult = executeProcedureStartEndTime("{call ServiceNodeInventoryList(?, ?)}", starttime, endtime);
-                    break;
-                case "computeinv":
-                    jsonResult = executeProcedureStartEndTime("{call ComputeNodeInventoryList(?, ?)}", starttime, endtime);
-                    break;
-                case "computehistoldestts":
-                    jsonResult = executeProcedureNoParams("{call ComputeNodeHistoryOldestTimestamp()}");
-                    break;
-                case "inventoryss":
-                    jsonResult = executeProcedureStartEndTime("{call InventorySnapshotList(?, ?)}", starttime, endtime);
-                    break;
-                case "inventoryinfo":
-                    jsonResult = executeProcedureStartEndTime("{call InventoryInfoList(?, ?)}", starttime, endtime);
-                    break;
-                case "replacementhistory":
-                    jsonResult = executeProcedureStartEndTime("{call ReplacementHistoryList(?, ?)}", starttime, endtime);
-                    break;
-                case "reservationlist":
-                    jsonResult = executeProcedureStartEndTime("{call ReservationListAtTime(?, ?)}", starttime, endtime);
-                    break;
-                case "serviceadapterdata":
-                    jsonResult = executeProcedureEndTime("{call ServiceOperationAtTime(?)}", endtime);
-                    break;
-                default:
-                    return "Invalid request, request key: '" + requestKey + "' : Not Found";
+        try (CallableStatement stmt = prepareQuery(conn, requestKey, params_map)) {
+            if (stmt == null)
+                return "Invalid request, request key: '" + requestKey + "' : Not Found";
+            try (ResultSet rs = stmt.executeQuery()) {
+                return jsonParser.toString(jsonConverter.convertToJsonResultSet(rs));
+            }
+        } finally {
+            conn.close();
+        }
+    }
+
+    /**
+     * Write the result of a request straight from the database cursor to the output, see JsonResultSetWriter.
+     *
+     * @param requestKey The request, as for getData.
+     * @param params_map The request parameters, as for getData.
+     * @param output Opened once the stored procedure was executed.
+     * @return false for an unknown request (use getData), true when the result was written.
+     * @throws SQLException If the stored procedure or reading its result fails.
+     * @throws DataStoreException If no DB connection is available.
+     * @throws IOException If writing the output fails.
+     */
+    public boolean streamData(String requestKey, HashMap<String, String> params_map, JsonResultSetWriter.Output output)
+            throws SQLException, DataStoreException, IOException {
+        conn = get_connection();
+        try (CallableStatement stmt = prepareQuery(conn, requestKey, params_map)) {
+            if (stmt == null)
+                return false;
+            try (ResultSet rs = stmt.executeQuery(); JsonResultSetWriter writer = output.open()) {
+                writer.writeGuiResult(rs);
             }
-            return jsonParser.toString(jsonResult);
+            return true;
         } finally {
             conn.close();
         }
     }
 
+    // The prepared stored procedure call of the request, null for an unknown request.
+    private CallableStatement prepareQuery(Connection connection, String requestKey, HashMap<String, String> params_map)
+            throws SQLException {
+        Timestamp endtime = getTimestamp(getStartEndTime(params_map, "EndTime"));
+        Timestamp starttime = getTimestamp(getStartEndTime(params_map, "StartTime"));
+        switch (requestKey) {
+            case "filedata":
+                return prepareNoParams(connection, "{call GetManifestContent()}");
+            case "diagsact":
+                return prepareEndTime(connection, "{call DiagListOfActiveDiagsAtTime(?)}", endtime);
+            case "diagsnonact":
+                return prepareEndTime(connection, "{call DiagListOfNonActiveDiagsAtTime(?)}", endtime);
+            case "computenodestatehistory":
+                return prepareStartEndTime(connection, "{call ComputeNodeHistoryListOfStateAtTime(?, ?)}", starttime, endtime);
+            case "servicenodestatehistory":
+                return prepareStartEndTime(connection, "{call ServiceNodeHistoryListOfStateAtTime(?, ?)}", starttime, endtime);
+            case "rasevent":
+                return prepareStartEndTime(connection, "{call RasEventListAtTime(?, ?)}", starttime, endtime);
+            case "aggenv":
+                return prepareStartEndTime(connection, "{call AggregatedEnvDataListAtTime(?, ?)}", starttime, endtime);
+            case "jobsact":
+                return prepareEndTime(connection, "{call JobHistoryListOfActiveJobsatTime(?)}", endtime);
+            case "jobsnonact":
+                return prepareStartEndTime(connection, "{call JobHistoryListOfNonActiveJobsAtTime(?, ?)}", starttime, endtime);
+            case "changets":
+                return prepareNoParams(connection, "{call DbChgTimestamps()}");
+            case "serviceinv":
+                return prepareStartEndTime(connection, "{call ServiceNodeInventoryList(?, ?)}", starttime, endtime);
+            case "computeinv":
+                return prepareStartEndTime(connection, "{call ComputeNodeInventoryList(?, ?)}", starttime, endtime);
+            case "computehistoldestts":
+                return prepareNoParams(connection, "{call ComputeNodeHistoryOldestTimestamp()}");
+            case "inventoryss":
+                return prepareStartEndTime(connection, "{call InventorySnapshotList(?, ?)}", starttime, endtime);
+            case "inventoryinfo":
+                return prepareStartEndTime(connection, "{call InventoryInfoList(?, ?)}", starttime, endtime);
+            case "replacementhistory":
+                return prepareStartEndTime(connection, "{call ReplacementHistoryList(?, ?)}", starttime, endtime);
+            case "reservationlist":
+                return prepareStartEndTime(connection, "{call ReservationListAtTime(?, ?)}", starttime, endtime);
+            case "serviceadapterdata":
+                return prepareEndTime(connection, "{call ServiceOperationAtTime(?)}", endtime);
+            default:
+                return null;
+        }
+    }
+
     private String getStartEndTime(HashMap <String, String> params_map, String key)
     {
         String val_time;
@@ -115,46 +136,35 @@ public class QueryAPI {
         return new_time;
     }
 
-    private PropertyArray executeProcedureStartEndTime (String prep_procedure, Timestamp StartTime, Timestamp EndTime)
-            throws SQLException
+    private CallableStatement prepareStartEndTime(Connection connection, String prep_procedure, Timestamp StartTime,
+                                                  Timestamp EndTime) throws SQLException
     {
-        try (CallableStatement stmt = conn.prepareCall(prep_procedure)) {
+        CallableStatement stmt = connection.prepareCall(prep_procedure);
+        try {
             stmt.setTimestamp(1, StartTime);
             stmt.setTimestamp(2, EndTime);
-            try (ResultSet rs = stmt.executeQuery()) {
-                return jsonConverter.convertToJsonResultSet(rs);
-            }
+            return stmt;
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
         }
     }
 
-    private PropertyArray executeProcedureNoParams (String prep_procedure)
-            throws SQLException
+    private CallableStatement prepareNoParams(Connection connection, String prep_procedure) throws SQLException
     {
-        try (CallableStatement stmt = conn.prepareCall(prep_procedure)) {
-            try (ResultSet rs = stmt.executeQuery()) {
-                return jsonConverter.convertToJsonResultSet(rs);
-            }
-        }
-    }
-    private synchronized PropertyArray executeProcedureOneParam (String prep_procedure, Integer num_inp)
-            throws SQLException
-    {
-        try (CallableStatement stmt = conn.prepareCall(prep_procedure)) {
-            stmt.setInt(1, num_inp);
-            try (ResultSet rs = stmt.executeQuery()) {
-                return jsonConverter.convertToJsonResultSet(rs);
-            }
-        }
+        return connection.prepareCall(prep_procedure);
     }
 
-    private PropertyArray executeProcedureEndTime (String prep_procedure, Timestamp EndTime)
+    private CallableStatement prepareEndTime(Connection connection, String prep_procedure, Timestamp EndTime)
             throws SQLException
     {
-        try (CallableStatement stmt = conn.prepareCall(prep_procedure)) {
+        CallableStatement stmt = connection.prepareCall(prep_procedure);
+        try {
             stmt.setTimestamp(1, EndTime);
-            try (ResultSet rs = stmt.executeQuery()) {
-                return jsonConverter.convertToJsonResultSet(rs);
-            }
+            return stmt;
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
         }
     }
 }
@@ -0,0 +1,205 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ui;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Response cache for the UI REST queries polled by dashboards. Only the endpoints with a policy are cached. A cached
+ * response is kept for the time bucket it was loaded in (the current time divided by the endpoint's TTL), so all the
+ * clients polling an endpoint share one database query per bucket. Concurrent identical requests are coalesced into a
+ * single load, failed loads are not cached. The cache holds at most maxEntries responses, the least recently used are
+ * evicted first. Responses are dropped when one of the Nearline tables their endpoint reads is updated, see
+ * invalidateTable().
+ */
+public class QueryResultCache {
+    /**
+     * Produces the response on a cache miss.
+     *
+     * @param <E> The checked exception of a failed load.
+     */
+    @FunctionalInterface
+    public interface Loader<E extends Exception> {
+        String load() throws E;
+    }
+
+    /**
+     * How long the responses of an endpoint are cached and which tables they depend on.
+     */
+    public static final class Policy {
+        /**
+         * @param ttlMs The time bucket length in milliseconds.
+         * @param tables The Nearline tables (DataMover routing keys) the endpoint reads.
+         */
+        public Policy(long ttlMs, String... tables) {
+            if(ttlMs <= 0)
+                throw new IllegalArgumentException("The TTL must be positive");
+            ttlMs_ = ttlMs;
+            tables_ = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(tables)));
+        }
+
+        private final long ttlMs_;
+        private final Set<String> tables_;
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param policies The policy of each cached endpoint, by endpoint name.
+     * @param maxEntries The maximum number of cached responses.
+     */
+    public QueryResultCache(Map<String, Policy> policies, int maxEntries) {
+        this(policies, maxEntries, System::currentTimeMillis);
+    }
+
+    QueryResultCache(Map<String, Policy> policies, int maxEntries, LongSupplier clock) {
+        if(maxEntries < 1)
+            throw new IllegalArgumentException("The cache must hold at least one entry");
+        policies_ = new HashMap<>(policies);
+        clock_ = clock;
+        for(Map.Entry<String, Policy> policy: policies_.entrySet()) {
+            generations_.put(policy.getKey(), 0L);
+            for(String table: policy.getValue().tables_)
+                endpointsByTable_.computeIfAbsent(table, t -> new HashSet<>()).add(policy.getKey());
+        }
+        entries_ = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the response of a request from the cache, loading it on a miss. Requests to endpoints without a policy are
+     * always loaded.
+     *
+     * @param endpoint The endpoint name.
+     * @param params The request parameters, their order and empty values do not matter.
+     * @param loader Loads the response.
+     * @param <E> The checked exception of a failed load.
+     * @return The response.
+     * @throws E The load failed (for this request or the concurrent identical one it waited for).
+     */
+    public <E extends Exception> String get(String endpoint, Map<String, String> params, Loader<E> loader) throws E {
+        Policy policy = policies_.get(endpoint);
+        if(policy == null)
+            return loader.load();
+        String key = cacheKey(endpoint, params);
+        long bucket = clock_.getAsLong() / policy.ttlMs_;
+        Entry entry;
+        boolean load = false;
+        synchronized(this) {
+            entry = entries_.get(key);
+            if(entry == null || entry.bucket != bucket) {
+                entry = new Entry(endpoint, bucket, generations_.get(endpoint));
+                entries_.put(key, entry);
+                load = true;
+                misses_++;
+            } else
+                hits_++;
+        }
+        if(load)
+            return loadEntry(key, entry, loader);
+        try {
+            return entry.response.join();
+        } catch(CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Drop the cached responses of the endpoints that read a table, including the ones still loading.
+     *
+     * @param table The table (DataMover routing key) that was updated.
+     */
+    public synchronized void invalidateTable(String table) {
+        Set<String> endpoints = endpointsByTable_.get(table);
+        if(endpoints == null)
+            return;
+        for(String endpoint: endpoints)
+            generations_.put(endpoint, generations_.get(endpoint) + 1L);
+        entries_.values().removeIf(entry -> endpoints.contains(entry.endpoint));
+    }
+
+    /**
+     * @return The tables the cached endpoints depend on, the routing keys to listen to.
+     */
+    public Set<String> tables() {
+        return Collections.unmodifiableSet(endpointsByTable_.keySet());
+    }
+
+    synchronized long hits() { return hits_; }
+    synchronized long misses() { return misses_; }
+    synchronized int size() { return entries_.size(); }
+
+    private <E extends Exception> String loadEntry(String key, Entry entry, Loader<E> loader) throws E {
+        String response;
+        try {
+            response = loader.load();
+        } catch(Exception | Error e) {
+            synchronized(this) {
+                entries_.remove(key, entry);
+            }
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        synchronized(this) {
+            // Invalidated while loading, the response may predate the update.
+            if(generations_.get(entry.endpoint) != entry.generation)
+                entries_.remove(key, entry);
+        }
+        entry.response.complete(response);
+        return response;
+    }
+
+    // The exception of the load a request waited for is rethrown as is, it was thrown by a loader of the same
+    // endpoint so it has the same checked type.
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(Throwable cause) throws E {
+        if(cause instanceof RuntimeException)
+            throw (RuntimeException)cause;
+        if(cause instanceof Error)
+            throw (Error)cause;
+        throw (E)cause;
+    }
+
+    private static String cacheKey(String endpoint, Map<String, String> params) {
+        StringBuilder key = new StringBuilder(endpoint);
+        for(Map.Entry<String, String> param: new TreeMap<>(params).entrySet()) {
+            String value = param.getValue();
+            if(value == null || value.trim().isEmpty())
+                continue;
+            key.append('\u0000').append(param.getKey()).append('\u0001').append(value.trim());
+        }
+        return key.toString();
+    }
+
+    private static final class Entry {
+        Entry(String endpoint, long bucket, long generation) {
+            this.endpoint = endpoint;
+            this.bucket = bucket;
+            this.generation = generation;
+        }
+
+        final String endpoint;
+        final long bucket;
+        final long generation;
+        final CompletableFuture<String> response = new CompletableFuture<>();
+    }
+
+    private final Map<String, Policy> policies_;
+    private final LongSupplier clock_;
+    private final Map<String, Long> generations_ = new HashMap<>();
+    private final Map<String, Set<String>> endpointsByTable_ = new HashMap<>();
+    private final LinkedHashMap<String, Entry> entries_;
+    private long hits_ = 0L;
+    private long misses_ = 0L;
+}
@@ -10,6 +10,8 @@ import com.intel.logging.Logger
 import java.sql.CallableStatement
 import java.sql.Connection
 import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+import java.sql.Types
 import java.util.HashSet
 
 
@@ -217,6 +219,51 @@ class CannedAPISpec extends Specification {
         underTest_.filterLocations(jsonResultMap, "node3")
     }
 
+    def "Test streamData filters and maps rows"() {
+        def metaData = Mock(ResultSetMetaData)
+        metaData.getColumnCount() >> 2
+        metaData.getColumnName(1) >> "nodes"
+        metaData.getColumnName(2) >> "state"
+        metaData.getColumnType(_) >> Types.VARCHAR
+        def rs = Mock(ResultSet)
+        rs.getMetaData() >> metaData
+        rs.next() >>> [true, false]
+        rs.getString(1) >> "node1"
+        rs.getString(2) >> "T"
+        def stmt = Mock(CallableStatement)
+        stmt.executeQuery() >> rs
+        def conn = Mock(Connection)
+        conn.prepareCall(_) >> stmt
+        def streaming = new CannedAPI(Mock(Logger), underTest_.locationApi_) {
+            @Override
+            Connection get_connection() { return conn }
+        }
+        def out = new StringWriter()
+
+        when:
+        def streamed = streaming.streamData(KEY, ["Lctn": LCTN], { new JsonResultSetWriter(out) }, [])
+        def result = ConfigIOFactory.getInstance("json").fromString(out.toString()).getAsMap()
+
+        then:
+        streamed
+        result.getInt("result-data-lines") == LINES
+        LINES == 0 || result.getArray("data").getArray(0).getString(1) == STATE
+        1 * conn.close()
+
+        where:
+        KEY                  | LCTN    || LINES | STATE
+        "getreservationinfo" | "node1" || 1     | "T"
+        "getreservationinfo" | "node3" || 0     | null
+        "getjobinfo"         | "node3" || 1     | "Terminated"
+    }
+
+    def "Test streamData of a multi part request"() {
+        expect:
+        !underTest_.streamData("system_summary", [:], { throw new IOException() }, [])
+        !underTest_.streamData("getinvspecificlctn", ["subfru": "x"], { throw new IOException() }, [])
+        !underTest_.streamData("unknown", [:], { throw new IOException() }, [])
+    }
+
     def "Range to Locations No Range"() {
 
         expect:
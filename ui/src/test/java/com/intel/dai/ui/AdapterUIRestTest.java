@@ -238,6 +238,16 @@ public class AdapterUIRestTest {
         assertEquals("{\"system\":\"mock\",\"nodes\":{\"node1\":\"location1\"}}", obj.getLocations());
     }
 
+    @Test
+    public void invalidateMovedTable() throws Exception {
+        AdapterUIRestMock obj = new AdapterUIRestMock();
+        obj.resultCache.get("query/computeinv", new HashMap<>(), () -> "old");
+        obj.invalidateMovedTable("ComputeNode");
+        assertEquals("old", obj.resultCache.get("query/computeinv", new HashMap<>(), () -> "new"));
+        obj.invalidateMovedTable("HighWaterMark.ComputeNode");
+        assertEquals("new", obj.resultCache.get("query/computeinv", new HashMap<>(), () -> "new"));
+    }
+
     @Test
     public void mapLocationstoHostnames() throws ProviderException, IOException, DataStoreException, TimeoutException, BadInputException {
         AdapterUIRestMock obj = new AdapterUIRestMock();
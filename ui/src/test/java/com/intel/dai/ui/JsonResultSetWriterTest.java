@@ -0,0 +1,132 @@
+package com.intel.dai.ui;
+
+import com.intel.config_io.ConfigIO;
+import com.intel.config_io.ConfigIOFactory;
+import com.intel.properties.PropertyArray;
+import com.intel.properties.PropertyDocument;
+import com.intel.properties.PropertyMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JsonResultSetWriterTest {
+    @Before
+    public void setUp() throws SQLException {
+        parser_ = ConfigIOFactory.getInstance("json");
+        metaData_ = mock(ResultSetMetaData.class);
+        when(metaData_.getColumnCount()).thenReturn(4);
+        when(metaData_.getColumnName(1)).thenReturn("lctn");
+        when(metaData_.getColumnType(1)).thenReturn(Types.VARCHAR);
+        when(metaData_.getColumnName(2)).thenReturn("state");
+        when(metaData_.getColumnType(2)).thenReturn(Types.VARCHAR);
+        when(metaData_.getColumnName(3)).thenReturn("value");
+        when(metaData_.getColumnType(3)).thenReturn(Types.DOUBLE);
+        when(metaData_.getColumnName(4)).thenReturn("count");
+        when(metaData_.getColumnType(4)).thenReturn(Types.BIGINT);
+    }
+
+    // A fresh result set with three rows, the string values need escaping.
+    private ResultSet resultSet() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metaData_);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getString(1)).thenReturn("x0c0s0b0n0", "x0/\"c1\"\n", null);
+        when(resultSet.getString(2)).thenReturn("A", "M", "Z");
+        when(resultSet.getDouble(3)).thenReturn(1.5, 25.123456, 0.0);
+        when(resultSet.getLong(4)).thenReturn(1L, 2L, 30000000000L);
+        return resultSet;
+    }
+
+    @Test
+    public void cannedResultMatchesJsonConverter() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonResultSetWriter writer = new JsonResultSetWriter(out)) {
+            assertEquals(3L, writer.writeCannedResult(resultSet(), Collections.emptyList()));
+        }
+        PropertyMap expected = new JsonConverter().convertToJsonResultSet(resultSet());
+        assertEquals(parser_.fromString(parser_.toString(expected)), parser_.fromString(out.toString()));
+    }
+
+    @Test
+    public void guiResultMatchesJsonConverterGUI() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonResultSetWriter writer = new JsonResultSetWriter(out)) {
+            assertEquals(3L, writer.writeGuiResult(resultSet()));
+        }
+        PropertyArray expected = new JsonConverterGUI().convertToJsonResultSet(resultSet());
+        assertEquals(parser_.fromString(parser_.toString(expected)), parser_.fromString(out.toString()));
+    }
+
+    @Test
+    public void responseEnvelopeMatchesResponseCreator() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonResultSetWriter writer = JsonResultSetWriter.inResponseEnvelope(out)) {
+            writer.writeGuiResult(resultSet());
+        }
+        PropertyArray result = new JsonConverterGUI().convertToJsonResultSet(resultSet());
+        ResponseCreator creator = new ResponseCreator();
+        PropertyMap expected = parser_.fromString(creator.createJsonResult(new String[] {"F",
+                creator.toString(result)})).getAsMap();
+        PropertyMap actual = parser_.fromString(out.toString()).getAsMap();
+        assertEquals("F", actual.getString("Status"));
+        assertEquals(parser_.fromString(expected.getString("Result")), parser_.fromString(actual.getString("Result")));
+    }
+
+    @Test
+    public void incompleteResultLeavesTheEnvelopeOpen() throws Exception {
+        StringWriter out = new StringWriter();
+        ResultSet resultSet = resultSet();
+        when(resultSet.getLong(4)).thenThrow(new SQLException("Connection lost"));
+        try (JsonResultSetWriter writer = JsonResultSetWriter.inResponseEnvelope(out)) {
+            writer.writeGuiResult(resultSet);
+            fail();
+        } catch(SQLException e) { /* Expected */ }
+        assertFalse(out.toString().endsWith("\"}"));
+    }
+
+    @Test
+    public void rowTransforms() throws Exception {
+        Map<String, String> states = new HashMap<>();
+        states.put("A", "Active");
+        states.put("M", "Missing");
+        JsonResultSetWriter.RowTransform addColumnDropLast = new JsonResultSetWriter.RowTransform() {
+            @Override
+            public void prepare(List<String> columns) {
+                columns.add("hostname");
+            }
+
+            @Override
+            public boolean apply(List<Object> row) {
+                row.add("host" + row.get(3));
+                return !row.get(3).equals(30000000000L);
+            }
+        };
+        StringWriter out = new StringWriter();
+        try (JsonResultSetWriter writer = new JsonResultSetWriter(out)) {
+            assertEquals(2L, writer.writeCannedResult(resultSet(), Arrays.asList(
+                    JsonResultSetWriter.valueMapping(Collections.singletonMap("state", states)), addColumnDropLast)));
+        }
+        PropertyMap result = parser_.fromString(out.toString()).getAsMap();
+        assertEquals(5, result.getInt("result-data-columns"));
+        assertEquals(2, result.getInt("result-data-lines"));
+        assertEquals("hostname", result.getArray("schema").getMap(4).getString("data"));
+        PropertyArray data = result.getArray("data");
+        assertEquals(2, data.size());
+        assertEquals("Active", data.getArray(0).getString(1));
+        assertEquals("Missing", data.getArray(1).getString(1));
+        assertEquals("host2", data.getArray(1).getString(4));
+    }
+
+    private ConfigIO parser_;
+    private ResultSetMetaData metaData_;
+}
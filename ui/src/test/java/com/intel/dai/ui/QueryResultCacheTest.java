@@ -0,0 +1,142 @@
+package com.intel.dai.ui;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class QueryResultCacheTest {
+    @Before
+    public void setUp() {
+        Map<String, QueryResultCache.Policy> policies = new HashMap<>();
+        policies.put("query/computeinv", new QueryResultCache.Policy(1000L, "ComputeNode"));
+        policies.put("query/changets", new QueryResultCache.Policy(5000L, "ComputeNode", "Job"));
+        cache_ = new QueryResultCache(policies, 2, () -> now_);
+        params_ = new HashMap<>();
+        params_.put("StartTime", "null");
+        params_.put("EndTime", "null");
+    }
+
+    private String load() {
+        return "response" + loads_.incrementAndGet();
+    }
+
+    @Test
+    public void cachesWithinATimeBucket() {
+        now_ = 1000L;
+        assertEquals("response1", cache_.get("query/computeinv", params_, this::load));
+        now_ = 1999L;
+        assertEquals("response1", cache_.get("query/computeinv", params_, this::load));
+        now_ = 2000L;
+        assertEquals("response2", cache_.get("query/computeinv", params_, this::load));
+        assertEquals(1L, cache_.hits());
+        assertEquals(2L, cache_.misses());
+        assertEquals(1, cache_.size());
+    }
+
+    @Test
+    public void endpointsWithoutAPolicyAreNotCached() {
+        assertEquals("response1", cache_.get("query/rasevent", params_, this::load));
+        assertEquals("response2", cache_.get("query/rasevent", params_, this::load));
+        assertEquals(0, cache_.size());
+    }
+
+    @Test
+    public void parameterOrderAndEmptyValuesDoNotMatter() {
+        cache_.get("query/computeinv", params_, this::load);
+        Map<String, String> params = new HashMap<>();
+        params.put("EndTime", "null ");
+        params.put("Lctn", "");
+        params.put("StartTime", "null");
+        assertEquals("response1", cache_.get("query/computeinv", params, this::load));
+        params.put("Lctn", "x0");
+        assertEquals("response2", cache_.get("query/computeinv", params, this::load));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsed() {
+        Map<String, String> other = new HashMap<>(params_);
+        other.put("Lctn", "x0");
+        cache_.get("query/computeinv", params_, this::load);
+        cache_.get("query/changets", params_, this::load);
+        cache_.get("query/computeinv", params_, this::load);
+        cache_.get("query/computeinv", other, this::load);
+        assertEquals(2, cache_.size());
+        assertEquals("response1", cache_.get("query/computeinv", params_, this::load));
+        assertEquals("response4", cache_.get("query/changets", params_, this::load));
+    }
+
+    @Test
+    public void invalidatesTheEndpointsOfATable() {
+        cache_.get("query/computeinv", params_, this::load);
+        cache_.get("query/changets", params_, this::load);
+        cache_.invalidateTable("Job");
+        cache_.invalidateTable("RasEvent");
+        assertEquals("response1", cache_.get("query/computeinv", params_, this::load));
+        assertEquals("response3", cache_.get("query/changets", params_, this::load));
+        cache_.invalidateTable("ComputeNode");
+        assertEquals(0, cache_.size());
+        assertEquals(2, cache_.tables().size());
+    }
+
+    @Test
+    public void responseInvalidatedWhileLoadingIsNotCached() {
+        assertEquals("response1", cache_.get("query/computeinv", params_, () -> {
+            cache_.invalidateTable("ComputeNode");
+            return load();
+        }));
+        assertEquals("response2", cache_.get("query/computeinv", params_, this::load));
+    }
+
+    @Test
+    public void failedLoadsAreNotCached() {
+        try {
+            cache_.get("query/computeinv", params_, () -> { throw new IOException("Database down"); });
+            fail();
+        } catch(IOException e) { /* Expected */ }
+        assertEquals(0, cache_.size());
+        assertEquals("response1", cache_.get("query/computeinv", params_, this::load));
+    }
+
+    @Test
+    public void coalescesConcurrentRequests() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache_.get("query/computeinv", params_, () -> {
+                loading.countDown();
+                release.await();
+                return load();
+            }));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> cache_.get("query/computeinv", params_, this::load));
+            Future<String> third = executor.submit(() -> cache_.get("query/computeinv", params_, this::load));
+            while(cache_.hits() < 2L)
+                Thread.sleep(1L);
+            release.countDown();
+            assertEquals("response1", first.get(10, TimeUnit.SECONDS));
+            assertEquals("response1", second.get(10, TimeUnit.SECONDS));
+            assertEquals("response1", third.get(10, TimeUnit.SECONDS));
+            assertEquals(1, loads_.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANonPositiveTtl() {
+        new QueryResultCache.Policy(0L, "ComputeNode");
+    }
+
+    private QueryResultCache cache_;
+    private Map<String, String> params_;
+    private final AtomicInteger loads_ = new AtomicInteger();
+    private volatile long now_ = 0L;
+}
@@ -0,0 +1,66 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.volt
+
+import com.intel.logging.Logger
+import org.voltdb.client.Client
+import org.voltdb.client.ClientResponse
+import org.voltdb.client.ProcedureCallback
+import org.voltdb.client.VoltBulkLoader.BulkLoaderFailureCallBack
+import org.voltdb.client.VoltBulkLoader.VoltBulkLoader
+import spock.lang.Specification
+
+class DataLoaderSpec extends Specification {
+    def client_ = Mock(Client)
+
+    def "Test insertRow calls the table's insert procedure without bulk mode"() {
+        def underTest = new DataLoader(Mock(Logger), 0, 10)
+        underTest.client_ = client_
+
+        when: underTest.insertRow("RACK.insert", "Inserting Rack value - Lctn=R0", "R0", "M", null)
+
+        then: 1 * client_.callProcedure(_ as ProcedureCallback, "RACK.insert", "R0", "M", null)
+    }
+
+    def "Test loadTablesInBulk loads the queued rows of each table"() {
+        def underTest = new DataLoader(Mock(Logger), 2, 10)
+        underTest.client_ = client_
+        def rackLoader = Mock(VoltBulkLoader)
+        def historyLoader = Mock(VoltBulkLoader)
+        underTest.insertRow("RACK.insert", "", "R0", "M")
+        underTest.insertRow("RACK_HISTORY.insert", "", "R0", "M")
+        underTest.insertRow("RACK.insert", "", "R1", "M")
+
+        when: underTest.loadTablesInBulk()
+
+        then:
+        0 * client_.callProcedure(*_)
+        1 * client_.getNewBulkLoader("RACK", 10, _ as BulkLoaderFailureCallBack) >> rackLoader
+        1 * client_.getNewBulkLoader("RACK_HISTORY", 10, _ as BulkLoaderFailureCallBack) >> historyLoader
+        1 * rackLoader.insertRow(0, ["R0", "M"] as Object[])
+        1 * rackLoader.insertRow(1, ["R1", "M"] as Object[])
+        1 * historyLoader.insertRow(0, ["R0", "M"] as Object[])
+        1 * rackLoader.close()
+        1 * historyLoader.close()
+        underTest.mNumberOfErrors.get() == 0
+    }
+
+    def "Test loadTablesInBulk counts the rows that failed to load"() {
+        def underTest = new DataLoader(Mock(Logger), 2, 10)
+        underTest.client_ = client_
+        def rackLoader = Mock(VoltBulkLoader)
+        BulkLoaderFailureCallBack callback = null
+        client_.getNewBulkLoader("RACK", 10, _ as BulkLoaderFailureCallBack) >> { args ->
+            callback = args[2]
+            return rackLoader
+        }
+        rackLoader.drain() >> { callback.failureCallback(0, ["R0", "M"] as Object[], Mock(ClientResponse)) }
+        underTest.insertRow("RACK.insert", "", "R0", "M")
+
+        when: underTest.loadTablesInBulk()
+
+        then: underTest.mNumberOfErrors.get() == 1
+    }
+}